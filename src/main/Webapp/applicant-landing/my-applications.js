@@ -99,44 +99,22 @@
         throw new Error('User ID not found. Please login again.');
       }
 
-      // Fetch applications for this applicant
-      const resp = await fetch(`/api/applications/applicant/${applicantId}`);
+      // One call returns applications with their job, notifications and interviews
+      const resp = await fetch(`/api/applications/applicant/${applicantId}/timeline`);
       if(!resp.ok) throw new Error(`HTTP ${resp.status}`);
-      const applications = await resp.json();
+      const timeline = await resp.json();
+      const appsWithDetails = timeline.applications || [];
 
-      if(!applications || applications.length === 0){
+      if(appsWithDetails.length === 0){
         applicationsEl.innerHTML = '<div class="center">You haven\'t applied to any jobs yet. <a href="/applicant-landing/jobs-list.html" style="color:var(--accent1);text-decoration:none;font-weight:600;">Browse Jobs</a></div>';
         return;
       }
 
-      // Fetch notifications for each application (ONLY from notifications table)
-      const appsWithDetails = await Promise.all(applications.map(async app => {
-        // Fetch notifications from notifications table ONLY
-        try {
-          const notificationResp = await fetch(`/api/notifications/application/${app.id}`);
-          console.log(`Fetching notifications for app ${app.id}:`, notificationResp.status);
-          if (notificationResp.ok) {
-            app.notifications = await notificationResp.json();
-            console.log(`Got ${app.notifications.length} notifications for app ${app.id}:`, app.notifications);
-          } else {
-            console.warn(`Failed to fetch notifications for app ${app.id}: ${notificationResp.status}`);
-            app.notifications = [];
-          }
-        } catch (e) {
-          console.error(`Error fetching notifications for app ${app.id}:`, e);
-          app.notifications = [];
-        }
-
-        return app;
-      }));
-
       applicationsEl.innerHTML = appsWithDetails.map(app => {
         const job = app.job || {};
         const hasScore = app.matchScore !== null && app.matchScore !== undefined;
         const hasNotifications = app.notifications && app.notifications.length > 0;
 
-        console.log(`Rendering app ${app.id}: ${hasNotifications ? app.notifications.length : 0} notifications`);
-
         // Notifications HTML - ONLY from notifications table
         let notificationsHtml = '';
         if (hasNotifications) {
@@ -244,5 +222,17 @@
   }
 
   loadApplications();
+
+  // Live updates: reload when the server pushes a notification / status change for this user
+  if (window.EventSource) {
+    const events = new EventSource('/api/events/stream');
+    let reloadTimer = null;
+    const scheduleReload = () => {
+      clearTimeout(reloadTimer);
+      reloadTimer = setTimeout(loadApplications, 300);
+    };
+    ['notification', 'application_status', 'interview_scheduled', 'resync']
+      .forEach(type => events.addEventListener(type, scheduleReload));
+  }
 })();
 
@@ -53,6 +53,10 @@
   const currentJobId = params.get('id');
   let allApplicants = [];
   let selectedApplicants = new Set();
+  // applicants are fetched a page at a time; counts come from the server and cover the whole job
+  const PAGE_SIZE = 100;
+  let nextCursor = null;
+  let statusCounts = null;
 
   // Utility functions
   function escapeHtml(text){
@@ -128,31 +132,53 @@
     }
   }
 
-  // Load applicants
-  async function loadApplicants(){
+  // Load applicants (first page, or the next one when `more` is set)
+  async function loadApplicants(more){
     if(!currentJobId) return;
     try{
-      const resp = await fetch(`/api/applications/jobs/${currentJobId}/applicants`);
+      const q = new URLSearchParams({ limit: String(PAGE_SIZE) });
+      const status = el.statusFilter?.value || 'all';
+      if(status !== 'all') q.set('status', status);
+      if(more && nextCursor) q.set('after', nextCursor);
+      const resp = await fetch(`/api/applications/jobs/${currentJobId}/applicants?${q}`);
       if(!resp.ok) throw new Error(`HTTP ${resp.status}`);
       const data = await resp.json();
-      allApplicants = Array.isArray(data) ? data : [];
-      console.log('Loaded applicants:', allApplicants);
+      const items = Array.isArray(data.items) ? data.items : [];
+      allApplicants = more ? allApplicants.concat(items) : items;
+      nextCursor = data.nextCursor || null;
+      if(data.statusCounts) statusCounts = data.statusCounts;
       updateStats();
       renderApplicants();
     } catch(e){
       console.error('Error loading applicants:', e);
+      if(more){
+        showToast('Failed to load more applicants', 'error');
+        return;
+      }
       allApplicants = [];
+      nextCursor = null;
       updateStats();
       el.applicants.innerHTML = '<div class="center">Failed to load applicants. Please try again.</div>';
     }
   }
 
+  // Keeps the server-side counts in step with a local status change
+  function setApplicantStatus(a, status){
+    if(!a || a.status === status) return;
+    if(statusCounts){
+      statusCounts[a.status] = Math.max(0, (statusCounts[a.status] || 0) - 1);
+      statusCounts[status] = (statusCounts[status] || 0) + 1;
+    }
+    a.status = status;
+  }
+
   function updateStats(){
+    const count = s => statusCounts ? (statusCounts[s] || 0) : allApplicants.filter(a=>a.status===s).length;
     const stats = {
-      total: allApplicants.length,
-      review: allApplicants.filter(a=>a.status==='under_review').length,
-      accepted: allApplicants.filter(a=>a.status==='shortlisted').length,
-      rejected: allApplicants.filter(a=>a.status==='rejected').length
+      total: statusCounts ? Object.values(statusCounts).reduce((x, y) => x + y, 0) : allApplicants.length,
+      review: count('under_review'),
+      accepted: count('shortlisted'),
+      rejected: count('rejected')
     };
     if(el.applicantCount) el.applicantCount.textContent = String(stats.total);
     if(el.stats.total) el.stats.total.textContent = String(stats.total);
@@ -173,8 +199,10 @@
 
   function renderApplicants(){
     const list = filteredApplicants();
+    const moreBtn = nextCursor ? '<div class="center"><button class="btn" id="loadMoreBtn">Load more applicants</button></div>' : '';
     if(!list.length){
-      el.applicants.innerHTML = '<div class="center">No applicants match your filters</div>';
+      el.applicants.innerHTML = '<div class="center">No applicants match your filters</div>' + moreBtn;
+      wireLoadMore();
       return;
     }
 
@@ -208,7 +236,8 @@
           </button>
         </div>
       </div>
-    `).join('');
+    `).join('') + moreBtn;
+    wireLoadMore();
 
     // Wire actions
     el.applicants.querySelectorAll('.app-card').forEach(card => {
@@ -220,9 +249,29 @@
     });
   }
 
+  function wireLoadMore(){
+    const btn = document.getElementById('loadMoreBtn');
+    if(!btn) return;
+    btn.addEventListener('click', async ()=>{
+      btn.disabled = true;
+      btn.textContent = 'Loading…';
+      await loadApplicants(true);
+    });
+  }
+
   // View individual applicant
-  function viewApplicant(app){
-    const cvPath = app.cvPath || '';
+  async function viewApplicant(app){
+    // the listing leaves cover letters out; fetch this one on demand
+    if(app.coverLetter === undefined){
+      try{
+        const resp = await fetch(`/api/applications/${app.id}/cover-letter`);
+        app.coverLetter = resp.ok ? (await resp.json()).coverLetter : null;
+      } catch(e){
+        app.coverLetter = null;
+      }
+    }
+    // CVs are streamed by the API (auth + range requests), whatever backend stores them
+    const cvUrl = app.cvPath ? `/api/applications/${app.id}/cv` : '';
     const coverLetter = app.coverLetter || 'No cover letter provided.';
     const isDark = !body.classList.contains('theme-light');
 
@@ -298,13 +347,13 @@
           </div>
           
           <!-- CV -->
-          ${cvPath ? `
+          ${cvUrl ? `
           <div class="detail-section">
             <div class="detail-label">CV / Resume</div>
             <div style="margin-top:12px;border-radius:10px;overflow:hidden;border:1px solid ${borderColor};">
-              <embed src="/${cvPath}" type="application/pdf" width="100%" height="500px" style="display:block;" />
+              <embed src="${cvUrl}" type="application/pdf" width="100%" height="500px" style="display:block;" />
             </div>
-            <a href="/${cvPath}" target="_blank" style="margin-top:14px;display:inline-flex;align-items:center;gap:8px;padding:10px 18px;background:${isDark ? 'rgba(96,165,250,0.12)' : 'rgba(96,165,250,0.08)'};color:var(--accent1);border-radius:8px;text-decoration:none;font-weight:600;font-size:14px;border:1px solid rgba(96,165,250,0.2);transition:all 0.2s ease;" onmouseover="this.style.background='rgba(96,165,250,0.18)';this.style.borderColor='rgba(96,165,250,0.4)';" onmouseout="this.style.background='${isDark ? 'rgba(96,165,250,0.12)' : 'rgba(96,165,250,0.08)'}';this.style.borderColor='rgba(96,165,250,0.2)';">
+            <a href="${cvUrl}" target="_blank" style="margin-top:14px;display:inline-flex;align-items:center;gap:8px;padding:10px 18px;background:${isDark ? 'rgba(96,165,250,0.12)' : 'rgba(96,165,250,0.08)'};color:var(--accent1);border-radius:8px;text-decoration:none;font-weight:600;font-size:14px;border:1px solid rgba(96,165,250,0.2);transition:all 0.2s ease;" onmouseover="this.style.background='rgba(96,165,250,0.18)';this.style.borderColor='rgba(96,165,250,0.4)';" onmouseout="this.style.background='${isDark ? 'rgba(96,165,250,0.12)' : 'rgba(96,165,250,0.08)'}';this.style.borderColor='rgba(96,165,250,0.2)';">
               <svg fill="none" stroke="currentColor" viewBox="0 0 24 24" style="width:18px;height:18px;"><path stroke-linecap="round" stroke-linejoin="round" stroke-width="2" d="M10 6H6a2 2 0 00-2 2v10a2 2 0 002 2h10a2 2 0 002-2v-4M14 4h6m0 0v6m0-6L10 14"/></svg>
               Open in New Tab
             </a>
@@ -348,17 +397,32 @@
   }
 
   // Actions
+  // Someone else changed the application first (or the move isn't allowed from its status): show its real state
+  function statusConflict(app, body){
+    if(app && body){
+      if(body.applicationStatus) setApplicantStatus(app, body.applicationStatus);
+      if(body.version != null) app.version = body.version;
+      updateStats();
+      renderApplicants();
+    }
+    showToast((body && body.reason) || 'Application was changed by someone else', 'error');
+  }
+
   async function acceptApplicant(appId){
     try{
-      const resp = await fetch(`/api/applications/applications/${appId}/accept`, {
+      const app = allApplicants.find(x => x.id === appId);
+      const version = app && app.version != null ? `?version=${app.version}` : '';
+      const resp = await fetch(`/api/applications/applications/${appId}/accept${version}`, {
         method:'POST',
         headers:{'Content-Type':'application/json'}
       });
 
+      if(resp.status === 409) return statusConflict(app, await resp.json());
       if(!resp.ok) throw new Error(`HTTP ${resp.status}`);
 
-      const a = allApplicants.find(x => x.id === appId);
-      if(a) a.status = 'shortlisted';
+      const result = await resp.json();
+      if(app) app.version = result.version;
+      setApplicantStatus(app, 'shortlisted');
 
       updateStats();
       renderApplicants();
@@ -374,15 +438,19 @@
     if(!confirm('Are you sure you want to reject this applicant? A rejection notification will be sent.')) return;
 
     try{
-      const resp = await fetch(`/api/applications/applications/${appId}/reject`, {
+      const app = allApplicants.find(x => x.id === appId);
+      const version = app && app.version != null ? `?version=${app.version}` : '';
+      const resp = await fetch(`/api/applications/applications/${appId}/reject${version}`, {
         method:'POST',
         headers:{'Content-Type':'application/json'}
       });
 
+      if(resp.status === 409) return statusConflict(app, await resp.json());
       if(!resp.ok) throw new Error(`HTTP ${resp.status}`);
 
-      const a = allApplicants.find(x => x.id === appId);
-      if(a) a.status = 'rejected';
+      const result = await resp.json();
+      if(app) app.version = result.version;
+      setApplicantStatus(app, 'rejected');
 
       updateStats();
       renderApplicants();
@@ -423,7 +491,7 @@
 
   // Search and filter
   if(el.searchBox) el.searchBox.addEventListener('input', renderApplicants);
-  if(el.statusFilter) el.statusFilter.addEventListener('change', renderApplicants);
+  if(el.statusFilter) el.statusFilter.addEventListener('change', ()=> loadApplicants(false));
 
   // Toast notification
   function showToast(msg, type){
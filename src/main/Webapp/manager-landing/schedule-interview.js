@@ -191,7 +191,7 @@
           </div>
           <div style="text-align:right;">
             <span class="badge ${statusBadge}">${statusText}</span>
-            ${ap.hasInterview ? '<div class="muted" style="margin-top:6px;font-size:12px;">✓ Interview Scheduled</div>' : ''}
+            ${ap.hasInterview ? `<div class="muted" style="margin-top:6px;font-size:12px;">✓ Interview Scheduled${ap.nextInterviewAt ? ' · ' + escapeHtml(new Date(ap.nextInterviewAt).toLocaleString()) : ''}</div>` : ''}
           </div>
         </div>
       `;
@@ -260,6 +260,7 @@
 
     const payload = {
       application_id: state.applicant.applicationId,
+      version: state.applicant.version,
       job_id: state.job.id,
       scheduled_start: isoLocal,
       duration_minutes: dur,
@@ -293,6 +294,12 @@
           state.job = null;
           show(jobsSection);
         }, 2000);
+      } else if (resp.status === 409 && Array.isArray(data.suggestions)) {
+        // slot overlaps another interview; offer the next free slots of the same length
+        const fmt = (iso) => new Date(iso).toLocaleString([], { weekday: 'short', month: 'short', day: 'numeric', hour: '2-digit', minute: '2-digit' });
+        const next = data.suggestions.map(s => fmt(s.start)).join(', ');
+        showMsg((data.reason || 'That time slot is already booked') +
+          (next ? '. Free slots: ' + next : '. No free slots in the next 7 days.'), 'error', false);
       } else {
         showMsg(data.reason || 'Failed to schedule interview', 'error');
       }
@@ -0,0 +1,12 @@
+package com.example.ats.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/** One of an applicant's own applications, with the job columns the "my applications" page shows. */
+public record ApplicantApplication(Long id, String applicationRef, Long jobId, String status, Instant submittedAt,
+                                   String coverLetter, String cvPath, BigDecimal matchScore, JobInfo job) {
+
+    /** Null when the job no longer exists. {@code employmentType} is the enum name, e.g. FULL_TIME. */
+    public record JobInfo(String title, String department, String location, String employmentType) {}
+}
@@ -0,0 +1,10 @@
+package com.example.ats.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+/**
+ * Body of a bulk application status change: the applications, the target status (db value) and, for
+ * rejections, whether to queue the rejection email ({@code notify}, default true).
+ */
+public record BulkStatusRequest(List<Long> applicationIds, String status, @JsonProperty("notify") Boolean sendNotification) {}
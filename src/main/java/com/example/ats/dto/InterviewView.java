@@ -0,0 +1,7 @@
+package com.example.ats.dto;
+
+import java.time.OffsetDateTime;
+
+/** An interview as shown to the applicant. {@code status} is the lower-case enum name. */
+public record InterviewView(Long id, OffsetDateTime scheduledStart, OffsetDateTime scheduledEnd, String location,
+                            String status, String notes) {}
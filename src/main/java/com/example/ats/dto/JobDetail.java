@@ -0,0 +1,19 @@
+package com.example.ats.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Single-job view used by the apply, edit and details pages. {@code jobDescriptions} is omitted when the
+ * job has none, as before.
+ */
+public record JobDetail(Long id, String title, String department, String location, String employmentType,
+                        BigDecimal salaryMin, BigDecimal salaryMax, OffsetDateTime applicationDeadline, String status,
+                        String formLink, String descriptionSummary, Long managedByManagerId,
+                        @JsonInclude(JsonInclude.Include.NON_EMPTY) List<Section> jobDescriptions) {
+
+    /** One weighted JD section. */
+    public record Section(String title, String description, Double weightage) {}
+}
@@ -0,0 +1,47 @@
+package com.example.ats.dto;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * List-view projection of a job (no job descriptions). Field names match the JSON the
+ * job list pages already consume.
+ */
+public class JobSummary {
+    private Long id;
+    private String title;
+    private String department;
+    private String location;
+    private String employmentType;   // enum name, e.g. FULL_TIME
+    private BigDecimal salaryMin;
+    private BigDecimal salaryMax;
+    private OffsetDateTime applicationDeadline;
+    private String status;           // lower-case db value, e.g. published
+    private String formLink;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String descriptionSummary; // only selected by views that show it
+
+    public JobSummary() {}
+
+    public JobSummary(Long id, String title, String department, String location, String employmentType,
+                      BigDecimal salaryMin, BigDecimal salaryMax, OffsetDateTime applicationDeadline,
+                      String status, String formLink, String descriptionSummary){
+        this.id = id; this.title = title; this.department = department; this.location = location;
+        this.employmentType = employmentType; this.salaryMin = salaryMin; this.salaryMax = salaryMax;
+        this.applicationDeadline = applicationDeadline; this.status = status; this.formLink = formLink;
+        this.descriptionSummary = descriptionSummary;
+    }
+
+    public Long getId(){ return id; }
+    public String getTitle(){ return title; }
+    public String getDepartment(){ return department; }
+    public String getLocation(){ return location; }
+    public String getEmploymentType(){ return employmentType; }
+    public BigDecimal getSalaryMin(){ return salaryMin; }
+    public BigDecimal getSalaryMax(){ return salaryMax; }
+    public OffsetDateTime getApplicationDeadline(){ return applicationDeadline; }
+    public String getStatus(){ return status; }
+    public String getFormLink(){ return formLink; }
+    public String getDescriptionSummary(){ return descriptionSummary; }
+}
@@ -0,0 +1,21 @@
+package com.example.ats.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is null on the last page;
+ * {@code total} is only filled in when the caller asked for a count.
+ */
+public class KeysetPage<T> {
+    private final List<T> items;
+    private final String nextCursor;
+    private final Long total;
+
+    public KeysetPage(List<T> items, String nextCursor, Long total){
+        this.items = items; this.nextCursor = nextCursor; this.total = total;
+    }
+
+    public List<T> getItems(){ return items; }
+    public String getNextCursor(){ return nextCursor; }
+    public Long getTotal(){ return total; }
+}
@@ -0,0 +1,4 @@
+package com.example.ats.dto;
+
+/** Hiring manager option for job assignment dropdowns. */
+public record ManagerView(Long id, String name) {}
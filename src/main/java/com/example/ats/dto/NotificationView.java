@@ -0,0 +1,11 @@
+package com.example.ats.dto;
+
+import java.time.Instant;
+
+/**
+ * One notification as shown on the applicant and HR pages. {@code sentAt} falls back to the creation time
+ * for messages still in the outbox.
+ */
+public record NotificationView(Long id, Long applicationId, String notificationType, String toEmail,
+                               String subject, String body, Instant sentAt, Long createdByUserId,
+                               String deliveryStatus) {}
@@ -0,0 +1,12 @@
+package com.example.ats.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Applicant row on the interview scheduling page, with whether (and when next) they are interviewed, and the
+ * application version to send back when scheduling.
+ */
+public record ShortlistedApplicant(Long applicationId, Long applicantUserId, String name, String email, String phone,
+                                   String status, Instant submittedAt, BigDecimal matchScore, String cvPath,
+                                   String applicationRef, boolean hasInterview, Instant nextInterviewAt, long version) {}
@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "applications")
+@Table(name = "applications", indexes = {
+        // per-job applicant listing, newest first, keyset-paged on (submitted_at, id)
+        @Index(name = "idx_applications_job_submitted", columnList = "job_id, submitted_at DESC, id DESC")
+})
 public class Application {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -31,6 +34,9 @@ public class Application {
     @Column(name = "cv_path")
     private String cvPath;
 
+    @Column(name = "cv_sha256", length = 64)
+    private String cvSha256;
+
     @Column(name = "cover_letter", columnDefinition = "TEXT")
     private String coverLetter;
 
@@ -50,6 +56,14 @@ public class Application {
     @Column(name = "last_screened_at")
     private OffsetDateTime lastScreenedAt;
 
+    @Column(name = "screened_terms")
+    private Integer screenedTerms;   // terms in the text the last screening saw
+
+    /** Bumped by every status change; guarded status updates compare it (see ApplicationStatus). */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint NOT NULL DEFAULT 0")
+    private long version;
+
     @Column(name = "updated_at")
     private OffsetDateTime updatedAt;
 
@@ -121,6 +135,14 @@ public class Application {
         this.cvPath = cvPath;
     }
 
+    public String getCvSha256() {
+        return cvSha256;
+    }
+
+    public void setCvSha256(String cvSha256) {
+        this.cvSha256 = cvSha256;
+    }
+
     public String getCoverLetter() {
         return coverLetter;
     }
@@ -176,5 +198,16 @@ public class Application {
     public void setUpdatedAt(OffsetDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
-}
 
+    public Integer getScreenedTerms() {
+        return screenedTerms;
+    }
+
+    public void setScreenedTerms(Integer screenedTerms) {
+        this.screenedTerms = screenedTerms;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.ats.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Normalised BM25 contribution (0..1, before weighting) of one JD section to one application's match score.
+ * Sections are identified by a hash of their title and text, so an edited section is a new row set while
+ * untouched sections keep their scores across job updates.
+ */
+@Entity
+@Table(name = "application_section_scores", indexes = {
+        // stored section hashes per job, and per-job read-back when recombining
+        @Index(name = "idx_section_scores_job_hash", columnList = "job_id, section_hash")
+})
+public class ApplicationSectionScore {
+
+    @EmbeddedId
+    private Key key;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(name = "score", nullable = false)
+    private Double score;
+
+    public ApplicationSectionScore() {}
+
+    public Key getKey() { return key; }
+    public void setKey(Key key) { this.key = key; }
+    public Long getJobId() { return jobId; }
+    public void setJobId(Long jobId) { this.jobId = jobId; }
+    public Double getScore() { return score; }
+    public void setScore(Double score) { this.score = score; }
+
+    @Embeddable
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        @Column(name = "application_id", nullable = false)
+        private Long applicationId;
+
+        @Column(name = "section_hash", length = 64, nullable = false)
+        private String sectionHash;
+
+        public Key() {}
+        public Key(Long applicationId, String sectionHash) {
+            this.applicationId = applicationId; this.sectionHash = sectionHash;
+        }
+
+        public Long getApplicationId() { return applicationId; }
+        public String getSectionHash() { return sectionHash; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return Objects.equals(applicationId, k.applicationId) && Objects.equals(sectionHash, k.sectionHash);
+        }
+
+        @Override
+        public int hashCode() { return Objects.hash(applicationId, sectionHash); }
+    }
+}
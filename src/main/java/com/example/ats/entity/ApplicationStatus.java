@@ -1,5 +1,15 @@
 package com.example.ats.entity;
 
+import java.util.*;
+
+/**
+ * Application pipeline states and the transitions allowed between them:
+ * submitted -> under_review | shortlisted | rejected,
+ * under_review -> shortlisted | interview_invite | rejected,
+ * shortlisted -> interview_invite | rejected,
+ * interview_invite -> interview_invite (another round) | offered | rejected,
+ * offered -> hired | rejected. Hired and rejected are final.
+ */
 public enum ApplicationStatus {
     SUBMITTED("submitted"),
     UNDER_REVIEW("under_review"),
@@ -15,6 +25,28 @@ public enum ApplicationStatus {
         this.dbValue = dbValue;
     }
 
+    private static final Map<ApplicationStatus, Set<ApplicationStatus>> NEXT = new EnumMap<>(ApplicationStatus.class);
+    static {
+        NEXT.put(SUBMITTED, EnumSet.of(UNDER_REVIEW, SHORTLISTED, REJECTED));
+        NEXT.put(UNDER_REVIEW, EnumSet.of(SHORTLISTED, INTERVIEW_INVITE, REJECTED));
+        NEXT.put(SHORTLISTED, EnumSet.of(INTERVIEW_INVITE, REJECTED));
+        NEXT.put(INTERVIEW_INVITE, EnumSet.of(INTERVIEW_INVITE, OFFERED, REJECTED));
+        NEXT.put(OFFERED, EnumSet.of(HIRED, REJECTED));
+        NEXT.put(HIRED, EnumSet.noneOf(ApplicationStatus.class));
+        NEXT.put(REJECTED, EnumSet.noneOf(ApplicationStatus.class));
+    }
+
+    public boolean canTransitionTo(ApplicationStatus target) {
+        return NEXT.get(this).contains(target);
+    }
+
+    /** Db values of every status allowed to move to {@code target}, for {@code status = ANY(...)} guards. */
+    public static String[] sourcesOf(ApplicationStatus target) {
+        List<String> out = new ArrayList<>();
+        for (ApplicationStatus s : values()) if (s.canTransitionTo(target)) out.add(s.dbValue);
+        return out.toArray(new String[0]);
+    }
+
     public String getDbValue() {
         return dbValue;
     }
@@ -0,0 +1,57 @@
+package com.example.ats.entity;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+
+/**
+ * Normalised plain text extracted from a stored CV, keyed by the CV's content hash
+ * (applications.cv_sha256), so identical uploads are parsed once.
+ */
+@Entity
+@Table(name = "cv_texts")
+public class CvText {
+
+    @Id
+    @Column(name = "sha256", length = 64)
+    private String sha256;
+
+    @Column(name = "text", columnDefinition = "TEXT")
+    private String text;
+
+    @Column(name = "status", length = 16, nullable = false)
+    private String status;   // ok, empty, failed, timeout, too_large, unsupported
+
+    @Column(name = "pages")
+    private Integer pages;
+
+    @Column(name = "chars")
+    private Integer chars;
+
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    @Column(name = "extract_millis")
+    private Long extractMillis;
+
+    @Column(name = "extracted_at")
+    private OffsetDateTime extractedAt;
+
+    public CvText() {}
+
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public Integer getPages() { return pages; }
+    public void setPages(Integer pages) { this.pages = pages; }
+    public Integer getChars() { return chars; }
+    public void setChars(Integer chars) { this.chars = chars; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+    public Long getExtractMillis() { return extractMillis; }
+    public void setExtractMillis(Long extractMillis) { this.extractMillis = extractMillis; }
+    public OffsetDateTime getExtractedAt() { return extractedAt; }
+    public void setExtractedAt(OffsetDateTime extractedAt) { this.extractedAt = extractedAt; }
+}
@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "interviews")
+@Table(name = "interviews", indexes = {
+        // per-job interview aggregates (shortlisted applicants view)
+        @Index(name = "idx_interviews_job_application", columnList = "job_id, application_id")
+})
 public class Interview {
 
     @Id
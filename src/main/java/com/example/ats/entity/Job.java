@@ -4,7 +4,12 @@ import jakarta.persistence.*;
 import java.util.*;
 
 @Entity
-@Table(name = "jobs")
+@Table(name = "jobs", indexes = {
+        // manager list views filter by manager + status and page by id (keyset)
+        @Index(name = "idx_jobs_manager_status", columnList = "managed_by_manager_id, status, id"),
+        // HR job list filters by status and pages by id
+        @Index(name = "idx_jobs_status", columnList = "status, id")
+})
 public class Job {
     @Id
     private Long id;
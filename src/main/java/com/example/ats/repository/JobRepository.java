@@ -1,56 +1,67 @@
 package com.example.ats.repository;
 
+import com.example.ats.dto.JobSummary;
 import com.example.ats.entity.*;
 import jakarta.persistence.*;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
 import java.util.*;
 
 public class JobRepository {
+    /** Shared by every JobRepository in the JVM, so blocks aren't wasted per instance. */
+    private static final SequenceIdAllocator JOB_IDS = new SequenceIdAllocator("jobs_id_seq", "jobs", 50);
+
     private final EntityManagerFactory emf;
 
     public JobRepository(EntityManagerFactory emf){
         this.emf = emf;
     }
 
+    /**
+     * Inserts the job and all of its sections with one statement: the jobs INSERT runs as a CTE and the
+     * sections go in as a single multi-row INSERT over unnest'ed arrays, so a save costs one round-trip
+     * (plus commit) however many sections it has.
+     */
     public Job save(Job job){
         try (EntityManager em = emf.createEntityManager()) {
             EntityTransaction tx = em.getTransaction();
             try {
                 tx.begin();
-
-                // Native insert into jobs with explicit enum casts to avoid JDBC varchar->enum issues
-                String insertJob = "INSERT INTO jobs (id, title, department, location, employment_type, salary_min, salary_max, application_deadline, status, form_link, description_summary, managed_by_manager_id, created_at, updated_at) VALUES (?, ?, ?, ?, CAST(? AS employment_type), ?, ?, ?, CAST(? AS job_status), ?, ?, ?, ?, ?)";
-                Query q = em.createNativeQuery(insertJob);
-                int idx = 1;
-                q.setParameter(idx++, job.getId());
-                q.setParameter(idx++, job.getTitle());
-                q.setParameter(idx++, job.getDepartment());
-                q.setParameter(idx++, job.getLocation());
-                q.setParameter(idx++, job.getEmploymentType() == null ? null : job.getEmploymentType().getDbValue());
-                q.setParameter(idx++, job.getSalaryMin());
-                q.setParameter(idx++, job.getSalaryMax());
-                q.setParameter(idx++, job.getApplicationDeadline() == null ? null : java.sql.Timestamp.from(job.getApplicationDeadline().toInstant()));
-                q.setParameter(idx++, job.getStatus() == null ? null : job.getStatus().getDbValue());
-                q.setParameter(idx++, job.getFormLink());
-                q.setParameter(idx++, job.getDescriptionSummary());
-                q.setParameter(idx++, job.getManagedByManagerId());
-                q.setParameter(idx++, job.getCreatedAt() == null ? java.sql.Timestamp.from(java.time.OffsetDateTime.now().toInstant()) : java.sql.Timestamp.from(job.getCreatedAt().toInstant()));
-                q.setParameter(idx++, job.getUpdatedAt() == null ? java.sql.Timestamp.from(java.time.OffsetDateTime.now().toInstant()) : java.sql.Timestamp.from(job.getUpdatedAt().toInstant()));
-                q.executeUpdate();
-
-                // Insert job_descriptions
-                if (job.getJds() != null) {
-                    for (JobDescription jd : job.getJds()){
-                        if (jd.getJob() == null) jd.setJob(job);
-                        String ins = "INSERT INTO job_descriptions (job_id, section_title, description, weightage, created_at) VALUES (?, ?, ?, ?, ?)";
-                        Query qj = em.createNativeQuery(ins);
-                        qj.setParameter(1, job.getId());
-                        qj.setParameter(2, jd.getTitle());
-                        qj.setParameter(3, jd.getDescription());
-                        qj.setParameter(4, jd.getWeight());
-                        qj.setParameter(5, java.sql.Timestamp.from(java.time.OffsetDateTime.now().toInstant()));
-                        qj.executeUpdate();
+                java.sql.Timestamp now = java.sql.Timestamp.from(java.time.Instant.now());
+                em.unwrap(org.hibernate.Session.class).doWork(c -> {
+                    // Native insert into jobs with explicit enum casts to avoid JDBC varchar->enum issues
+                    String sql = "WITH j AS (INSERT INTO jobs (id, title, department, location, employment_type, salary_min, salary_max, application_deadline, status, form_link, description_summary, managed_by_manager_id, created_at, updated_at) " +
+                            "VALUES (?, ?, ?, ?, CAST(? AS employment_type), ?, ?, ?, CAST(? AS job_status), ?, ?, ?, ?, ?)) " +
+                            "INSERT INTO job_descriptions (job_id, section_title, description, weightage, created_at) " +
+                            "SELECT ?, u.title, u.description, u.weight, ? " +
+                            "FROM unnest(CAST(? AS text[]), CAST(? AS text[]), CAST(? AS float8[])) WITH ORDINALITY AS u(title, description, weight, n) ORDER BY u.n";
+                    Sections add = Sections.of(job.getJds());
+                    try (PreparedStatement ps = c.prepareStatement(sql)){
+                        int idx = 1;
+                        ps.setObject(idx++, job.getId());
+                        ps.setString(idx++, job.getTitle());
+                        ps.setString(idx++, job.getDepartment());
+                        ps.setString(idx++, job.getLocation());
+                        ps.setString(idx++, job.getEmploymentType() == null ? null : job.getEmploymentType().getDbValue());
+                        ps.setBigDecimal(idx++, job.getSalaryMin());
+                        ps.setBigDecimal(idx++, job.getSalaryMax());
+                        ps.setTimestamp(idx++, job.getApplicationDeadline() == null ? null : java.sql.Timestamp.from(job.getApplicationDeadline().toInstant()));
+                        ps.setString(idx++, job.getStatus() == null ? null : job.getStatus().getDbValue());
+                        ps.setString(idx++, job.getFormLink());
+                        ps.setString(idx++, job.getDescriptionSummary());
+                        ps.setObject(idx++, job.getManagedByManagerId(), Types.BIGINT);
+                        ps.setTimestamp(idx++, job.getCreatedAt() == null ? now : java.sql.Timestamp.from(job.getCreatedAt().toInstant()));
+                        ps.setTimestamp(idx++, job.getUpdatedAt() == null ? now : java.sql.Timestamp.from(job.getUpdatedAt().toInstant()));
+                        ps.setObject(idx++, job.getId());
+                        ps.setTimestamp(idx++, now);
+                        idx = add.bind(c, ps, idx);
+                        ps.executeUpdate();
                     }
-                }
+                });
+                if (job.getJds() != null) for (JobDescription jd : job.getJds()) if (jd.getJob() == null) jd.setJob(job);
 
                 tx.commit();
                 return job;
@@ -61,72 +72,161 @@ public class JobRepository {
         }
     }
 
-    // Attempt to retrieve next id from a DB sequence 'jobs_id_seq'. If sequence not found, fallback to max(id)+1.
-    public Long nextId(){
-        try (EntityManager em = emf.createEntityManager()){
+    /**
+     * Inserts many jobs and their sections in one transaction: two prepared statements (jobs, sections),
+     * each sent as a single JDBC batch. Jobs must already have ids. Either all of them are written or none:
+     * the import retries a failed chunk row by row, and rows a partly committed chunk left behind would fail that retry.
+     */
+    public List<Job> saveAll(List<Job> jobs){
+        if (jobs.isEmpty()) return jobs;
+        try (EntityManager em = emf.createEntityManager()) {
+            EntityTransaction tx = em.getTransaction();
             try {
-                // try sequence first (Postgres)
-                Object o = em.createNativeQuery("SELECT nextval('jobs_id_seq')").getSingleResult();
-                if (o instanceof Number) return ((Number)o).longValue();
-                return Long.valueOf(o.toString());
-            } catch (PersistenceException pe){
-                // sequence not found or error: fallback to max(id)+1
-                Number max = (Number) em.createQuery("SELECT COALESCE(MAX(j.id), 0) FROM Job j").getSingleResult();
-                return (max == null ? 1L : max.longValue() + 1L);
+                tx.begin();
+                java.sql.Timestamp now = java.sql.Timestamp.from(java.time.Instant.now());
+                em.unwrap(org.hibernate.Session.class).doWork(c -> {
+                    // hibernate.connection.provider_disables_autocommit trusts the pool to hand out connections
+                    // with autocommit off; with it on, each batched statement would commit on its own
+                    if (c.getAutoCommit()) throw new IllegalStateException("saveAll needs a transaction, but the connection is in autocommit mode");
+                    try (PreparedStatement pj = c.prepareStatement(
+                                 "INSERT INTO jobs (id, title, department, location, employment_type, salary_min, salary_max, application_deadline, status, form_link, description_summary, managed_by_manager_id, created_at, updated_at) " +
+                                 "VALUES (?, ?, ?, ?, CAST(? AS employment_type), ?, ?, ?, CAST(? AS job_status), ?, ?, ?, ?, ?)");
+                         PreparedStatement pd = c.prepareStatement(
+                                 "INSERT INTO job_descriptions (job_id, section_title, description, weightage, created_at) VALUES (?, ?, ?, ?, ?)")){
+                        int sections = 0;
+                        for (Job job : jobs){
+                            int idx = 1;
+                            pj.setLong(idx++, job.getId());
+                            pj.setString(idx++, job.getTitle());
+                            pj.setString(idx++, job.getDepartment());
+                            pj.setString(idx++, job.getLocation());
+                            pj.setString(idx++, job.getEmploymentType() == null ? null : job.getEmploymentType().getDbValue());
+                            pj.setBigDecimal(idx++, job.getSalaryMin());
+                            pj.setBigDecimal(idx++, job.getSalaryMax());
+                            pj.setTimestamp(idx++, job.getApplicationDeadline() == null ? null : java.sql.Timestamp.from(job.getApplicationDeadline().toInstant()));
+                            pj.setString(idx++, job.getStatus() == null ? null : job.getStatus().getDbValue());
+                            pj.setString(idx++, job.getFormLink());
+                            pj.setString(idx++, job.getDescriptionSummary());
+                            pj.setObject(idx++, job.getManagedByManagerId(), Types.BIGINT);
+                            pj.setTimestamp(idx++, job.getCreatedAt() == null ? now : java.sql.Timestamp.from(job.getCreatedAt().toInstant()));
+                            pj.setTimestamp(idx++, job.getUpdatedAt() == null ? now : java.sql.Timestamp.from(job.getUpdatedAt().toInstant()));
+                            pj.addBatch();
+                            if (job.getJds() == null) continue;
+                            for (JobDescription jd : job.getJds()){
+                                if (jd.getJob() == null) jd.setJob(job);
+                                pd.setLong(1, job.getId());
+                                pd.setString(2, jd.getTitle());
+                                pd.setString(3, jd.getDescription());
+                                pd.setObject(4, jd.getWeight(), Types.DOUBLE);
+                                pd.setTimestamp(5, now);
+                                pd.addBatch();
+                                sections++;
+                            }
+                        }
+                        pj.executeBatch();
+                        if (sections > 0) pd.executeBatch();
+                    }
+                });
+                tx.commit();
+                return jobs;
+            } catch(Exception e){
+                if(tx.isActive()) tx.rollback();
+                throw e;
             }
         }
     }
 
+    /** Next job id from jobs_id_seq, served from a per-node block (see {@link SequenceIdAllocator}). */
+    public Long nextId(){
+        return JOB_IDS.next(emf);
+    }
+
     public Optional<Job> findById(Long id){
         try (EntityManager em = emf.createEntityManager()) {
             return Optional.ofNullable(em.find(Job.class, id));
         }
     }
 
+    /**
+     * Updates the job row and diffs its sections against what is stored, position by position (sections
+     * are ordered by id): equal sections are left alone, changed ones are updated in place, extra ones are
+     * appended and missing ones deleted. One round-trip reads the current sections under a lock on the job
+     * row; a second applies the job UPDATE and every section change as a single statement.
+     */
     public Job update(Job job){
         try (EntityManager em = emf.createEntityManager()) {
             EntityTransaction tx = em.getTransaction();
             try {
                 tx.begin();
+                java.sql.Timestamp now = java.sql.Timestamp.from(java.time.Instant.now());
+                em.unwrap(org.hibernate.Session.class).doWork(c -> {
+                    List<Object[]> stored = new ArrayList<>();
+                    try (PreparedStatement ps = c.prepareStatement(
+                            "SELECT d.id, d.section_title, d.description, d.weightage FROM jobs j " +
+                            "LEFT JOIN job_descriptions d ON d.job_id = j.id WHERE j.id = ? ORDER BY d.id FOR UPDATE OF j")){
+                        ps.setLong(1, job.getId());
+                        try (ResultSet rs = ps.executeQuery()){
+                            while (rs.next()){
+                                if (rs.getObject(1) == null) continue;
+                                stored.add(new Object[]{rs.getLong(1), rs.getString(2), rs.getString(3), rs.getObject(4, Double.class)});
+                            }
+                        }
+                    }
+
+                    List<JobDescription> wanted = job.getJds() == null ? List.of() : job.getJds();
+                    List<Long> changedIds = new ArrayList<>();
+                    List<JobDescription> changed = new ArrayList<>();
+                    List<Long> removed = new ArrayList<>();
+                    for (int i = 0; i < stored.size(); i++){
+                        Object[] old = stored.get(i);
+                        if (i >= wanted.size()){
+                            removed.add((Long) old[0]);
+                            continue;
+                        }
+                        JobDescription jd = wanted.get(i);
+                        if (!Objects.equals(old[1], jd.getTitle()) || !Objects.equals(old[2], jd.getDescription()) || !Objects.equals(old[3], jd.getWeight())){
+                            changedIds.add((Long) old[0]);
+                            changed.add(jd);
+                        }
+                    }
+                    Sections add = Sections.of(wanted.size() > stored.size() ? wanted.subList(stored.size(), wanted.size()) : List.of());
+                    Sections upd = Sections.of(changed);
 
-                // Delete existing job descriptions for this job
-                String deleteJDs = "DELETE FROM job_descriptions WHERE job_id = ?";
-                Query qDel = em.createNativeQuery(deleteJDs);
-                qDel.setParameter(1, job.getId());
-                qDel.executeUpdate();
-
-                // Update job with explicit enum casts
-                String updateJob = "UPDATE jobs SET title = ?, department = ?, location = ?, employment_type = CAST(? AS employment_type), salary_min = ?, salary_max = ?, application_deadline = ?, status = CAST(? AS job_status), description_summary = ?, managed_by_manager_id = ?, updated_at = ? WHERE id = ?";
-                Query q = em.createNativeQuery(updateJob);
-                int idx = 1;
-                q.setParameter(idx++, job.getTitle());
-                q.setParameter(idx++, job.getDepartment());
-                q.setParameter(idx++, job.getLocation());
-                q.setParameter(idx++, job.getEmploymentType() == null ? null : job.getEmploymentType().getDbValue());
-                q.setParameter(idx++, job.getSalaryMin());
-                q.setParameter(idx++, job.getSalaryMax());
-                q.setParameter(idx++, job.getApplicationDeadline() == null ? null : java.sql.Timestamp.from(job.getApplicationDeadline().toInstant()));
-                q.setParameter(idx++, job.getStatus() == null ? null : job.getStatus().getDbValue());
-                q.setParameter(idx++, job.getDescriptionSummary());
-                q.setParameter(idx++, job.getManagedByManagerId());
-                q.setParameter(idx++, java.sql.Timestamp.from(java.time.OffsetDateTime.now().toInstant()));
-                q.setParameter(idx++, job.getId());
-                q.executeUpdate();
-
-                // Insert new job descriptions
-                if (job.getJds() != null) {
-                    for (JobDescription jd : job.getJds()){
-                        if (jd.getJob() == null) jd.setJob(job);
-                        String ins = "INSERT INTO job_descriptions (job_id, section_title, description, weightage, created_at) VALUES (?, ?, ?, ?, ?)";
-                        Query qj = em.createNativeQuery(ins);
-                        qj.setParameter(1, job.getId());
-                        qj.setParameter(2, jd.getTitle());
-                        qj.setParameter(3, jd.getDescription());
-                        qj.setParameter(4, jd.getWeight());
-                        qj.setParameter(5, java.sql.Timestamp.from(java.time.OffsetDateTime.now().toInstant()));
-                        qj.executeUpdate();
+                    // Update job with explicit enum casts; section statements run as CTEs of the same statement
+                    String sql = "WITH j AS (UPDATE jobs SET title = ?, department = ?, location = ?, employment_type = CAST(? AS employment_type), salary_min = ?, salary_max = ?, application_deadline = ?, status = CAST(? AS job_status), description_summary = ?, managed_by_manager_id = ?, updated_at = ? WHERE id = ?), " +
+                            "upd AS (UPDATE job_descriptions d SET section_title = u.title, description = u.description, weightage = u.weight " +
+                            "FROM unnest(CAST(? AS bigint[]), CAST(? AS text[]), CAST(? AS text[]), CAST(? AS float8[])) AS u(id, title, description, weight) " +
+                            "WHERE d.id = u.id AND d.job_id = ?), " +
+                            "del AS (DELETE FROM job_descriptions WHERE job_id = ? AND id = ANY(CAST(? AS bigint[]))) " +
+                            "INSERT INTO job_descriptions (job_id, section_title, description, weightage, created_at) " +
+                            "SELECT ?, u.title, u.description, u.weight, ? " +
+                            "FROM unnest(CAST(? AS text[]), CAST(? AS text[]), CAST(? AS float8[])) WITH ORDINALITY AS u(title, description, weight, n) ORDER BY u.n";
+                    try (PreparedStatement ps = c.prepareStatement(sql)){
+                        int idx = 1;
+                        ps.setString(idx++, job.getTitle());
+                        ps.setString(idx++, job.getDepartment());
+                        ps.setString(idx++, job.getLocation());
+                        ps.setString(idx++, job.getEmploymentType() == null ? null : job.getEmploymentType().getDbValue());
+                        ps.setBigDecimal(idx++, job.getSalaryMin());
+                        ps.setBigDecimal(idx++, job.getSalaryMax());
+                        ps.setTimestamp(idx++, job.getApplicationDeadline() == null ? null : java.sql.Timestamp.from(job.getApplicationDeadline().toInstant()));
+                        ps.setString(idx++, job.getStatus() == null ? null : job.getStatus().getDbValue());
+                        ps.setString(idx++, job.getDescriptionSummary());
+                        ps.setObject(idx++, job.getManagedByManagerId(), Types.BIGINT);
+                        ps.setTimestamp(idx++, now);
+                        ps.setLong(idx++, job.getId());
+                        ps.setArray(idx++, c.createArrayOf("bigint", changedIds.toArray(new Long[0])));
+                        idx = upd.bind(c, ps, idx);
+                        ps.setLong(idx++, job.getId());
+                        ps.setLong(idx++, job.getId());
+                        ps.setArray(idx++, c.createArrayOf("bigint", removed.toArray(new Long[0])));
+                        ps.setLong(idx++, job.getId());
+                        ps.setTimestamp(idx++, now);
+                        idx = add.bind(c, ps, idx);
+                        ps.executeUpdate();
                     }
-                }
+                });
+                if (job.getJds() != null) for (JobDescription jd : job.getJds()) if (jd.getJob() == null) jd.setJob(job);
 
                 tx.commit();
                 return job;
@@ -137,9 +237,140 @@ public class JobRepository {
         }
     }
 
+    /** Column arrays of a list of sections, bound as text[], text[], float8[] for unnest. */
+    private record Sections(String[] titles, String[] descriptions, Double[] weights){
+        static Sections of(List<JobDescription> jds){
+            int n = jds == null ? 0 : jds.size();
+            Sections s = new Sections(new String[n], new String[n], new Double[n]);
+            for (int i = 0; i < n; i++){
+                JobDescription jd = jds.get(i);
+                s.titles[i] = jd.getTitle();
+                s.descriptions[i] = jd.getDescription();
+                s.weights[i] = jd.getWeight();
+            }
+            return s;
+        }
+
+        int bind(Connection c, PreparedStatement ps, int idx) throws SQLException {
+            ps.setArray(idx++, c.createArrayOf("text", titles));
+            ps.setArray(idx++, c.createArrayOf("text", descriptions));
+            ps.setArray(idx++, c.createArrayOf("float8", weights));
+            return idx;
+        }
+    }
+
     public List<Job> findAll(){
         try (EntityManager em = emf.createEntityManager()) {
             return em.createQuery("SELECT j FROM Job j", Job.class).getResultList();
         }
     }
-}
\ No newline at end of file
+
+    // List-view columns only: never touches job_descriptions or the entity graph.
+    private static final String SUMMARY_COLUMNS =
+            "j.id, j.title, j.department, j.location, CAST(j.employment_type AS text), j.salary_min, j.salary_max, " +
+            "j.application_deadline, CAST(j.status AS text), j.form_link";
+
+    /**
+     * Jobs managed by {@code managerId}, newest first, filtered in SQL and served by
+     * idx_jobs_manager_status. Keyset pagination: pass the last id of the previous page as
+     * {@code afterId}; a null {@code limit} returns every match.
+     */
+    public List<JobSummary> findSummariesByManager(Long managerId, JobStatus status, Long afterId, Integer limit){
+        return findSummaries(managerId, status, afterId, limit, true);
+    }
+
+    /**
+     * Job list projection across all managers (HR views), newest first. A null {@code status}
+     * means no status filter. {@code withSummary} also selects description_summary.
+     */
+    public List<JobSummary> findSummaries(Long managerId, JobStatus status, Long afterId, Integer limit, boolean withSummary){
+        try (EntityManager em = emf.createEntityManager()) {
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = summaryQuery(managerId, status, afterId, limit, withSummary).create(em).getResultList();
+            List<JobSummary> out = new ArrayList<>(rows.size());
+            for (Object[] r : rows) out.add(toSummary(r));
+            return out;
+        }
+    }
+
+    /** Number of jobs matching the same filters as {@link #findSummaries} (ignoring the cursor). */
+    public long countSummaries(Long managerId, JobStatus status){
+        try (EntityManager em = emf.createEntityManager()) {
+            return ((Number) countQuery(managerId, status).create(em).getSingleResult()).longValue();
+        }
+    }
+
+    /**
+     * Native SQL with its positional parameters. Labels are numbered ?1..?n as clauses are appended:
+     * Hibernate rejects native ordinal labels that don't start at 1 or leave gaps.
+     */
+    record NativeSql(String sql, List<Object> params) {
+        Query create(EntityManager em){
+            Query q = em.createNativeQuery(sql);
+            for (int i = 0; i < params.size(); i++) q.setParameter(i + 1, params.get(i));
+            return q;
+        }
+    }
+
+    static NativeSql summaryQuery(Long managerId, JobStatus status, Long afterId, Integer limit, boolean withSummary){
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT ").append(SUMMARY_COLUMNS);
+        if (withSummary) sql.append(", j.description_summary");
+        sql.append(" FROM jobs j WHERE 1=1");
+        appendFilters(sql, params, managerId, status, afterId);
+        sql.append(" ORDER BY j.id DESC");
+        if (limit != null) sql.append(" LIMIT ?").append(bind(params, limit));
+        return new NativeSql(sql.toString(), params);
+    }
+
+    static NativeSql countQuery(Long managerId, JobStatus status){
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM jobs j WHERE 1=1");
+        appendFilters(sql, params, managerId, status, null);
+        return new NativeSql(sql.toString(), params);
+    }
+
+    private static void appendFilters(StringBuilder sql, List<Object> params, Long managerId, JobStatus status, Long afterId){
+        if (managerId != null) sql.append(" AND j.managed_by_manager_id = ?").append(bind(params, managerId));
+        if (status != null) sql.append(" AND j.status = CAST(?").append(bind(params, status.getDbValue())).append(" AS job_status)");
+        if (afterId != null) sql.append(" AND j.id < ?").append(bind(params, afterId));
+    }
+
+    /** Adds a parameter and returns its ordinal label. */
+    private static int bind(List<Object> params, Object value){
+        params.add(value);
+        return params.size();
+    }
+
+    private static JobSummary toSummary(Object[] r){
+        EmploymentType et = r[4] == null ? null : EmploymentType.fromDb(r[4].toString());
+        JobStatus st = r[8] == null ? null : JobStatus.fromDb(r[8].toString());
+        return new JobSummary(
+                ((Number) r[0]).longValue(),
+                (String) r[1],
+                (String) r[2],
+                (String) r[3],
+                et == null ? null : et.name(),
+                toBigDecimal(r[5]),
+                toBigDecimal(r[6]),
+                toOffsetDateTime(r[7]),
+                st == null ? "draft" : st.name().toLowerCase(),
+                (String) r[9],
+                r.length > 10 ? (String) r[10] : null);
+    }
+
+    private static java.math.BigDecimal toBigDecimal(Object o){
+        if (o == null) return null;
+        if (o instanceof java.math.BigDecimal b) return b;
+        return new java.math.BigDecimal(o.toString());
+    }
+
+    static java.time.OffsetDateTime toOffsetDateTime(Object o){
+        if (o == null) return null;
+        if (o instanceof java.time.OffsetDateTime odt) return odt;
+        if (o instanceof java.time.Instant i) return i.atOffset(java.time.ZoneOffset.UTC);
+        if (o instanceof java.sql.Timestamp ts) return ts.toInstant().atOffset(java.time.ZoneOffset.UTC);
+        if (o instanceof java.time.ZonedDateTime z) return z.toOffsetDateTime();
+        return java.time.OffsetDateTime.parse(o.toString());
+    }
+}
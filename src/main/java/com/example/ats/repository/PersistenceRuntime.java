@@ -0,0 +1,240 @@
+package com.example.ats.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Application-scoped persistence runtime: one EntityManagerFactory (and one HikariCP pool)
+ * shared by every resource and servlet in the JVM.
+ *
+ * Created lazily on first use so server startup does not block on an unreachable database;
+ * a failed bootstrap is retried on the next call.
+ */
+public final class PersistenceRuntime {
+    private static final Logger LOG = Logger.getLogger(PersistenceRuntime.class.getName());
+    public static final String PERSISTENCE_UNIT = "ATS-PU";
+
+    private static volatile PersistenceRuntime INSTANCE;
+
+    private final EntityManagerFactory emf;
+    private final HikariDataSource dataSource; // null if the pool could not be unwrapped
+    private final DataSource autoCommitting;
+    private final String poolError;
+    private final AcquireMetrics acquireMetrics = new AcquireMetrics();
+
+    private PersistenceRuntime(EntityManagerFactory emf){
+        this.emf = emf;
+        HikariDataSource ds = null;
+        String error = null;
+        try {
+            ds = emf.unwrap(SessionFactoryImplementor.class)
+                    .getServiceRegistry()
+                    .getService(ConnectionProvider.class)
+                    .unwrap(HikariDataSource.class);
+            ds.setMetricsTrackerFactory(acquireMetrics);
+        } catch (Exception e){
+            error = e.getClass().getName() + ": " + e.getMessage();
+            LOG.warning("Connection pool unavailable for plain JDBC and metrics: " + error);
+        }
+        this.dataSource = ds;
+        this.poolError = error;
+        this.autoCommitting = ds == null ? null : new AutoCommitDataSource(ds);
+    }
+
+    public static PersistenceRuntime get(){
+        PersistenceRuntime local = INSTANCE;
+        if (local == null){
+            synchronized (PersistenceRuntime.class){
+                local = INSTANCE;
+                if (local == null){
+                    long start = System.nanoTime();
+                    EntityManagerFactory emf = Persistence.createEntityManagerFactory(PERSISTENCE_UNIT, environmentOverrides());
+                    INSTANCE = local = new PersistenceRuntime(emf);
+                    LOG.info("Persistence runtime started in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+                }
+            }
+        }
+        return local;
+    }
+
+    /** Shortcut for {@code PersistenceRuntime.get().getEntityManagerFactory()}. */
+    public static EntityManagerFactory emf(){
+        return get().emf;
+    }
+
+    public EntityManagerFactory getEntityManagerFactory(){ return emf; }
+
+    /**
+     * The pool backing the EntityManagerFactory, for plain-JDBC paths. The pool hands Hibernate
+     * connections with autocommit off; connections borrowed here start in autocommit, and callers that
+     * need a transaction turn it off themselves (the pool resets it on return).
+     *
+     * @throws IllegalStateException if the pool could not be unwrapped from Hibernate
+     */
+    public DataSource getDataSource(){
+        if (autoCommitting == null) throw new IllegalStateException("Connection pool unavailable: " + poolError);
+        return autoCommitting;
+    }
+
+    public static boolean isStarted(){ return INSTANCE != null; }
+
+    /**
+     * A new connection outside the pool, with the pool's credentials, for long-lived sessions (e.g. LISTEN)
+     * that would otherwise pin a pooled connection. The caller owns and closes it.
+     *
+     * It goes to DB_LISTEN_URL when set, else to the pool's URL with a Neon {@code -pooler} host replaced by
+     * the direct endpoint: PgBouncer in transaction mode accepts LISTEN but never delivers notifications.
+     */
+    public Connection openDedicatedConnection() throws SQLException {
+        if (dataSource == null) throw new SQLException("Connection pool settings unavailable: " + poolError);
+        return DriverManager.getConnection(directUrl(dataSource.getJdbcUrl()), dataSource.getUsername(), dataSource.getPassword());
+    }
+
+    static String directUrl(String poolUrl){
+        String env = System.getenv("DB_LISTEN_URL");
+        if (env != null && !env.isBlank()) return env.trim();
+        return poolUrl == null ? null : poolUrl.replaceFirst("-pooler(?=[.:/])", "");
+    }
+
+    public static synchronized void shutdown(){
+        PersistenceRuntime local = INSTANCE;
+        INSTANCE = null;
+        if (local != null && local.emf.isOpen()){
+            try { local.emf.close(); } catch (Exception e){ LOG.warning("Error closing EntityManagerFactory: " + e.getMessage()); }
+        }
+    }
+
+    /** Snapshot of pool occupancy and connection acquire latency. */
+    public Map<String,Object> poolStats(){
+        Map<String,Object> m = new LinkedHashMap<>();
+        if (dataSource == null){
+            m.put("available", false);
+            return m;
+        }
+        m.put("available", true);
+        m.put("poolName", dataSource.getPoolName());
+        m.put("maximumPoolSize", dataSource.getMaximumPoolSize());
+        m.put("minimumIdle", dataSource.getMinimumIdle());
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool != null){
+            m.put("active", pool.getActiveConnections());
+            m.put("idle", pool.getIdleConnections());
+            m.put("total", pool.getTotalConnections());
+            m.put("waiting", pool.getThreadsAwaitingConnection());
+        }
+        acquireMetrics.writeTo(m);
+        return m;
+    }
+
+    // DB_URL / DB_USER / DB_PASSWORD / DB_SSLMODE keep secrets out of persistence.xml;
+    // DB_POOL_SIZE / DB_POOL_MIN_IDLE / DB_POOL_LEAK_MS tune the pool per environment.
+    static Map<String,String> environmentOverrides(){
+        Map<String,String> overrides = new HashMap<>();
+        String envUrl = System.getenv("DB_URL");
+        String envUser = System.getenv("DB_USER");
+        String envPass = System.getenv("DB_PASSWORD");
+        String envSsl = System.getenv("DB_SSLMODE");
+        if (envUrl != null && !envUrl.isBlank()) overrides.put("jakarta.persistence.jdbc.url", envUrl);
+        if (envUser != null && !envUser.isBlank()) overrides.put("jakarta.persistence.jdbc.user", envUser);
+        if (envPass != null && !envPass.isBlank()) overrides.put("jakarta.persistence.jdbc.password", envPass);
+        if (envSsl != null && !envSsl.isBlank()){
+            if (overrides.containsKey("jakarta.persistence.jdbc.url") && !overrides.get("jakarta.persistence.jdbc.url").contains("sslmode=")){
+                String u = overrides.get("jakarta.persistence.jdbc.url");
+                String sep = u.contains("?") ? "&" : "?";
+                overrides.put("jakarta.persistence.jdbc.url", u + sep + "sslmode=" + envSsl);
+            }
+        }
+        putIfSet(overrides, "DB_POOL_SIZE", "hibernate.hikari.maximumPoolSize");
+        putIfSet(overrides, "DB_POOL_MIN_IDLE", "hibernate.hikari.minimumIdle");
+        putIfSet(overrides, "DB_POOL_LEAK_MS", "hibernate.hikari.leakDetectionThreshold");
+        return overrides;
+    }
+
+    private static void putIfSet(Map<String,String> overrides, String env, String property){
+        String v = System.getenv(env);
+        if (v != null && !v.isBlank()) overrides.put(property, v.trim());
+    }
+
+    /** Borrows from the pool and switches the connection to autocommit. */
+    private static final class AutoCommitDataSource implements DataSource {
+        private final HikariDataSource pool;
+
+        AutoCommitDataSource(HikariDataSource pool){ this.pool = pool; }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return autoCommit(pool.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return autoCommit(pool.getConnection(username, password));
+        }
+
+        private static Connection autoCommit(Connection c) throws SQLException {
+            try {
+                c.setAutoCommit(true);
+                return c;
+            } catch (SQLException e){
+                c.close();
+                throw e;
+            }
+        }
+
+        @Override public java.io.PrintWriter getLogWriter() throws SQLException { return pool.getLogWriter(); }
+        @Override public void setLogWriter(java.io.PrintWriter out) throws SQLException { pool.setLogWriter(out); }
+        @Override public void setLoginTimeout(int seconds) throws SQLException { pool.setLoginTimeout(seconds); }
+        @Override public int getLoginTimeout() throws SQLException { return pool.getLoginTimeout(); }
+        @Override public java.util.logging.Logger getParentLogger() throws java.sql.SQLFeatureNotSupportedException { return pool.getParentLogger(); }
+        @Override public <T> T unwrap(Class<T> iface) throws SQLException { return pool.unwrap(iface); }
+        @Override public boolean isWrapperFor(Class<?> iface) throws SQLException { return pool.isWrapperFor(iface); }
+    }
+
+    /** Records how long callers wait to borrow a connection from the pool. */
+    private static final class AcquireMetrics implements MetricsTrackerFactory, IMetricsTracker {
+        private final LongAdder acquired = new LongAdder();
+        private final LongAdder acquireNanos = new LongAdder();
+        private final AtomicLong maxAcquireNanos = new AtomicLong();
+        private final LongAdder timeouts = new LongAdder();
+
+        @Override
+        public IMetricsTracker create(String poolName, PoolStats poolStats){ return this; }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos){
+            acquired.increment();
+            acquireNanos.add(elapsedAcquiredNanos);
+            maxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+        }
+
+        @Override
+        public void recordConnectionTimeout(){ timeouts.increment(); }
+
+        void writeTo(Map<String,Object> m){
+            long n = acquired.sum();
+            m.put("acquireCount", n);
+            m.put("acquireAvgMicros", n == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(acquireNanos.sum() / n));
+            m.put("acquireMaxMicros", TimeUnit.NANOSECONDS.toMicros(maxAcquireNanos.get()));
+            m.put("acquireTimeouts", timeouts.sum());
+        }
+    }
+}
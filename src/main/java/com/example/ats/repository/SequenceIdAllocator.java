@@ -0,0 +1,91 @@
+package com.example.ats.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Pooled id allocation from a Postgres sequence: each refill draws {@code blockSize} values in one
+ * round-trip ({@code nextval} over generate_series) and they are then handed out from memory without
+ * locking. Values come only from the sequence, so concurrent writers on any node never collide; ids left
+ * in a block when the JVM stops are skipped, which leaves gaps but never reuses a value.
+ *
+ * The sequence is created on first use if the schema lacks it, starting above the table's current
+ * MAX(id). That seeding happens once, under an advisory lock, and only while the sequence has never been
+ * used; allocation itself never looks at MAX(id).
+ */
+public final class SequenceIdAllocator {
+    private static final Logger LOG = Logger.getLogger(SequenceIdAllocator.class.getName());
+
+    private final String sequence;
+    private final String table;
+    private final int blockSize;
+
+    private volatile Block block = new Block(new long[0]);
+    private volatile boolean ensured;
+
+    /** {@code sequence} and {@code table} are trusted identifiers, not user input. */
+    public SequenceIdAllocator(String sequence, String table, int blockSize){
+        if (blockSize < 1) throw new IllegalArgumentException("blockSize must be positive");
+        this.sequence = sequence;
+        this.table = table;
+        this.blockSize = blockSize;
+    }
+
+    public long next(EntityManagerFactory emf){
+        while (true){
+            Block b = block;
+            int i = b.next.getAndIncrement();
+            if (i < b.ids.length) return b.ids[i];
+            synchronized (this){
+                if (block == b) block = fetch(emf);   // only one thread refills; the others retry on the new block
+            }
+        }
+    }
+
+    private Block fetch(EntityManagerFactory emf){
+        try (EntityManager em = emf.createEntityManager()){
+            if (!ensured){
+                ensureSequence(em);
+                ensured = true;
+            }
+            @SuppressWarnings("unchecked")
+            List<Number> rows = em.createNativeQuery("SELECT nextval(CAST(?1 AS regclass)) FROM generate_series(1, ?2)")
+                    .setParameter(1, sequence)
+                    .setParameter(2, blockSize)
+                    .getResultList();
+            long[] ids = new long[rows.size()];
+            for (int i = 0; i < ids.length; i++) ids[i] = rows.get(i).longValue();
+            return new Block(ids);
+        }
+    }
+
+    private void ensureSequence(EntityManager em){
+        EntityTransaction tx = em.getTransaction();
+        try {
+            tx.begin();
+            em.createNativeQuery("SELECT pg_advisory_xact_lock(hashtext(?1))").setParameter(1, sequence).getSingleResult();
+            em.createNativeQuery("CREATE SEQUENCE IF NOT EXISTS " + sequence).executeUpdate();
+            List<?> seeded = em.createNativeQuery(
+                    "SELECT setval(CAST(?1 AS regclass), (SELECT COALESCE(MAX(id), 0) + 1 FROM " + table + "), false) " +
+                    "FROM " + sequence + " WHERE NOT is_called")
+                    .setParameter(1, sequence)
+                    .getResultList();
+            tx.commit();
+            if (!seeded.isEmpty()) LOG.info("Seeded " + sequence + " to start at " + seeded.get(0));
+        } catch (RuntimeException e){
+            if (tx.isActive()) tx.rollback();
+            throw e;
+        }
+    }
+
+    private static final class Block {
+        final long[] ids;
+        final AtomicInteger next = new AtomicInteger();
+
+        Block(long[] ids){ this.ids = ids; }
+    }
+}
@@ -0,0 +1,534 @@
+package com.example.ats.service;
+
+import com.example.ats.repository.PersistenceRuntime;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.*;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsCollectorManager;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.range.DoubleRange;
+import org.apache.lucene.facet.range.DoubleRangeFacetCounts;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+
+/**
+ * Embedded Lucene index over applications for recruiter search: applicant name and email, cover letter and
+ * the CV text (extracted text from {@code cv_texts}, else the applicant's profile resume_text).
+ *
+ * The index is derived data. On start it is recreated from Postgres with one streaming scan, and after
+ * that it is kept current by id: submissions, status changes, new match scores and newly extracted CV text
+ * mark application ids dirty, and a single indexer thread reloads those rows in batches and refreshes the
+ * near-real-time searcher. Searches see changes within about a second. During the initial build, searches
+ * return what has been indexed so far and the response says so.
+ *
+ * The index lives on local disk (SEARCH_INDEX_DIR, default data/search-index), or in heap when that is set
+ * to "memory". Every node builds its own copy.
+ */
+public final class CandidateSearchIndex {
+    private static final Logger LOG = Logger.getLogger(CandidateSearchIndex.class.getName());
+
+    public static final int MAX_LIMIT = 100;
+    /** Deepest result window served; past this, recruiters should narrow the query instead. */
+    public static final int MAX_WINDOW = 10_000;
+
+    private static final String INDEX_DIR = System.getenv().getOrDefault("SEARCH_INDEX_DIR", "data/search-index");
+    private static final int FETCH_SIZE = 500;
+    private static final int BATCH_SIZE = 500;
+    private static final long REFRESH_MILLIS = 1000;
+    private static final int FACET_JOBS = 20;
+
+    private static final String F_KEY = "key";
+    private static final String F_ID = "id";
+    private static final String F_REF = "ref";
+    private static final String F_JOB = "job_id";
+    private static final String F_JOB_TITLE = "job_title";
+    private static final String F_NAME = "name";
+    private static final String F_EMAIL = "email";
+    private static final String F_EMAIL_EXACT = "email_exact";
+    private static final String F_STATUS = "status";
+    private static final String F_SCORE = "score";
+    private static final String F_SUBMITTED = "submitted";
+    private static final String F_COVER = "cover_letter";
+    private static final String F_CV = "cv_text";
+    private static final String DIM_JOB = "job";
+    private static final String DIM_STATUS = "status";
+
+    private static final DoubleRange[] SCORE_BUCKETS = {
+            new DoubleRange("0-25", 0, true, 25, false),
+            new DoubleRange("25-50", 25, true, 50, false),
+            new DoubleRange("50-75", 50, true, 75, false),
+            new DoubleRange("75-100", 75, true, 100, true)
+    };
+
+    private static final String ROW_SQL =
+            "SELECT a.id, a.application_ref, a.job_id, j.title, a.applicant_name, a.applicant_email, CAST(a.status AS text), " +
+            "a.match_score, a.submitted_at, a.cover_letter, COALESCE(ct.text, ap.resume_text) " +
+            "FROM applications a " +
+            "LEFT JOIN jobs j ON j.id = a.job_id " +
+            "LEFT JOIN cv_texts ct ON ct.sha256 = a.cv_sha256 AND ct.status = 'ok' " +
+            "LEFT JOIN applicant ap ON ap.user_id = a.applicant_user_id ";
+
+    private static final CandidateSearchIndex INSTANCE = new CandidateSearchIndex();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final FacetsConfig facets = new FacetsConfig();
+    private final Analyzer analyzer;
+
+    private volatile ScheduledExecutorService indexer;
+    private volatile Directory directory;
+    private volatile IndexWriter writer;
+    private volatile SearcherManager searchers;
+    private volatile FacetState facetState;
+    private volatile boolean ready;
+    private final AtomicBoolean resyncQueued = new AtomicBoolean();
+
+    private final AtomicLong buildMillis = new AtomicLong(-1);
+    private final LongAdder indexed = new LongAdder();
+    private final LongAdder deleted = new LongAdder();
+    private final LongAdder resyncs = new LongAdder();
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder searchNanos = new LongAdder();
+
+    private CandidateSearchIndex(){
+        Analyzer plain = new StandardAnalyzer();
+        analyzer = new PerFieldAnalyzerWrapper(new EnglishAnalyzer(), Map.of(F_NAME, plain, F_EMAIL, plain));
+    }
+
+    public static CandidateSearchIndex get(){ return INSTANCE; }
+
+    public synchronized void start(){
+        if (!running.compareAndSet(false, true)) return;
+        try {
+            directory = "memory".equalsIgnoreCase(INDEX_DIR) ? new ByteBuffersDirectory() : openDirectory(Paths.get(INDEX_DIR));
+            IndexWriterConfig cfg = new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE)   // derived data: always rebuilt from Postgres
+                    .setRAMBufferSizeMB(64);
+            writer = new IndexWriter(directory, cfg);
+            searchers = new SearcherManager(writer, null);
+        } catch (IOException e){
+            running.set(false);
+            LOG.severe("Candidate search index unavailable: " + e.getMessage());
+            return;
+        }
+        indexer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "search-indexer");
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        });
+        indexer.execute(this::rebuild);
+        indexer.scheduleWithFixedDelay(this::drain, REFRESH_MILLIS, REFRESH_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop(){
+        if (!running.compareAndSet(true, false)) return;
+        indexer.shutdownNow();
+        try { indexer.awaitTermination(5, TimeUnit.SECONDS); } catch (InterruptedException e){ Thread.currentThread().interrupt(); }
+        try { searchers.close(); } catch (IOException ignore){}
+        try { writer.rollback(); } catch (IOException ignore){}   // nothing worth committing; next start rebuilds
+        try { directory.close(); } catch (IOException ignore){}
+        ready = false;
+        facetState = null;
+        dirty.clear();
+    }
+
+    /** Marks an application for re-indexing. Cheap and non-blocking; call after the change is committed. */
+    public void applicationChanged(Long applicationId){
+        if (applicationId != null && running.get()) dirty.add(applicationId);
+    }
+
+    /** Marks applications for re-indexing. Cheap and non-blocking; call after the change is committed. */
+    public void applicationsChanged(Collection<Long> applicationIds){
+        if (!running.get() || applicationIds == null) return;
+        for (Long id : applicationIds) if (id != null) dirty.add(id);
+    }
+
+    public boolean isRunning(){ return running.get(); }
+
+    /**
+     * Rebuilds the whole index from Postgres in the background, for when change events may have been
+     * missed. Searches keep using the current contents until the rebuild is complete.
+     */
+    public void resync(){
+        ScheduledExecutorService ex = indexer;
+        if (!running.get() || ex == null || !ready || !resyncQueued.compareAndSet(false, true)) return;
+        ex.execute(() -> {
+            resyncQueued.set(false);
+            rebuild();
+        });
+    }
+
+    // ---------------------------------------------------------------------------------------------------------
+    // indexing
+
+    private void rebuild(){
+        long start = System.currentTimeMillis();
+        while (running.get()){
+            try {
+                writer.deleteAll();
+                int n = 0;
+                try (Connection c = dataSource().getConnection()){
+                    c.setAutoCommit(false);
+                    try (PreparedStatement ps = c.prepareStatement(ROW_SQL + "ORDER BY a.id")){
+                        ps.setFetchSize(FETCH_SIZE);
+                        try (ResultSet rs = ps.executeQuery()){
+                            while (rs.next()){
+                                writer.addDocument(facets.build(document(rs)));
+                                // partial results during the startup build; a resync swaps in atomically at the end
+                                if (++n % 10_000 == 0 && !ready) searchers.maybeRefresh();
+                            }
+                        }
+                    } finally {
+                        c.rollback();
+                    }
+                }
+                searchers.maybeRefresh();
+                indexed.add(n);
+                if (ready) resyncs.increment();
+                ready = true;
+                buildMillis.set(System.currentTimeMillis() - start);
+                LOG.info("Candidate search index built: " + n + " applications in " + buildMillis.get() + " ms");
+                return;
+            } catch (Exception e){
+                if (!running.get()) return;
+                LOG.warning("Candidate search index build failed, retrying: " + e.getMessage());
+                try { Thread.sleep(5000); } catch (InterruptedException ie){ return; }
+            }
+        }
+    }
+
+    /** Re-indexes dirty applications in batches; ids whose row is gone are deleted from the index. */
+    private void drain(){
+        if (!ready || dirty.isEmpty()) return;
+        List<Long> batch = new ArrayList<>(BATCH_SIZE);
+        Iterator<Long> it = dirty.iterator();
+        while (it.hasNext()){
+            batch.add(it.next());
+            it.remove();
+            if (batch.size() == BATCH_SIZE || !it.hasNext()){
+                try {
+                    reindex(batch);
+                } catch (Exception e){
+                    dirty.addAll(batch);   // retry on the next tick
+                    LOG.warning("Candidate search re-index failed: " + e.getMessage());
+                    break;
+                }
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        try {
+            searchers.maybeRefresh();
+        } catch (IOException e){
+            LOG.warning("Candidate search refresh failed: " + e.getMessage());
+        }
+    }
+
+    private void reindex(List<Long> ids) throws SQLException, IOException {
+        if (ids.isEmpty()) return;
+        Set<Long> missing = new HashSet<>(ids);
+        try (Connection c = dataSource().getConnection();
+             PreparedStatement ps = c.prepareStatement(ROW_SQL + "WHERE a.id = ANY(?)")){
+            ps.setArray(1, c.createArrayOf("bigint", ids.toArray()));
+            try (ResultSet rs = ps.executeQuery()){
+                while (rs.next()){
+                    long id = rs.getLong(1);
+                    missing.remove(id);
+                    writer.updateDocument(new Term(F_KEY, Long.toString(id)), facets.build(document(rs)));
+                    indexed.increment();
+                }
+            }
+        }
+        for (Long id : missing){
+            writer.deleteDocuments(new Term(F_KEY, Long.toString(id)));
+            deleted.increment();
+        }
+    }
+
+    private static Document document(ResultSet rs) throws SQLException {
+        long id = rs.getLong(1);
+        Document d = new Document();
+        d.add(new StringField(F_KEY, Long.toString(id), Field.Store.NO));
+        d.add(new StoredField(F_ID, id));
+        d.add(new NumericDocValuesField(F_ID, id));
+        storeIfPresent(d, F_REF, rs.getString(2));
+
+        long jobId = rs.getLong(3);
+        d.add(new LongPoint(F_JOB, jobId));
+        d.add(new StoredField(F_JOB, jobId));
+        d.add(new SortedSetDocValuesFacetField(DIM_JOB, Long.toString(jobId)));
+        storeIfPresent(d, F_JOB_TITLE, rs.getString(4));
+
+        String name = rs.getString(5);
+        if (name != null) d.add(new TextField(F_NAME, name, Field.Store.YES));
+        String email = rs.getString(6);
+        if (email != null){
+            d.add(new TextField(F_EMAIL, email, Field.Store.YES));
+            d.add(new StringField(F_EMAIL_EXACT, email.trim().toLowerCase(Locale.ROOT), Field.Store.NO));
+        }
+
+        String status = rs.getString(7);
+        status = status == null ? "submitted" : status.toLowerCase(Locale.ROOT);
+        d.add(new StringField(F_STATUS, status, Field.Store.YES));
+        d.add(new SortedSetDocValuesFacetField(DIM_STATUS, status));
+
+        java.math.BigDecimal score = rs.getBigDecimal(8);
+        if (score != null){
+            double v = score.doubleValue();
+            d.add(new DoublePoint(F_SCORE, v));
+            d.add(new DoubleDocValuesField(F_SCORE, v));
+            d.add(new StoredField(F_SCORE, v));
+        }
+        Timestamp submitted = rs.getTimestamp(9);
+        if (submitted != null){
+            d.add(new NumericDocValuesField(F_SUBMITTED, submitted.getTime()));
+            d.add(new StoredField(F_SUBMITTED, submitted.getTime()));
+        }
+
+        String cover = rs.getString(10);
+        if (cover != null && !cover.isBlank()) d.add(new TextField(F_COVER, cover, Field.Store.NO));
+        String cv = rs.getString(11);
+        if (cv != null && !cv.isBlank()) d.add(new TextField(F_CV, cv, Field.Store.NO));
+        return d;
+    }
+
+    private static void storeIfPresent(Document d, String field, String value){
+        if (value != null) d.add(new StoredField(field, value));
+    }
+
+    // ---------------------------------------------------------------------------------------------------------
+    // search
+
+    /**
+     * Runs a search. Free text uses simple query syntax ("quoted phrases", -exclusions, prefix*) over name
+     * and email (boosted), cover letter and CV text, with all terms required by default. Filters narrow the
+     * result; facets (status, job, score bucket) are counted over the filtered result, except status, which
+     * ignores the status filter so the other statuses keep their counts.
+     */
+    public Map<String, Object> search(SearchRequest req) throws IOException {
+        SearcherManager sm = searchers;
+        if (!running.get() || sm == null) throw new IllegalStateException("Candidate search index is not running");
+        long start = System.nanoTime();
+
+        Query text = textQuery(req.text);
+        Query withoutStatus = filtered(text, req, false);
+        Query query = filtered(text, req, true);
+
+        IndexSearcher searcher = sm.acquire();
+        try {
+            int window = Math.min(req.offset + req.limit, MAX_WINDOW);
+            FacetsCollector fc = new FacetsCollector();
+            TopDocs top = FacetsCollector.search(searcher, query, Math.max(window, 1), sort(req, text != null), true, fc);
+
+            List<Map<String, Object>> items = new ArrayList<>();
+            StoredFields stored = searcher.storedFields();
+            for (int i = req.offset; i < top.scoreDocs.length && items.size() < req.limit; i++){
+                ScoreDoc sd = top.scoreDocs[i];
+                items.add(hit(stored.document(sd.doc), text != null ? sd.score : null));
+            }
+
+            SortedSetDocValuesReaderState state = facetState(searcher.getIndexReader());
+            Map<String, Object> facetsOut = new LinkedHashMap<>();
+            FacetsCollector statusFc = fc;
+            if (!req.statuses.isEmpty()){
+                statusFc = searcher.search(withoutStatus, new FacetsCollectorManager());
+            }
+            facetsOut.put("status", counts(state == null ? null : new SortedSetDocValuesFacetCounts(state, statusFc)
+                    .getTopChildren(16, DIM_STATUS)));
+            facetsOut.put("job", counts(state == null ? null : new SortedSetDocValuesFacetCounts(state, fc)
+                    .getTopChildren(FACET_JOBS, DIM_JOB)));
+            facetsOut.put("score", counts(new DoubleRangeFacetCounts(F_SCORE, fc, SCORE_BUCKETS).getAllChildren(F_SCORE)));
+
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("total", top.totalHits.value);
+            out.put("offset", req.offset);
+            out.put("limit", req.limit);
+            out.put("complete", ready);   // false while the startup build is still running
+            out.put("items", items);
+            out.put("facets", facetsOut);
+            return out;
+        } finally {
+            sm.release(searcher);
+            searches.increment();
+            searchNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private Query textQuery(String text){
+        if (text == null || text.isBlank()) return null;
+        Map<String, Float> weights = Map.of(F_NAME, 4f, F_EMAIL, 4f, F_COVER, 1f, F_CV, 1f);
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, weights);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query parsed = parser.parse(text.trim());
+        if (!text.contains("@")) return parsed;
+        // a pasted address should find its owner even though the analyzer splits it into tokens
+        return new BooleanQuery.Builder()
+                .add(parsed, BooleanClause.Occur.SHOULD)
+                .add(new BoostQuery(new TermQuery(new Term(F_EMAIL_EXACT, text.trim().toLowerCase(Locale.ROOT))), 10f), BooleanClause.Occur.SHOULD)
+                .build();
+    }
+
+    private static Query filtered(Query text, SearchRequest req, boolean withStatus){
+        BooleanQuery.Builder b = new BooleanQuery.Builder();
+        b.add(text != null ? text : new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        if (req.jobIds != null){
+            long[] ids = req.jobIds.stream().mapToLong(Long::longValue).toArray();
+            b.add(LongPoint.newSetQuery(F_JOB, ids), BooleanClause.Occur.FILTER);
+        }
+        if (withStatus && !req.statuses.isEmpty()){
+            BooleanQuery.Builder any = new BooleanQuery.Builder();
+            for (String s : req.statuses) any.add(new TermQuery(new Term(F_STATUS, s)), BooleanClause.Occur.SHOULD);
+            b.add(any.build(), BooleanClause.Occur.FILTER);
+        }
+        if (req.minScore != null || req.maxScore != null){
+            double lo = req.minScore == null ? Double.NEGATIVE_INFINITY : req.minScore;
+            double hi = req.maxScore == null ? Double.POSITIVE_INFINITY : req.maxScore;
+            b.add(DoublePoint.newRangeQuery(F_SCORE, lo, hi), BooleanClause.Occur.FILTER);
+        }
+        return b.build();
+    }
+
+    private static Sort sort(SearchRequest req, boolean hasText){
+        SortField tieBreak = new SortField(F_ID, SortField.Type.LONG, true);
+        String by = req.sort != null ? req.sort : (hasText ? "relevance" : "submitted");
+        switch (by){
+            case "score": {
+                SortField f = new SortField(F_SCORE, SortField.Type.DOUBLE, true);
+                f.setMissingValue(Double.NEGATIVE_INFINITY);   // unscreened last
+                return new Sort(f, tieBreak);
+            }
+            case "submitted": {
+                SortField f = new SortField(F_SUBMITTED, SortField.Type.LONG, true);
+                f.setMissingValue(Long.MIN_VALUE);
+                return new Sort(f, tieBreak);
+            }
+            default:
+                return new Sort(SortField.FIELD_SCORE, tieBreak);
+        }
+    }
+
+    private static Map<String, Object> hit(Document d, Float relevance){
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", d.getField(F_ID).numericValue().longValue());
+        m.put("applicationRef", d.get(F_REF));
+        m.put("jobId", d.getField(F_JOB).numericValue().longValue());
+        m.put("jobTitle", d.get(F_JOB_TITLE));
+        m.put("name", d.get(F_NAME));
+        m.put("email", d.get(F_EMAIL));
+        m.put("status", d.get(F_STATUS));
+        IndexableField score = d.getField(F_SCORE);
+        m.put("matchScore", score == null ? null : score.numericValue().doubleValue());
+        IndexableField submitted = d.getField(F_SUBMITTED);
+        m.put("appliedDate", submitted == null ? null : java.time.Instant.ofEpochMilli(submitted.numericValue().longValue()).toString());
+        if (relevance != null) m.put("relevance", relevance);
+        return m;
+    }
+
+    private static Map<String, Number> counts(FacetResult r){
+        Map<String, Number> m = new LinkedHashMap<>();
+        if (r == null) return m;
+        for (LabelAndValue lv : r.labelValues) m.put(lv.label, lv.value);
+        return m;
+    }
+
+    /** Facet ordinals for the current reader; rebuilt only when the searcher has been refreshed. */
+    private SortedSetDocValuesReaderState facetState(IndexReader reader) throws IOException {
+        FacetState fs = facetState;
+        if (fs != null && fs.reader == reader) return fs.state;
+        synchronized (this){
+            fs = facetState;
+            if (fs != null && fs.reader == reader) return fs.state;
+            SortedSetDocValuesReaderState state;
+            try {
+                state = new DefaultSortedSetDocValuesReaderState(reader, facets);
+            } catch (IllegalArgumentException e){
+                state = null;   // nothing indexed yet
+            }
+            facetState = new FacetState(reader, state);
+            return state;
+        }
+    }
+
+    public Map<String, Object> stats(){
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("running", running.get());
+        m.put("ready", ready);
+        m.put("directory", INDEX_DIR);
+        m.put("buildMillis", buildMillis.get());
+        m.put("pendingUpdates", dirty.size());
+        m.put("indexed", indexed.sum());
+        m.put("deleted", deleted.sum());
+        m.put("resyncs", resyncs.sum());
+        IndexWriter w = writer;
+        if (running.get() && w != null) m.put("documents", w.getDocStats().numDocs);
+        long n = searches.sum();
+        m.put("searches", n);
+        m.put("avgSearchMillis", n == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(searchNanos.sum() / n));
+        return m;
+    }
+
+    private static Directory openDirectory(Path path) throws IOException {
+        java.nio.file.Files.createDirectories(path);
+        return FSDirectory.open(path);
+    }
+
+    private static javax.sql.DataSource dataSource(){
+        return PersistenceRuntime.get().getDataSource();
+    }
+
+    private static final class FacetState {
+        final IndexReader reader;
+        final SortedSetDocValuesReaderState state;
+
+        FacetState(IndexReader reader, SortedSetDocValuesReaderState state){
+            this.reader = reader; this.state = state;
+        }
+    }
+
+    /** Parameters of one search; validated by the caller. */
+    public static final class SearchRequest {
+        private String text;
+        private Collection<Long> jobIds;        // null = any job
+        private Set<String> statuses = Set.of();
+        private Double minScore;
+        private Double maxScore;
+        private String sort;                    // relevance | score | submitted; null = relevance with text, else submitted
+        private int offset;
+        private int limit = 20;
+
+        public SearchRequest text(String text){ this.text = text; return this; }
+        public SearchRequest jobIds(Collection<Long> jobIds){ this.jobIds = jobIds; return this; }
+        public SearchRequest statuses(Set<String> statuses){ this.statuses = statuses == null ? Set.of() : statuses; return this; }
+        public SearchRequest scoreRange(Double min, Double max){ this.minScore = min; this.maxScore = max; return this; }
+        public SearchRequest sort(String sort){ this.sort = sort; return this; }
+        public SearchRequest page(int offset, int limit){ this.offset = offset; this.limit = limit; return this; }
+    }
+}
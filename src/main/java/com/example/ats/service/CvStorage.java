@@ -0,0 +1,126 @@
+package com.example.ats.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * Storage for uploaded CVs, addressed by content.
+ *
+ * Keys have the form {@code <sha256 hex><.ext>} and are what {@code applications.cv_path} records, so the same
+ * row works on every node no matter where the bytes live. Identical uploads map to the same key and are stored once.
+ *
+ * The backend is chosen with CV_STORAGE ("local", the default, or "s3"); see {@link LocalCvStorage} and
+ * {@link S3CvStorage} for their settings.
+ */
+public interface CvStorage {
+
+    /**
+     * Streams {@code in} into the store and returns once the object is durable. The stream is read to the end
+     * but not closed.
+     *
+     * @param submittedFileName original file name, only used for its extension
+     * @param maxBytes          upper bound on the content length; larger uploads fail with an IOException
+     */
+    StoredCv put(InputStream in, String submittedFileName, long maxBytes) throws IOException;
+
+    /** Size and modification time of a stored object, or empty if the key is unknown. */
+    Optional<CvObject> stat(String key) throws IOException;
+
+    /**
+     * Opens {@code length} bytes starting at {@code offset}. The caller closes the stream.
+     * Pass {@code length < 0} to read to the end.
+     */
+    InputStream open(String key, long offset, long length) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /** True for strings that look like keys produced by {@link #put} (as opposed to legacy webapp paths). */
+    static boolean isKey(String value){
+        return value != null && value.matches("[0-9a-f]{64}(\\.[a-z0-9]{1,8})?");
+    }
+
+    /** The process-wide storage configured from the environment. */
+    static CvStorage get(){
+        return Holder.INSTANCE;
+    }
+
+    /** Result of {@link #put}. */
+    final class StoredCv {
+        private final String key;
+        private final String sha256;
+        private final long size;
+        private final boolean deduplicated;
+
+        public StoredCv(String key, String sha256, long size, boolean deduplicated){
+            this.key = key; this.sha256 = sha256; this.size = size; this.deduplicated = deduplicated;
+        }
+
+        /** Storage key, as recorded in {@code applications.cv_path}. */
+        public String getKey(){ return key; }
+        public String getSha256(){ return sha256; }
+        public long getSize(){ return size; }
+        /** True when identical content was already stored and nothing new was written. */
+        public boolean isDeduplicated(){ return deduplicated; }
+    }
+
+    /** Metadata of a stored object. */
+    final class CvObject {
+        private final String key;
+        private final long size;
+        private final Instant lastModified;
+
+        public CvObject(String key, long size, Instant lastModified){
+            this.key = key; this.size = size; this.lastModified = lastModified;
+        }
+
+        public String getKey(){ return key; }
+        public long getSize(){ return size; }
+        public Instant getLastModified(){ return lastModified; }
+
+        /** Strong validator: the content hash is part of the key. */
+        public String getEtag(){
+            int dot = key.indexOf('.');
+            return "\"" + (dot < 0 ? key : key.substring(0, dot)) + "\"";
+        }
+
+        public String getContentType(){
+            int dot = key.lastIndexOf('.');
+            String ext = dot < 0 ? "" : key.substring(dot + 1).toLowerCase(Locale.ROOT);
+            switch (ext){
+                case "pdf": return "application/pdf";
+                case "doc": return "application/msword";
+                case "docx": return "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+                case "txt": return "text/plain; charset=UTF-8";
+                case "rtf": return "application/rtf";
+                default: return "application/octet-stream";
+            }
+        }
+    }
+
+    final class Holder {
+        private static final Logger LOG = Logger.getLogger(CvStorage.class.getName());
+        static final CvStorage INSTANCE = create();
+
+        private Holder(){}
+
+        private static CvStorage create(){
+            String kind = System.getenv("CV_STORAGE");
+            try {
+                if (kind != null && kind.trim().equalsIgnoreCase("s3")){
+                    return S3CvStorage.fromEnvironment();
+                }
+                String dir = System.getenv("CV_STORAGE_DIR");
+                return new LocalCvStorage(Paths.get(dir == null || dir.isBlank() ? "data/cvs" : dir.trim()),
+                        LocalCvStorage.FsyncPolicy.fromEnvironment());
+            } catch (IOException e){
+                LOG.severe("Cannot initialise CV storage: " + e.getMessage());
+                throw new IllegalStateException("Cannot initialise CV storage", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.example.ats.service;
+
+import com.example.ats.repository.PersistenceRuntime;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
+
+/**
+ * Background extraction of plain text from uploaded CVs into {@code cv_texts}, keyed by content hash.
+ *
+ * Each distinct CV is parsed once: submissions enqueue their hash, a periodic sweep picks up anything that
+ * was missed (queue full, node restart), and hashes that already have a row are skipped. Work runs on a
+ * bounded pool (CV_EXTRACT_THREADS) with a bounded queue; each document is limited in size, pages, output
+ * characters and wall-clock time. The timeout is cooperative (checked per page and text run), so a runaway
+ * document stops at the next check instead of pinning a worker.
+ *
+ * After a CV's text is stored, empty {@code applicant.resume_text} profiles are filled from it and the
+ * affected applications are handed back to {@link ScreeningEngine} for re-scoring and to
+ * {@link CandidateSearchIndex} for re-indexing.
+ */
+public final class CvTextExtractor {
+    private static final Logger LOG = Logger.getLogger(CvTextExtractor.class.getName());
+
+    public static final String OK = "ok";
+    public static final String EMPTY = "empty";
+    public static final String FAILED = "failed";
+    public static final String TIMEOUT = "timeout";
+    public static final String TOO_LARGE = "too_large";
+    public static final String UNSUPPORTED = "unsupported";
+
+    private static final int THREADS = intEnv("CV_EXTRACT_THREADS", 2);
+    private static final int QUEUE_SIZE = intEnv("CV_EXTRACT_QUEUE", 500);
+    private static final long MAX_BYTES = intEnv("CV_EXTRACT_MAX_BYTES", 10 * 1024 * 1024);
+    private static final int MAX_PAGES = intEnv("CV_EXTRACT_MAX_PAGES", 50);
+    private static final int MAX_CHARS = intEnv("CV_EXTRACT_MAX_CHARS", 200_000);
+    private static final long TIMEOUT_MS = intEnv("CV_EXTRACT_TIMEOUT_MS", 20_000);
+    private static final long SWEEP_SECONDS = 60;
+
+    private static final CvTextExtractor INSTANCE = new CvTextExtractor();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile ThreadPoolExecutor pool;
+    private volatile ScheduledExecutorService sweeper;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder extracted = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder extractNanos = new LongAdder();
+
+    private CvTextExtractor(){}
+
+    public static CvTextExtractor get(){ return INSTANCE; }
+
+    public synchronized void start(){
+        if (!running.compareAndSet(false, true)) return;
+        AtomicInteger seq = new AtomicInteger();
+        pool = new ThreadPoolExecutor(THREADS, THREADS, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(QUEUE_SIZE), r -> {
+            Thread t = new Thread(r, "cv-extract-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        });
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cv-extract-sweep");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, 10, SWEEP_SECONDS, TimeUnit.SECONDS);
+        LOG.info("CV text extractor started with " + THREADS + " workers");
+    }
+
+    public synchronized void stop(){
+        if (!running.compareAndSet(true, false)) return;
+        sweeper.shutdownNow();
+        pool.shutdownNow();
+        try { pool.awaitTermination(5, TimeUnit.SECONDS); } catch (InterruptedException e){ Thread.currentThread().interrupt(); }
+        inFlight.clear();
+    }
+
+    /** Queues extraction of a stored CV. Cheap and non-blocking; a full queue is left to the sweep. */
+    public void submit(String sha256, String storageKey){
+        ThreadPoolExecutor ex = pool;
+        if (!running.get() || ex == null || sha256 == null || !CvStorage.isKey(storageKey)) return;
+        if (!inFlight.add(sha256)) return;
+        try {
+            ex.execute(() -> {
+                try { process(sha256, storageKey); }
+                finally { inFlight.remove(sha256); }
+            });
+        } catch (RejectedExecutionException e){
+            inFlight.remove(sha256);
+            rejected.increment();
+        }
+    }
+
+    /** Stored text for a CV hash, if it has been extracted successfully. */
+    public Optional<String> text(String sha256){
+        if (sha256 == null) return Optional.empty();
+        try (Connection c = dataSource().getConnection();
+             PreparedStatement ps = c.prepareStatement("SELECT text FROM cv_texts WHERE sha256 = ? AND status = ?")){
+            ps.setString(1, sha256);
+            ps.setString(2, OK);
+            try (ResultSet rs = ps.executeQuery()){
+                return rs.next() ? Optional.ofNullable(rs.getString(1)) : Optional.empty();
+            }
+        } catch (SQLException e){
+            LOG.warning("Cannot read CV text " + sha256 + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void sweep(){
+        if (!PersistenceRuntime.isStarted()) return;
+        int room = pool.getQueue().remainingCapacity();
+        if (room <= 0) return;
+        try (Connection c = dataSource().getConnection();
+             PreparedStatement ps = c.prepareStatement(
+                     "SELECT a.cv_sha256, MIN(a.cv_path) FROM applications a " +
+                     "WHERE a.cv_sha256 IS NOT NULL AND a.cv_path ~ '^[0-9a-f]{64}' AND NOT EXISTS (SELECT 1 FROM cv_texts t WHERE t.sha256 = a.cv_sha256) " +
+                     "GROUP BY a.cv_sha256 LIMIT ?")){
+            ps.setInt(1, room);
+            try (ResultSet rs = ps.executeQuery()){
+                while (rs.next()) submit(rs.getString(1), rs.getString(2));
+            }
+        } catch (Exception e){
+            LOG.warning("CV extraction sweep failed: " + e.getMessage());
+        }
+    }
+
+    private void process(String sha256, String key){
+        try {
+            if (alreadyExtracted(sha256)) return;
+            long start = System.nanoTime();
+            Outcome out = extract(key);
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            extractNanos.add(System.nanoTime() - start);
+            switch (out.status){
+                case OK: case EMPTY: extracted.increment(); break;
+                case TIMEOUT: timeouts.increment(); break;
+                default: failed.increment();
+            }
+            if (store(sha256, out, millis) && OK.equals(out.status)) afterStored(sha256, out.text);
+        } catch (IOException e){
+            // storage or database unavailable: no row is written, so the sweep retries later
+            LOG.warning("CV extraction for " + sha256 + " deferred: " + e.getMessage());
+        } catch (SQLException e){
+            LOG.warning("CV extraction for " + sha256 + " not stored: " + e.getMessage());
+        }
+    }
+
+    private Outcome extract(String key) throws IOException {
+        CvStorage storage = CvStorage.get();
+        Optional<CvStorage.CvObject> meta = storage.stat(key);
+        if (meta.isEmpty()) return Outcome.of(FAILED, null, 0, "CV object " + key + " not found");
+        if (meta.get().getSize() > MAX_BYTES) return Outcome.of(TOO_LARGE, null, 0, "size " + meta.get().getSize() + " > " + MAX_BYTES);
+
+        String lower = key.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".txt")){
+            try (InputStream in = storage.open(key, 0, -1)){
+                String raw = StandardCharsets.UTF_8.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                        .decode(java.nio.ByteBuffer.wrap(in.readAllBytes())).toString();
+                return textOutcome(normalize(raw), 1);
+            }
+        }
+        if (!lower.endsWith(".pdf")) return Outcome.of(UNSUPPORTED, null, 0, "no extractor for " + key.substring(64));
+
+        byte[] bytes;
+        try (InputStream in = storage.open(key, 0, -1)){
+            bytes = in.readAllBytes();   // bounded by MAX_BYTES; storage errors propagate and are retried
+        }
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        try (PDDocument doc = Loader.loadPDF(new RandomAccessReadBuffer(bytes), IOUtils.createTempFileOnlyStreamCache())){
+            int pages = doc.getNumberOfPages();
+            BoundedStripper stripper = new BoundedStripper(deadline);
+            stripper.setSortByPosition(true);
+            stripper.setEndPage(Math.min(pages, MAX_PAGES));
+            String raw = stripper.getText(doc);
+            return textOutcome(normalize(raw), pages);
+        } catch (DeadlineExceeded e){
+            return Outcome.of(TIMEOUT, null, 0, "exceeded " + TIMEOUT_MS + " ms");
+        } catch (IOException | RuntimeException e){
+            // corrupt, encrypted or otherwise unparseable content: record it so it is not retried
+            return Outcome.of(FAILED, null, 0, e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    private static Outcome textOutcome(String text, int pages){
+        if (text.length() > MAX_CHARS) text = text.substring(0, MAX_CHARS);
+        return text.isEmpty() ? Outcome.of(EMPTY, null, pages, "no text layer") : Outcome.of(OK, text, pages, null);
+    }
+
+    /** NFKC, re-joined hyphenated line breaks, no control characters, collapsed whitespace. */
+    static String normalize(String raw){
+        if (raw == null) return "";
+        String t = Normalizer.normalize(raw, Normalizer.Form.NFKC);
+        t = t.replaceAll("(\\p{L})-\\R\\s*(\\p{Ll})", "$1$2");
+        t = t.replaceAll("\\R", "\n");
+        t = t.replaceAll("[\\p{Cc}&&[^\\n]]", " ");
+        t = t.replaceAll("[\\p{Zs}\\t]+", " ");
+        t = t.replaceAll(" ?\n ?", "\n").replaceAll("\n{3,}", "\n\n");
+        return t.trim();
+    }
+
+    private static boolean alreadyExtracted(String sha256) throws SQLException {
+        try (Connection c = dataSource().getConnection();
+             PreparedStatement ps = c.prepareStatement("SELECT 1 FROM cv_texts WHERE sha256 = ?")){
+            ps.setString(1, sha256);
+            try (ResultSet rs = ps.executeQuery()){ return rs.next(); }
+        }
+    }
+
+    /** Inserts the row unless another node beat us to it. Returns true if this call stored it. */
+    private static boolean store(String sha256, Outcome out, long millis) throws SQLException {
+        try (Connection c = dataSource().getConnection();
+             PreparedStatement ps = c.prepareStatement(
+                     "INSERT INTO cv_texts (sha256, text, status, pages, chars, error, extract_millis, extracted_at) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, NOW()) ON CONFLICT (sha256) DO NOTHING")){
+            ps.setString(1, sha256);
+            ps.setString(2, out.text);
+            ps.setString(3, out.status);
+            ps.setInt(4, out.pages);
+            ps.setInt(5, out.text == null ? 0 : out.text.length());
+            ps.setString(6, out.error == null ? null : out.error.length() > 1000 ? out.error.substring(0, 1000) : out.error);
+            ps.setLong(7, millis);
+            return ps.executeUpdate() == 1;
+        }
+    }
+
+    /** Fills empty applicant profiles from the CV and queues re-scoring of the applications that use it. */
+    private static void afterStored(String sha256, String text) throws SQLException {
+        Map<Long, List<Long>> byJob = new HashMap<>();
+        try (Connection c = dataSource().getConnection()){
+            try (PreparedStatement ps = c.prepareStatement(
+                    "UPDATE applicant ap SET resume_text = ? " +
+                    "WHERE ap.user_id IN (SELECT applicant_user_id FROM applications WHERE cv_sha256 = ?) " +
+                    "AND (ap.resume_text IS NULL OR ap.resume_text = '')")){
+                ps.setString(1, text);
+                ps.setString(2, sha256);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = c.prepareStatement("SELECT id, job_id FROM applications WHERE cv_sha256 = ?")){
+                ps.setString(1, sha256);
+                try (ResultSet rs = ps.executeQuery()){
+                    while (rs.next()) byJob.computeIfAbsent(rs.getLong(2), k -> new ArrayList<>()).add(rs.getLong(1));
+                }
+            }
+            List<Long> ids = new ArrayList<>();
+            byJob.values().forEach(ids::addAll);
+            InvalidationBus.get().publish(c, InvalidationBus.APPLICATION, ids);
+        }
+        for (Map.Entry<Long, List<Long>> e : byJob.entrySet()){
+            ScreeningEngine.get().applicationTextChanged(e.getKey(), e.getValue());
+            CandidateSearchIndex.get().applicationsChanged(e.getValue());
+        }
+    }
+
+    public Map<String, Object> stats(){
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("running", running.get());
+        m.put("workers", THREADS);
+        ThreadPoolExecutor p = pool;
+        m.put("queued", p == null ? 0 : p.getQueue().size());
+        m.put("active", p == null ? 0 : p.getActiveCount());
+        long done = extracted.sum() + failed.sum() + timeouts.sum();
+        m.put("extracted", extracted.sum());
+        m.put("failed", failed.sum());
+        m.put("timeouts", timeouts.sum());
+        m.put("rejectedWhenFull", rejected.sum());
+        m.put("avgExtractMillis", done == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(extractNanos.sum() / done));
+        m.put("limits", Map.of("maxBytes", MAX_BYTES, "maxPages", MAX_PAGES, "maxChars", MAX_CHARS, "timeoutMillis", TIMEOUT_MS));
+        return m;
+    }
+
+    private static javax.sql.DataSource dataSource(){
+        return PersistenceRuntime.get().getDataSource();
+    }
+
+    private static int intEnv(String name, int def){
+        try {
+            String v = System.getenv(name);
+            return v == null || v.isBlank() ? def : Math.max(1, Integer.parseInt(v.trim()));
+        } catch (NumberFormatException e){
+            return def;
+        }
+    }
+
+    private static final class Outcome {
+        final String status;
+        final String text;
+        final int pages;
+        final String error;
+
+        private Outcome(String status, String text, int pages, String error){
+            this.status = status; this.text = text; this.pages = pages; this.error = error;
+        }
+
+        static Outcome of(String status, String text, int pages, String error){ return new Outcome(status, text, pages, error); }
+    }
+
+    private static final class DeadlineExceeded extends IOException {
+        private static final long serialVersionUID = 1L;
+        DeadlineExceeded(){ super("extraction deadline exceeded", null); }
+    }
+
+    /** Text stripper that gives up once the deadline passes or enough text was collected. */
+    private static final class BoundedStripper extends PDFTextStripper {
+        private final long deadline;
+        private int chars;
+
+        BoundedStripper(long deadline){ this.deadline = deadline; }
+
+        @Override
+        protected void startPage(PDPage page) throws IOException {
+            check();
+            super.startPage(page);
+        }
+
+        @Override
+        protected void writeString(String text, List<TextPosition> positions) throws IOException {
+            check();
+            chars += text.length();
+            if (chars > MAX_CHARS){
+                setEndPage(getCurrentPageNo());   // finish this page, then stop
+            }
+            super.writeString(text, positions);
+        }
+
+        private void check() throws IOException {
+            if (System.currentTimeMillis() > deadline || Thread.currentThread().isInterrupted()) throw new DeadlineExceeded();
+        }
+    }
+}
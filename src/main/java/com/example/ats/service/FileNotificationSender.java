@@ -0,0 +1,57 @@
+package com.example.ats.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Default {@link NotificationSender}: writes each message as an RFC 822-style .eml file into a local
+ * "mailbox" directory (NOTIFICATION_SINK_DIR, default {@code <tmp>/talentflow-outbox}) instead of sending mail.
+ */
+public class FileNotificationSender implements NotificationSender {
+    private final Path dir;
+
+    public FileNotificationSender(){
+        String env = System.getenv("NOTIFICATION_SINK_DIR");
+        this.dir = (env != null && !env.isBlank())
+                ? Paths.get(env)
+                : Paths.get(System.getProperty("java.io.tmpdir"), "talentflow-outbox");
+    }
+
+    @Override
+    public Map<Long, Exception> send(List<Message> batch){
+        Map<Long, Exception> failures = new HashMap<>();
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e){
+            for (Message m : batch) failures.put(m.getId(), e);
+            return failures;
+        }
+        for (Message m : batch){
+            if (m.getToEmail() == null || m.getToEmail().isBlank()){
+                failures.put(m.getId(), new IllegalArgumentException("Missing recipient"));
+                continue;
+            }
+            String eml = "To: " + m.getToEmail() + "\r\n"
+                    + "Subject: " + (m.getSubject() == null ? "" : m.getSubject().replaceAll("[\\r\\n]", " ")) + "\r\n"
+                    + "Date: " + OffsetDateTime.now() + "\r\n"
+                    + "X-TalentFlow-Type: " + m.getNotificationType() + "\r\n"
+                    + "\r\n"
+                    + (m.getBody() == null ? "" : m.getBody()) + "\r\n";
+            // id in the name keeps redelivery after a crash idempotent
+            Path target = dir.resolve("notification-" + m.getId() + ".eml");
+            try {
+                Path tmp = Files.createTempFile(dir, "n" + m.getId(), ".tmp");
+                Files.write(tmp, eml.getBytes(StandardCharsets.UTF_8));
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e){
+                failures.put(m.getId(), e);
+            }
+        }
+        return failures;
+    }
+}
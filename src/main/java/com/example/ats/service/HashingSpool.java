@@ -0,0 +1,65 @@
+package com.example.ats.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/** Copies an upload into a file through a direct buffer, computing its SHA-256 in the same pass. */
+final class HashingSpool {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+    final String sha256;
+    final long size;
+
+    private HashingSpool(String sha256, long size){ this.sha256 = sha256; this.size = size; }
+
+    static HashingSpool copy(InputStream in, Path target, long maxBytes, boolean force) throws IOException {
+        MessageDigest sha = sha256();
+        long size = 0;
+        ReadableByteChannel src = Channels.newChannel(in);
+        ByteBuffer buf = BUFFERS.get();
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+            buf.clear();
+            while (src.read(buf) >= 0){
+                buf.flip();
+                sha.update(buf.duplicate());
+                while (buf.hasRemaining()) size += out.write(buf);
+                buf.clear();
+                if (size > maxBytes) throw new IOException("CV exceeds " + maxBytes + " bytes");
+            }
+            if (force) out.force(true);
+        }
+        return new HashingSpool(HexFormat.of().formatHex(sha.digest()), size);
+    }
+
+    /** Key for content with this hash: {@code <sha256><.ext>}. */
+    String key(String submittedFileName){
+        return sha256 + extension(submittedFileName);
+    }
+
+    static String extension(String fileName){
+        if (fileName == null) return "";
+        int dot = fileName.lastIndexOf('.');
+        if (dot < 0 || dot == fileName.length() - 1) return "";
+        String ext = fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return ext.matches("[a-z0-9]{1,8}") ? "." + ext : "";
+    }
+
+    static MessageDigest sha256(){
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e){
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.ats.service;
+
+import java.util.Arrays;
+
+/**
+ * Immutable augmented interval tree over half-open {@code [start, end)} intervals of epoch millis.
+ *
+ * Intervals are kept sorted by start in flat arrays, and the tree is implicit: the node of a range
+ * {@code [lo, hi)} is its midpoint, and {@code maxEnd[mid]} holds the largest end in that range. An overlap
+ * query skips every subtree whose maxEnd is at or before the query start, and every right subtree whose node
+ * starts at or after the query end, so it costs O(log n + k). Changes are made by building a new tree.
+ */
+final class IntervalTree {
+    static final IntervalTree EMPTY = new IntervalTree(new long[0], new long[0], new long[0]);
+
+    @FunctionalInterface
+    interface Visitor {
+        void visit(long id, long start, long end);
+    }
+
+    private final long[] ids;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnd;
+
+    private IntervalTree(long[] ids, long[] starts, long[] ends){
+        this.ids = ids;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnd = new long[ids.length];
+        augment(0, ids.length);
+    }
+
+    /** Builds a tree from parallel arrays; empty intervals ({@code end <= start}) are dropped. */
+    static IntervalTree of(long[] ids, long[] starts, long[] ends){
+        int n = 0;
+        Integer[] order = new Integer[ids.length];
+        for (int i = 0; i < ids.length; i++) if (ends[i] > starts[i]) order[n++] = i;
+        Integer[] kept = Arrays.copyOf(order, n);
+        Arrays.sort(kept, (a, b) -> Long.compare(starts[a], starts[b]));
+        long[] is = new long[n], ss = new long[n], es = new long[n];
+        for (int i = 0; i < n; i++){
+            is[i] = ids[kept[i]];
+            ss[i] = starts[kept[i]];
+            es[i] = ends[kept[i]];
+        }
+        return n == 0 ? EMPTY : new IntervalTree(is, ss, es);
+    }
+
+    int size(){ return ids.length; }
+
+    /** Visits every interval overlapping {@code [from, to)}, in start order. */
+    void forEachOverlapping(long from, long to, Visitor v){
+        if (from < to) visit(0, ids.length, from, to, v);
+    }
+
+    boolean overlaps(long from, long to){
+        boolean[] found = new boolean[1];
+        forEachOverlapping(from, to, (id, s, e) -> found[0] = true);
+        return found[0];
+    }
+
+    private long augment(int lo, int hi){
+        if (lo >= hi) return Long.MIN_VALUE;
+        int mid = (lo + hi) >>> 1;
+        long m = Math.max(ends[mid], Math.max(augment(lo, mid), augment(mid + 1, hi)));
+        maxEnd[mid] = m;
+        return m;
+    }
+
+    private void visit(int lo, int hi, long from, long to, Visitor v){
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        if (maxEnd[mid] <= from) return;   // nothing in this subtree ends after the query starts
+        visit(lo, mid, from, to, v);
+        if (starts[mid] >= to) return;     // this node and everything to its right start too late
+        if (ends[mid] > from) v.visit(ids[mid], starts[mid], ends[mid]);
+        visit(mid + 1, hi, from, to, v);
+    }
+}
@@ -0,0 +1,399 @@
+package com.example.ats.service;
+
+import com.example.ats.repository.PersistenceRuntime;
+import jakarta.persistence.EntityManager;
+import java.sql.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Interview slot bookkeeping: the overlap guarantees in Postgres and a node-local calendar for free-slot search.
+ *
+ * Double-booking is prevented by two exclusion constraints on {@code interviews}. One stops an interviewer's
+ * live interviews from overlapping, the other does the same for a candidate's (per application). Both
+ * compare {@code tstzrange(scheduled_start, scheduled_end)} and ignore cancelled interviews. They need
+ * btree_gist and are created on start-up if missing. If a constraint can't be created, for example because
+ * existing rows already overlap, the reason is logged and start-up goes on; {@link #conflicts} still
+ * catches overlaps before an insert, but without the constraint concurrent inserts can race.
+ *
+ * The interviewer of an interview is {@code interviewer_user_id}, or the scheduling user when none is
+ * assigned. Rows without an end are treated as {@link #DEFAULT_DURATION_MINUTES} long in the calendar; the
+ * constraints only cover rows that have one, which every interview created here does.
+ *
+ * Free-slot search reads each interviewer's live interviews from an {@link IntervalTree} covering the past
+ * day and the next INTERVIEW_CALENDAR_HORIZON_DAYS. Trees load on first use and expire after
+ * INTERVIEW_CALENDAR_TTL_SECONDS. Writers invalidate them locally, and other nodes through
+ * {@link InvalidationBus#INTERVIEWER}. Windows outside the horizon go to Postgres directly.
+ */
+public final class InterviewCalendar {
+    private static final Logger LOG = Logger.getLogger(InterviewCalendar.class.getName());
+
+    public static final int DEFAULT_DURATION_MINUTES = 60;
+
+    public static final String INTERVIEWER_CONSTRAINT = "interviews_no_overlap_interviewer";
+    public static final String APPLICATION_CONSTRAINT = "interviews_no_overlap_application";
+
+    /** Who an interview occupies: the assigned interviewer, else whoever scheduled it. */
+    private static final String INTERVIEWER_SQL = "COALESCE(interviewer_user_id, created_by_user_id)";
+    private static final String END_SQL = "COALESCE(scheduled_end, scheduled_start + interval '" + DEFAULT_DURATION_MINUTES + " minutes')";
+    private static final String LIVE_SQL = "status IS DISTINCT FROM 'cancelled'";
+
+    private static final long HORIZON_MILLIS = TimeUnit.DAYS.toMillis(longEnv("INTERVIEW_CALENDAR_HORIZON_DAYS", 90));
+    private static final long LOOKBACK_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final long TTL_MILLIS = TimeUnit.SECONDS.toMillis(longEnv("INTERVIEW_CALENDAR_TTL_SECONDS", 300));
+    private static final long SCHEMA_RETRY_SECONDS = 30;
+
+    private static final InterviewCalendar INSTANCE = new InterviewCalendar();
+
+    private final ConcurrentHashMap<Long, Entry> calendars = new ConcurrentHashMap<>();
+    /** Bumped by every invalidation; loads compare it before caching their result. */
+    private final AtomicLong generation = new AtomicLong();
+    private volatile ScheduledExecutorService worker;
+    /** null until the start-up check has run. */
+    private volatile Boolean constraintsInstalled;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder uncached = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder slotSearches = new LongAdder();
+
+    private InterviewCalendar(){}
+
+    public static InterviewCalendar get(){ return INSTANCE; }
+
+    public synchronized void start(){
+        if (worker != null) return;
+        worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "interview-calendar");
+            t.setDaemon(true);
+            return t;
+        });
+        worker.execute(this::ensureSchema);
+    }
+
+    public synchronized void stop(){
+        if (worker == null) return;
+        worker.shutdownNow();
+        try { worker.awaitTermination(5, TimeUnit.SECONDS); } catch (InterruptedException e){ Thread.currentThread().interrupt(); }
+        worker = null;
+        calendars.clear();
+    }
+
+    /** Drops the cached calendars of these interviewers. Call after the change is committed. */
+    public void invalidate(Collection<Long> interviewerIds){
+        generation.incrementAndGet();
+        for (Long id : interviewerIds) if (id != null && calendars.remove(id) != null) invalidations.increment();
+    }
+
+    public void invalidateAll(){
+        generation.incrementAndGet();
+        invalidations.add(calendars.size());
+        calendars.clear();
+    }
+
+    // ---------------------------------------------------------------------------------------------------------
+    // conflicts
+
+    /** A live interview that overlaps a requested slot, for the interviewer or for the candidate. */
+    public record Conflict(long interviewId, String with, Instant start, Instant end) {}
+
+    /**
+     * Live interviews overlapping {@code [start, end)} for the interviewer or the application, read in
+     * {@code em}'s transaction. Exact, whatever the cache holds.
+     */
+    public List<Conflict> conflicts(EntityManager em, Long interviewerId, Long applicationId, Instant start, Instant end){
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = em.createNativeQuery(
+                "SELECT id, CASE WHEN " + INTERVIEWER_SQL + " = ?1 THEN 'interviewer' ELSE 'candidate' END, " +
+                "scheduled_start, " + END_SQL + " FROM interviews " +
+                "WHERE (" + INTERVIEWER_SQL + " = ?1 OR application_id = ?2) AND " + LIVE_SQL + " " +
+                "AND scheduled_start < ?4 AND " + END_SQL + " > ?3 ORDER BY scheduled_start")
+                .setParameter(1, interviewerId == null ? -1L : interviewerId)
+                .setParameter(2, applicationId)
+                .setParameter(3, Timestamp.from(start))
+                .setParameter(4, Timestamp.from(end))
+                .getResultList();
+        List<Conflict> out = new ArrayList<>(rows.size());
+        for (Object[] r : rows){
+            out.add(new Conflict(((Number) r[0]).longValue(), (String) r[1], instant(r[2]), instant(r[3])));
+        }
+        return out;
+    }
+
+    /** True when {@code e} was caused by one of the overlap constraints rejecting a row. */
+    public static boolean isOverlapViolation(Throwable e){
+        for (Throwable t = e; t != null; t = t.getCause()){
+            if (t instanceof SQLException && "23P01".equals(((SQLException) t).getSQLState())) return true;
+        }
+        return false;
+    }
+
+    // ---------------------------------------------------------------------------------------------------------
+    // free slots
+
+    /**
+     * A free-slot search: candidate starts every {@code step} from {@code dayStart} within working hours
+     * ({@code dayStart}-{@code dayEnd} in {@code zone}), inside {@code [from, to)}.
+     */
+    public record SlotQuery(Instant from, Instant to, Duration duration, Duration step,
+                            LocalTime dayStart, LocalTime dayEnd, ZoneId zone, boolean weekends, int limit) {}
+
+    public record Slot(Instant start, Instant end) {}
+
+    /**
+     * Slots of the query's duration in which none of the interviewers, nor the candidate behind
+     * {@code applicationId} when given, has a live interview. At most {@code limit} slots, earliest first.
+     */
+    public List<Slot> freeSlots(Collection<Long> interviewerIds, Long applicationId, SlotQuery q) throws SQLException {
+        slotSearches.increment();
+        long from = q.from().toEpochMilli(), to = q.to().toEpochMilli();
+        List<long[]> busy = new ArrayList<>();
+        IntervalTree.Visitor collect = (id, s, e) -> busy.add(new long[]{s, e});
+        for (IntervalTree tree : trees(interviewerIds, from, to)) tree.forEachOverlapping(from, to, collect);
+        if (applicationId != null) applicationTree(applicationId, from, to).forEachOverlapping(from, to, collect);
+        return scan(merge(busy), q);
+    }
+
+    /** Walks the working-hours grid day by day, jumping past busy intervals instead of probing each step. */
+    static List<Slot> scan(List<long[]> busy, SlotQuery q){
+        List<Slot> slots = new ArrayList<>();
+        long from = q.from().toEpochMilli(), to = q.to().toEpochMilli();
+        long dur = q.duration().toMillis(), step = q.step().toMillis();
+        int b = 0;
+        for (LocalDate day = LocalDate.ofInstant(q.from(), q.zone()); slots.size() < q.limit(); day = day.plusDays(1)){
+            long open = day.atTime(q.dayStart()).atZone(q.zone()).toInstant().toEpochMilli();
+            if (open >= to) break;
+            DayOfWeek dow = day.getDayOfWeek();
+            if (!q.weekends() && (dow == DayOfWeek.SATURDAY || dow == DayOfWeek.SUNDAY)) continue;
+            long close = Math.min(to, day.atTime(q.dayEnd()).atZone(q.zone()).toInstant().toEpochMilli());
+            long t = align(open, Math.max(open, from), step);
+            while (t + dur <= close && slots.size() < q.limit()){
+                while (b < busy.size() && busy.get(b)[1] <= t) b++;
+                if (b < busy.size() && busy.get(b)[0] < t + dur){
+                    t = align(open, busy.get(b)[1], step);   // the next grid point after this busy block
+                    continue;
+                }
+                slots.add(new Slot(Instant.ofEpochMilli(t), Instant.ofEpochMilli(t + dur)));
+                t += step;
+            }
+        }
+        return slots;
+    }
+
+    /** Smallest {@code origin + k * step} at or after {@code t}. */
+    private static long align(long origin, long t, long step){
+        long k = Math.floorDiv(t - origin + step - 1, step);
+        return origin + Math.max(0, k) * step;
+    }
+
+    /** Sorts and coalesces overlapping or touching intervals. */
+    static List<long[]> merge(List<long[]> intervals){
+        intervals.sort(Comparator.comparingLong(i -> i[0]));
+        List<long[]> out = new ArrayList<>(intervals.size());
+        for (long[] i : intervals){
+            long[] last = out.isEmpty() ? null : out.get(out.size() - 1);
+            if (last != null && i[0] <= last[1]) last[1] = Math.max(last[1], i[1]);
+            else out.add(new long[]{i[0], i[1]});
+        }
+        return out;
+    }
+
+    // ---------------------------------------------------------------------------------------------------------
+    // loading
+
+    /** One tree per interviewer, from the cache when the window is inside the horizon. */
+    private List<IntervalTree> trees(Collection<Long> interviewerIds, long from, long to) throws SQLException {
+        long now = System.currentTimeMillis();
+        long windowFrom = now - LOOKBACK_MILLIS, windowTo = now + HORIZON_MILLIS;
+        boolean cacheable = from >= windowFrom && to <= windowTo;
+        if (!cacheable){
+            uncached.increment();
+            return new ArrayList<>(load(new LinkedHashSet<>(interviewerIds), from, to).values());
+        }
+
+        List<IntervalTree> out = new ArrayList<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long id : interviewerIds){
+            Entry cal = calendars.get(id);
+            if (cal != null && cal.expiresAt > now && cal.from <= from && cal.to >= to){
+                hits.increment();
+                out.add(cal.tree);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) return out;
+
+        misses.add(missing.size());
+        long gen = generation.get();
+        Map<Long, IntervalTree> loaded = load(missing, windowFrom, windowTo);
+        if (generation.get() == gen){   // an invalidation raced the load: use the result, don't keep it
+            loaded.forEach((id, tree) -> calendars.put(id, new Entry(tree, windowFrom, windowTo, now + TTL_MILLIS)));
+        }
+        out.addAll(loaded.values());
+        return out;
+    }
+
+    /** The live interviews of each interviewer overlapping {@code [from, to)}, one query for all of them. */
+    private Map<Long, IntervalTree> load(Set<Long> interviewerIds, long from, long to) throws SQLException {
+        Map<Long, List<long[]>> rows = new HashMap<>();
+        for (Long id : interviewerIds) rows.put(id, new ArrayList<>());
+        try (Connection c = dataSource().getConnection();
+             PreparedStatement ps = c.prepareStatement(
+                     "SELECT " + INTERVIEWER_SQL + ", id, scheduled_start, " + END_SQL + " FROM interviews " +
+                     "WHERE " + INTERVIEWER_SQL + " = ANY(CAST(? AS bigint[])) AND " + LIVE_SQL + " " +
+                     "AND scheduled_start < ? AND " + END_SQL + " > ?")){
+            ps.setArray(1, c.createArrayOf("bigint", interviewerIds.toArray()));
+            ps.setTimestamp(2, new Timestamp(to));
+            ps.setTimestamp(3, new Timestamp(from));
+            try (ResultSet rs = ps.executeQuery()){
+                while (rs.next()){
+                    rows.get(rs.getLong(1)).add(new long[]{rs.getLong(2), rs.getTimestamp(3).getTime(), rs.getTimestamp(4).getTime()});
+                }
+            }
+        }
+        Map<Long, IntervalTree> out = new LinkedHashMap<>();
+        rows.forEach((id, list) -> out.put(id, tree(list)));
+        return out;
+    }
+
+    /** A candidate has few interviews, so theirs are read per search rather than cached. */
+    private IntervalTree applicationTree(long applicationId, long from, long to) throws SQLException {
+        List<long[]> list = new ArrayList<>();
+        try (Connection c = dataSource().getConnection();
+             PreparedStatement ps = c.prepareStatement(
+                     "SELECT id, scheduled_start, " + END_SQL + " FROM interviews " +
+                     "WHERE application_id = ? AND " + LIVE_SQL + " AND scheduled_start < ? AND " + END_SQL + " > ?")){
+            ps.setLong(1, applicationId);
+            ps.setTimestamp(2, new Timestamp(to));
+            ps.setTimestamp(3, new Timestamp(from));
+            try (ResultSet rs = ps.executeQuery()){
+                while (rs.next()) list.add(new long[]{rs.getLong(1), rs.getTimestamp(2).getTime(), rs.getTimestamp(3).getTime()});
+            }
+        }
+        return tree(list);
+    }
+
+    private static IntervalTree tree(List<long[]> rows){
+        long[] ids = new long[rows.size()], starts = new long[rows.size()], ends = new long[rows.size()];
+        for (int i = 0; i < ids.length; i++){
+            long[] r = rows.get(i);
+            ids[i] = r[0]; starts[i] = r[1]; ends[i] = r[2];
+        }
+        return IntervalTree.of(ids, starts, ends);
+    }
+
+    // ---------------------------------------------------------------------------------------------------------
+    // schema
+
+    /** Installs btree_gist, the overlap constraints and the interviewer lookup index when missing. */
+    private void ensureSchema(){
+        try (Connection c = dataSource().getConnection()){
+            c.setAutoCommit(false);
+            boolean ok = run(c, "btree_gist", "CREATE EXTENSION IF NOT EXISTS btree_gist");
+            run(c, "idx_interviews_interviewer_start",
+                    "CREATE INDEX IF NOT EXISTS idx_interviews_interviewer_start ON interviews ((" + INTERVIEWER_SQL + "), scheduled_start)");
+            if (ok){
+                ok = addConstraint(c, INTERVIEWER_CONSTRAINT, INTERVIEWER_SQL);
+                ok &= addConstraint(c, APPLICATION_CONSTRAINT, "application_id");
+            }
+            constraintsInstalled = ok;
+        } catch (Exception e){
+            // database not reachable yet
+            LOG.warning("Interview schema check failed, retrying in " + SCHEMA_RETRY_SECONDS + " s: " + e.getMessage());
+            ScheduledExecutorService w = worker;
+            if (w != null && !w.isShutdown()) w.schedule(this::ensureSchema, SCHEMA_RETRY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    private static boolean addConstraint(Connection c, String name, String key) throws SQLException {
+        return run(c, name, st -> {
+            try (ResultSet rs = st.executeQuery("SELECT 1 FROM pg_constraint " +
+                    "WHERE conname = '" + name + "' AND conrelid = CAST('interviews' AS regclass)")){
+                if (rs.next()) return;
+            }
+            st.execute("ALTER TABLE interviews ADD CONSTRAINT " + name + " EXCLUDE USING gist (" +
+                    "(" + key + ") WITH =, tstzrange(scheduled_start, scheduled_end) WITH &&) " +
+                    "WHERE (scheduled_end > scheduled_start AND " + LIVE_SQL + ")");
+        });
+    }
+
+    private static boolean run(Connection c, String what, String ddl) throws SQLException {
+        return run(c, what, st -> st.execute(ddl));
+    }
+
+    private interface Ddl {
+        void apply(Statement st) throws SQLException;
+    }
+
+    /**
+     * Applies one schema change in its own transaction, serialized across nodes by an advisory lock; false
+     * (and logged) if Postgres refused it.
+     */
+    private static boolean run(Connection c, String what, Ddl ddl) throws SQLException {
+        try (Statement st = c.createStatement()){
+            st.execute("SELECT pg_advisory_xact_lock(hashtext('interviews_schema'))");
+            ddl.apply(st);
+            c.commit();
+            return true;
+        } catch (SQLException e){
+            c.rollback();
+            if (e.getSQLState() != null && e.getSQLState().startsWith("08")) throw e;   // connection lost: retry later
+            LOG.warning("Could not create " + what + ("23P01".equals(e.getSQLState())
+                    ? ": existing interviews already overlap; cancel or move them and restart" : ": " + e.getMessage()));
+            return false;
+        }
+    }
+
+    private static javax.sql.DataSource dataSource(){
+        return PersistenceRuntime.get().getDataSource();
+    }
+
+    private static Instant instant(Object o){
+        if (o instanceof Timestamp) return ((Timestamp) o).toInstant();
+        if (o instanceof OffsetDateTime) return ((OffsetDateTime) o).toInstant();
+        if (o instanceof Instant) return (Instant) o;
+        return null;
+    }
+
+    public Map<String, Object> stats(){
+        Map<String, Object> m = new LinkedHashMap<>();
+        Boolean installed = constraintsInstalled;
+        m.put("running", worker != null);
+        m.put("constraints", installed == null ? "pending" : installed ? "installed" : "missing");
+        m.put("interviewers", calendars.size());
+        m.put("intervals", calendars.values().stream().mapToInt(cal -> cal.tree.size()).sum());
+        m.put("horizonDays", TimeUnit.MILLISECONDS.toDays(HORIZON_MILLIS));
+        m.put("ttlSeconds", TimeUnit.MILLISECONDS.toSeconds(TTL_MILLIS));
+        m.put("slotSearches", slotSearches.sum());
+        m.put("hits", hits.sum());
+        m.put("misses", misses.sum());
+        m.put("uncachedWindows", uncached.sum());
+        m.put("invalidations", invalidations.sum());
+        return m;
+    }
+
+    private static long longEnv(String name, long def){
+        try {
+            String v = System.getenv(name);
+            return v == null || v.isBlank() ? def : Math.max(1, Long.parseLong(v.trim()));
+        } catch (NumberFormatException e){
+            LOG.warning("Ignoring invalid " + name);
+            return def;
+        }
+    }
+
+    private static final class Entry {
+        final IntervalTree tree;
+        final long from, to, expiresAt;
+
+        Entry(IntervalTree tree, long from, long to, long expiresAt){
+            this.tree = tree; this.from = from; this.to = to; this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.ats.service;
+
+import com.example.ats.repository.PersistenceRuntime;
+import jakarta.persistence.EntityManager;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+/**
+ * Cross-node invalidation of node-local derived state ({@link JobDetailCache}, {@link CandidateSearchIndex},
+ * {@link InterviewCalendar}) over Postgres LISTEN/NOTIFY.
+ *
+ * Writers call {@code publish} inside the transaction that changes the row, so Postgres delivers the
+ * notification to every listening session when the transaction commits, and drops it on rollback.
+ * Writers that don't expose their transaction publish right after committing. Each
+ * node keeps one LISTEN session on a dedicated connection (outside the pool) and applies the events it
+ * receives. Its own events are skipped, because writers already update local state directly.
+ *
+ * Notifications sent while a node is disconnected are lost. So after the listener (re)connects, it
+ * flushes everything it guards: the job cache and interview calendars are cleared and the search index is
+ * rebuilt. The same
+ * happens if an unparseable event arrives. Reconnects back off from 1 s to 30 s.
+ *
+ * The listener connects directly, not through a transaction-mode pooler (see
+ * {@link PersistenceRuntime#openDedicatedConnection}), and confirms delivery after each connect by sending
+ * itself a probe. If the probe doesn't come back within PROBE_TIMEOUT_MILLIS, a warning is logged and
+ * other nodes' changes only show up when the caches' TTLs expire; {@code stats()} reports this as
+ * {@code delivering=false}.
+ *
+ * Payload: {@code <node>|<entity>|<id>[,<id>...]}, split to stay below the NOTIFY size limit.
+ */
+public final class InvalidationBus {
+    private static final Logger LOG = Logger.getLogger(InvalidationBus.class.getName());
+
+    public static final String JOB = "job";
+    public static final String APPLICATION = "application";
+    /** Ids are interviewers whose calendar changed. */
+    public static final String INTERVIEWER = "interviewer";
+
+    private static final String CHANNEL = "talentflow_invalidate";
+    private static final int MAX_PAYLOAD = 7000;   // Postgres limit is 8000 bytes
+    private static final int POLL_MILLIS = 5000;
+    private static final long MIN_BACKOFF_MILLIS = 1000;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+    private static final long PROBE_TIMEOUT_MILLIS = 15_000;
+    private static final String PROBE = "probe";
+
+    /** Identifies this JVM in payloads so it can ignore its own events. */
+    private static final String NODE = Long.toHexString(new Random().nextLong() & Long.MAX_VALUE);
+
+    private static final InvalidationBus INSTANCE = new InvalidationBus();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Thread listener;
+    private volatile Connection connection;
+    private volatile boolean connected;
+    /** null until this connection's probe came back (true) or timed out (false). */
+    private volatile Boolean delivering;
+    private volatile long probeId;
+    private volatile long probeSentAt;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder ignoredOwn = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+    private final AtomicLong lastEventAt = new AtomicLong();
+
+    private InvalidationBus(){}
+
+    public static InvalidationBus get(){ return INSTANCE; }
+
+    public synchronized void start(){
+        if (!running.compareAndSet(false, true)) return;
+        Thread t = new Thread(this::listen, "invalidation-listener");
+        t.setDaemon(true);
+        listener = t;
+        t.start();
+    }
+
+    public synchronized void stop(){
+        if (!running.compareAndSet(true, false)) return;
+        Thread t = listener;
+        if (t != null) t.interrupt();
+        closeConnection();   // unblocks a pending poll
+        try { if (t != null) t.join(5000); } catch (InterruptedException e){ Thread.currentThread().interrupt(); }
+    }
+
+    /** Announces a change to other nodes when {@code em}'s current transaction commits. */
+    public void publish(EntityManager em, String entity, Long id){
+        if (id == null) return;
+        for (String payload : payloads(entity, List.of(id))){
+            em.createNativeQuery("SELECT pg_notify(?1, ?2)")
+                    .setParameter(1, CHANNEL)
+                    .setParameter(2, payload)
+                    .getSingleResult();
+            published.increment();
+        }
+    }
+
+    /** Announces changes to other nodes when {@code c}'s transaction commits (immediately under autocommit). */
+    public void publish(Connection c, String entity, Collection<Long> ids) throws SQLException {
+        if (ids == null || ids.isEmpty()) return;
+        try (PreparedStatement ps = c.prepareStatement("SELECT pg_notify(?, ?)")){
+            for (String payload : payloads(entity, ids)){
+                ps.setString(1, CHANNEL);
+                ps.setString(2, payload);
+                ps.execute();
+                published.increment();
+            }
+        }
+    }
+
+    /**
+     * Announces already-committed changes to other nodes on a pooled connection. For writers that don't
+     * expose their transaction; failures are logged, and the cache TTL covers a lost event.
+     */
+    public void publish(String entity, Collection<Long> ids){
+        if (ids == null || ids.isEmpty() || !PersistenceRuntime.isStarted()) return;
+        try (Connection c = PersistenceRuntime.get().getDataSource().getConnection()){
+            c.setAutoCommit(true);
+            publish(c, entity, ids);
+        } catch (SQLException e){
+            LOG.warning("Could not publish " + entity + " invalidation: " + e.getMessage());
+        }
+    }
+
+    private static List<String> payloads(String entity, Collection<Long> ids){
+        List<String> out = new ArrayList<>();
+        String prefix = NODE + "|" + entity + "|";
+        StringBuilder sb = new StringBuilder(prefix);
+        for (Long id : ids){
+            if (id == null) continue;
+            String s = id.toString();
+            if (sb.length() > prefix.length() && sb.length() + s.length() + 1 > MAX_PAYLOAD){
+                out.add(sb.toString());
+                sb.setLength(prefix.length());
+            }
+            if (sb.length() > prefix.length()) sb.append(',');
+            sb.append(s);
+        }
+        if (sb.length() > prefix.length()) out.add(sb.toString());
+        return out;
+    }
+
+    // ---------------------------------------------------------------------------------------------------------
+    // listening
+
+    private void listen(){
+        long backoff = MIN_BACKOFF_MILLIS;
+        boolean first = true;
+        while (running.get()){
+            try {
+                Connection c = PersistenceRuntime.get().openDedicatedConnection();
+                connection = c;
+                try (Statement st = c.createStatement()){
+                    st.execute("LISTEN " + CHANNEL);
+                }
+                connected = true;
+                if (!first) reconnects.increment();
+                // anything published while we were not listening is lost; start from a clean slate.
+                // On the first connect the search index is still running its own startup build.
+                if (first){
+                    JobDetailCache.get().invalidateAll();
+                    InterviewCalendar.get().invalidateAll();
+                }
+                else flushAll("listener reconnected");
+                first = false;
+                backoff = MIN_BACKOFF_MILLIS;
+                sendProbe();
+                poll(c.unwrap(PGConnection.class), c);
+            } catch (Exception e){
+                if (!running.get()) break;
+                LOG.warning("Invalidation listener disconnected: " + e.getMessage() + "; retrying in " + backoff + " ms");
+            } finally {
+                connected = false;
+                delivering = null;
+                closeConnection();
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e){
+                break;
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+        }
+    }
+
+    private void poll(PGConnection pg, Connection c) throws SQLException {
+        while (running.get()){
+            PGNotification[] batch = pg.getNotifications(POLL_MILLIS);
+            checkProbe();
+            if (batch == null || batch.length == 0){
+                // an idle socket can die silently; check it between polls
+                if (!c.isValid(5)) throw new SQLException("LISTEN connection no longer valid");
+                continue;
+            }
+            for (PGNotification n : batch) apply(n.getParameter());
+        }
+    }
+
+    private void apply(String payload){
+        received.increment();
+        lastEventAt.set(System.currentTimeMillis());
+        String[] parts = payload == null ? new String[0] : payload.split("\\|", 3);
+        if (parts.length != 3){
+            flushAll("unparseable event");
+            return;
+        }
+        if (NODE.equals(parts[0])){
+            if (PROBE.equals(parts[1])) probeReturned(parts[2]);
+            else ignoredOwn.increment();
+            return;
+        }
+        List<Long> ids = new ArrayList<>();
+        try {
+            for (String s : parts[2].split(",")) ids.add(Long.parseLong(s));
+        } catch (NumberFormatException e){
+            flushAll("unparseable event");
+            return;
+        }
+        switch (parts[1]){
+            case JOB:
+                for (Long id : ids) JobDetailCache.get().invalidate(id);
+                break;
+            case APPLICATION:
+                CandidateSearchIndex.get().applicationsChanged(ids);
+                break;
+            case INTERVIEWER:
+                InterviewCalendar.get().invalidate(ids);
+                break;
+            case PROBE:
+                break;   // another node checking its own listener
+            default:
+                flushAll("unknown entity " + parts[1]);
+        }
+    }
+
+    /** Sends this node a NOTIFY over the pool, which the listener must receive to prove delivery works. */
+    private void sendProbe(){
+        delivering = null;
+        probeId = new Random().nextLong() & Long.MAX_VALUE;
+        probeSentAt = System.currentTimeMillis();
+        publish(PROBE, List.of(probeId));
+    }
+
+    private void probeReturned(String id){
+        if (delivering == null && String.valueOf(probeId).equals(id)){
+            delivering = true;
+            LOG.info("Invalidation listener confirmed NOTIFY delivery");
+        }
+    }
+
+    private void checkProbe(){
+        if (delivering == null && System.currentTimeMillis() - probeSentAt > PROBE_TIMEOUT_MILLIS){
+            delivering = false;
+            LOG.warning("Invalidation listener received no NOTIFY within " + PROBE_TIMEOUT_MILLIS + " ms; " +
+                    "is it connected through a transaction-mode pooler? Set DB_LISTEN_URL to a direct endpoint. " +
+                    "Changes from other nodes now only show up after cache TTL expiry");
+        }
+    }
+
+    private void flushAll(String reason){
+        flushes.increment();
+        JobDetailCache.get().invalidateAll();
+        InterviewCalendar.get().invalidateAll();
+        CandidateSearchIndex.get().resync();
+        LOG.info("Invalidation flush: " + reason);
+    }
+
+    private void closeConnection(){
+        Connection c = connection;
+        connection = null;
+        if (c != null) try { c.close(); } catch (SQLException ignore){}
+    }
+
+    public Map<String, Object> stats(){
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("running", running.get());
+        m.put("connected", connected);
+        m.put("delivering", delivering);
+        m.put("node", NODE);
+        m.put("published", published.sum());
+        m.put("received", received.sum());
+        m.put("ignoredOwn", ignoredOwn.sum());
+        m.put("flushes", flushes.sum());
+        m.put("reconnects", reconnects.sum());
+        long last = lastEventAt.get();
+        m.put("lastEventAt", last == 0 ? null : java.time.Instant.ofEpochMilli(last).toString());
+        return m;
+    }
+}
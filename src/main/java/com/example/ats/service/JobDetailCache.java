@@ -0,0 +1,193 @@
+package com.example.ats.service;
+
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Read-through cache of serialized job detail responses ({@code GET /api/jobs/{id}}), keyed by job id.
+ *
+ * Entries hold the exact JSON bytes that are sent, plus a strong ETag derived from them, so a hit costs no
+ * database round-trip and no serialization. The cache is bounded by total bytes (JOB_CACHE_MAX_BYTES,
+ * least-recently-used entries go first) and every entry expires after JOB_CACHE_TTL_SECONDS as a safety
+ * net for writes that bypass {@link JobService}. Writes through JobService invalidate the job explicitly.
+ *
+ * Concurrent misses for the same job share one load. A load that started before an invalidation is
+ * returned to its caller but not cached, so a slow read can't put a stale version back.
+ */
+public final class JobDetailCache {
+    private static final Logger LOG = Logger.getLogger(JobDetailCache.class.getName());
+
+    private static final long MAX_BYTES = longEnv("JOB_CACHE_MAX_BYTES", 16L * 1024 * 1024);
+    private static final long TTL_MILLIS = TimeUnit.SECONDS.toMillis(longEnv("JOB_CACHE_TTL_SECONDS", 300));
+    /** Per-entry bookkeeping on top of the JSON bytes (map node, entry object, ETag string). */
+    private static final int ENTRY_OVERHEAD = 160;
+
+    private static final JobDetailCache INSTANCE = new JobDetailCache();
+
+    /** Access-ordered, so iteration starts at the least recently used entry. Guarded by {@code this}. */
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+    private final ConcurrentHashMap<Long, CompletableFuture<Entry>> loading = new ConcurrentHashMap<>();
+    /** Bumped by every invalidation; loads compare it before caching their result. */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder sharedLoads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private JobDetailCache(){}
+
+    public static JobDetailCache get(){ return INSTANCE; }
+
+    /** Produces the serialized detail of a job, or null when the job does not exist. */
+    @FunctionalInterface
+    public interface Loader {
+        byte[] load() throws Exception;
+    }
+
+    /** Cached (or freshly loaded) detail of a job; null when the loader reports no such job. */
+    public Entry get(Long jobId, Loader loader) throws Exception {
+        long now = System.currentTimeMillis();
+        synchronized (this){
+            Entry e = entries.get(jobId);
+            if (e != null){
+                if (e.expiresAt > now){
+                    hits.increment();
+                    return e;
+                }
+                remove(jobId);
+                expirations.increment();
+            }
+        }
+        misses.increment();
+
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> inFlight = loading.putIfAbsent(jobId, mine);
+        if (inFlight != null){
+            sharedLoads.increment();
+            try {
+                return inFlight.get();
+            } catch (ExecutionException ex){
+                Throwable cause = ex.getCause();
+                throw cause instanceof Exception ? (Exception) cause : new RuntimeException(cause);
+            }
+        }
+        try {
+            long gen = generation.get();
+            loads.increment();
+            byte[] json = loader.load();
+            Entry e = json == null ? null : new Entry(json, etagOf(json), System.currentTimeMillis() + TTL_MILLIS);
+            if (e != null) put(jobId, e, gen);
+            mine.complete(e);
+            return e;
+        } catch (Exception ex){
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            loading.remove(jobId, mine);
+        }
+    }
+
+    /** Drops a job's entry; call after its change is committed. */
+    public void invalidate(Long jobId){
+        if (jobId == null) return;
+        generation.incrementAndGet();
+        invalidations.increment();
+        synchronized (this){
+            remove(jobId);
+        }
+    }
+
+    /** Drops everything. */
+    public void invalidateAll(){
+        generation.incrementAndGet();
+        invalidations.increment();
+        synchronized (this){
+            entries.clear();
+            bytes = 0;
+        }
+    }
+
+    private synchronized void put(Long jobId, Entry e, long gen){
+        if (generation.get() != gen) return;   // invalidated while loading
+        if (e.weight() > MAX_BYTES) return;    // would evict everything else
+        remove(jobId);
+        entries.put(jobId, e);
+        bytes += e.weight();
+        Iterator<Map.Entry<Long, Entry>> it = entries.entrySet().iterator();
+        while (bytes > MAX_BYTES && it.hasNext()){
+            Map.Entry<Long, Entry> eldest = it.next();
+            it.remove();
+            bytes -= eldest.getValue().weight();
+            evictions.increment();
+        }
+    }
+
+    private void remove(Long jobId){
+        Entry old = entries.remove(jobId);
+        if (old != null) bytes -= old.weight();
+    }
+
+    private static String etagOf(byte[] json){
+        try {
+            byte[] d = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(d, 0, 16);
+        } catch (java.security.NoSuchAlgorithmException e){
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Map<String, Object> stats(){
+        Map<String, Object> m = new LinkedHashMap<>();
+        long h = hits.sum(), ms = misses.sum();
+        synchronized (this){
+            m.put("entries", entries.size());
+            m.put("bytes", bytes);
+        }
+        m.put("maxBytes", MAX_BYTES);
+        m.put("ttlSeconds", TimeUnit.MILLISECONDS.toSeconds(TTL_MILLIS));
+        m.put("hits", h);
+        m.put("misses", ms);
+        m.put("hitRatio", h + ms == 0 ? 0.0 : (double) h / (h + ms));
+        m.put("loads", loads.sum());
+        m.put("sharedLoads", sharedLoads.sum());
+        m.put("evictions", evictions.sum());
+        m.put("expirations", expirations.sum());
+        m.put("invalidations", invalidations.sum());
+        return m;
+    }
+
+    private static long longEnv(String name, long def){
+        try {
+            String v = System.getenv(name);
+            return v == null || v.isBlank() ? def : Math.max(0, Long.parseLong(v.trim()));
+        } catch (NumberFormatException e){
+            LOG.warning("Ignoring invalid " + name);
+            return def;
+        }
+    }
+
+    /** Serialized job detail with its strong ETag (unquoted). */
+    public static final class Entry {
+        private final byte[] json;
+        private final String etag;
+        private final long expiresAt;
+
+        Entry(byte[] json, String etag, long expiresAt){
+            this.json = json; this.etag = etag; this.expiresAt = expiresAt;
+        }
+
+        public byte[] getJson(){ return json; }
+        public String getEtag(){ return etag; }
+
+        long weight(){ return json.length + ENTRY_OVERHEAD; }
+    }
+}
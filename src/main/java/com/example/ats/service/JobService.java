@@ -1,6 +1,8 @@
 package com.example.ats.service;
 
 import com.example.ats.dto.JobCreateRequest;
+import com.example.ats.dto.JobSummary;
+import com.example.ats.dto.KeysetPage;
 import com.example.ats.entity.*;
 import com.example.ats.repository.JobRepository;
 import jakarta.persistence.EntityManagerFactory;
@@ -15,6 +17,22 @@ public class JobService {
     }
 
     public Job createFromDto(JobCreateRequest req){
+        Job job = newJob(req);
+
+        // obtain a unique id before persisting
+        Long id = jobRepo.nextId();
+        job.setId(id);
+
+        // Generate form link to application page
+        job.setFormLink("/apply/apply.html?jobId=" + id);
+
+        Job saved = jobRepo.save(job);
+        invalidate(id);
+        return saved;
+    }
+
+    /** An unsaved job (no id yet) built from a create request. Unknown enum values are left null. */
+    public Job newJob(JobCreateRequest req){
         Job job = new Job();
         job.setTitle(req.getJob_title());
         job.setDepartment(req.getDepartment());
@@ -31,24 +49,27 @@ public class JobService {
         job.setManagedByManagerId(req.getManaged_by_manager_id());
         job.setCreatedAt(java.time.OffsetDateTime.now());
         job.setUpdatedAt(java.time.OffsetDateTime.now());
-        List<JobDescription> jdList = null;
         if(req.getJds() != null){
-            jdList = req.getJds().stream()
+            List<JobDescription> jdList = req.getJds().stream()
                     .map(jd -> new JobDescription(jd.getTitle(), jd.getDescription(), jd.getWeight()))
                     .collect(Collectors.toList());
             // attach to job with back-reference
             for (JobDescription jd : jdList){ jd.setJob(job); }
             job.setJds(jdList);
         }
+        return job;
+    }
 
-        // obtain a unique id before persisting
-        Long id = jobRepo.nextId();
-        job.setId(id);
-
-        // Generate form link to application page
-        job.setFormLink("/apply/apply.html?jobId=" + id);
-
-        return jobRepo.save(job);
+    /**
+     * Saves new jobs (from {@link #newJob}) in one transaction with batched inserts: all of them or none.
+     * Ids are assigned to jobs that don't have one yet, so a failed batch can be retried with the same ids.
+     */
+    public List<Job> createAll(List<Job> jobs){
+        for (Job job : jobs){
+            if (job.getId() == null) job.setId(jobRepo.nextId());
+            job.setFormLink("/apply/apply.html?jobId=" + job.getId());
+        }
+        return jobRepo.saveAll(jobs);
     }
 
     public Job updateFromDto(JobCreateRequest req){
@@ -108,6 +129,8 @@ public class JobService {
         System.out.println("Calling jobRepo.update()...");
         Job result = jobRepo.update(job);
         System.out.println("Update completed successfully!");
+        invalidate(jobId);
+        ScreeningEngine.get().jobDescriptionsChanged(jobId);
         return result;
     }
 
@@ -115,13 +138,38 @@ public class JobService {
         return jobRepo.findById(id).orElse(null);
     }
 
+    public List<JobSummary> findSummariesByManager(Long managerId, JobStatus status, Long afterId, Integer limit) {
+        return jobRepo.findSummariesByManager(managerId, status, afterId, limit);
+    }
+
+    /**
+     * One page of the company-wide job list. {@code pageSize == null} returns everything;
+     * the total is counted only when asked for and the result is actually paged.
+     */
+    public KeysetPage<JobSummary> listSummaries(JobStatus status, Long afterId, Integer pageSize, boolean withTotal) {
+        List<JobSummary> rows = jobRepo.findSummaries(null, status, afterId, pageSize == null ? null : pageSize + 1, false);
+        String next = null;
+        if (pageSize != null && rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            next = String.valueOf(rows.get(pageSize - 1).getId());
+        }
+        Long total = null;
+        if (withTotal) {
+            total = (pageSize == null && afterId == null) ? (long) rows.size() : jobRepo.countSummaries(null, status);
+        }
+        return new KeysetPage<>(rows, next, total);
+    }
+
     public List<Job> findAll() {
         return jobRepo.findAll();
     }
 
     public Job update(Job job) {
         job.setUpdatedAt(java.time.OffsetDateTime.now());
-        return jobRepo.update(job);
+        Job result = jobRepo.update(job);
+        invalidate(job.getId());
+        ScreeningEngine.get().jobDescriptionsChanged(job.getId());
+        return result;
     }
 
     public void updateJobDescriptions(Job job, java.util.List<?> jdsList) {
@@ -147,5 +195,10 @@ public class JobService {
             }
         }
     }
-}
 
+    /** Drops the job from this node's cache and tells the other nodes to do the same. */
+    private static void invalidate(Long jobId) {
+        JobDetailCache.get().invalidate(jobId);
+        InvalidationBus.get().publish(InvalidationBus.JOB, java.util.List.of(jobId));
+    }
+}
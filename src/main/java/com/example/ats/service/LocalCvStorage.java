@@ -0,0 +1,154 @@
+package com.example.ats.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * {@link CvStorage} on a local (or shared network) filesystem.
+ *
+ * Objects live at {@code <root>/<h0h1>/<h2h3>/<key>}, so no directory grows beyond a few hundred entries.
+ * Uploads are spooled into {@code <root>/.staging} and renamed into place; with the default fsync policy both
+ * the file and the directory entry are forced before {@link #put} returns.
+ *
+ * CV_STORAGE_DIR sets the root (default data/cvs), CV_FSYNC the {@link FsyncPolicy}.
+ */
+public final class LocalCvStorage implements CvStorage {
+
+    /** How much {@link #put} forces to disk before returning. */
+    public enum FsyncPolicy {
+        /** File contents and the directory entry of the rename. */
+        ALWAYS,
+        /** File contents only; a crash right after the rename may lose the entry. */
+        DATA,
+        /** Nothing; leave it to the OS (tests, throwaway environments). */
+        NONE;
+
+        static FsyncPolicy fromEnvironment(){
+            String v = System.getenv("CV_FSYNC");
+            if (v == null || v.isBlank()) return ALWAYS;
+            try {
+                return valueOf(v.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e){
+                return ALWAYS;
+            }
+        }
+    }
+
+    private final Path root;
+    private final Path staging;
+    private final FsyncPolicy fsync;
+
+    public LocalCvStorage(Path root, FsyncPolicy fsync) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        this.staging = this.root.resolve(".staging");
+        this.fsync = fsync;
+        Files.createDirectories(staging);
+    }
+
+    @Override
+    public StoredCv put(InputStream in, String submittedFileName, long maxBytes) throws IOException {
+        Path tmp = Files.createTempFile(staging, "cv-", ".part");
+        boolean moved = false;
+        try {
+            HashingSpool spool = HashingSpool.copy(in, tmp, maxBytes, fsync != FsyncPolicy.NONE);
+            String key = spool.key(submittedFileName);
+            Path target = resolve(key);
+
+            if (Files.exists(target) && Files.size(target) == spool.size){
+                return new StoredCv(key, spool.sha256, spool.size, true);
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException raced){
+                // a concurrent upload of the same bytes won the rename
+                return new StoredCv(key, spool.sha256, spool.size, true);
+            }
+            moved = true;
+            if (fsync == FsyncPolicy.ALWAYS) forceDirectory(target.getParent());
+            return new StoredCv(key, spool.sha256, spool.size, false);
+        } finally {
+            if (!moved) Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public Optional<CvObject> stat(String key) throws IOException {
+        Path p = resolve(key);
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(p, BasicFileAttributes.class);
+            return Optional.of(new CvObject(key, attrs.size(), attrs.lastModifiedTime().toInstant()));
+        } catch (NoSuchFileException e){
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public InputStream open(String key, long offset, long length) throws IOException {
+        return openRange(resolve(key), offset, length);
+    }
+
+    /** Streams {@code length} bytes of {@code file} from {@code offset} ({@code length < 0}: to the end). */
+    public static InputStream openRange(Path file, long offset, long length) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ch.position(offset);
+            InputStream in = Channels.newInputStream(ch);
+            return length < 0 ? in : new BoundedInputStream(in, length);
+        } catch (IOException e){
+            ch.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    private Path resolve(String key){
+        if (!CvStorage.isKey(key)) throw new IllegalArgumentException("Not a CV storage key: " + key);
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private static void forceDirectory(Path dir){
+        // makes the rename itself durable; not supported on every platform, where it is best effort
+        try (FileChannel ch = FileChannel.open(dir, StandardOpenOption.READ)){
+            ch.force(true);
+        } catch (IOException ignore){
+        }
+    }
+
+    /** Stops after {@code remaining} bytes; closing it closes the underlying channel. */
+    static final class BoundedInputStream extends InputStream {
+        private final InputStream in;
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long limit){ this.in = in; this.remaining = limit; }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) return -1;
+            int b = in.read();
+            if (b >= 0) remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) return -1;
+            int n = in.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) remaining -= n;
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException { in.close(); }
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.ats.service;
+
+import com.example.ats.repository.PersistenceRuntime;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Background dispatcher for the notifications outbox.
+ *
+ * Request handlers only insert rows with delivery_status = 'pending' inside their own transaction.
+ * This worker claims due rows with FOR UPDATE SKIP LOCKED (so several nodes can run it), hands them to the
+ * configured {@link NotificationSender} in batches and records the outcome: 'sent' with sent_at, or a retry
+ * with exponential backoff, or 'dead' after {@code MAX_ATTEMPTS}. Rows stuck in 'sending' (node died
+ * mid-batch) are reclaimed after {@code STALE_CLAIM_SECONDS}.
+ *
+ * The sender is chosen by the NOTIFICATION_SENDER env var (a class name); default {@link FileNotificationSender}.
+ */
+public final class NotificationDispatcher {
+    private static final Logger LOG = Logger.getLogger(NotificationDispatcher.class.getName());
+
+    public static final String PENDING = "pending";
+    public static final String SENDING = "sending";
+    public static final String SENT = "sent";
+    public static final String DEAD = "dead";
+
+    private static final int BATCH_SIZE = 50;
+    private static final long POLL_INTERVAL_MS = 2_000;
+    private static final int MAX_ATTEMPTS = 6;
+    private static final long BASE_BACKOFF_SECONDS = 30;
+    private static final long MAX_BACKOFF_SECONDS = 3_600;
+    private static final long STALE_CLAIM_SECONDS = 300;
+
+    private static final NotificationDispatcher INSTANCE = new NotificationDispatcher();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean pollQueued = new AtomicBoolean();
+    private volatile ScheduledExecutorService executor;
+    private volatile NotificationSender sender;
+    private volatile long pausedUntil; // after DB errors, back off instead of hammering the database
+    private int consecutiveErrors;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dead = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder sendNanos = new LongAdder();
+    private volatile long lastBatchAt;
+
+    private NotificationDispatcher(){}
+
+    public static NotificationDispatcher get(){ return INSTANCE; }
+
+    public synchronized void start(){
+        if (!running.compareAndSet(false, true)) return;
+        if (sender == null) sender = createSender();
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "notification-dispatcher");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::pollSafely, POLL_INTERVAL_MS, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        LOG.info("Notification dispatcher started with " + sender.getClass().getSimpleName());
+    }
+
+    public synchronized void stop(){
+        if (!running.compareAndSet(true, false)) return;
+        executor.shutdownNow();
+        try { executor.awaitTermination(5, TimeUnit.SECONDS); } catch (InterruptedException e){ Thread.currentThread().interrupt(); }
+    }
+
+    /** Replaces the delivery channel (e.g. an SMTP implementation). */
+    public void setSender(NotificationSender sender){ this.sender = sender; }
+
+    /** Hint that new rows were committed; triggers a poll now instead of at the next interval. */
+    public void wakeUp(){
+        ScheduledExecutorService ex = executor;
+        if (!running.get() || ex == null) return;
+        if (pollQueued.compareAndSet(false, true)){
+            try { ex.execute(() -> { pollQueued.set(false); pollSafely(); }); }
+            catch (RejectedExecutionException ignore){ pollQueued.set(false); }
+        }
+    }
+
+    private void pollSafely(){
+        if (System.currentTimeMillis() < pausedUntil) return;
+        try {
+            while (running.get() && dispatchBatch() == BATCH_SIZE) { /* keep draining a backlog */ }
+            consecutiveErrors = 0;
+        } catch (Exception e){
+            consecutiveErrors++;
+            long pause = Math.min(60_000L, POLL_INTERVAL_MS << Math.min(consecutiveErrors, 5));
+            pausedUntil = System.currentTimeMillis() + pause;
+            LOG.warning("Notification dispatch failed (" + e.getClass().getName() + ": " + e.getMessage() + "); pausing " + pause + " ms");
+        }
+    }
+
+    /** Claims, sends and settles one batch. Returns the number of rows claimed. */
+    private int dispatchBatch(){
+        List<NotificationSender.Message> batch = claim();
+        if (batch.isEmpty()) return 0;
+
+        long start = System.nanoTime();
+        Map<Long, Exception> failures;
+        try {
+            failures = sender.send(batch);
+            if (failures == null) failures = Map.of();
+        } catch (Exception e){
+            failures = new HashMap<>();
+            for (NotificationSender.Message m : batch) failures.put(m.getId(), e);
+        }
+        sendNanos.add(System.nanoTime() - start);
+        batches.increment();
+        lastBatchAt = System.currentTimeMillis();
+
+        settle(batch, failures);
+        return batch.size();
+    }
+
+    private List<NotificationSender.Message> claim(){
+        EntityManager em = PersistenceRuntime.emf().createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        try {
+            tx.begin();
+            String sql =
+                    "WITH due AS (" +
+                    "  SELECT id FROM notifications " +
+                    "  WHERE (delivery_status = ?1 AND (next_attempt_at IS NULL OR next_attempt_at <= NOW())) " +
+                    "     OR (delivery_status = ?2 AND claimed_at < NOW() - make_interval(secs => ?3)) " +
+                    "  ORDER BY id LIMIT ?4 FOR UPDATE SKIP LOCKED) " +
+                    "UPDATE notifications n SET delivery_status = ?2, claimed_at = NOW(), attempts = COALESCE(n.attempts, 0) + 1 " +
+                    "FROM due WHERE n.id = due.id " +
+                    "RETURNING n.id, CAST(n.notification_type AS text), n.to_email, n.subject, n.body, n.attempts";
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = em.createNativeQuery(sql)
+                    .setParameter(1, PENDING)
+                    .setParameter(2, SENDING)
+                    .setParameter(3, (double) STALE_CLAIM_SECONDS)
+                    .setParameter(4, BATCH_SIZE)
+                    .getResultList();
+            tx.commit();
+
+            List<NotificationSender.Message> out = new ArrayList<>(rows.size());
+            for (Object[] r : rows){
+                out.add(new NotificationSender.Message(((Number) r[0]).longValue(),
+                        r[1] == null ? null : r[1].toString(), (String) r[2], (String) r[3], (String) r[4],
+                        r[5] == null ? 1 : ((Number) r[5]).intValue()));
+            }
+            return out;
+        } catch (RuntimeException e){
+            if (tx.isActive()) try { tx.rollback(); } catch (Exception ignore){}
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    private void settle(List<NotificationSender.Message> batch, Map<Long, Exception> failures){
+        List<Long> ok = new ArrayList<>(batch.size());
+        for (NotificationSender.Message m : batch) if (!failures.containsKey(m.getId())) ok.add(m.getId());
+
+        EntityManager em = PersistenceRuntime.emf().createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        try {
+            tx.begin();
+            if (!ok.isEmpty()){
+                em.createNativeQuery("UPDATE notifications SET delivery_status = ?1, sent_at = NOW(), last_error = NULL, next_attempt_at = NULL WHERE id IN (?2)")
+                        .setParameter(1, SENT)
+                        .setParameter(2, ok)
+                        .executeUpdate();
+            }
+            for (NotificationSender.Message m : batch){
+                Exception err = failures.get(m.getId());
+                if (err == null) continue;
+                boolean giveUp = m.getAttempt() >= MAX_ATTEMPTS;
+                long backoff = Math.min(MAX_BACKOFF_SECONDS, BASE_BACKOFF_SECONDS << Math.min(m.getAttempt() - 1, 16));
+                String msg = err.getClass().getSimpleName() + ": " + err.getMessage();
+                em.createNativeQuery("UPDATE notifications SET delivery_status = ?1, last_error = ?2, " +
+                                "next_attempt_at = NOW() + make_interval(secs => ?3) WHERE id = ?4")
+                        .setParameter(1, giveUp ? DEAD : PENDING)
+                        .setParameter(2, msg.length() > 1000 ? msg.substring(0, 1000) : msg)
+                        .setParameter(3, (double) backoff)
+                        .setParameter(4, m.getId())
+                        .executeUpdate();
+                if (giveUp){
+                    dead.increment();
+                    LOG.warning("Notification " + m.getId() + " moved to dead-letter after " + m.getAttempt() + " attempts: " + msg);
+                } else {
+                    failed.increment();
+                }
+            }
+            tx.commit();
+            sent.add(ok.size());
+        } catch (RuntimeException e){
+            if (tx.isActive()) try { tx.rollback(); } catch (Exception ignore){}
+            // rows stay 'sending' and are reclaimed after STALE_CLAIM_SECONDS
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    /** Throughput counters plus the current outbox backlog per state. */
+    public Map<String,Object> stats(){
+        Map<String,Object> m = new LinkedHashMap<>();
+        m.put("running", running.get());
+        m.put("sender", sender == null ? null : sender.getClass().getName());
+        long b = batches.sum();
+        m.put("sent", sent.sum());
+        m.put("failedAttempts", failed.sum());
+        m.put("deadLettered", dead.sum());
+        m.put("batches", b);
+        m.put("avgBatchSendMillis", b == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(sendNanos.sum() / b));
+        m.put("lastBatchAt", lastBatchAt == 0 ? null : java.time.Instant.ofEpochMilli(lastBatchAt).toString());
+        if (PersistenceRuntime.isStarted()){
+            try (EntityManager em = PersistenceRuntime.emf().createEntityManager()){
+                @SuppressWarnings("unchecked")
+                List<Object[]> rows = em.createNativeQuery(
+                        "SELECT delivery_status, COUNT(*) FROM notifications WHERE delivery_status IN (?1, ?2, ?3) GROUP BY delivery_status")
+                        .setParameter(1, PENDING).setParameter(2, SENDING).setParameter(3, DEAD)
+                        .getResultList();
+                Map<String,Object> backlog = new LinkedHashMap<>();
+                for (Object[] r : rows) backlog.put(String.valueOf(r[0]), ((Number) r[1]).longValue());
+                m.put("backlog", backlog);
+            } catch (Exception e){
+                m.put("backlog", null);
+            }
+        }
+        return m;
+    }
+
+    private static NotificationSender createSender(){
+        String cls = System.getenv("NOTIFICATION_SENDER");
+        if (cls != null && !cls.isBlank()){
+            try {
+                return (NotificationSender) Class.forName(cls.trim()).getDeclaredConstructor().newInstance();
+            } catch (Exception e){
+                LOG.severe("Cannot create NotificationSender " + cls + ": " + e.getMessage() + "; using file sink");
+            }
+        }
+        return new FileNotificationSender();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.ats.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * A committed, user-visible change (notification written, application status changed, interview scheduled)
+ * as carried by {@link NotificationEventBus}. {@code id} is assigned by the bus on publish.
+ */
+public class NotificationEvent {
+    public static final String NOTIFICATION = "notification";
+    public static final String APPLICATION_STATUS = "application_status";
+    public static final String INTERVIEW_SCHEDULED = "interview_scheduled";
+
+    private long id;
+    private Instant createdAt;
+    private final String type;
+    private final Set<Long> recipientUserIds;
+    private final Long applicationId;
+    private final Long jobId;
+    private final String jobTitle;
+    private final String status;
+    private final Long notificationId;
+    private final String notificationType;
+    private final String subject;
+
+    public NotificationEvent(String type, Set<Long> recipientUserIds, Long applicationId, Long jobId, String jobTitle,
+                             String status, Long notificationId, String notificationType, String subject){
+        this.type = type; this.recipientUserIds = recipientUserIds; this.applicationId = applicationId;
+        this.jobId = jobId; this.jobTitle = jobTitle; this.status = status; this.notificationId = notificationId;
+        this.notificationType = notificationType; this.subject = subject;
+    }
+
+    void assign(long id, Instant createdAt){ this.id = id; this.createdAt = createdAt; }
+
+    public boolean isFor(Long userId){ return userId != null && recipientUserIds.contains(userId); }
+
+    public long getId(){ return id; }
+    public Instant getCreatedAt(){ return createdAt; }
+    public String getType(){ return type; }
+    @JsonIgnore
+    public Set<Long> getRecipientUserIds(){ return recipientUserIds; }
+    public Long getApplicationId(){ return applicationId; }
+    public Long getJobId(){ return jobId; }
+    public String getJobTitle(){ return jobTitle; }
+    public String getStatus(){ return status; }
+    public Long getNotificationId(){ return notificationId; }
+    public String getNotificationType(){ return notificationType; }
+    public String getSubject(){ return subject; }
+}
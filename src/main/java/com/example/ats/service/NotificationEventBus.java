@@ -0,0 +1,72 @@
+package com.example.ats.service;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+/**
+ * In-process pub/sub for {@link NotificationEvent}s. Resources publish after their transaction commits;
+ * listeners (the SSE stream) fan events out to connected users.
+ *
+ * The last {@code RETAINED_EVENTS} events are kept so a reconnecting client can resume from its
+ * Last-Event-ID. Ids restart with the JVM, so a resume id the bus cannot vouch for means "resync".
+ */
+public final class NotificationEventBus {
+    private static final Logger LOG = Logger.getLogger(NotificationEventBus.class.getName());
+    private static final int RETAINED_EVENTS = 1_000;
+    private static final NotificationEventBus INSTANCE = new NotificationEventBus();
+
+    public interface Listener {
+        void onEvent(NotificationEvent event);
+    }
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ArrayDeque<NotificationEvent> recent = new ArrayDeque<>(RETAINED_EVENTS);
+    private long lastId;
+
+    private NotificationEventBus(){}
+
+    public static NotificationEventBus get(){ return INSTANCE; }
+
+    public void addListener(Listener l){ listeners.add(l); }
+    public void removeListener(Listener l){ listeners.remove(l); }
+
+    /** Assigns the next event id and delivers the event to every listener. Never throws. */
+    public void publish(NotificationEvent event){
+        if (event == null || event.getRecipientUserIds() == null || event.getRecipientUserIds().isEmpty()) return;
+        synchronized (recent){
+            event.assign(++lastId, Instant.now());
+            if (recent.size() == RETAINED_EVENTS) recent.removeFirst();
+            recent.addLast(event);
+        }
+        for (Listener l : listeners){
+            try { l.onEvent(event); }
+            catch (Exception e){ LOG.warning("Notification listener failed: " + e.getClass().getName() + ": " + e.getMessage()); }
+        }
+    }
+
+    /**
+     * Events for {@code userId} published after {@code lastEventId}, oldest first, or {@code null} when
+     * the gap can no longer be replayed (evicted from the buffer, or an id from before a restart).
+     */
+    public List<NotificationEvent> replay(long lastEventId, Long userId){
+        synchronized (recent){
+            if (lastEventId > lastId) return null;
+            long oldest = recent.isEmpty() ? lastId + 1 : recent.peekFirst().getId();
+            if (lastEventId < oldest - 1) return null;
+            List<NotificationEvent> out = new ArrayList<>();
+            for (NotificationEvent e : recent){
+                if (e.getId() > lastEventId && e.isFor(userId)) out.add(e);
+            }
+            return out;
+        }
+    }
+
+    /** Convenience for building the recipient set; nulls are skipped. */
+    public static Set<Long> recipients(Long... userIds){
+        Set<Long> s = new HashSet<>();
+        for (Long id : userIds) if (id != null) s.add(id);
+        return s;
+    }
+}
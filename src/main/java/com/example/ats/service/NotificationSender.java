@@ -0,0 +1,39 @@
+package com.example.ats.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivery channel for outbox notifications (SMTP, provider API, file sink...).
+ * Implementations are called from the dispatcher thread, never from a request thread.
+ */
+public interface NotificationSender {
+
+    /**
+     * Delivers one batch. Returns the failures keyed by notification id; every message not in the
+     * returned map is considered sent.
+     */
+    Map<Long, Exception> send(List<Message> batch);
+
+    /** A claimed outbox row ready for delivery. */
+    final class Message {
+        private final long id;
+        private final String notificationType;
+        private final String toEmail;
+        private final String subject;
+        private final String body;
+        private final int attempt;
+
+        public Message(long id, String notificationType, String toEmail, String subject, String body, int attempt){
+            this.id = id; this.notificationType = notificationType; this.toEmail = toEmail;
+            this.subject = subject; this.body = body; this.attempt = attempt;
+        }
+
+        public long getId(){ return id; }
+        public String getNotificationType(){ return notificationType; }
+        public String getToEmail(){ return toEmail; }
+        public String getSubject(){ return subject; }
+        public String getBody(){ return body; }
+        public int getAttempt(){ return attempt; }
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.ats.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Optional;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * {@link CvStorage} on an S3-compatible object store (AWS S3, MinIO, Ceph RGW, ...).
+ *
+ * Requests use path-style URLs and AWS Signature V4 over the JDK HTTP client, so pointing CV_S3_ENDPOINT at a
+ * local MinIO container is all a test setup needs. Uploads are spooled to a temp file first: the key is the
+ * content hash, which is only known after the last byte, and the same hash doubles as the signed payload hash.
+ * A HEAD on the key skips the PUT for content that is already stored.
+ *
+ * Settings: CV_S3_ENDPOINT (e.g. http://localhost:9000), CV_S3_BUCKET, CV_S3_REGION (default us-east-1),
+ * CV_S3_ACCESS_KEY, CV_S3_SECRET_KEY, CV_S3_PREFIX (default "cvs/").
+ */
+public final class S3CvStorage implements CvStorage {
+    private static final String EMPTY_SHA256 = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    private final URI endpoint;
+    private final String bucket;
+    private final String region;
+    private final String accessKey;
+    private final String secretKey;
+    private final String prefix;
+    private final HttpClient http;
+
+    public S3CvStorage(URI endpoint, String bucket, String region, String accessKey, String secretKey, String prefix){
+        this.endpoint = endpoint;
+        this.bucket = bucket;
+        this.region = region;
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.prefix = prefix == null ? "" : prefix;
+        this.http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    }
+
+    static S3CvStorage fromEnvironment(){
+        String endpoint = require("CV_S3_ENDPOINT");
+        String region = System.getenv("CV_S3_REGION");
+        String prefix = System.getenv("CV_S3_PREFIX");
+        return new S3CvStorage(URI.create(endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint),
+                require("CV_S3_BUCKET"),
+                region == null || region.isBlank() ? "us-east-1" : region.trim(),
+                require("CV_S3_ACCESS_KEY"), require("CV_S3_SECRET_KEY"),
+                prefix == null ? "cvs/" : prefix.trim());
+    }
+
+    @Override
+    public StoredCv put(InputStream in, String submittedFileName, long maxBytes) throws IOException {
+        Path tmp = Files.createTempFile("cv-", ".part");
+        try {
+            HashingSpool spool = HashingSpool.copy(in, tmp, maxBytes, false);
+            String key = spool.key(submittedFileName);
+            if (stat(key).isPresent()){
+                return new StoredCv(key, spool.sha256, spool.size, true);
+            }
+            HttpRequest.Builder b = HttpRequest.newBuilder(objectUri(key))
+                    .timeout(TIMEOUT)
+                    .header("Content-Type", new CvObject(key, spool.size, null).getContentType())
+                    .PUT(HttpRequest.BodyPublishers.ofFile(tmp));
+            sign(b, "PUT", key, spool.sha256);
+            HttpResponse<String> resp = send(b.build(), HttpResponse.BodyHandlers.ofString());
+            // S3 acknowledges a PUT only once the object is durably stored
+            if (resp.statusCode() / 100 != 2) throw failure("PUT", key, resp.statusCode(), resp.body());
+            return new StoredCv(key, spool.sha256, spool.size, false);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public Optional<CvObject> stat(String key) throws IOException {
+        HttpRequest.Builder b = HttpRequest.newBuilder(objectUri(key)).timeout(TIMEOUT)
+                .method("HEAD", HttpRequest.BodyPublishers.noBody());
+        sign(b, "HEAD", key, EMPTY_SHA256);
+        HttpResponse<Void> resp = send(b.build(), HttpResponse.BodyHandlers.discarding());
+        if (resp.statusCode() == 404) return Optional.empty();
+        if (resp.statusCode() / 100 != 2) throw failure("HEAD", key, resp.statusCode(), null);
+        long size = resp.headers().firstValueAsLong("Content-Length").orElse(-1);
+        Instant modified = resp.headers().firstValue("Last-Modified")
+                .map(v -> ZonedDateTime.parse(v, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant())
+                .orElse(null);
+        return Optional.of(new CvObject(key, size, modified));
+    }
+
+    @Override
+    public InputStream open(String key, long offset, long length) throws IOException {
+        HttpRequest.Builder b = HttpRequest.newBuilder(objectUri(key)).timeout(TIMEOUT).GET();
+        if (offset > 0 || length >= 0){
+            b.header("Range", "bytes=" + offset + "-" + (length >= 0 ? String.valueOf(offset + length - 1) : ""));
+        }
+        sign(b, "GET", key, EMPTY_SHA256);
+        HttpResponse<InputStream> resp = send(b.build(), HttpResponse.BodyHandlers.ofInputStream());
+        if (resp.statusCode() / 100 != 2){
+            try (InputStream err = resp.body()){
+                throw failure("GET", key, resp.statusCode(), new String(err.readNBytes(512), StandardCharsets.UTF_8));
+            }
+        }
+        return resp.body();
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        HttpRequest.Builder b = HttpRequest.newBuilder(objectUri(key)).timeout(TIMEOUT).DELETE();
+        sign(b, "DELETE", key, EMPTY_SHA256);
+        HttpResponse<String> resp = send(b.build(), HttpResponse.BodyHandlers.ofString());
+        if (resp.statusCode() / 100 != 2 && resp.statusCode() != 404) throw failure("DELETE", key, resp.statusCode(), resp.body());
+    }
+
+    private String objectPath(String key){
+        return "/" + encode(bucket) + "/" + encode(prefix + key).replace("%2F", "/");
+    }
+
+    private URI objectUri(String key){
+        if (!CvStorage.isKey(key)) throw new IllegalArgumentException("Not a CV storage key: " + key);
+        return URI.create(endpoint + objectPath(key));
+    }
+
+    /** AWS Signature V4 over host, x-amz-content-sha256 and x-amz-date. */
+    private void sign(HttpRequest.Builder b, String method, String key, String payloadSha256){
+        String amzDate = AMZ_DATE.format(Instant.now());
+        String date = amzDate.substring(0, 8);
+        String host = endpoint.getHost() + (endpoint.getPort() == -1 ? "" : ":" + endpoint.getPort());
+        String signedHeaders = "host;x-amz-content-sha256;x-amz-date";
+        String canonicalRequest = method + "\n" + objectPath(key) + "\n\n"
+                + "host:" + host + "\n"
+                + "x-amz-content-sha256:" + payloadSha256 + "\n"
+                + "x-amz-date:" + amzDate + "\n\n"
+                + signedHeaders + "\n" + payloadSha256;
+        String scope = date + "/" + region + "/s3/aws4_request";
+        String stringToSign = "AWS4-HMAC-SHA256\n" + amzDate + "\n" + scope + "\n"
+                + HexFormat.of().formatHex(HashingSpool.sha256().digest(canonicalRequest.getBytes(StandardCharsets.UTF_8)));
+
+        byte[] k = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date);
+        k = hmac(k, region);
+        k = hmac(k, "s3");
+        k = hmac(k, "aws4_request");
+        String signature = HexFormat.of().formatHex(hmac(k, stringToSign));
+
+        b.header("x-amz-date", amzDate)
+         .header("x-amz-content-sha256", payloadSha256)
+         .header("Authorization", "AWS4-HMAC-SHA256 Credential=" + accessKey + "/" + scope
+                 + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature);
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest req, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return http.send(req, handler);
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted talking to object store", e);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String data){
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e){
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String encode(String s){
+        return URLEncoder.encode(s, StandardCharsets.UTF_8).replace("+", "%20").replace("*", "%2A").replace("%7E", "~");
+    }
+
+    private static IOException failure(String op, String key, int status, String body){
+        return new IOException("Object store " + op + " " + key + " failed with HTTP " + status
+                + (body == null || body.isBlank() ? "" : ": " + body));
+    }
+
+    private static String require(String name){
+        String v = System.getenv(name);
+        if (v == null || v.isBlank()) throw new IllegalStateException(name + " must be set when CV_STORAGE=s3");
+        return v.trim();
+    }
+}
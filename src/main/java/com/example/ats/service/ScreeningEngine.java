@@ -0,0 +1,835 @@
+package com.example.ats.service;
+
+import com.example.ats.repository.PersistenceRuntime;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.*;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Scores applications against the weighted sections of their job description.
+ *
+ * Each JD section is a BM25 query over the applicant's text (cover letter plus the text extracted from the CV
+ * by {@link CvTextExtractor}, or the profile's resume text before extraction has run); the
+ * section score is normalised by its best achievable value and the sections are combined by their weightage
+ * into a 0-100 {@code match_score}. IDF and average document length come from the job's own applicant pool.
+ * {@code red_flags} is a JSON array (missing CV text, heavy sections with no overlap, ...).
+ *
+ * Sections are identified by a hash of title and text, and each application's per-section contribution is
+ * kept in {@code application_section_scores}. After a JD edit only sections with a new hash are computed;
+ * removed sections are dropped and weight changes only recombine the stored contributions. Per-job section
+ * term vectors, pool statistics and (within CACHE_TERM_BUDGET) tokenized applications are cached in memory.
+ *
+ * Work is queued per job and coalesced into prioritized tasks (new submissions before JD changes before
+ * backfill). One coordinator thread runs a task at a time and fans tokenization, scoring and batched writes
+ * out to SCREENING_THREADS workers; {@link #progress} reports how far each job's latest task got.
+ */
+public final class ScreeningEngine {
+    private static final Logger LOG = Logger.getLogger(ScreeningEngine.class.getName());
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    public static final int PRIORITY_SUBMISSION = 0;
+    public static final int PRIORITY_JD_CHANGE = 1;
+    public static final int PRIORITY_BACKFILL = 2;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int CHUNK_SIZE = 256;
+    private static final int FETCH_SIZE = 500;
+    private static final int MIN_CV_TERMS = 30;
+    private static final double HEAVY_SECTION_WEIGHT = 0.25;
+    private static final int THREADS = intEnv("SCREENING_THREADS", Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())));
+    /** Upper bound on cached (term, frequency) pairs across all jobs; about 8 bytes each. */
+    private static final long CACHE_TERM_BUDGET = intEnv("SCREENING_CACHE_TERMS", 4_000_000);
+
+    /** Text per application; the text columns are concatenated in this order. */
+    private static final String DOCS_SQL =
+            "SELECT a.id, a.cover_letter, COALESCE(ct.text, ap.resume_text) FROM applications a " +
+            "LEFT JOIN cv_texts ct ON ct.sha256 = a.cv_sha256 AND ct.status = 'ok' " +
+            "LEFT JOIN applicant ap ON ap.user_id = a.applicant_user_id " +
+            "WHERE a.job_id = ? ";
+
+    private static final ScreeningEngine INSTANCE = new ScreeningEngine();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile ThreadPoolExecutor coordinator;
+    private volatile ExecutorService workers;
+    private final AtomicLong taskSeq = new AtomicLong();
+    private final ConcurrentHashMap<Long, JobModel> models = new ConcurrentHashMap<>();
+    /** Tasks waiting for the coordinator, at most one per job. */
+    private final ConcurrentHashMap<Long, Task> queued = new ConcurrentHashMap<>();
+    /** Latest task per job, queued, running or finished. */
+    private final ConcurrentHashMap<Long, Progress> latest = new ConcurrentHashMap<>();
+
+    private final LongAdder tasksRun = new LongAdder();
+    private final LongAdder applicationsScored = new LongAdder();
+    private final LongAdder sectionScoresComputed = new LongAdder();
+    private final LongAdder sectionScoresReused = new LongAdder();
+
+    private ScreeningEngine(){}
+
+    /** Engine that only queues onto {@code coordinator}, with no workers; used to test the queueing rules. */
+    ScreeningEngine(ThreadPoolExecutor coordinator){
+        this.coordinator = coordinator;
+        running.set(true);
+    }
+
+    public static ScreeningEngine get(){ return INSTANCE; }
+
+    public synchronized void start(){
+        if (!running.compareAndSet(false, true)) return;
+        // tasks are Comparable; execute() (not submit()) keeps them unwrapped so the queue can order them
+        coordinator = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(), daemon("screening-coordinator"));
+        workers = Executors.newFixedThreadPool(THREADS, daemon("screening-worker"));
+        // pick up submissions that arrived while no node was screening
+        workers.execute(this::enqueueUnscreened);
+        LOG.info("Screening engine started with " + THREADS + " workers");
+    }
+
+    public synchronized void stop(){
+        if (!running.compareAndSet(true, false)) return;
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+        try {
+            coordinator.awaitTermination(5, TimeUnit.SECONDS);
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+        queued.clear();
+    }
+
+    /** The job's sections may have changed: recompute changed sections and recombine every application. */
+    public Progress jobDescriptionsChanged(Long jobId){
+        return jobId == null ? null : enqueue(jobId, PRIORITY_JD_CHANGE, true, false);
+    }
+
+    /** New applications for the job: score the ones that have no section scores yet. */
+    public Progress applicationsSubmitted(Long jobId){
+        return jobId == null ? null : enqueue(jobId, PRIORITY_SUBMISSION, false, false);
+    }
+
+    /** The text behind these applications changed (e.g. their CV was extracted): score them again. */
+    public Progress applicationTextChanged(Long jobId, Collection<Long> applicationIds){
+        if (jobId == null || applicationIds.isEmpty()) return null;
+        return enqueue(jobId, PRIORITY_SUBMISSION, false, false, applicationIds);
+    }
+
+    /** Recompute every section for every application of the job (refreshes pool statistics too). */
+    public Progress rescreen(Long jobId){
+        return jobId == null ? null : enqueue(jobId, PRIORITY_JD_CHANGE, true, true);
+    }
+
+    /** The job's latest screening task, or null if none ran since this node started. */
+    public Progress progress(Long jobId){
+        return latest.get(jobId);
+    }
+
+    private Progress enqueue(Long jobId, int priority, boolean jdChanged, boolean full){
+        return enqueue(jobId, priority, jdChanged, full, List.of());
+    }
+
+    private Progress enqueue(Long jobId, int priority, boolean jdChanged, boolean full, Collection<Long> textChanged){
+        ThreadPoolExecutor ex = coordinator;
+        if (!running.get() || ex == null) return null;
+        Task[] created = {null};
+        Task task = queued.compute(jobId, (k, prev) -> {
+            if (prev == null){
+                created[0] = new Task(jobId, priority, jdChanged, full);
+                created[0].textChanged.addAll(textChanged);
+                return created[0];
+            }
+            prev.widen(jdChanged, full);
+            prev.textChanged.addAll(textChanged);   // already waiting: just widen what the pending run does
+            return prev;
+        });
+        if (created[0] != null){
+            latest.put(jobId, task.progress);
+            try { ex.execute(task); }
+            catch (RejectedExecutionException ignore){ queued.remove(jobId, task); }
+        }
+        return task.progress;
+    }
+
+    /** Queued unit of work for one job. Ordered by priority, then age. */
+    final class Task implements Runnable, Comparable<Task> {
+        final long jobId;
+        final int priority;
+        final long seq = taskSeq.incrementAndGet();
+        final Progress progress;
+        volatile boolean jdChanged;
+        volatile boolean full;
+        final Set<Long> textChanged = ConcurrentHashMap.newKeySet();
+
+        Task(long jobId, int priority, boolean jdChanged, boolean full){
+            this.jobId = jobId; this.priority = priority; this.jdChanged = jdChanged; this.full = full;
+            this.progress = new Progress(jobId, seq, priority);
+        }
+
+        void widen(boolean jdChanged, boolean full){
+            if (jdChanged) this.jdChanged = true;
+            if (full) this.full = true;
+        }
+
+        @Override
+        public int compareTo(Task o){
+            return priority != o.priority ? Integer.compare(priority, o.priority) : Long.compare(seq, o.seq);
+        }
+
+        @Override
+        public void run(){
+            queued.remove(jobId, this);   // later requests now create a new task
+            progress.started();
+            try {
+                screen(this);
+                progress.finished(null);
+                tasksRun.increment();
+                if (progress.total.get() > 0){
+                    LOG.info("Screened job " + jobId + ": " + progress.processed.get() + " applications, "
+                            + progress.sectionsComputed + " sections computed, " + progress.sectionsReused
+                            + " reused, in " + progress.millis() + " ms");
+                }
+            } catch (Exception e){
+                progress.finished(e.getClass().getSimpleName() + ": " + e.getMessage());
+                LOG.warning("Screening job " + jobId + " failed: " + e.getClass().getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void screen(Task task) throws Exception {
+        long jobId = task.jobId;
+        Progress progress = task.progress;
+
+        JobModel prev = models.get(jobId);
+        if (!task.textChanged.isEmpty()){
+            // forget what was scored from the old text; the applications then count as new below
+            if (prev != null) for (Long id : task.textChanged) prev.cache.remove(id);
+            deleteContributions(new ArrayList<>(task.textChanged));
+        }
+        JobModel model = prev == null || task.jdChanged ? loadModel(jobId, prev) : prev;
+        models.put(jobId, model);
+        model.cache.touch();
+        if (model.sections.isEmpty()) return;
+
+        Set<String> stored = storedSectionHashes(jobId);
+        List<Section> added = new ArrayList<>();
+        for (Section s : model.sections) if (task.full || !stored.contains(s.hash)) added.add(s);
+        boolean sectionsChanged = !added.isEmpty() || !model.hashes().containsAll(stored)
+                || (prev != null && !prev.fingerprint.equals(model.fingerprint)) || (prev == null && task.jdChanged);
+
+        List<Long> newApps = applicationsWithoutScores(jobId);
+        boolean full = task.full;
+        if (!full && model.stats != null && newApps.size() * 5 > model.stats.documents){
+            // the pool grew by more than a fifth since its statistics were taken: refresh them and recompute all
+            full = true;
+        }
+        if (full){
+            added = new ArrayList<>(model.sections);
+            sectionsChanged = true;
+        }
+
+        // 1. bring the cache up to date with the documents this run has to score
+        if (!newApps.isEmpty()) docs(model, jobId, newApps);
+        boolean needAllDocs = !added.isEmpty() || model.stats == null;
+        List<Doc> toScore;
+        if (needAllDocs){
+            List<Doc> all = docs(model, jobId, null);
+            if (model.stats == null || full) model.stats = CorpusStats.of(all, model.cache);
+            toScore = all;
+        } else {
+            toScore = docs(model, jobId, newApps);
+        }
+
+        // 2. compute contributions: changed sections for everyone, all sections for new applications
+        Set<Long> newSet = new HashSet<>(newApps);
+        List<Future<Integer>> writes = new ArrayList<>();
+        final JobModel m = model;
+        final List<Section> changed = added;
+        int computed = 0;
+        for (int i = 0; i < toScore.size(); i += CHUNK_SIZE){
+            List<Doc> chunk = toScore.subList(i, Math.min(toScore.size(), i + CHUNK_SIZE));
+            for (Doc d : chunk) computed += newSet.contains(d.applicationId) ? m.sections.size() : changed.size();
+            writes.add(workers.submit(() -> writeContributions(jobId, m, chunk, changed, newSet)));
+        }
+        for (Future<Integer> f : writes) f.get();
+        progress.sectionsComputed = computed;
+        sectionScoresComputed.add(computed);
+
+        // 3. drop contributions of sections that are gone, then recombine
+        deleteStaleSections(jobId, model);
+        List<Long> scope = sectionsChanged ? null : newApps;
+        if (scope != null && scope.isEmpty()) return;
+        int total = recombine(jobId, model, scope, progress);
+        long reused = (long) total * model.sections.size() - computed;
+        progress.sectionsReused = Math.max(0, reused);
+        sectionScoresReused.add(Math.max(0, reused));
+        applicationsScored.add(total);
+        evictIfOverBudget();
+    }
+
+    /** Documents of the job, all of them ({@code ids == null}) or the given ones, tokenizing what is not cached. */
+    private List<Doc> docs(JobModel model, long jobId, List<Long> ids) throws Exception {
+        DocCache cache = model.cache;
+        List<Long> missing = new ArrayList<>();
+        if (ids != null){
+            for (Long id : ids) if (!cache.docs.containsKey(id)) missing.add(id);
+            if (!missing.isEmpty()) loadDocs(cache, jobId, missing);
+            List<Doc> out = new ArrayList<>(ids.size());
+            for (Long id : ids){ Doc d = cache.docs.get(id); if (d != null) out.add(d); }
+            return out;
+        }
+        if (!cache.complete){
+            loadDocs(cache, jobId, null);
+            cache.complete = true;
+        }
+        return new ArrayList<>(cache.docs.values());
+    }
+
+    /** Streams application text and tokenizes it on the worker pool as rows arrive. */
+    private void loadDocs(DocCache cache, long jobId, List<Long> ids) throws Exception {
+        List<Future<?>> parts = new ArrayList<>();
+        try (Connection c = dataSource().getConnection()){
+            c.setAutoCommit(false); // lets the driver use a cursor for the fetch size
+            String sql = DOCS_SQL + (ids == null ? "" : "AND a.id = ANY(?) ") + "ORDER BY a.id";
+            try (PreparedStatement ps = c.prepareStatement(sql)){
+                ps.setFetchSize(FETCH_SIZE);
+                ps.setLong(1, jobId);
+                if (ids != null) ps.setArray(2, c.createArrayOf("bigint", ids.toArray()));
+                try (ResultSet rs = ps.executeQuery()){
+                    List<Object[]> rows = new ArrayList<>(CHUNK_SIZE);
+                    while (rs.next()){
+                        rows.add(new Object[]{ rs.getLong(1), rs.getString(2), rs.getString(3) });
+                        if (rows.size() == CHUNK_SIZE){
+                            parts.add(workers.submit(tokenize(cache, rows)));
+                            rows = new ArrayList<>(CHUNK_SIZE);
+                        }
+                    }
+                    if (!rows.isEmpty()) parts.add(workers.submit(tokenize(cache, rows)));
+                }
+            } finally {
+                c.rollback();
+            }
+        }
+        for (Future<?> f : parts) f.get();
+    }
+
+    private static Runnable tokenize(DocCache cache, List<Object[]> rows){
+        return () -> {
+            for (Object[] r : rows){
+                StringBuilder text = new StringBuilder();
+                for (int i = 1; i < r.length; i++) if (r[i] != null) text.append(r[i]).append('\n');
+                cache.put(new Doc((Long) r[0], TermVectors.termFrequencies(text.toString()), cache));
+            }
+        };
+    }
+
+    /** Upserts the computed section contributions of one chunk and records how much text each document had. */
+    private static int writeContributions(long jobId, JobModel model, List<Doc> docs, List<Section> changed, Set<Long> newApps) throws SQLException {
+        List<Long> appIds = new ArrayList<>();
+        List<String> hashes = new ArrayList<>();
+        List<Double> scores = new ArrayList<>();
+        for (Doc d : docs){
+            List<Section> sections = newApps.contains(d.applicationId) ? model.sections : changed;
+            for (Section s : sections){
+                appIds.add(d.applicationId);
+                hashes.add(s.hash);
+                scores.add(bm25(s, d, model));
+            }
+        }
+        if (appIds.isEmpty()) return 0;
+        List<Long> docIds = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        for (Doc d : docs){
+            if (!newApps.contains(d.applicationId) && changed.isEmpty()) continue;
+            docIds.add(d.applicationId);
+            lengths.add(d.length);
+        }
+
+        try (Connection c = dataSource().getConnection()){
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement(
+                    "INSERT INTO application_section_scores (job_id, application_id, section_hash, score) " +
+                    "SELECT ?, u.app, u.hash, u.score " +
+                    "FROM unnest(CAST(? AS bigint[]), CAST(? AS text[]), CAST(? AS float8[])) AS u(app, hash, score) " +
+                    "ON CONFLICT (application_id, section_hash) DO UPDATE SET score = EXCLUDED.score");
+                 PreparedStatement terms = c.prepareStatement(
+                    "UPDATE applications a SET screened_terms = u.terms " +
+                    "FROM unnest(CAST(? AS bigint[]), CAST(? AS int[])) AS u(id, terms) WHERE a.id = u.id")){
+                ps.setLong(1, jobId);
+                ps.setArray(2, c.createArrayOf("bigint", appIds.toArray()));
+                ps.setArray(3, c.createArrayOf("text", hashes.toArray()));
+                ps.setArray(4, c.createArrayOf("float8", scores.toArray()));
+                ps.executeUpdate();
+                terms.setArray(1, c.createArrayOf("bigint", docIds.toArray()));
+                terms.setArray(2, c.createArrayOf("int", lengths.toArray()));
+                terms.executeUpdate();
+                c.commit();
+            } catch (SQLException e){
+                c.rollback();
+                throw e;
+            }
+        }
+        return appIds.size();
+    }
+
+    /**
+     * Rebuilds match_score and red_flags from the stored contributions of the current sections, for all of
+     * the job's applications ({@code scope == null}) or the given ones. Returns the number of applications.
+     */
+    private int recombine(long jobId, JobModel model, List<Long> scope, Progress progress) throws Exception {
+        Map<String, Section> byHash = new HashMap<>();
+        for (Section s : model.sections) byHash.put(s.hash, s);
+
+        List<Future<Integer>> writes = new ArrayList<>();
+        try (Connection c = dataSource().getConnection()){
+            if (scope == null){
+                try (PreparedStatement count = c.prepareStatement("SELECT COUNT(*) FROM applications WHERE job_id = ?")){
+                    count.setLong(1, jobId);
+                    try (ResultSet rs = count.executeQuery()){ rs.next(); progress.total.set(rs.getInt(1)); }
+                }
+            } else {
+                progress.total.set(scope.size());
+            }
+            c.setAutoCommit(false);
+            String sql = "SELECT a.id, a.screened_terms, s.section_hash, s.score FROM applications a " +
+                    "LEFT JOIN application_section_scores s ON s.application_id = a.id AND s.section_hash = ANY(?) " +
+                    "WHERE a.job_id = ? " + (scope == null ? "" : "AND a.id = ANY(?) ") + "ORDER BY a.id";
+            try (PreparedStatement ps = c.prepareStatement(sql)){
+                ps.setFetchSize(FETCH_SIZE);
+                ps.setArray(1, c.createArrayOf("text", byHash.keySet().toArray()));
+                ps.setLong(2, jobId);
+                if (scope != null) ps.setArray(3, c.createArrayOf("bigint", scope.toArray()));
+                try (ResultSet rs = ps.executeQuery()){
+                    List<Result> batch = new ArrayList<>(CHUNK_SIZE);
+                    long currentId = -1;
+                    int terms = 0;
+                    Map<String, Double> parts = new HashMap<>();
+                    while (rs.next()){
+                        long id = rs.getLong(1);
+                        if (id != currentId){
+                            if (currentId >= 0) batch.add(combine(currentId, terms, parts, model));
+                            if (batch.size() == CHUNK_SIZE){
+                                List<Result> b = batch;
+                                writes.add(workers.submit(() -> progress.add(writeScores(b))));
+                                batch = new ArrayList<>(CHUNK_SIZE);
+                            }
+                            currentId = id;
+                            terms = rs.getInt(2);
+                            parts.clear();
+                        }
+                        String hash = rs.getString(3);
+                        if (hash != null) parts.put(hash, rs.getDouble(4));
+                    }
+                    if (currentId >= 0) batch.add(combine(currentId, terms, parts, model));
+                    if (!batch.isEmpty()){
+                        List<Result> b = batch;
+                        writes.add(workers.submit(() -> progress.add(writeScores(b))));
+                    }
+                }
+            } finally {
+                c.rollback();
+            }
+        }
+        int total = 0;
+        for (Future<Integer> f : writes) total += f.get();
+        return total;
+    }
+
+    static Result combine(long applicationId, int terms, Map<String, Double> parts, JobModel model){
+        double total = 0;
+        List<String> flags = new ArrayList<>();
+        if (terms < MIN_CV_TERMS) flags.add("missing_cv_text");
+        for (Section s : model.sections){
+            double part = parts.getOrDefault(s.hash, 0.0);
+            total += s.weight * part;
+            if (part == 0 && s.weight >= HEAVY_SECTION_WEIGHT) flags.add("no_match:" + s.title);
+        }
+        BigDecimal score = BigDecimal.valueOf(total * 100).setScale(2, RoundingMode.HALF_UP);
+        return new Result(applicationId, score, flags.isEmpty() ? null : toJson(flags));
+    }
+
+    /** BM25 of one section against one document, divided by the section's saturation bound (so 0..1). */
+    static double bm25(Section s, Doc d, JobModel model){
+        CorpusStats stats = model.stats;
+        double norm = 1 - B + B * (stats.avgLength == 0 ? 1 : d.length / stats.avgLength);
+        double sum = 0, max = 0;
+        for (Map.Entry<String, Integer> q : s.terms.entrySet()){
+            double w = stats.idf(q.getKey()) * (1 + Math.log(q.getValue()));
+            max += w * (K1 + 1);
+            Integer id = model.cache.dict.get(q.getKey());
+            int tf = id == null ? 0 : d.tf(id);
+            if (tf > 0) sum += w * tf * (K1 + 1) / (tf + K1 * norm);
+        }
+        return max == 0 ? 0 : sum / max;
+    }
+
+    /** Writes one batch of scores with a single UPDATE ... FROM unnest(...). Returns the rows written. */
+    private static int writeScores(List<Result> results) throws SQLException {
+        if (results.isEmpty()) return 0;
+        Long[] ids = new Long[results.size()];
+        BigDecimal[] scores = new BigDecimal[results.size()];
+        String[] flags = new String[results.size()];
+        for (int i = 0; i < results.size(); i++){
+            Result r = results.get(i);
+            ids[i] = r.applicationId; scores[i] = r.score; flags[i] = r.redFlags;
+        }
+        try (Connection c = dataSource().getConnection();
+             PreparedStatement ps = c.prepareStatement(
+                     "UPDATE applications a SET match_score = u.score, red_flags = u.flags, last_screened_at = NOW() " +
+                     "FROM unnest(CAST(? AS bigint[]), CAST(? AS numeric[]), CAST(? AS text[])) AS u(id, score, flags) " +
+                     "WHERE a.id = u.id")){
+            ps.setArray(1, c.createArrayOf("bigint", ids));
+            ps.setArray(2, c.createArrayOf("numeric", scores));
+            ps.setArray(3, c.createArrayOf("text", flags));
+            int n = ps.executeUpdate();
+            // score filters and facets, here and on the other nodes
+            CandidateSearchIndex.get().applicationsChanged(Arrays.asList(ids));
+            InvalidationBus.get().publish(c, InvalidationBus.APPLICATION, Arrays.asList(ids));
+            return n;
+        }
+    }
+
+    private JobModel loadModel(long jobId, JobModel prev) throws SQLException {
+        Map<String, Section> byHash = new LinkedHashMap<>();
+        MessageDigest fingerprint = HashingSpool.sha256();
+        try (Connection c = dataSource().getConnection();
+             PreparedStatement ps = c.prepareStatement(
+                     "SELECT section_title, description, weightage FROM job_descriptions WHERE job_id = ? ORDER BY id")){
+            ps.setLong(1, jobId);
+            try (ResultSet rs = ps.executeQuery()){
+                while (rs.next()){
+                    String title = rs.getString(1);
+                    String text = rs.getString(2);
+                    double weight = rs.getDouble(3);
+                    if (rs.wasNull() || weight <= 0) weight = 1.0;
+                    String hash = sectionHash(title, text);
+                    fingerprint.update((hash + ":" + weight + ";").getBytes(StandardCharsets.UTF_8));
+                    Section existing = byHash.get(hash);
+                    if (existing != null){
+                        existing.weight += weight;   // duplicated section: one query, combined weight
+                        continue;
+                    }
+                    Map<String, Integer> tf = TermVectors.termFrequencies((title == null ? "" : title + " ") + (text == null ? "" : text));
+                    if (!tf.isEmpty()) byHash.put(hash, new Section(hash, title, weight, tf));
+                }
+            }
+        }
+        List<Section> sections = new ArrayList<>(byHash.values());
+        double sum = 0;
+        for (Section s : sections) sum += s.weight;
+        for (Section s : sections) s.weight = s.weight / sum;
+        JobModel model = new JobModel(HexFormat.of().formatHex(fingerprint.digest()), sections,
+                prev == null ? new DocCache() : prev.cache);
+        if (prev != null) model.stats = prev.stats;   // pool statistics do not depend on the JD
+        return model;
+    }
+
+    static String sectionHash(String title, String text){
+        MessageDigest sha = HashingSpool.sha256();
+        sha.update(String.valueOf(title).trim().getBytes(StandardCharsets.UTF_8));
+        sha.update((byte) 0);
+        sha.update(String.valueOf(text).trim().getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(sha.digest());
+    }
+
+    private static Set<String> storedSectionHashes(long jobId) throws SQLException {
+        Set<String> out = new HashSet<>();
+        try (Connection c = dataSource().getConnection();
+             PreparedStatement ps = c.prepareStatement("SELECT DISTINCT section_hash FROM application_section_scores WHERE job_id = ?")){
+            ps.setLong(1, jobId);
+            try (ResultSet rs = ps.executeQuery()){ while (rs.next()) out.add(rs.getString(1)); }
+        }
+        return out;
+    }
+
+    private static List<Long> applicationsWithoutScores(long jobId) throws SQLException {
+        List<Long> out = new ArrayList<>();
+        try (Connection c = dataSource().getConnection();
+             PreparedStatement ps = c.prepareStatement(
+                     "SELECT a.id FROM applications a WHERE a.job_id = ? " +
+                     "AND NOT EXISTS (SELECT 1 FROM application_section_scores s WHERE s.application_id = a.id) ORDER BY a.id")){
+            ps.setLong(1, jobId);
+            try (ResultSet rs = ps.executeQuery()){ while (rs.next()) out.add(rs.getLong(1)); }
+        }
+        return out;
+    }
+
+    private static void deleteContributions(List<Long> applicationIds) throws SQLException {
+        try (Connection c = dataSource().getConnection();
+             PreparedStatement ps = c.prepareStatement("DELETE FROM application_section_scores WHERE application_id = ANY(?)")){
+            ps.setArray(1, c.createArrayOf("bigint", applicationIds.toArray()));
+            ps.executeUpdate();
+        }
+    }
+
+    private static void deleteStaleSections(long jobId, JobModel model) throws SQLException {
+        try (Connection c = dataSource().getConnection();
+             PreparedStatement ps = c.prepareStatement(
+                     "DELETE FROM application_section_scores WHERE job_id = ? AND NOT (section_hash = ANY(?))")){
+            ps.setLong(1, jobId);
+            ps.setArray(2, c.createArrayOf("text", model.hashes().toArray()));
+            ps.executeUpdate();
+        }
+    }
+
+    private void enqueueUnscreened(){
+        try (Connection c = dataSource().getConnection();
+             PreparedStatement ps = c.prepareStatement("SELECT DISTINCT job_id FROM applications WHERE last_screened_at IS NULL");
+             ResultSet rs = ps.executeQuery()){
+            while (rs.next()) enqueue(rs.getLong(1), PRIORITY_BACKFILL, false, false);
+        } catch (Exception e){
+            LOG.warning("Could not look for unscreened applications: " + e.getMessage());
+        }
+    }
+
+    /** Drops the tokenized documents of the least recently used jobs once the cache exceeds its budget. */
+    private void evictIfOverBudget(){
+        long total = 0;
+        for (JobModel m : models.values()) total += m.cache.entries.sum();
+        if (total <= CACHE_TERM_BUDGET) return;
+        List<Map.Entry<Long, JobModel>> byAge = new ArrayList<>(models.entrySet());
+        byAge.sort(Comparator.comparingLong(e -> e.getValue().cache.lastUsed));
+        for (Map.Entry<Long, JobModel> e : byAge){
+            if (total <= CACHE_TERM_BUDGET) break;
+            total -= e.getValue().cache.entries.sum();
+            e.getValue().cache.clear();
+        }
+    }
+
+    public Map<String, Object> stats(){
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("running", running.get());
+        m.put("workers", THREADS);
+        m.put("queuedJobs", queued.size());
+        m.put("cachedJobModels", models.size());
+        long cached = 0;
+        for (JobModel jm : models.values()) cached += jm.cache.entries.sum();
+        m.put("cachedTermEntries", cached);
+        m.put("cacheTermBudget", CACHE_TERM_BUDGET);
+        m.put("tasksRun", tasksRun.sum());
+        m.put("applicationsScored", applicationsScored.sum());
+        m.put("sectionScoresComputed", sectionScoresComputed.sum());
+        m.put("sectionScoresReused", sectionScoresReused.sum());
+        return m;
+    }
+
+    private static javax.sql.DataSource dataSource(){
+        return PersistenceRuntime.get().getDataSource();
+    }
+
+    private static String toJson(List<String> flags){
+        try {
+            return JSON.writeValueAsString(flags);
+        } catch (JsonProcessingException e){
+            return null;
+        }
+    }
+
+    private static int intEnv(String name, int def){
+        try {
+            String v = System.getenv(name);
+            return v == null || v.isBlank() ? def : Math.max(1, Integer.parseInt(v.trim()));
+        } catch (NumberFormatException e){
+            return def;
+        }
+    }
+
+    private static ThreadFactory daemon(String name){
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /** State of one screening task, as reported by the progress API. */
+    public static final class Progress {
+        private final long jobId;
+        private final long taskId;
+        private final int priority;
+        private final Instant queuedAt = Instant.now();
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile String error;
+        final AtomicInteger total = new AtomicInteger();
+        final AtomicInteger processed = new AtomicInteger();
+        volatile long sectionsComputed;
+        volatile long sectionsReused;
+
+        Progress(long jobId, long taskId, int priority){ this.jobId = jobId; this.taskId = taskId; this.priority = priority; }
+
+        void started(){ startedAt = Instant.now(); }
+        void finished(String error){ this.error = error; finishedAt = Instant.now(); }
+        int add(int n){ processed.addAndGet(n); return n; }
+        long millis(){
+            Instant s = startedAt, f = finishedAt;
+            return s == null ? 0 : java.time.Duration.between(s, f == null ? Instant.now() : f).toMillis();
+        }
+
+        public String getState(){
+            if (finishedAt != null) return error == null ? "done" : "failed";
+            return startedAt == null ? "queued" : "running";
+        }
+
+        public Map<String, Object> toMap(){
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("jobId", jobId);
+            m.put("taskId", taskId);
+            m.put("priority", priority == PRIORITY_SUBMISSION ? "submission" : priority == PRIORITY_JD_CHANGE ? "jd_change" : "backfill");
+            m.put("state", getState());
+            m.put("total", total.get());
+            m.put("processed", processed.get());
+            int t = total.get();
+            m.put("percent", t == 0 ? (finishedAt != null ? 100 : 0) : Math.min(100, processed.get() * 100 / t));
+            m.put("sectionScoresComputed", sectionsComputed);
+            m.put("sectionScoresReused", sectionsReused);
+            m.put("queuedAt", queuedAt.toString());
+            m.put("startedAt", startedAt == null ? null : startedAt.toString());
+            m.put("finishedAt", finishedAt == null ? null : finishedAt.toString());
+            m.put("elapsedMillis", millis());
+            m.put("error", error);
+            return m;
+        }
+    }
+
+    /** Cached per-job state: section query vectors, pool statistics and the tokenized applications. */
+    static final class JobModel {
+        final String fingerprint;   // section hashes and weights, in order
+        final List<Section> sections;
+        final DocCache cache;
+        volatile CorpusStats stats;
+
+        JobModel(String fingerprint, List<Section> sections, DocCache cache){
+            this.fingerprint = fingerprint; this.sections = sections; this.cache = cache;
+        }
+
+        Set<String> hashes(){
+            Set<String> out = new HashSet<>();
+            for (Section s : sections) out.add(s.hash);
+            return out;
+        }
+    }
+
+    static final class Section {
+        final String hash;
+        final String title;
+        double weight;
+        final Map<String, Integer> terms;
+
+        Section(String hash, String title, double weight, Map<String, Integer> terms){
+            this.hash = hash; this.title = title; this.weight = weight; this.terms = terms;
+        }
+    }
+
+    /** Tokenized applications of one job, with terms interned to ids to keep the footprint small. */
+    static final class DocCache {
+        final ConcurrentHashMap<String, Integer> dict = new ConcurrentHashMap<>();
+        final AtomicInteger nextTermId = new AtomicInteger();
+        final ConcurrentHashMap<Long, Doc> docs = new ConcurrentHashMap<>();
+        final LongAdder entries = new LongAdder();
+        volatile boolean complete;   // every application of the job is cached
+        volatile long lastUsed;
+
+        int termId(String term){ return dict.computeIfAbsent(term, k -> nextTermId.getAndIncrement()); }
+
+        void put(Doc d){
+            Doc old = docs.put(d.applicationId, d);
+            entries.add(d.termIds.length - (old == null ? 0 : old.termIds.length));
+        }
+
+        void remove(Long applicationId){
+            Doc old = docs.remove(applicationId);
+            if (old != null) entries.add(-old.termIds.length);
+        }
+
+        void touch(){ lastUsed = System.nanoTime(); }
+
+        synchronized void clear(){
+            docs.clear();
+            dict.clear();
+            entries.reset();
+            complete = false;
+        }
+    }
+
+    static final class Doc {
+        final long applicationId;
+        final int[] termIds;   // sorted
+        final int[] freqs;
+        final int length;
+
+        Doc(long applicationId, Map<String, Integer> tf, DocCache cache){
+            this.applicationId = applicationId;
+            int[][] pairs = new int[tf.size()][];
+            int i = 0, len = 0;
+            for (Map.Entry<String, Integer> e : tf.entrySet()){
+                pairs[i++] = new int[]{ cache.termId(e.getKey()), e.getValue() };
+                len += e.getValue();
+            }
+            Arrays.sort(pairs, Comparator.comparingInt(p -> p[0]));
+            termIds = new int[pairs.length];
+            freqs = new int[pairs.length];
+            for (i = 0; i < pairs.length; i++){ termIds[i] = pairs[i][0]; freqs[i] = pairs[i][1]; }
+            length = len;
+        }
+
+        int tf(int termId){
+            int i = Arrays.binarySearch(termIds, termId);
+            return i < 0 ? 0 : freqs[i];
+        }
+    }
+
+    /** Document frequencies over the job's applicant pool. */
+    static final class CorpusStats {
+        final int documents;
+        final double avgLength;
+        final Map<String, Integer> df;
+
+        private CorpusStats(int documents, double avgLength, Map<String, Integer> df){
+            this.documents = documents; this.avgLength = avgLength; this.df = df;
+        }
+
+        static CorpusStats of(List<Doc> docs, DocCache cache){
+            Map<Integer, Integer> byId = new HashMap<>();
+            long len = 0;
+            for (Doc d : docs){
+                len += d.length;
+                for (int id : d.termIds) byId.merge(id, 1, Integer::sum);
+            }
+            // keyed by term, not id, so the statistics outlive an evicted document cache
+            Map<String, Integer> df = new HashMap<>(byId.size() * 2);
+            for (Map.Entry<String, Integer> e : cache.dict.entrySet()){
+                Integer n = byId.get(e.getValue());
+                if (n != null) df.put(e.getKey(), n);
+            }
+            return new CorpusStats(docs.size(), docs.isEmpty() ? 0 : (double) len / docs.size(), df);
+        }
+
+        double idf(String term){
+            int n = df.getOrDefault(term, 0);
+            return Math.log(1 + (documents - n + 0.5) / (n + 0.5));
+        }
+    }
+
+    static final class Result {
+        final long applicationId;
+        final BigDecimal score;
+        final String redFlags;
+
+        Result(long applicationId, BigDecimal score, String redFlags){
+            this.applicationId = applicationId; this.score = score; this.redFlags = redFlags;
+        }
+    }
+}
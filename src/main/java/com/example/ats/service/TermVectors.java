@@ -0,0 +1,59 @@
+package com.example.ats.service;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tokenizer shared by screening and search: lower-cases, splits on anything that is not a letter, digit,
+ * '+' or '#' (so "c++" and "c#" survive), drops stop words and applies a light plural stemmer.
+ */
+public final class TermVectors {
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "can", "for", "from", "has", "have", "in",
+            "into", "is", "it", "its", "of", "on", "or", "our", "that", "the", "their", "this", "to", "was",
+            "we", "will", "with", "you", "your", "i", "my", "me", "am", "been", "not", "all", "any", "who");
+
+    private TermVectors(){}
+
+    /** Term frequencies of {@code text}; empty for null text. */
+    public static Map<String, Integer> termFrequencies(String text){
+        Map<String, Integer> tf = new HashMap<>();
+        if (text == null || text.isEmpty()) return tf;
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0, n = lower.length(); i <= n; i++){
+            char c = i < n ? lower.charAt(i) : ' ';
+            boolean word = Character.isLetterOrDigit(c) || c == '+' || c == '#';
+            if (word){
+                if (start < 0) start = i;
+            } else if (start >= 0){
+                String term = normalize(lower.substring(start, i));
+                if (term != null) tf.merge(term, 1, Integer::sum);
+                start = -1;
+            }
+        }
+        return tf;
+    }
+
+    /** Sum of frequencies, i.e. the document length in terms. */
+    public static int length(Map<String, Integer> tf){
+        int n = 0;
+        for (int v : tf.values()) n += v;
+        return n;
+    }
+
+    /** Normalised form of a single token, or null when it should not be indexed. */
+    public static String normalize(String token){
+        if (token.length() < 2 && !token.equals("c") && !token.equals("r")) return null;
+        if (STOP_WORDS.contains(token)) return null;
+        if (token.length() > 4){
+            if (token.endsWith("ies")) return token.substring(0, token.length() - 3) + "y";
+            if (token.endsWith("s") && !token.endsWith("ss") && !token.endsWith("us") && !token.endsWith("is")){
+                return token.substring(0, token.length() - 1);
+            }
+        }
+        return token;
+    }
+}
@@ -9,18 +9,23 @@ import java.util.HashSet;
 import org.glassfish.jersey.jackson.JacksonFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 
 public class AppConfig extends Application {
     @Override
     public Set<Class<?>> getClasses(){
         Set<Class<?>> s = new HashSet<>();
         s.add(JobResource.class);
+        s.add(JobTransferResource.class);  // Bulk job import / export
         s.add(ManagerResource.class);
         s.add(AuthResource.class);
         s.add(ApplicationResource.class);
         s.add(InterviewResource.class);  // Add Interview endpoints
         s.add(NotificationResource.class);  // Add Notification endpoints
+        s.add(MetricsResource.class);  // Pool / runtime metrics
+        s.add(EventStreamResource.class);  // SSE notification stream
         s.add(LoggingFilter.class);
         // register JacksonFeature so Jersey can (de)serialize JSON for Collections/POJOs
         s.add(JacksonFeature.class);
@@ -30,23 +35,29 @@ public class AppConfig extends Application {
     }
 
     /**
-     * Custom ObjectMapper resolver that configures Jackson to handle Java 8 date/time types
+     * The one ObjectMapper used for JSON responses, by Jersey and by the streaming writers.
+     * Java time types are written as ISO-8601 strings; Blackbird replaces reflective getter calls with
+     * generated accessors; and no flush after each value, so streamed arrays go out in buffer-sized writes.
      */
-    @Provider
-    public static class ObjectMapperContextResolver implements ContextResolver<ObjectMapper> {
-        private final ObjectMapper mapper;
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .addModule(new BlackbirdModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .build();
 
-        public ObjectMapperContextResolver() {
-            mapper = new ObjectMapper();
-            // Register JSR310 module for Java 8 date/time support (OffsetDateTime, LocalDateTime, etc.)
-            mapper.registerModule(new JavaTimeModule());
-            // Write dates as ISO-8601 strings instead of timestamps
-            mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        }
+    static ObjectMapper mapper(){
+        return MAPPER;
+    }
 
+    /**
+     * Hands the shared ObjectMapper to Jersey's Jackson provider.
+     */
+    @Provider
+    public static class ObjectMapperContextResolver implements ContextResolver<ObjectMapper> {
         @Override
         public ObjectMapper getContext(Class<?> type) {
-            return mapper;
+            return MAPPER;
         }
     }
-}
\ No newline at end of file
+}
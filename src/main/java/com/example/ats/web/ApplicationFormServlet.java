@@ -1,17 +1,56 @@
 package com.example.ats.web;
 
+import com.example.ats.repository.PersistenceRuntime;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.persistence.*;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
+/**
+ * Public apply form for a job. The rendered page is cached per job and only rebuilt when the job row
+ * or its job_descriptions change; responses carry ETag / Last-Modified so shared links revalidate with 304s.
+ *
+ * Not mapped in web.xml: the shared apply links ({@code /apply/apply.html?jobId=}) load the job from
+ * {@code GET /api/jobs/{id}}, which is served from {@link com.example.ats.service.JobDetailCache}.
+ */
 public class ApplicationFormServlet extends HttpServlet {
+    // how long a cached page is served before its version is re-checked against the DB
+    private static final long REVALIDATE_MS = 5_000;
+    private static final int MAX_CACHED_FORMS = 1_000;
+    /** Access-ordered and bounded, so the least recently requested job drops out first. Guarded by itself. */
+    private static final LinkedHashMap<Long, Slot> CACHE = new LinkedHashMap<>(256, 0.75f, true){
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Slot> eldest){
+            return size() > MAX_CACHED_FORMS;
+        }
+    };
+
+    /** Per-job cache slot; also used as the lock so a burst of requests triggers a single rebuild. */
+    private static final class Slot {
+        volatile RenderedForm form;
+        volatile long checkedAt;
+    }
+
+    private static final class RenderedForm {
+        final String version;
+        final byte[] html;
+        final String etag;
+        final long lastModified; // epoch millis, truncated to seconds for HTTP dates
+
+        RenderedForm(String version, byte[] html, String etag, long lastModified){
+            this.version = version; this.html = html; this.etag = etag; this.lastModified = lastModified;
+        }
+    }
+
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
         String path = req.getPathInfo(); // e.g. /123-job-title
@@ -20,48 +59,126 @@ public class ApplicationFormServlet extends HttpServlet {
         Long jobId;
         try { jobId = Long.valueOf(idPart); } catch(Exception e){ resp.sendError(HttpServletResponse.SC_NOT_FOUND); return; }
 
-        // load job title and summary and jds
+        RenderedForm form;
         try {
-            EntityManagerFactory emf = jakarta.persistence.Persistence.createEntityManagerFactory("ATS-PU");
-            EntityManager em = emf.createEntityManager();
+            form = lookup(jobId);
+        } catch(NoResultException nre){
+            synchronized (CACHE){ CACHE.remove(jobId); }
+            resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        } catch(Exception e){ resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e.getMessage()); return; }
+
+        resp.setHeader("ETag", form.etag);
+        resp.setDateHeader("Last-Modified", form.lastModified);
+        resp.setHeader("Cache-Control", "public, max-age=30");
+        if (notModified(req, form)){
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        resp.setContentType("text/html;charset=UTF-8");
+        resp.setContentLength(form.html.length);
+        resp.getOutputStream().write(form.html);
+    }
+
+    private static boolean notModified(HttpServletRequest req, RenderedForm form){
+        String inm = req.getHeader("If-None-Match");
+        if (inm != null){
+            for (String tag : inm.split(",")){
+                String t = tag.trim();
+                if (t.equals("*") || t.equals(form.etag) || t.equals("W/" + form.etag)) return true;
+            }
+            return false; // If-None-Match takes precedence over If-Modified-Since
+        }
+        try {
+            long ims = req.getDateHeader("If-Modified-Since");
+            return ims >= 0 && form.lastModified <= ims;
+        } catch(IllegalArgumentException badDate){
+            return false;
+        }
+    }
+
+    private RenderedForm lookup(Long jobId){
+        long now = System.currentTimeMillis();
+        Slot slot;
+        synchronized (CACHE){ slot = CACHE.computeIfAbsent(jobId, k -> new Slot()); }
+        RenderedForm cached = slot.form;
+        if (cached != null && now - slot.checkedAt < REVALIDATE_MS) return cached;
+
+        synchronized (slot){
+            cached = slot.form;
+            if (cached != null && System.currentTimeMillis() - slot.checkedAt < REVALIDATE_MS) return cached;
+
+            EntityManager em = PersistenceRuntime.emf().createEntityManager();
             try {
-                Object[] job = (Object[]) em.createNativeQuery("SELECT id, title, description_summary FROM jobs WHERE id = ?").setParameter(1, jobId).getSingleResult();
-                @SuppressWarnings("unchecked")
-                List<Object[]> jds = em.createNativeQuery("SELECT section_title, description FROM job_descriptions WHERE job_id = ? ORDER BY id").setParameter(1, jobId).getResultList();
-
-                String title = job[1] == null ? "" : job[1].toString();
-                String summary = job[2] == null ? "" : job[2].toString();
-
-                resp.setContentType("text/html;charset=UTF-8");
-                StringBuilder html = new StringBuilder();
-                html.append("<!doctype html><html><head><meta charset=\"utf-8\"><meta name=\"viewport\" content=\"width=device-width,initial-scale=1\"> ");
-                html.append("<title>Apply — "+escape(title)+"</title>");
-                // minimal inline style reusing theme colors
-                html.append("<style>body{font-family:Inter,Arial;background:#071428;color:#e9f3ff;padding:24px} .card{background:rgba(255,255,255,0.02);padding:18px;border-radius:12px;max-width:780px;margin:0 auto} label{display:block;margin-top:10px;color:#9aa7bb} input,textarea{width:100%;padding:10px;border-radius:10px;border:1px solid rgba(0,0,0,0.06);background:transparent;color:inherit} button{margin-top:12px;padding:10px 14px;border-radius:10px;border:0;background:linear-gradient(90deg,#6ee7b7,#60a5fa);color:#022027;font-weight:700}</style>");
-                html.append("</head><body>");
-                html.append("<div class=\"card\"><h2>Apply for: "+escape(title)+"</h2>");
-                html.append("<div style=\"color:#9aa7bb;margin-bottom:12px\">"+escape(summary)+"</div>");
-                html.append("<form method=\"post\" action=\"/api/jobs/apply\">\n");
-                html.append("<input type=\"hidden\" name=\"job_id\" value=\""+jobId+"\">\n");
-                html.append("<label>Name</label><input name=\"name\" required>\n");
-                html.append("<label>Email</label><input name=\"email\" type=\"email\" required>\n");
-                html.append("<label>Cover letter</label><textarea name=\"cover_letter\" rows=6></textarea>\n");
-                html.append("<button type=\"submit\">Submit application</button>\n");
-                html.append("</form>");
-
-                if (jds != null && !jds.isEmpty()){
-                    html.append("<h3 style=\"margin-top:18px\">Job sections</h3>");
-                    html.append("<ul>");
-                    for (Object[] r: jds){ html.append("<li><strong>"+escape((String)r[0]) + "</strong> - " + escape((String)r[1]) + "</li>"); }
-                    html.append("</ul>");
+                // cheap version probe: job row timestamp plus a fingerprint of its JD rows
+                Object[] v = (Object[]) em.createNativeQuery(
+                        "SELECT j.updated_at, COUNT(d.id), COALESCE(MAX(d.id), 0), MAX(d.created_at) " +
+                        "FROM jobs j LEFT JOIN job_descriptions d ON d.job_id = j.id " +
+                        "WHERE j.id = ? GROUP BY j.id, j.updated_at")
+                        .setParameter(1, jobId).getSingleResult();
+                String version = v[0] + "|" + v[1] + "|" + v[2] + "|" + v[3];
+                if (cached == null || !cached.version.equals(version)){
+                    cached = render(em, jobId, version, Math.max(toMillis(v[0]), toMillis(v[3])));
+                    slot.form = cached;
                 }
-                html.append("</div></body></html>");
-                resp.getWriter().write(html.toString());
-            } finally { em.close(); emf.close(); }
-        } catch(NoResultException nre){ resp.sendError(HttpServletResponse.SC_NOT_FOUND); }
-        catch(Exception e){ resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e.getMessage()); }
+                slot.checkedAt = System.currentTimeMillis();
+            } finally { em.close(); }
+        }
+        return cached;
+    }
+
+    private static RenderedForm render(EntityManager em, Long jobId, String version, long lastModified){
+        Object[] job = (Object[]) em.createNativeQuery("SELECT id, title, description_summary FROM jobs WHERE id = ?").setParameter(1, jobId).getSingleResult();
+        @SuppressWarnings("unchecked")
+        List<Object[]> jds = em.createNativeQuery("SELECT section_title, description FROM job_descriptions WHERE job_id = ? ORDER BY id").setParameter(1, jobId).getResultList();
+
+        String title = job[1] == null ? "" : job[1].toString();
+        String summary = job[2] == null ? "" : job[2].toString();
+
+        StringBuilder html = new StringBuilder();
+        html.append("<!doctype html><html><head><meta charset=\"utf-8\"><meta name=\"viewport\" content=\"width=device-width,initial-scale=1\"> ");
+        html.append("<title>Apply — "+escape(title)+"</title>");
+        // minimal inline style reusing theme colors
+        html.append("<style>body{font-family:Inter,Arial;background:#071428;color:#e9f3ff;padding:24px} .card{background:rgba(255,255,255,0.02);padding:18px;border-radius:12px;max-width:780px;margin:0 auto} label{display:block;margin-top:10px;color:#9aa7bb} input,textarea{width:100%;padding:10px;border-radius:10px;border:1px solid rgba(0,0,0,0.06);background:transparent;color:inherit} button{margin-top:12px;padding:10px 14px;border-radius:10px;border:0;background:linear-gradient(90deg,#6ee7b7,#60a5fa);color:#022027;font-weight:700}</style>");
+        html.append("</head><body>");
+        html.append("<div class=\"card\"><h2>Apply for: "+escape(title)+"</h2>");
+        html.append("<div style=\"color:#9aa7bb;margin-bottom:12px\">"+escape(summary)+"</div>");
+        html.append("<form method=\"post\" action=\"/api/jobs/apply\">\n");
+        html.append("<input type=\"hidden\" name=\"job_id\" value=\""+jobId+"\">\n");
+        html.append("<label>Name</label><input name=\"name\" required>\n");
+        html.append("<label>Email</label><input name=\"email\" type=\"email\" required>\n");
+        html.append("<label>Cover letter</label><textarea name=\"cover_letter\" rows=6></textarea>\n");
+        html.append("<button type=\"submit\">Submit application</button>\n");
+        html.append("</form>");
+
+        if (jds != null && !jds.isEmpty()){
+            html.append("<h3 style=\"margin-top:18px\">Job sections</h3>");
+            html.append("<ul>");
+            for (Object[] r: jds){ html.append("<li><strong>"+escape((String)r[0]) + "</strong> - " + escape((String)r[1]) + "</li>"); }
+            html.append("</ul>");
+        }
+        html.append("</div></body></html>");
+
+        byte[] bytes = html.toString().getBytes(StandardCharsets.UTF_8);
+        long lm = lastModified > 0 ? lastModified : System.currentTimeMillis();
+        return new RenderedForm(version, bytes, etagOf(bytes), (lm / 1000) * 1000);
+    }
+
+    private static long toMillis(Object ts){
+        if (ts instanceof java.sql.Timestamp t) return t.getTime();
+        if (ts instanceof java.time.OffsetDateTime o) return o.toInstant().toEpochMilli();
+        if (ts instanceof java.time.Instant i) return i.toEpochMilli();
+        return 0L;
+    }
+
+    private static String etagOf(byte[] body){
+        try {
+            byte[] d = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(d, 0, 16) + "\"";
+        } catch(Exception e){
+            return "\"" + Integer.toHexString(java.util.Arrays.hashCode(body)) + "\"";
+        }
     }
 
     private static String escape(String s){ if(s==null) return ""; return s.replace("&","&amp;").replace("<","&lt;").replace(">","&gt;").replace("\"","&quot;"); }
 }
-
@@ -1,11 +1,28 @@
 package com.example.ats.web;
 
-import com.example.ats.entity.Application;
-import com.example.ats.entity.Job;
+import com.example.ats.dto.ApplicantApplication;
+import com.example.ats.dto.BulkStatusRequest;
+import com.example.ats.entity.ApplicationStatus;
+import com.example.ats.repository.PersistenceRuntime;
+import com.example.ats.service.CandidateSearchIndex;
+import com.example.ats.service.CvStorage;
+import com.example.ats.service.InvalidationBus;
+import com.example.ats.service.LocalCvStorage;
+import com.example.ats.service.NotificationDispatcher;
+import com.example.ats.service.NotificationEvent;
+import com.example.ats.service.NotificationEventBus;
 import jakarta.persistence.*;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.*;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
 import java.util.*;
 import java.util.logging.Logger;
 
@@ -13,100 +30,380 @@ import java.util.logging.Logger;
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 public class ApplicationResource {
-    private static volatile EntityManagerFactory EMF; // cache
     private static final Logger LOG = Logger.getLogger(ApplicationResource.class.getName());
 
+    @Context
+    private HttpServletRequest servletRequest;
+
+    @Context
+    private ServletContext servletContext;
+
     private EntityManagerFactory getEmf(){
-        EntityManagerFactory local = EMF;
-        if(local == null){
-            synchronized (ApplicationResource.class){
-                local = EMF;
-                if(local == null){
-                    EMF = local = jakarta.persistence.Persistence.createEntityManagerFactory("ATS-PU");
-                }
-            }
-        }
-        return local;
+        return PersistenceRuntime.emf();
     }
 
-    // Return applicants for a given job
+    /** Optional heavy columns of the applicant listing, by {@code fields=} name. */
+    private static final Map<String, String> HEAVY_FIELDS = Map.of(
+            "coverLetter", "a.cover_letter",
+            "redFlags", "a.red_flags");
+    private static final int DEFAULT_APPLICANT_PAGE = 100;
+    private static final int MAX_APPLICANT_PAGE = 500;
+
+    /**
+     * One page of a job's applicants, streamed from the result cursor.
+     * Query params: sort (submitted - newest first, default | score - best match first, unscored last),
+     * status (repeatable or comma-separated), limit (default 100, max 500), after (cursor from the previous
+     * page), fields (comma-separated opt-in heavy columns: coverLetter, redFlags).
+     * Body: {jobId, sort, [total, statusCounts on the first page], items: [...], nextCursor}. statusCounts
+     * cover every status of the job; total counts only the statuses the listing is filtered to.
+     * Pages walk idx_applications_job_submitted for the default sort.
+     */
     @GET
     @Path("jobs/{jobId}/applicants")
-    public Response listApplicantsForJob(@PathParam("jobId") Long jobId){
-        List<Map<String,Object>> out = new ArrayList<>();
-        if (jobId == null) return Response.ok(out).build();
-        EntityManager em = null;
-        try {
-            em = getEmf().createEntityManager();
-            // Query applications table which has denormalized applicant data
-            String sql = "SELECT a.id, a.applicant_user_id, a.applicant_name, a.applicant_email, a.applicant_phone, " +
-                         "a.status, a.submitted_at, a.cv_path, a.match_score, a.cover_letter " +
-                         "FROM applications a " +
-                         "WHERE a.job_id = ?1 " +
-                         "ORDER BY a.submitted_at DESC NULLS LAST, a.id DESC";
+    public Response listApplicantsForJob(@PathParam("jobId") Long jobId,
+                                         @QueryParam("sort") @DefaultValue("submitted") String sort,
+                                         @QueryParam("status") List<String> statuses,
+                                         @QueryParam("limit") Integer limit,
+                                         @QueryParam("after") String after,
+                                         @QueryParam("fields") String fields){
+        if (!"submitted".equals(sort) && !"score".equals(sort)) return badRequest("sort must be submitted or score");
+        int pageSize = limit == null ? DEFAULT_APPLICANT_PAGE : limit;
+        if (pageSize < 1 || pageSize > MAX_APPLICANT_PAGE) return badRequest("limit must be 1-" + MAX_APPLICANT_PAGE);
 
-            @SuppressWarnings("unchecked")
-            List<Object[]> rows = em.createNativeQuery(sql).setParameter(1, jobId).getResultList();
-
-            for(Object[] r : rows){
-                Map<String,Object> m = new HashMap<>();
-                m.put("id", r[0] != null ? ((Number)r[0]).longValue() : null);  // application ID
-                m.put("applicantUserId", r[1] != null ? ((Number)r[1]).longValue() : null);
-                m.put("name", r[2]);
-                m.put("email", r[3]);
-                m.put("phone", r[4]);
-
-                // Map status to frontend format
-                String st = r[5] != null ? r[5].toString().toLowerCase(Locale.ROOT) : "submitted";
-                m.put("status", st);
-
-                // Format submitted date
-                Object submitted = r[6];
-                String iso = null;
-                if (submitted instanceof java.sql.Timestamp ts){
-                    iso = ts.toInstant().toString();
-                } else if (submitted != null){
-                    iso = submitted.toString();
+        List<String> heavy = new ArrayList<>();
+        if (fields != null){
+            for (String f : fields.split(",")){
+                f = f.trim();
+                if (f.isEmpty()) continue;
+                if (!HEAVY_FIELDS.containsKey(f)) return badRequest("Unknown field: " + f + " (allowed: " + HEAVY_FIELDS.keySet() + ")");
+                if (!heavy.contains(f)) heavy.add(f);
+            }
+        }
+        List<String> wanted = new ArrayList<>();
+        for (String s : statuses){
+            for (String part : s.split(",")){
+                if (part.isBlank() || part.trim().equalsIgnoreCase("all")) continue;
+                try {
+                    wanted.add(ApplicationStatus.fromDbValue(part.trim()).getDbValue());
+                } catch (IllegalArgumentException e){
+                    return badRequest("Unknown status: " + part);
                 }
-                m.put("appliedDate", iso);
+            }
+        }
+        ApplicantCursor cursor = null;
+        if (after != null && !after.isBlank()){
+            cursor = ApplicantCursor.parse(after, sort);
+            if (cursor == null) return badRequest("Invalid cursor for sort=" + sort);
+        }
 
-                m.put("cvPath", r[7]);
-                m.put("matchScore", r[8]);
-                m.put("coverLetter", r[9]);
+        StringBuilder sql = new StringBuilder("SELECT a.id, a.applicant_user_id, a.applicant_name, a.applicant_email, a.applicant_phone, " +
+                "CAST(a.status AS text), a.submitted_at, a.cv_path, a.match_score, a.version");
+        for (String f : heavy) sql.append(", ").append(HEAVY_FIELDS.get(f));
+        sql.append(" FROM applications a WHERE a.job_id = ?");
+        if (!wanted.isEmpty()){
+            // rows without a status are submitted ones, as in statusCounts
+            sql.append(wanted.contains(ApplicationStatus.SUBMITTED.getDbValue())
+                    ? " AND (a.status = ANY(CAST(? AS application_status[])) OR a.status IS NULL)"
+                    : " AND a.status = ANY(CAST(? AS application_status[]))");
+        }
+        if ("submitted".equals(sort)){
+            // DESC puts NULLs first in Postgres, which is also the index order
+            if (cursor != null) sql.append(cursor.value == null
+                    ? " AND ((a.submitted_at IS NULL AND a.id < ?) OR a.submitted_at IS NOT NULL)"
+                    : " AND a.submitted_at IS NOT NULL AND (a.submitted_at, a.id) < (?, ?)");
+            sql.append(" ORDER BY a.submitted_at DESC, a.id DESC");
+        } else {
+            if (cursor != null) sql.append(cursor.value == null
+                    ? " AND a.match_score IS NULL AND a.id < ?"
+                    : " AND (a.match_score < ? OR (a.match_score = ? AND a.id < ?) OR a.match_score IS NULL)");
+            sql.append(" ORDER BY a.match_score DESC NULLS LAST, a.id DESC");
+        }
+        sql.append(" LIMIT ?");
 
-                out.add(m);
+        // run the query before committing to a 200, so database errors still get a proper status
+        Connection c = null;
+        PreparedStatement ps = null;
+        ResultSet rs;
+        Map<String, Long> counts = null;
+        try {
+            c = PersistenceRuntime.get().getDataSource().getConnection();
+            c.setAutoCommit(false);
+            c.setReadOnly(true);
+            if (cursor == null) counts = statusCounts(c, jobId);
+            ps = c.prepareStatement(sql.toString());
+            ps.setFetchSize(Math.min(pageSize + 1, 200));
+            int i = 1;
+            ps.setLong(i++, jobId);
+            if (!wanted.isEmpty()) ps.setArray(i++, c.createArrayOf("text", wanted.toArray()));
+            if (cursor != null){
+                if ("submitted".equals(sort)){
+                    if (cursor.value != null) ps.setTimestamp(i++, java.sql.Timestamp.from(Instant.parse(cursor.value)));
+                } else if (cursor.value != null){
+                    java.math.BigDecimal v = new java.math.BigDecimal(cursor.value);
+                    ps.setBigDecimal(i++, v);
+                    ps.setBigDecimal(i++, v);
+                }
+                ps.setLong(i++, cursor.id);
             }
-            return Response.ok(out).build();
-        } catch(Exception e){
+            ps.setInt(i, pageSize + 1);   // one extra row tells us whether there is a next page
+            rs = ps.executeQuery();
+        } catch (Exception e){
+            closeQuietly(ps, c);
             LOG.severe("Error fetching applicants for job " + jobId + ": " + e.getClass().getName() + ": " + e.getMessage());
-            e.printStackTrace();
-            return Response.ok(out).build();
-        } finally {
-            if (em != null){
-                try { em.close(); } catch(Exception ignore){}
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("status", "error", "reason", "Failed to load applicants")).build();
+        }
+
+        final Connection conn = c;
+        final PreparedStatement stmt = ps;
+        final Map<String, Long> statusCounts = counts;
+        StreamingOutput body = out -> {
+            try (JsonGenerator g = AppConfig.mapper().getFactory().createGenerator(out)){
+                g.writeStartObject();
+                g.writeNumberField("jobId", jobId);
+                g.writeStringField("sort", sort);
+                if (statusCounts != null){
+                    g.writeObjectFieldStart("statusCounts");
+                    for (Map.Entry<String, Long> e : statusCounts.entrySet()) g.writeNumberField(e.getKey(), e.getValue());
+                    g.writeEndObject();
+                    g.writeNumberField("total", filteredTotal(statusCounts, wanted));
+                }
+                g.writeArrayFieldStart("items");
+                int written = 0;
+                String last = null, next = null;
+                while (rs.next()){
+                    if (written == pageSize){
+                        next = last;   // a row past the page exists
+                        break;
+                    }
+                    last = writeApplicant(g, rs, heavy, sort);
+                    written++;
+                }
+                g.writeEndArray();
+                g.writeStringField("nextCursor", next);
+                g.writeEndObject();
+            } catch (java.sql.SQLException e){
+                LOG.severe("Applicant stream for job " + jobId + " aborted: " + e.getMessage());
+                throw new java.io.IOException(e);
+            } finally {
+                closeQuietly(stmt, conn);
+            }
+        };
+        return Response.ok(body, MediaType.APPLICATION_JSON_TYPE).header("Cache-Control", "no-store").build();
+    }
+
+    /** Writes one listing row and returns the cursor that resumes after it. */
+    private static String writeApplicant(JsonGenerator g, ResultSet rs, List<String> heavy, String sort) throws java.sql.SQLException, java.io.IOException {
+        long id = rs.getLong(1);
+        long userId = rs.getLong(2);
+        boolean hasUser = !rs.wasNull();
+        java.sql.Timestamp submitted = rs.getTimestamp(7);
+        java.math.BigDecimal score = rs.getBigDecimal(9);
+
+        g.writeStartObject();
+        g.writeNumberField("id", id);
+        if (hasUser) g.writeNumberField("applicantUserId", userId); else g.writeNullField("applicantUserId");
+        g.writeStringField("name", rs.getString(3));
+        g.writeStringField("email", rs.getString(4));
+        g.writeStringField("phone", rs.getString(5));
+        String st = rs.getString(6);
+        g.writeStringField("status", st != null ? st.toLowerCase(Locale.ROOT) : "submitted");
+        g.writeStringField("appliedDate", submitted == null ? null : submitted.toInstant().toString());
+        g.writeStringField("cvPath", rs.getString(8));
+        if (score != null) g.writeNumberField("matchScore", score); else g.writeNullField("matchScore");
+        g.writeNumberField("version", rs.getLong(10));   // send back with status changes
+        for (int i = 0; i < heavy.size(); i++){
+            String value = rs.getString(11 + i);
+            if ("redFlags".equals(heavy.get(i))){
+                g.writeFieldName("redFlags");
+                if (value == null) g.writeNull(); else g.writeRawValue(value);   // stored as a JSON array by the screening engine
+            } else {
+                g.writeStringField(heavy.get(i), value);
+            }
+        }
+        g.writeEndObject();
+
+        String value = "submitted".equals(sort)
+                ? (submitted == null ? null : submitted.toInstant().toString())
+                : (score == null ? null : score.toPlainString());
+        return new ApplicantCursor(sort, value, id).encode();
+    }
+
+    private static Map<String, Long> statusCounts(Connection c, Long jobId) throws java.sql.SQLException {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        try (PreparedStatement ps = c.prepareStatement(
+                "SELECT CAST(status AS text), COUNT(*) FROM applications WHERE job_id = ? GROUP BY status ORDER BY 1")){
+            ps.setLong(1, jobId);
+            try (ResultSet rs = ps.executeQuery()){
+                while (rs.next()){
+                    String st = rs.getString(1);
+                    counts.merge(st == null ? "submitted" : st.toLowerCase(Locale.ROOT), rs.getLong(2), Long::sum);
+                }
             }
         }
+        return counts;
+    }
+
+    /** Applications in the listing's status filter; every status when {@code wanted} is empty. */
+    static long filteredTotal(Map<String, Long> counts, List<String> wanted){
+        long total = 0;
+        for (Map.Entry<String, Long> e : counts.entrySet()){
+            if (wanted.isEmpty() || wanted.contains(e.getKey())) total += e.getValue();
+        }
+        return total;
+    }
+
+    private static void closeQuietly(PreparedStatement ps, Connection c){
+        if (ps != null) try { ps.close(); } catch (Exception ignore){}
+        if (c != null){
+            try { c.rollback(); } catch (Exception ignore){}
+            try { c.close(); } catch (Exception ignore){}
+        }
+    }
+
+    /** Opaque keyset position: the sort it belongs to, the sort column value (null for NULL) and the id. */
+    private static final class ApplicantCursor {
+        final String sort;
+        final String value;
+        final long id;
+
+        ApplicantCursor(String sort, String value, long id){
+            this.sort = sort; this.value = value; this.id = id;
+        }
+
+        String encode(){
+            String raw = sort + "|" + (value == null ? "" : value) + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        }
+
+        static ApplicantCursor parse(String token, String sort){
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), java.nio.charset.StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|", -1);
+                if (parts.length != 3 || !parts[0].equals(sort)) return null;
+                String value = parts[1].isEmpty() ? null : parts[1];
+                if (value != null){
+                    if ("submitted".equals(sort)) Instant.parse(value); else new java.math.BigDecimal(value);
+                }
+                return new ApplicantCursor(sort, value, Long.parseLong(parts[2]));
+            } catch (IllegalArgumentException | java.time.DateTimeException e){
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Full-text candidate search across applications (name, email, cover letter, CV text).
+     * Query params: q (simple query syntax), jobId (repeatable), status (repeatable), minScore, maxScore,
+     * sort (relevance | score | submitted), offset, limit (max 100). Returns lightweight rows plus
+     * status / job / score-bucket facet counts; cover letters and CV text are never included.
+     * HR and admins search everything; hiring managers only their own (and unmanaged) jobs.
+     */
+    @GET
+    @Path("search")
+    public Response search(@QueryParam("q") String q,
+                           @QueryParam("jobId") List<Long> jobIds,
+                           @QueryParam("status") List<String> statuses,
+                           @QueryParam("minScore") Double minScore,
+                           @QueryParam("maxScore") Double maxScore,
+                           @QueryParam("sort") String sort,
+                           @QueryParam("offset") @DefaultValue("0") int offset,
+                           @QueryParam("limit") @DefaultValue("20") int limit){
+        HttpSession session = servletRequest == null ? null : servletRequest.getSession(false);
+        Long userId = session == null ? null : (Long) session.getAttribute("userId");
+        String role = session == null ? null : (String) session.getAttribute("userRole");
+        if (userId == null) throw new NotAuthorizedException("Not authenticated");
+        if (!"hr".equals(role) && !"admin".equals(role) && !"hiring_manager".equals(role)){
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+
+        if (offset < 0 || limit < 1 || limit > CandidateSearchIndex.MAX_LIMIT || offset + limit > CandidateSearchIndex.MAX_WINDOW){
+            return badRequest("offset/limit out of range (limit 1-" + CandidateSearchIndex.MAX_LIMIT
+                    + ", offset + limit <= " + CandidateSearchIndex.MAX_WINDOW + ")");
+        }
+        if (sort != null && !Set.of("relevance", "score", "submitted").contains(sort)){
+            return badRequest("sort must be relevance, score or submitted");
+        }
+        Set<String> wanted = new LinkedHashSet<>();
+        for (String s : statuses){
+            try {
+                wanted.add(ApplicationStatus.fromDbValue(s.trim()).getDbValue());
+            } catch (IllegalArgumentException e){
+                return badRequest("Unknown status: " + s);
+            }
+        }
+
+        Collection<Long> scope = jobIds.isEmpty() ? null : new LinkedHashSet<>(jobIds);
+        if ("hiring_manager".equals(role)){
+            Set<Long> own = managedJobIds(userId);
+            if (scope == null) scope = own;
+            else scope.retainAll(own);
+        }
+
+        CandidateSearchIndex index = CandidateSearchIndex.get();
+        if (!index.isRunning()) return Response.status(Response.Status.SERVICE_UNAVAILABLE).header("Retry-After", "10").build();
+        try {
+            return Response.ok(index.search(new CandidateSearchIndex.SearchRequest()
+                    .text(q)
+                    .jobIds(scope)
+                    .statuses(wanted)
+                    .scoreRange(minScore, maxScore)
+                    .sort(sort)
+                    .page(offset, limit))).build();
+        } catch (Exception e){
+            LOG.severe("Candidate search failed: " + e.getClass().getName() + ": " + e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("status", "error", "reason", "Search failed")).build();
+        }
+    }
+
+    private Set<Long> managedJobIds(Long managerId){
+        EntityManager em = getEmf().createEntityManager();
+        try {
+            @SuppressWarnings("unchecked")
+            List<Number> ids = em.createNativeQuery(
+                    "SELECT id FROM jobs WHERE managed_by_manager_id = ?1 OR managed_by_manager_id IS NULL")
+                    .setParameter(1, managerId)
+                    .getResultList();
+            Set<Long> out = new HashSet<>();
+            for (Number n : ids) out.add(n.longValue());
+            return out;
+        } finally {
+            em.close();
+        }
+    }
+
+    private static Response badRequest(String reason){
+        return Response.status(Response.Status.BAD_REQUEST).entity(Map.of("status", "error", "reason", reason)).build();
     }
 
     // Update application status to shortlisted (for "Move to Next Round")
     @POST
     @Path("applications/{applicationId}/accept")
-    public Response accept(@PathParam("applicationId") Long applicationId){
-        return updateApplicationStatus(applicationId, "shortlisted", false);
+    public Response accept(@PathParam("applicationId") Long applicationId, @QueryParam("version") Long version){
+        return updateApplicationStatus(applicationId, ApplicationStatus.SHORTLISTED, version, false);
     }
 
     // Update application status to rejected
     @POST
     @Path("applications/{applicationId}/reject")
-    public Response reject(@PathParam("applicationId") Long applicationId){
-        return updateApplicationStatus(applicationId, "rejected", true);  // Send notification
+    public Response reject(@PathParam("applicationId") Long applicationId, @QueryParam("version") Long version){
+        return updateApplicationStatus(applicationId, ApplicationStatus.REJECTED, version, true);  // Send notification
     }
 
-    private Response updateApplicationStatus(Long applicationId, String status, boolean sendNotification){
+    /**
+     * Guarded status change: one UPDATE that only matches when the current status may move to
+     * {@code target} (see {@link ApplicationStatus}) and the version is the one the caller last saw
+     * (required: 428 without it). It returns what the notification needs, so the happy path is a single
+     * statement. No match is a 404 or a 409 with the current status and version.
+     */
+    private Response updateApplicationStatus(Long applicationId, ApplicationStatus target, Long expectedVersion, boolean sendNotification){
         if (applicationId == null){
             Map<String,Object> err = Map.of("status","error","reason","Missing applicationId");
             return Response.status(Response.Status.BAD_REQUEST).entity(err).build();
         }
+        if (expectedVersion == null) return versionRequired();
+        String status = target.getDbValue();
         EntityManager em = null;
         EntityTransaction tx = null;
         try {
@@ -114,64 +411,68 @@ public class ApplicationResource {
             tx = em.getTransaction();
             tx.begin();
 
-            // Update application status with proper enum cast
-            String updateSql = "UPDATE applications SET status = CAST(?1 AS application_status), updated_at = NOW() WHERE id = ?2";
-            int updated = em.createNativeQuery(updateSql)
+            // applicant + job context come back with the update (for the notification and the pushed event)
+            String updateSql = "UPDATE applications a SET status = CAST(?1 AS application_status), version = a.version + 1, updated_at = NOW() " +
+                    "WHERE a.id = ?2 AND " + statusGuard("a.status", target) + " AND a.version = ?3" +
+                    " RETURNING a.applicant_name, a.applicant_email, a.job_id, a.applicant_user_id, " +
+                    "(SELECT j.title FROM jobs j WHERE j.id = a.job_id), (SELECT j.managed_by_manager_id FROM jobs j WHERE j.id = a.job_id), a.version";
+            Query update = em.createNativeQuery(updateSql)
                     .setParameter(1, status)
                     .setParameter(2, applicationId)
-                    .executeUpdate();
+                    .setParameter(3, expectedVersion);
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = update.getResultList();
+
+            if (rows.isEmpty()){
+                tx.rollback();
+                return statusConflict(em, applicationId, target, expectedVersion);
+            }
+            Object[] appData = rows.get(0);
+            InvalidationBus.get().publish(em, InvalidationBus.APPLICATION, applicationId);
+
+            String applicantName = appData[0] != null ? appData[0].toString() : "";
+            String applicantEmail = appData[1] != null ? appData[1].toString() : "";
+            Long jobId = appData[2] != null ? ((Number)appData[2]).longValue() : null;
+            Long applicantUserId = appData[3] != null ? ((Number)appData[3]).longValue() : null;
+            String jobTitle = appData[4] != null ? appData[4].toString() : "the position";
+            Long managerId = appData[5] != null ? ((Number)appData[5]).longValue() : null;
+            long newVersion = ((Number) appData[6]).longValue();
 
+            Long notificationId = null;
+            String subject = null;
             // If rejection, create notification
-            if (sendNotification && updated > 0) {
-                String getSql = "SELECT applicant_name, applicant_email, job_id FROM applications WHERE id = ?1";
-                Object[] appData = (Object[]) em.createNativeQuery(getSql)
-                        .setParameter(1, applicationId)
-                        .getSingleResult();
-
-                String applicantName = appData[0] != null ? appData[0].toString() : "";
-                String applicantEmail = appData[1] != null ? appData[1].toString() : "";
-                Long jobId = appData[2] != null ? ((Number)appData[2]).longValue() : null;
-
-                // Get job title
-                String jobTitle = "the position";
-                if (jobId != null) {
-                    try {
-                        Object titleObj = em.createNativeQuery("SELECT title FROM jobs WHERE id = ?1")
-                                .setParameter(1, jobId)
-                                .getSingleResult();
-                        if (titleObj != null) jobTitle = titleObj.toString();
-                    } catch (Exception e) {
-                        // Ignore if job not found
-                    }
-                }
+            if (sendNotification) {
+                subject = "Application Update - " + jobTitle;
+                String body = rejectionBody(applicantName, jobTitle);
 
-                // Create rejection notification
-                String subject = "Application Update - " + jobTitle;
-                String body = String.format(
-                    "Dear %s,\n\nThank you for your interest in %s. " +
-                    "After careful consideration, we have decided to move forward with other candidates " +
-                    "whose qualifications more closely match our current needs.\n\n" +
-                    "We appreciate the time you invested in the application process and wish you success in your job search.\n\n" +
-                    "Best regards,\nTalent Flow Team",
-                    applicantName, jobTitle
-                );
-
-                em.createNativeQuery(
-                    "INSERT INTO notifications (application_id, notification_type, to_email, subject, body, sent_at) " +
-                    "VALUES (?1, CAST(?2 AS notification_type), ?3, ?4, ?5, NOW())")
+                Object idObj = em.createNativeQuery(
+                    "INSERT INTO notifications (application_id, notification_type, to_email, subject, body, created_at, delivery_status, attempts) " +
+                    "VALUES (?1, CAST(?2 AS notification_type), ?3, ?4, ?5, NOW(), 'pending', 0) RETURNING id")
                     .setParameter(1, applicationId)
                     .setParameter(2, "rejection_email")
                     .setParameter(3, applicantEmail)
                     .setParameter(4, subject)
                     .setParameter(5, body)
-                    .executeUpdate();
+                    .getSingleResult();
+                notificationId = ((Number) idObj).longValue();
             }
 
+            NotificationEvent event = new NotificationEvent(
+                    notificationId != null ? NotificationEvent.NOTIFICATION : NotificationEvent.APPLICATION_STATUS,
+                    NotificationEventBus.recipients(applicantUserId, managerId),
+                    applicationId, jobId, jobTitle, status,
+                    notificationId, notificationId != null ? "rejection_email" : null, subject);
+
             tx.commit();
+            CandidateSearchIndex.get().applicationChanged(applicationId);
+            NotificationEventBus.get().publish(event);
+            if (event.getNotificationId() != null) NotificationDispatcher.get().wakeUp();
 
             Map<String,Object> ok = new HashMap<>();
             ok.put("status", "ok");
-            ok.put("updated", updated);
+            ok.put("updated", 1);
+            ok.put("applicationStatus", status);
+            ok.put("version", newVersion);
             return Response.ok(ok).build();
         } catch(Exception e){
             if (tx != null && tx.isActive()) try { tx.rollback(); } catch(Exception ignore){}
@@ -188,55 +489,616 @@ public class ApplicationResource {
         }
     }
 
+    /**
+     * SQL condition that {@code column} holds a status allowed to move to {@code target}. The values are
+     * the enum's own constants, so they are inlined rather than bound.
+     */
+    static String statusGuard(String column, ApplicationStatus target){
+        String[] sources = ApplicationStatus.sourcesOf(target);
+        if (sources.length == 0) return "FALSE";
+        StringJoiner in = new StringJoiner("', '", column + " IN ('", "')");
+        for (String v : sources) in.add(v);
+        // rows without a status are treated as submitted everywhere else
+        boolean fromSubmitted = Arrays.asList(sources).contains(ApplicationStatus.SUBMITTED.getDbValue());
+        return fromSubmitted ? "(" + in + " OR " + column + " IS NULL)" : in.toString();
+    }
+
+    /** Why a guarded status update matched nothing: 404, or 409 with the application's current state. */
+    static Response statusConflict(EntityManager em, Long applicationId, ApplicationStatus target, Long expectedVersion){
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = em.createNativeQuery("SELECT CAST(status AS text), version FROM applications WHERE id = ?1")
+                .setParameter(1, applicationId)
+                .getResultList();
+        if (rows.isEmpty()){
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(Map.of("status", "error", "reason", "Application not found")).build();
+        }
+        String current = rows.get(0)[0] == null ? ApplicationStatus.SUBMITTED.getDbValue() : rows.get(0)[0].toString();
+        return conflict(current, ((Number) rows.get(0)[1]).longValue(), target, expectedVersion);
+    }
+
+    /** 409 for a status change refused in state {@code current} at {@code version}. */
+    static Response conflict(String current, long version, ApplicationStatus target, Long expectedVersion){
+        boolean allowed = ApplicationStatus.fromDbValue(current).canTransitionTo(target);
+        Map<String,Object> err = new LinkedHashMap<>();
+        err.put("status", "error");
+        err.put("reason", !allowed
+                ? "Cannot move an application from " + current + " to " + target.getDbValue()
+                : "Application was changed by someone else (version " + version + ", expected " + expectedVersion + ")");
+        err.put("applicationStatus", current);
+        err.put("version", version);
+        return Response.status(Response.Status.CONFLICT).entity(err).build();
+    }
+
+    /** 428: status changes must name the version the caller last saw. */
+    static Response versionRequired(){
+        return Response.status(Response.Status.PRECONDITION_REQUIRED)
+                .entity(Map.of("status", "error", "reason", "version is required")).build();
+    }
+
+    private static String rejectionBody(String applicantName, String jobTitle){
+        return String.format(
+            "Dear %s,\n\nThank you for your interest in %s. " +
+            "After careful consideration, we have decided to move forward with other candidates " +
+            "whose qualifications more closely match our current needs.\n\n" +
+            "We appreciate the time you invested in the application process and wish you success in your job search.\n\n" +
+            "Best regards,\nTalent Flow Team",
+            applicantName, jobTitle
+        );
+    }
+
+    private static final int MAX_BULK_STATUS = 1000;
+
+    /**
+     * Moves many applications to one status (hr / admin, or a hiring manager for their own jobs).
+     * POST /api/applications/status  {applicationIds: [...], status, notify}
+     *
+     * One UPDATE ... RETURNING changes every eligible row; rejections queue their emails with one multi-row
+     * INSERT (unless notify is false); ids that weren't changed are classified with one more query. Each id
+     * gets an outcome: updated, unchanged (already in that status), conflict (a move {@link ApplicationStatus}
+     * doesn't allow), forbidden or not_found.
+     * Body: {status, requested, updated, notified, items: [{applicationId, outcome, [notificationId]}]}.
+     */
+    @POST
+    @Path("status")
+    public Response bulkUpdateStatus(BulkStatusRequest req){
+        HttpSession session = servletRequest == null ? null : servletRequest.getSession(false);
+        Long userId = session == null ? null : (Long) session.getAttribute("userId");
+        String role = session == null ? null : (String) session.getAttribute("userRole");
+        if (userId == null) throw new NotAuthorizedException("Not authenticated");
+        if (!"hr".equals(role) && !"admin".equals(role) && !"hiring_manager".equals(role)){
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+        if (req == null || req.applicationIds() == null || req.applicationIds().isEmpty()) return badRequest("applicationIds is required");
+        if (req.applicationIds().size() > MAX_BULK_STATUS) return badRequest("At most " + MAX_BULK_STATUS + " applications per request");
+        ApplicationStatus target;
+        try {
+            target = ApplicationStatus.fromDbValue(req.status());
+        } catch (IllegalArgumentException e){
+            return badRequest("Unknown status: " + req.status());
+        }
+        if (target == null) return badRequest("status is required");
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Long id : req.applicationIds()) if (id != null) ids.add(id);
+        if (ids.isEmpty()) return badRequest("applicationIds is required");
+        Long scopeManager = "hiring_manager".equals(role) ? userId : null;
+        boolean notify = target == ApplicationStatus.REJECTED && !Boolean.FALSE.equals(req.sendNotification());
+
+        Map<Long, String> outcome = new HashMap<>();
+        Map<Long, Long> notificationIds = new HashMap<>();
+        List<NotificationEvent> events = new ArrayList<>();
+        try (Connection c = PersistenceRuntime.get().getDataSource().getConnection()){
+            c.setAutoCommit(false);
+            try {
+                Long[] idArray = ids.toArray(new Long[0]);
+                String updateSql = "UPDATE applications a SET status = CAST(? AS application_status), version = a.version + 1, updated_at = NOW() " +
+                        "WHERE a.id = ANY(CAST(? AS bigint[])) AND a.status IS DISTINCT FROM CAST(? AS application_status) AND " +
+                        statusGuard("a.status", target) +
+                        (scopeManager == null ? "" : " AND EXISTS (SELECT 1 FROM jobs j WHERE j.id = a.job_id " +
+                                "AND (j.managed_by_manager_id = ? OR j.managed_by_manager_id IS NULL))") +
+                        " RETURNING a.id, a.applicant_name, a.applicant_email, a.job_id, a.applicant_user_id, " +
+                        "(SELECT j.title FROM jobs j WHERE j.id = a.job_id), (SELECT j.managed_by_manager_id FROM jobs j WHERE j.id = a.job_id)";
+                List<Object[]> changed = new ArrayList<>();
+                try (PreparedStatement ps = c.prepareStatement(updateSql)){
+                    ps.setString(1, target.getDbValue());
+                    ps.setArray(2, c.createArrayOf("bigint", idArray));
+                    ps.setString(3, target.getDbValue());
+                    if (scopeManager != null) ps.setLong(4, scopeManager);
+                    try (ResultSet rs = ps.executeQuery()){
+                        while (rs.next()){
+                            String title = rs.getString(6);
+                            changed.add(new Object[]{rs.getLong(1), rs.getString(2), rs.getString(3), JsonRows.getLong(rs, 4),
+                                    JsonRows.getLong(rs, 5), title == null ? "the position" : title, JsonRows.getLong(rs, 7)});
+                            outcome.put(rs.getLong(1), "updated");
+                        }
+                    }
+                }
+
+                if (notify && !changed.isEmpty()){
+                    int n = changed.size();
+                    Long[] apps = new Long[n];
+                    String[] emails = new String[n], subjects = new String[n], bodies = new String[n];
+                    for (int i = 0; i < n; i++){
+                        Object[] r = changed.get(i);
+                        apps[i] = (Long) r[0];
+                        emails[i] = r[2] == null ? "" : (String) r[2];
+                        subjects[i] = "Application Update - " + r[5];
+                        bodies[i] = rejectionBody(r[1] == null ? "" : (String) r[1], (String) r[5]);
+                    }
+                    try (PreparedStatement ps = c.prepareStatement(
+                            "INSERT INTO notifications (application_id, notification_type, to_email, subject, body, created_at, delivery_status, attempts) " +
+                            "SELECT u.app, CAST('rejection_email' AS notification_type), u.email, u.subject, u.body, NOW(), 'pending', 0 " +
+                            "FROM unnest(CAST(? AS bigint[]), CAST(? AS text[]), CAST(? AS text[]), CAST(? AS text[])) AS u(app, email, subject, body) " +
+                            "RETURNING id, application_id")){
+                        ps.setArray(1, c.createArrayOf("bigint", apps));
+                        ps.setArray(2, c.createArrayOf("text", emails));
+                        ps.setArray(3, c.createArrayOf("text", subjects));
+                        ps.setArray(4, c.createArrayOf("text", bodies));
+                        try (ResultSet rs = ps.executeQuery()){
+                            while (rs.next()) notificationIds.put(rs.getLong(2), rs.getLong(1));
+                        }
+                    }
+                }
+
+                if (outcome.size() < ids.size()){
+                    List<Long> rest = new ArrayList<>();
+                    for (Long id : ids) if (!outcome.containsKey(id)) rest.add(id);
+                    try (PreparedStatement ps = c.prepareStatement(
+                            "SELECT a.id, CAST(a.status AS text) FROM applications a WHERE a.id = ANY(CAST(? AS bigint[]))")){
+                        ps.setArray(1, c.createArrayOf("bigint", rest.toArray(new Long[0])));
+                        try (ResultSet rs = ps.executeQuery()){
+                            // existing rows that weren't updated: same status already, a move the state machine
+                            // doesn't allow, or outside the manager's jobs
+                            while (rs.next()){
+                                String current = rs.getString(2) == null ? ApplicationStatus.SUBMITTED.getDbValue() : rs.getString(2);
+                                String o = target.getDbValue().equals(current) ? "unchanged"
+                                        : !ApplicationStatus.fromDbValue(current).canTransitionTo(target) ? "conflict"
+                                        : "forbidden";
+                                outcome.put(rs.getLong(1), o);
+                            }
+                        }
+                    }
+                }
+
+                List<Long> changedIds = new ArrayList<>(changed.size());
+                for (Object[] r : changed) changedIds.add((Long) r[0]);
+                InvalidationBus.get().publish(c, InvalidationBus.APPLICATION, changedIds);
+                c.commit();
+
+                for (Object[] r : changed){
+                    Long appId = (Long) r[0];
+                    Long notificationId = notificationIds.get(appId);
+                    events.add(new NotificationEvent(
+                            notificationId != null ? NotificationEvent.NOTIFICATION : NotificationEvent.APPLICATION_STATUS,
+                            NotificationEventBus.recipients((Long) r[4], (Long) r[6]),
+                            appId, (Long) r[3], (String) r[5], target.getDbValue(),
+                            notificationId, notificationId != null ? "rejection_email" : null,
+                            notificationId != null ? "Application Update - " + r[5] : null));
+                }
+                if (!changedIds.isEmpty()) CandidateSearchIndex.get().applicationsChanged(changedIds);
+            } catch (Exception e){
+                try { c.rollback(); } catch (Exception ignore){}
+                throw e;
+            }
+        } catch (Exception e){
+            LOG.severe("Error in bulk status update: " + e.getMessage());
+            Map<String,Object> err = new HashMap<>();
+            err.put("status", "error");
+            err.put("reason", e.getClass().getName() + ": " + e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(err).build();
+        }
+        for (NotificationEvent event : events) NotificationEventBus.get().publish(event);
+        if (!notificationIds.isEmpty()) NotificationDispatcher.get().wakeUp();
+
+        List<Map<String, Object>> items = new ArrayList<>(ids.size());
+        int updated = 0;
+        for (Long id : ids){
+            Map<String, Object> item = new LinkedHashMap<>();
+            String o = outcome.getOrDefault(id, "not_found");
+            if ("updated".equals(o)) updated++;
+            item.put("applicationId", id);
+            item.put("outcome", o);
+            if (notificationIds.containsKey(id)) item.put("notificationId", notificationIds.get(id));
+            items.add(item);
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", "ok");
+        body.put("requested", ids.size());
+        body.put("updated", updated);
+        body.put("notified", notificationIds.size());
+        body.put("items", items);
+        return Response.ok(body).build();
+    }
+
     @GET
     @Path("/applicant/{applicantId}")
     public Response getApplicantApplications(@PathParam("applicantId") Long applicantId){
         try {
-            EntityManager em = getEmf().createEntityManager();
+            // applications with their job columns in one query, streamed from the cursor
+            String sql = "SELECT a.id, a.application_ref, a.job_id, CAST(a.status AS text), a.submitted_at, a.cover_letter, a.cv_path, a.match_score, " +
+                    "j.id, j.title, j.department, j.location, CAST(j.employment_type AS text) " +
+                    "FROM applications a LEFT JOIN jobs j ON j.id = a.job_id " +
+                    "WHERE a.applicant_user_id = ? ORDER BY a.submitted_at DESC";
+            return Response.ok(JsonRows.stream(ApplicantApplication.class, sql, ps -> ps.setLong(1, applicantId), rs -> {
+                String status = rs.getString(4);
+                ApplicantApplication.JobInfo job = null;
+                if (JsonRows.getLong(rs, 9) != null){   // job might have been deleted
+                    String et = rs.getString(13);
+                    var type = et == null ? null : com.example.ats.entity.EmploymentType.fromDb(et);
+                    job = new ApplicantApplication.JobInfo(rs.getString(10), rs.getString(11), rs.getString(12),
+                            type != null ? type.name() : null);
+                }
+                return new ApplicantApplication(
+                        rs.getLong(1),
+                        rs.getString(2),
+                        JsonRows.getLong(rs, 3),
+                        status != null ? status.toLowerCase(Locale.ROOT) : "submitted",
+                        JsonRows.getInstant(rs, 5),
+                        rs.getString(6),
+                        rs.getString(7),
+                        rs.getBigDecimal(8),
+                        job);
+            })).build();
 
-            // Query to get all applications for this applicant with job details
-            String jpql = "SELECT a FROM Application a WHERE a.applicantUserId = :applicantId ORDER BY a.submittedAt DESC";
-            List<Application> applications = em.createQuery(jpql, Application.class)
-                    .setParameter("applicantId", applicantId)
-                    .getResultList();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", String.valueOf(e.getMessage()))).build();
+        }
+    }
 
-            // Convert to JSON-friendly format with job details
-            var result = applications.stream().map(app -> {
-                Map<String, Object> appData = new HashMap<>();
-                appData.put("id", app.getId());
-                appData.put("applicationRef", app.getApplicationRef());
-                appData.put("jobId", app.getJobId());
-                appData.put("status", app.getStatus() != null ? app.getStatus().name().toLowerCase() : "submitted");
-                appData.put("submittedAt", app.getSubmittedAt());
-                appData.put("coverLetter", app.getCoverLetter());
-                appData.put("cvPath", app.getCvPath());
-                appData.put("matchScore", app.getMatchScore());
-
-                // Fetch job details
-                try {
-                    Job job = em.find(Job.class, app.getJobId());
-                    if (job != null) {
-                        Map<String, Object> jobData = new HashMap<>();
-                        jobData.put("title", job.getTitle());
-                        jobData.put("department", job.getDepartment());
-                        jobData.put("location", job.getLocation());
-                        jobData.put("employmentType", job.getEmploymentType() != null ? job.getEmploymentType().name() : null);
-                        appData.put("job", jobData);
-                    }
-                } catch (Exception e) {
-                    // Job might have been deleted
+    /**
+     * Aggregated applicant timeline: applications with their job summary, notifications and interviews,
+     * built from two queries instead of one HTTP call + DB session per application.
+     * GET /api/applications/applicant/{applicantId}/timeline[?since=ISO-8601 cursor]
+     *
+     * With {@code since}, only applications updated after the cursor or with newer events are returned,
+     * and each carries only the newer events. The returned {@code cursor} is the high-water mark of the
+     * timestamps seen; clients should de-duplicate events by id when merging.
+     *
+     * Visible to the applicant themselves and to HR/admin. A hiring manager sees only the applications to
+     * jobs they manage, and gets 403 when there are none.
+     */
+    @GET
+    @Path("/applicant/{applicantId}/timeline")
+    public Response getApplicantTimeline(@PathParam("applicantId") Long applicantId, @QueryParam("since") String since){
+        HttpSession session = servletRequest == null ? null : servletRequest.getSession(false);
+        Long userId = session == null ? null : (Long) session.getAttribute("userId");
+        String role = session == null ? null : (String) session.getAttribute("userRole");
+        if (userId == null) throw new NotAuthorizedException("Not authenticated");
+        Long scopedManager = null;
+        if (!userId.equals(applicantId) && !"hr".equals(role) && !"admin".equals(role)){
+            if (!"hiring_manager".equals(role)) return Response.status(Response.Status.FORBIDDEN).build();
+            scopedManager = userId;
+        }
+
+        java.time.OffsetDateTime sinceTs = null;
+        if (since != null && !since.isBlank()){
+            try { sinceTs = java.time.OffsetDateTime.parse(since); }
+            catch(Exception e){
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(Map.of("status", "error", "reason", "Invalid since cursor (expected ISO-8601)")).build();
+            }
+        }
+        java.sql.Timestamp sinceParam = sinceTs == null ? null : java.sql.Timestamp.from(sinceTs.toInstant());
+
+        EntityManager em = null;
+        try {
+            em = getEmf().createEntityManager();
+
+            if (scopedManager != null){
+                List<?> managed = em.createNativeQuery(
+                        "SELECT 1 FROM applications a JOIN jobs j ON j.id = a.job_id " +
+                        "WHERE a.applicant_user_id = ?1 AND j.managed_by_manager_id = ?2 LIMIT 1")
+                        .setParameter(1, applicantId).setParameter(2, scopedManager).getResultList();
+                if (managed.isEmpty()) return Response.status(Response.Status.FORBIDDEN).build();
+            }
+
+            // 1) every notification and interview event for the applicant, newest first
+            int eventsScopeLabel = sinceParam != null ? 3 : 2;
+            String scope = scopedManager == null ? ""
+                    : " AND a.job_id IN (SELECT id FROM jobs WHERE managed_by_manager_id = ?" + eventsScopeLabel + ")";
+            String eventsSql =
+                    "SELECT 'notification' AS kind, n.id, n.application_id, CAST(n.notification_type AS text), n.subject, n.body, " +
+                    "       COALESCE(n.created_at, n.sent_at) AS ts, n.to_email, n.created_by_user_id, " +
+                    "       CAST(NULL AS timestamptz), CAST(NULL AS timestamptz), CAST(NULL AS text) " +
+                    "FROM notifications n JOIN applications a ON a.id = n.application_id " +
+                    "WHERE a.applicant_user_id = ?1" + scope + (sinceParam != null ? " AND COALESCE(n.created_at, n.sent_at) > ?2 " : " ") +
+                    "UNION ALL " +
+                    "SELECT 'interview', i.id, i.application_id, CAST(i.status AS text), NULL, i.notes, " +
+                    "       i.updated_at, NULL, i.created_by_user_id, i.scheduled_start, i.scheduled_end, i.location " +
+                    "FROM interviews i JOIN applications a ON a.id = i.application_id " +
+                    "WHERE a.applicant_user_id = ?1" + scope + (sinceParam != null ? " AND i.updated_at > ?2 " : " ") +
+                    "ORDER BY 7 DESC NULLS LAST";
+            Query eq = em.createNativeQuery(eventsSql).setParameter(1, applicantId);
+            if (sinceParam != null) eq.setParameter(2, sinceParam);
+            if (scopedManager != null) eq.setParameter(eventsScopeLabel, scopedManager);
+            @SuppressWarnings("unchecked")
+            List<Object[]> events = eq.getResultList();
+
+            Map<Long, List<Map<String,Object>>> notificationsByApp = new HashMap<>();
+            Map<Long, List<Map<String,Object>>> interviewsByApp = new HashMap<>();
+            java.time.Instant highWater = sinceTs == null ? null : sinceTs.toInstant();
+            for (Object[] r : events){
+                Long appId = ((Number) r[2]).longValue();
+                highWater = later(highWater, r[6]);
+                Map<String,Object> ev = new HashMap<>();
+                ev.put("id", ((Number) r[1]).longValue());
+                ev.put("applicationId", appId);
+                if ("notification".equals(r[0])){
+                    ev.put("notificationType", r[3]);
+                    ev.put("subject", r[4]);
+                    ev.put("body", r[5]);
+                    ev.put("sentAt", r[6]);
+                    ev.put("toEmail", r[7]);
+                    ev.put("createdByUserId", r[8]);
+                    notificationsByApp.computeIfAbsent(appId, k -> new ArrayList<>()).add(ev);
+                } else {
+                    ev.put("status", r[3] != null ? r[3].toString().toLowerCase(Locale.ROOT) : "scheduled");
+                    ev.put("notes", r[5]);
+                    ev.put("updatedAt", r[6]);
+                    ev.put("scheduledStart", r[9]);
+                    ev.put("scheduledEnd", r[10]);
+                    ev.put("location", r[11]);
+                    interviewsByApp.computeIfAbsent(appId, k -> new ArrayList<>()).add(ev);
+                }
+            }
+
+            // 2) the applications themselves, joined with the job columns the page shows
+            String appsSql = "SELECT a.id, a.application_ref, a.job_id, CAST(a.status AS text), a.submitted_at, a.cv_path, a.match_score, a.updated_at, " +
+                    "j.title, j.department, j.location, CAST(j.employment_type AS text) " +
+                    "FROM applications a LEFT JOIN jobs j ON j.id = a.job_id " +
+                    "WHERE a.applicant_user_id = ?1";
+            Set<Long> touched = new HashSet<>();
+            touched.addAll(notificationsByApp.keySet());
+            touched.addAll(interviewsByApp.keySet());
+            int appsScopeLabel = 2;
+            if (sinceParam != null){
+                appsSql += touched.isEmpty() ? " AND a.updated_at > ?2" : " AND (a.updated_at > ?2 OR a.id IN (?3))";
+                appsScopeLabel = touched.isEmpty() ? 3 : 4;
+            }
+            if (scopedManager != null) appsSql += " AND j.managed_by_manager_id = ?" + appsScopeLabel;
+            appsSql += " ORDER BY a.submitted_at DESC NULLS LAST, a.id DESC";
+            Query aq = em.createNativeQuery(appsSql).setParameter(1, applicantId);
+            if (sinceParam != null){
+                aq.setParameter(2, sinceParam);
+                if (!touched.isEmpty()) aq.setParameter(3, touched);
+            }
+            if (scopedManager != null) aq.setParameter(appsScopeLabel, scopedManager);
+            @SuppressWarnings("unchecked")
+            List<Object[]> apps = aq.getResultList();
+
+            List<Map<String,Object>> out = new ArrayList<>(apps.size());
+            for (Object[] r : apps){
+                Long appId = ((Number) r[0]).longValue();
+                highWater = later(highWater, r[7]);
+                Map<String,Object> appData = new HashMap<>();
+                appData.put("id", appId);
+                appData.put("applicationRef", r[1]);
+                appData.put("jobId", r[2] != null ? ((Number) r[2]).longValue() : null);
+                appData.put("status", r[3] != null ? r[3].toString().toLowerCase(Locale.ROOT) : "submitted");
+                appData.put("submittedAt", r[4]);
+                appData.put("cvPath", r[5]);
+                appData.put("matchScore", r[6]);
+                appData.put("updatedAt", r[7]);
+                if (r[8] != null){
+                    Map<String,Object> jobData = new HashMap<>();
+                    jobData.put("title", r[8]);
+                    jobData.put("department", r[9]);
+                    jobData.put("location", r[10]);
+                    var et = r[11] == null ? null : com.example.ats.entity.EmploymentType.fromDb(r[11].toString());
+                    jobData.put("employmentType", et != null ? et.name() : null);
+                    appData.put("job", jobData);
+                } else {
                     appData.put("job", null);
                 }
+                appData.put("notifications", notificationsByApp.getOrDefault(appId, List.of()));
+                appData.put("interviews", interviewsByApp.getOrDefault(appId, List.of()));
+                out.add(appData);
+            }
 
-                return appData;
-            }).toList();
+            Map<String,Object> resp = new HashMap<>();
+            resp.put("applicantId", applicantId);
+            resp.put("applications", out);
+            resp.put("cursor", highWater != null ? highWater.toString() : null);
+            return Response.ok(resp).build();
+        } catch(Exception e){
+            LOG.severe("Error building timeline for applicant " + applicantId + ": " + e.getClass().getName() + ": " + e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", String.valueOf(e.getMessage()))).build();
+        } finally {
+            if (em != null){
+                try { em.close(); } catch(Exception ignore){}
+            }
+        }
+    }
+
+    /**
+     * GET /api/applications/{applicationId}/cv
+     *
+     * Streams the CV to the applicant who submitted it, to HR/admin and to the hiring manager of the job.
+     * Supports a single HTTP byte range (with If-Range) and conditional GET via ETag / Last-Modified.
+     * Rows written before CVs moved to {@link CvStorage} still point into the webapp directory and are
+     * served from there.
+     */
+    @GET
+    @Path("{applicationId}/cv")
+    @Produces(MediaType.WILDCARD)
+    public Response downloadCv(@PathParam("applicationId") Long applicationId,
+                               @HeaderParam("Range") String range,
+                               @HeaderParam("If-Range") String ifRange,
+                               @Context Request request){
+        HttpSession session = servletRequest == null ? null : servletRequest.getSession(false);
+        Long userId = session == null ? null : (Long) session.getAttribute("userId");
+        String role = session == null ? null : (String) session.getAttribute("userRole");
+        if (userId == null) throw new NotAuthorizedException("Not authenticated");
 
+        Object[] row;
+        EntityManager em = getEmf().createEntityManager();
+        try {
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = em.createNativeQuery(
+                    "SELECT a.cv_path, a.applicant_user_id, j.managed_by_manager_id, a.application_ref " +
+                    "FROM applications a JOIN jobs j ON j.id = a.job_id WHERE a.id = ?1")
+                    .setParameter(1, applicationId)
+                    .getResultList();
+            row = rows.isEmpty() ? null : rows.get(0);
+        } finally {
             em.close();
-            return Response.ok(result).build();
+        }
+        if (row == null || row[0] == null) return Response.status(Response.Status.NOT_FOUND).build();
 
-        } catch (Exception e) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(Map.of("error", e.getMessage())).build();
+        Long ownerId = row[1] == null ? null : ((Number) row[1]).longValue();
+        Long managerId = row[2] == null ? null : ((Number) row[2]).longValue();
+        if (!canView(userId, role, ownerId, managerId)) return Response.status(Response.Status.FORBIDDEN).build();
+
+        String cvPath = (String) row[0];
+        CvStorage.CvObject meta;
+        CvSource source;
+        try {
+            if (CvStorage.isKey(cvPath)){
+                Optional<CvStorage.CvObject> stat = CvStorage.get().stat(cvPath);
+                if (stat.isEmpty()) return Response.status(Response.Status.NOT_FOUND).build();
+                meta = stat.get();
+                source = (offset, length) -> CvStorage.get().open(cvPath, offset, length);
+            } else {
+                java.nio.file.Path file = legacyCvFile(cvPath);
+                if (file == null) return Response.status(Response.Status.NOT_FOUND).build();
+                meta = new CvStorage.CvObject(file.getFileName().toString(), java.nio.file.Files.size(file),
+                        java.nio.file.Files.getLastModifiedTime(file).toInstant());
+                source = (offset, length) -> LocalCvStorage.openRange(file, offset, length);
+            }
+        } catch (java.io.IOException e){
+            LOG.severe("Cannot read CV for application " + applicationId + ": " + e.getMessage());
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).build();
+        }
+
+        // legacy files are not content-addressed, so their validator is only weak
+        EntityTag etag = CvStorage.isKey(cvPath)
+                ? new EntityTag(meta.getEtag().replace("\"", ""))
+                : new EntityTag(meta.getSize() + "-" + (meta.getLastModified() == null ? 0 : meta.getLastModified().toEpochMilli()), true);
+        Date lastModified = meta.getLastModified() == null ? null : Date.from(meta.getLastModified());
+        Response.ResponseBuilder notModified = lastModified == null
+                ? request.evaluatePreconditions(etag)
+                : request.evaluatePreconditions(lastModified, etag);
+        if (notModified != null){
+            return notModified.tag(etag).header("Cache-Control", "private, no-cache").build();
+        }
+
+        long size = meta.getSize();
+        long start = 0, end = size - 1;
+        boolean partial = false;
+        // If-Range uses strong comparison: a weak validator never matches, so the full body is sent
+        boolean rangeApplies = range != null
+                && (ifRange == null || (!etag.isWeak() && ifRange.trim().equals("\"" + etag.getValue() + "\"")));
+        if (rangeApplies && range.startsWith("bytes=") && !range.contains(",")){
+            String spec = range.substring(6).trim();
+            int dash = spec.indexOf('-');
+            try {
+                if (dash == 0){
+                    long suffix = Long.parseLong(spec.substring(1));
+                    start = Math.max(0, size - suffix);
+                } else if (dash > 0){
+                    start = Long.parseLong(spec.substring(0, dash));
+                    if (dash < spec.length() - 1) end = Math.min(end, Long.parseLong(spec.substring(dash + 1)));
+                }
+                partial = dash >= 0;
+            } catch (NumberFormatException ignore){
+                // malformed ranges are ignored and the whole file is sent
+            }
+            if (partial && (start >= size || start > end)){
+                return Response.status(416).header("Content-Range", "bytes */" + size).build();
+            }
+        }
+
+        final long from = start, count = partial ? end - start + 1 : -1;
+        StreamingOutput body = out -> {
+            try (java.io.InputStream in = source.open(from, count)){
+                in.transferTo(out);
+            }
+        };
+        String fileName = (row[3] == null ? "cv-" + applicationId : row[3].toString()) + extensionOf(cvPath);
+        Response.ResponseBuilder rb = Response.status(partial ? 206 : 200)
+                .entity(body)
+                .type(meta.getContentType())
+                .tag(etag)
+                .header("Accept-Ranges", "bytes")
+                .header("Content-Length", partial ? count : size)
+                .header("Content-Disposition", "inline; filename=\"" + fileName + "\"")
+                .header("Cache-Control", "private, no-cache");
+        if (lastModified != null) rb.lastModified(lastModified);
+        if (partial) rb.header("Content-Range", "bytes " + start + "-" + end + "/" + size);
+        return rb.build();
+    }
+
+    /**
+     * Cover letter of one application; the applicant listing leaves it out unless asked for.
+     * Same access rules as the CV download.
+     */
+    @GET
+    @Path("{applicationId}/cover-letter")
+    public Response coverLetter(@PathParam("applicationId") Long applicationId){
+        HttpSession session = servletRequest == null ? null : servletRequest.getSession(false);
+        Long userId = session == null ? null : (Long) session.getAttribute("userId");
+        String role = session == null ? null : (String) session.getAttribute("userRole");
+        if (userId == null) throw new NotAuthorizedException("Not authenticated");
+
+        EntityManager em = getEmf().createEntityManager();
+        try {
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = em.createNativeQuery(
+                    "SELECT a.cover_letter, a.applicant_user_id, j.managed_by_manager_id " +
+                    "FROM applications a JOIN jobs j ON j.id = a.job_id WHERE a.id = ?1")
+                    .setParameter(1, applicationId)
+                    .getResultList();
+            if (rows.isEmpty()) return Response.status(Response.Status.NOT_FOUND).build();
+            Object[] row = rows.get(0);
+            Long ownerId = row[1] == null ? null : ((Number) row[1]).longValue();
+            Long managerId = row[2] == null ? null : ((Number) row[2]).longValue();
+            if (!canView(userId, role, ownerId, managerId)) return Response.status(Response.Status.FORBIDDEN).build();
+
+            Map<String, Object> out = new HashMap<>();
+            out.put("id", applicationId);
+            out.put("coverLetter", row[0]);
+            return Response.ok(out).header("Cache-Control", "private, no-cache").build();
+        } finally {
+            em.close();
         }
     }
+
+    /** The applicant themselves, HR/admin, or the job's hiring manager; a job without a manager is HR/admin only. */
+    private static boolean canView(Long userId, String role, Long ownerId, Long managerId){
+        return userId.equals(ownerId)
+                || "hr".equals(role) || "admin".equals(role)
+                || ("hiring_manager".equals(role) && managerId != null && userId.equals(managerId));
+    }
+
+    /** Opens a byte range of a CV. */
+    private interface CvSource {
+        java.io.InputStream open(long offset, long length) throws java.io.IOException;
+    }
+
+    private static String extensionOf(String path){
+        int dot = path.lastIndexOf('.');
+        int slash = path.lastIndexOf('/');
+        return dot > slash ? path.substring(dot) : "";
+    }
+
+    /** Resolves a pre-CvStorage cv_path ("uploads/cvs/...") inside the webapp, refusing anything outside it. */
+    private java.nio.file.Path legacyCvFile(String cvPath){
+        if (servletContext == null || !cvPath.startsWith("uploads/")) return null;
+        String webRoot = servletContext.getRealPath("");
+        if (webRoot == null) return null;
+        java.nio.file.Path base = java.nio.file.Paths.get(webRoot, "uploads").toAbsolutePath().normalize();
+        java.nio.file.Path file = java.nio.file.Paths.get(webRoot).resolve(cvPath).toAbsolutePath().normalize();
+        return file.startsWith(base) && java.nio.file.Files.isRegularFile(file) ? file : null;
+    }
+
+    private static java.time.Instant later(java.time.Instant current, Object ts){
+        java.time.Instant t = null;
+        if (ts instanceof java.sql.Timestamp x) t = x.toInstant();
+        else if (ts instanceof java.time.OffsetDateTime x) t = x.toInstant();
+        else if (ts instanceof java.time.Instant x) t = x;
+        if (t == null) return current;
+        return (current == null || t.isAfter(current)) ? t : current;
+    }
 }
@@ -1,7 +1,16 @@
 package com.example.ats.web;
 
 import com.example.ats.entity.*;
+import com.example.ats.repository.PersistenceRuntime;
 import jakarta.persistence.*;
+import com.example.ats.service.CvStorage;
+import com.example.ats.service.CandidateSearchIndex;
+import com.example.ats.service.CvTextExtractor;
+import com.example.ats.service.InvalidationBus;
+import com.example.ats.service.ScreeningEngine;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.MultipartConfig;
 import jakarta.servlet.annotation.WebServlet;
@@ -10,45 +19,55 @@ import java.io.*;
 import java.nio.file.*;
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
-@WebServlet("/api/applications/submit")
+/**
+ * Multipart application submit. The request thread only starts async processing and hands the request to a
+ * bounded ingestion pool, so upload spikes queue here (or get a 503 with Retry-After once the queue is full)
+ * instead of pinning Jetty's request threads while slow clients stream their CVs. The CV is streamed into the
+ * content-addressed {@link CvStorage}; the application row is inserted only after the object is durable.
+ */
+@WebServlet(urlPatterns = "/api/applications/submit", asyncSupported = true)
 @MultipartConfig(
-    fileSizeThreshold = 1024 * 1024 * 2,  // 2MB
+    fileSizeThreshold = 64 * 1024,        // spool anything larger to disk instead of holding it on the heap
     maxFileSize = 1024 * 1024 * 10,       // 10MB
     maxRequestSize = 1024 * 1024 * 50     // 50MB
 )
 public class ApplicationSubmitServlet extends HttpServlet {
     private static final Logger LOG = Logger.getLogger(ApplicationSubmitServlet.class.getName());
-    private static final String UPLOAD_DIR = "uploads/cvs";
-    private EntityManagerFactory emf;
+    private static final long MAX_CV_BYTES = 1024 * 1024 * 10;
+    private static final long ASYNC_TIMEOUT_MS = 5 * 60_000;
+    private static final int INGEST_THREADS = intEnv("CV_INGEST_THREADS", 8);
+    private static final int INGEST_QUEUE = intEnv("CV_INGEST_QUEUE", 200);
+
+    private ThreadPoolExecutor ingestPool;
+
+    private EntityManagerFactory getEmf() {
+        return PersistenceRuntime.emf();
+    }
 
     @Override
     public void init() throws ServletException {
-        super.init();
-        try {
-            Map<String, String> overrides = new HashMap<>();
-            String envUrl = System.getenv("DB_URL");
-            String envUser = System.getenv("DB_USER");
-            String envPass = System.getenv("DB_PASSWORD");
-            String envSsl = System.getenv("DB_SSLMODE");
-
-            if (envUrl != null && !envUrl.isBlank()) overrides.put("jakarta.persistence.jdbc.url", envUrl);
-            if (envUser != null && !envUser.isBlank()) overrides.put("jakarta.persistence.jdbc.user", envUser);
-            if (envPass != null && !envPass.isBlank()) overrides.put("jakarta.persistence.jdbc.password", envPass);
-            if (envSsl != null && !envSsl.isBlank()) {
-                if (overrides.containsKey("jakarta.persistence.jdbc.url") && !overrides.get("jakarta.persistence.jdbc.url").contains("sslmode=")) {
-                    String u = overrides.get("jakarta.persistence.jdbc.url");
-                    String sep = u.contains("?") ? "&" : "?";
-                    overrides.put("jakarta.persistence.jdbc.url", u + sep + "sslmode=" + envSsl);
-                }
-            }
+        AtomicInteger seq = new AtomicInteger();
+        ingestPool = new ThreadPoolExecutor(INGEST_THREADS, INGEST_THREADS, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(INGEST_QUEUE), r -> {
+                    Thread t = new Thread(r, "cv-ingest-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        ingestPool.allowCoreThreadTimeOut(true);
+    }
 
-            emf = Persistence.createEntityManagerFactory("ATS-PU", overrides);
-            LOG.info("ApplicationSubmitServlet initialized successfully");
-        } catch (Exception e) {
-            LOG.severe("Failed to initialize EMF: " + e.getMessage());
-            throw new ServletException("Persistence initialization failed", e);
+    @Override
+    public void destroy() {
+        ingestPool.shutdown();
+        try {
+            if (!ingestPool.awaitTermination(30, TimeUnit.SECONDS)) ingestPool.shutdownNow();
+        } catch (InterruptedException e) {
+            ingestPool.shutdownNow();
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -56,6 +75,42 @@ public class ApplicationSubmitServlet extends HttpServlet {
     protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         resp.setContentType("application/json;charset=UTF-8");
 
+        AsyncContext async = req.startAsync();
+        async.setTimeout(ASYNC_TIMEOUT_MS);
+        async.addListener(new AsyncListener() {
+            @Override public void onTimeout(AsyncEvent event) throws IOException {
+                HttpServletResponse r = (HttpServletResponse) event.getAsyncContext().getResponse();
+                if (!r.isCommitted()) {
+                    r.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                    r.getWriter().write("{\"status\":\"error\",\"reason\":\"Upload timed out\"}");
+                }
+                event.getAsyncContext().complete();
+            }
+            @Override public void onComplete(AsyncEvent event) {}
+            @Override public void onError(AsyncEvent event) {}
+            @Override public void onStartAsync(AsyncEvent event) {}
+        });
+
+        try {
+            ingestPool.execute(() -> {
+                try {
+                    submit((HttpServletRequest) async.getRequest(), (HttpServletResponse) async.getResponse());
+                } catch (Exception e) {
+                    LOG.severe("Error processing application: " + e.getClass().getName() + ": " + e.getMessage());
+                } finally {
+                    try { async.complete(); } catch (IllegalStateException alreadyTimedOut) { }
+                }
+            });
+        } catch (RejectedExecutionException full) {
+            LOG.warning("CV ingestion queue full (" + INGEST_QUEUE + "); rejecting upload");
+            resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            resp.setHeader("Retry-After", "5");
+            resp.getWriter().write("{\"status\":\"error\",\"reason\":\"Too many uploads in progress, please retry shortly\"}");
+            async.complete();
+        }
+    }
+
+    private void submit(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         try {
             // Extract form data
             String jobIdStr = req.getParameter("jobId");
@@ -75,23 +130,22 @@ public class ApplicationSubmitServlet extends HttpServlet {
 
             Long jobId = Long.parseLong(jobIdStr);
 
-            // Create upload directory if not exists
-            String uploadPath = getServletContext().getRealPath("") + File.separator + UPLOAD_DIR;
-            File uploadDir = new File(uploadPath);
-            if (!uploadDir.exists()) {
-                uploadDir.mkdirs();
+            // Stream the CV into the content-addressed store; returns once the bytes are durable
+            CvStorage.StoredCv cv;
+            try (InputStream in = cvPart.getInputStream()) {
+                cv = CvStorage.get().put(in, cvPart.getSubmittedFileName(), MAX_CV_BYTES);
+            } finally {
+                cvPart.delete();
+            }
+            String relativePath = cv.getKey();
+            if (cv.isDeduplicated()) {
+                LOG.info("CV already stored, reusing " + relativePath);
             }
-
-            // Save CV file
-            String fileName = generateUniqueFileName(cvPart.getSubmittedFileName());
-            String filePath = uploadPath + File.separator + fileName;
-            cvPart.write(filePath);
-            String relativePath = UPLOAD_DIR + "/" + fileName;
 
             // Sanitize cover letter (remove control characters that break JSON)
             String sanitizedCoverLetter = sanitizeForJson(coverLetter);
 
-            EntityManager em = emf.createEntityManager();
+            EntityManager em = getEmf().createEntityManager();
             try {
                 em.getTransaction().begin();
 
@@ -131,19 +185,17 @@ public class ApplicationSubmitServlet extends HttpServlet {
                         LOG.info("Creating new applicant user for: " + applicantEmail);
 
                         // Insert into users table
-                        em.createNativeQuery(
+                        Object newUserId = em.createNativeQuery(
                             "INSERT INTO users (email, password_hash, name, role, created_at, updated_at) " +
-                            "VALUES (?, ?, ?, CAST(? AS user_role), ?, ?)")
+                            "VALUES (?, ?, ?, CAST(? AS user_role), ?, ?) RETURNING id")
                             .setParameter(1, applicantEmail)
                             .setParameter(2, "temp_hash_" + UUID.randomUUID().toString()) // Temporary password hash
                             .setParameter(3, applicantName)
                             .setParameter(4, "applicant")
                             .setParameter(5, java.sql.Timestamp.from(OffsetDateTime.now().toInstant()))
                             .setParameter(6, java.sql.Timestamp.from(OffsetDateTime.now().toInstant()))
-                            .executeUpdate();
-
-                        // Get the generated user ID
-                        applicantUserId = (Long) em.createNativeQuery("SELECT lastval()").getSingleResult();
+                            .getSingleResult();
+                        applicantUserId = ((Number) newUserId).longValue();
                         LOG.info("Created user with ID: " + applicantUserId);
 
                         // Insert into applicant table
@@ -159,9 +211,9 @@ public class ApplicationSubmitServlet extends HttpServlet {
 
                 // Step 2: Create application with all required fields
                 String applicationRef = generateApplicationRef();
-                em.createNativeQuery(
-                    "INSERT INTO applications (application_ref, job_id, applicant_user_id, applicant_name, applicant_email, applicant_phone, cv_path, cover_letter, submitted_at, status, updated_at) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS application_status), ?)")
+                Object applicationId = em.createNativeQuery(
+                    "INSERT INTO applications (application_ref, job_id, applicant_user_id, applicant_name, applicant_email, applicant_phone, cv_path, cover_letter, submitted_at, status, updated_at, cv_sha256) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS application_status), ?, ?) RETURNING id")
                     .setParameter(1, applicationRef)
                     .setParameter(2, jobId)
                     .setParameter(3, applicantUserId)
@@ -173,9 +225,14 @@ public class ApplicationSubmitServlet extends HttpServlet {
                     .setParameter(9, java.sql.Timestamp.from(OffsetDateTime.now().toInstant()))
                     .setParameter(10, "under_review")  // Changed from "submitted" to "under_review"
                     .setParameter(11, java.sql.Timestamp.from(OffsetDateTime.now().toInstant()))
-                    .executeUpdate();
+                    .setParameter(12, cv.getSha256())
+                    .getSingleResult();
+                InvalidationBus.get().publish(em, InvalidationBus.APPLICATION, ((Number) applicationId).longValue());
 
                 em.getTransaction().commit();
+                ScreeningEngine.get().applicationsSubmitted(jobId);
+                CvTextExtractor.get().submit(cv.getSha256(), cv.getKey());
+                CandidateSearchIndex.get().applicationChanged(((Number) applicationId).longValue());
 
                 LOG.info("Application submitted successfully - UserID: " + applicantUserId + ", Ref: " + applicationRef);
 
@@ -222,25 +279,17 @@ public class ApplicationSubmitServlet extends HttpServlet {
         return "{\"status\":\"error\",\"reason\":\"" + escaped + "\"}";
     }
 
-    private String generateUniqueFileName(String originalFileName) {
-        String extension = "";
-        int dotIndex = originalFileName.lastIndexOf('.');
-        if (dotIndex > 0) {
-            extension = originalFileName.substring(dotIndex);
-        }
-        return System.currentTimeMillis() + "_" + UUID.randomUUID().toString() + extension;
-    }
-
     private String generateApplicationRef() {
         return "APP-" + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
 
-    @Override
-    public void destroy() {
-        if (emf != null && emf.isOpen()) {
-            emf.close();
+    private static int intEnv(String name, int def) {
+        try {
+            String v = System.getenv(name);
+            return v == null || v.isBlank() ? def : Integer.parseInt(v.trim());
+        } catch (NumberFormatException e) {
+            return def;
         }
-        super.destroy();
     }
 }
 
@@ -1,6 +1,7 @@
 package com.example.ats.web;
 
 import com.example.ats.dto.*;
+import com.example.ats.repository.PersistenceRuntime;
 import com.example.ats.repository.UserRepository;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,16 +16,8 @@ public class AuthResource {
     @Context
     private HttpServletRequest servletRequest;
 
-    private static volatile EntityManagerFactory EMF; // lazy cache
-
     private EntityManagerFactory getEmf(){
-        EntityManagerFactory local = EMF;
-        if (local == null){
-            synchronized (AuthResource.class){
-                local = EMF; if (local == null){ EMF = local = jakarta.persistence.Persistence.createEntityManagerFactory("ATS-PU"); }
-            }
-        }
-        return local;
+        return PersistenceRuntime.emf();
     }
 
     private String roleToLanding(String role){
@@ -0,0 +1,245 @@
+package com.example.ats.web;
+
+import com.example.ats.service.NotificationEvent;
+import com.example.ats.service.NotificationEventBus;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.*;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Server-Sent Events stream of notification events for the logged-in user.
+ * GET /api/events/stream  (honours the Last-Event-ID header on reconnect)
+ *
+ * Events: "notification" / "application_status" / "interview_scheduled" with a JSON NotificationEvent payload,
+ * and "resync" when the requested resume point is gone and the client should reload from the REST API.
+ */
+@Path("/events")
+public class EventStreamResource {
+    private static final Logger LOG = Logger.getLogger(EventStreamResource.class.getName());
+
+    @Context
+    private HttpServletRequest servletRequest;
+
+    @GET
+    @Path("/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void stream(@Context SseEventSink sink, @Context Sse sse,
+                       @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String lastEventId){
+        Long userId = null;
+        if (servletRequest != null && servletRequest.getSession(false) != null){
+            userId = (Long) servletRequest.getSession(false).getAttribute("userId");
+        }
+        if (userId == null){
+            throw new NotAuthorizedException("Not authenticated");
+        }
+        Hub.get().subscribe(userId, sink, sse, lastEventId);
+    }
+
+    /** Closes every open stream and stops the hub's threads; called when the webapp is undeployed. */
+    public static void shutdown(){
+        Hub.shutdown();
+    }
+
+    /**
+     * Connected subscribers, their bounded buffers, the delivery pool and the heartbeat. Created with the
+     * first stream. Delivery never waits on a send: the next event goes out when the previous send
+     * completes, and a send still pending after SEND_TIMEOUT_SECONDS closes that subscriber (which also
+     * unblocks a write stuck on the socket), so a stalled client can't hold up anyone else.
+     */
+    static final class Hub implements NotificationEventBus.Listener {
+        private static Hub instance;   // guarded by Hub.class
+
+        private static final int BUFFER_PER_SUBSCRIBER = 64;
+        private static final int MAX_SUBSCRIBERS_PER_USER = 5;
+        private static final long HEARTBEAT_SECONDS = 20;
+        private static final long RETRY_MILLIS = 3_000;
+        private static final long SEND_TIMEOUT_SECONDS = 10;
+
+        /** Each user's streams in connection order, oldest first. */
+        private final ConcurrentHashMap<Long, Deque<Subscriber>> byUser = new ConcurrentHashMap<>();
+        private final ExecutorService delivery = Executors.newFixedThreadPool(2, daemon("sse-delivery"));
+        /** Heartbeats and send timeouts. */
+        private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(daemon("sse-heartbeat"));
+
+        private Hub(){
+            NotificationEventBus.get().addListener(this);
+            timer.scheduleAtFixedRate(this::beat, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+        }
+
+        static synchronized Hub get(){
+            if (instance == null) instance = new Hub();
+            return instance;
+        }
+
+        static synchronized void shutdown(){
+            Hub hub = instance;
+            instance = null;
+            if (hub == null) return;
+            NotificationEventBus.get().removeListener(hub);
+            for (Deque<Subscriber> subs : hub.byUser.values()){
+                for (Subscriber sub : subs) sub.close();
+            }
+            hub.delivery.shutdownNow();
+            hub.timer.shutdownNow();
+            try {
+                hub.delivery.awaitTermination(5, TimeUnit.SECONDS);
+                hub.timer.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void subscribe(Long userId, SseEventSink sink, Sse sse, String lastEventId){
+            Subscriber sub = new Subscriber(userId, sink, sse);
+            List<Subscriber> evicted = new ArrayList<>(1);
+            byUser.compute(userId, (k, subs) -> {
+                if (subs == null) subs = new ConcurrentLinkedDeque<>();
+                // oldest tabs lose their streams rather than letting one user pin unbounded sinks
+                while (subs.size() >= MAX_SUBSCRIBERS_PER_USER) evicted.add(subs.pollFirst());
+                subs.addLast(sub);
+                return subs;
+            });
+            for (Subscriber old : evicted) old.close();
+
+            sub.enqueue(sse.newEventBuilder().comment("connected").reconnectDelay(RETRY_MILLIS).build());
+            if (lastEventId != null && !lastEventId.isBlank()){
+                List<NotificationEvent> missed = null;
+                try { missed = NotificationEventBus.get().replay(Long.parseLong(lastEventId.trim()), userId); }
+                catch (NumberFormatException ignore){}
+                if (missed == null){
+                    sub.enqueue(sse.newEventBuilder().name("resync").data(String.class, "{}").build());
+                } else {
+                    for (NotificationEvent e : missed) sub.enqueue(toSse(sse, e));
+                }
+            }
+        }
+
+        @Override
+        public void onEvent(NotificationEvent event){
+            for (Long userId : event.getRecipientUserIds()){
+                Deque<Subscriber> subs = byUser.get(userId);
+                if (subs == null) continue;
+                for (Subscriber s : subs) s.enqueue(toSse(s.sse, event));
+            }
+        }
+
+        private void beat(){
+            for (Deque<Subscriber> subs : byUser.values()){
+                for (Subscriber s : subs){
+                    if (s.sink.isClosed()) s.close();
+                    else s.enqueue(s.sse.newEventBuilder().comment("heartbeat").build());
+                }
+            }
+        }
+
+        private static OutboundSseEvent toSse(Sse sse, NotificationEvent e){
+            return sse.newEventBuilder()
+                    .id(String.valueOf(e.getId()))
+                    .name(e.getType())
+                    .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                    .data(NotificationEvent.class, e)
+                    .build();
+        }
+
+        private void remove(Subscriber s){
+            byUser.computeIfPresent(s.userId, (k, subs) -> {
+                subs.remove(s);
+                return subs.isEmpty() ? null : subs;
+            });
+        }
+
+        /**
+         * One SSE connection. Writes are serialized through a bounded queue drained on the delivery pool, one
+         * send in flight at a time; {@code draining} stays set until the queue is empty.
+         */
+        private final class Subscriber {
+            final Long userId;
+            final SseEventSink sink;
+            final Sse sse;
+            final BlockingQueue<OutboundSseEvent> buffer = new ArrayBlockingQueue<>(BUFFER_PER_SUBSCRIBER);
+            final AtomicBoolean draining = new AtomicBoolean();
+            final AtomicBoolean closed = new AtomicBoolean();
+
+            Subscriber(Long userId, SseEventSink sink, Sse sse){ this.userId = userId; this.sink = sink; this.sse = sse; }
+
+            void enqueue(OutboundSseEvent ev){
+                if (closed.get()) return;
+                if (!buffer.offer(ev)){
+                    // slow consumer: drop the connection; the browser reconnects and resumes via Last-Event-ID
+                    LOG.fine("SSE buffer full for user " + userId + "; closing stream");
+                    close();
+                    return;
+                }
+                if (draining.compareAndSet(false, true)) schedule();
+            }
+
+            private void drain(){
+                OutboundSseEvent ev = closed.get() ? null : buffer.poll();
+                if (ev == null){
+                    draining.set(false);
+                    // an event may have been queued after the poll but before the flag was cleared
+                    if (!buffer.isEmpty() && !closed.get() && draining.compareAndSet(false, true)) schedule();
+                    return;
+                }
+                if (sink.isClosed()){
+                    close();
+                    draining.set(false);
+                    return;
+                }
+                ScheduledFuture<?> watchdog;
+                CompletionStage<?> sent;
+                try {
+                    watchdog = timer.schedule(() -> {
+                        LOG.fine("SSE send timed out for user " + userId + "; closing stream");
+                        close();
+                    }, SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                    sent = sink.send(ev);
+                } catch (RuntimeException e){
+                    close();
+                    draining.set(false);
+                    return;
+                }
+                sent.whenComplete((ignored, err) -> {
+                    watchdog.cancel(false);
+                    if (err != null){
+                        close();
+                        draining.set(false);
+                    } else {
+                        schedule();   // next event on the pool, not on whichever thread completed the send
+                    }
+                });
+            }
+
+            private void schedule(){
+                try {
+                    delivery.execute(this::drain);
+                } catch (RejectedExecutionException e){
+                    // hub shut down
+                    draining.set(false);
+                }
+            }
+
+            void close(){
+                if (!closed.compareAndSet(false, true)) return;
+                buffer.clear();
+                remove(this);
+                try { sink.close(); } catch (Exception ignore){}
+            }
+        }
+
+        private static ThreadFactory daemon(String name){
+            return r -> {
+                Thread t = new Thread(r, name);
+                t.setDaemon(true);
+                return t;
+            };
+        }
+    }
+}
@@ -1,11 +1,22 @@
 package com.example.ats.web;
 
+import com.example.ats.dto.InterviewView;
+import com.example.ats.dto.ShortlistedApplicant;
 import com.example.ats.entity.*;
+import com.example.ats.repository.PersistenceRuntime;
+import com.example.ats.service.CandidateSearchIndex;
+import com.example.ats.service.InterviewCalendar;
+import com.example.ats.service.InvalidationBus;
+import com.example.ats.service.NotificationDispatcher;
+import com.example.ats.service.NotificationEvent;
+import com.example.ats.service.NotificationEventBus;
 import jakarta.persistence.*;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.*;
-import java.time.OffsetDateTime;
+import java.time.*;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.logging.Logger;
 
@@ -15,22 +26,18 @@ import java.util.logging.Logger;
 public class InterviewResource {
 
     private static final Logger LOG = Logger.getLogger(InterviewResource.class.getName());
-    private static volatile EntityManagerFactory EMF;
+
+    private static final int MAX_DURATION_MINUTES = 8 * 60;
+    private static final int MAX_SLOT_INTERVIEWERS = 20;
+    private static final int MAX_SLOT_WINDOW_DAYS = 31;
+    private static final int MAX_SLOTS = 200;
+    private static final int SUGGESTIONS = 5;
 
     @Context
     private HttpServletRequest servletRequest;
 
     private EntityManagerFactory getEmf() {
-        EntityManagerFactory local = EMF;
-        if (local == null) {
-            synchronized (InterviewResource.class) {
-                local = EMF;
-                if (local == null) {
-                    EMF = local = Persistence.createEntityManagerFactory("ATS-PU");
-                }
-            }
-        }
-        return local;
+        return PersistenceRuntime.emf();
     }
 
     /**
@@ -40,80 +47,64 @@ public class InterviewResource {
     @GET
     @Path("/jobs/{jobId}/shortlisted-applicants")
     public Response getShortlistedApplicants(@PathParam("jobId") Long jobId) {
-        EntityManager em = null;
         try {
-            em = getEmf().createEntityManager();
-            final EntityManager finalEm = em; // Make final for lambda
-
             LOG.info("Fetching applicants for job ID: " + jobId);
 
-            // Use native SQL query with explicit cast to PostgreSQL enum type
+            // One set-based query: interview existence and the next upcoming slot are aggregated
+            // per application for the whole job and LEFT JOINed, instead of one COUNT per row.
             String sql = "SELECT a.id, a.applicant_user_id, a.applicant_name, a.applicant_email, a.applicant_phone, " +
-                        "a.status, a.submitted_at, a.match_score, a.cv_path, a.application_ref " +
+                        "CAST(a.status AS text), a.submitted_at, a.match_score, a.cv_path, a.application_ref, " +
+                        "COALESCE(iv.interview_count, 0), iv.next_start, a.version " +
                         "FROM applications a " +
-                        "WHERE a.job_id = ?1 " +
-                        "AND (a.status = CAST(?2 AS application_status) " +
-                        "OR a.status = CAST(?3 AS application_status) " +
-                        "OR a.status = CAST(?4 AS application_status)) " +
+                        "LEFT JOIN (" +
+                        "  SELECT i.application_id, COUNT(*) AS interview_count, " +
+                        "         MIN(i.scheduled_start) FILTER (WHERE i.scheduled_start >= NOW() " +
+                        "             AND i.status IN (CAST(? AS interview_status), CAST(? AS interview_status))) AS next_start " +
+                        "  FROM interviews i WHERE i.job_id = ? GROUP BY i.application_id" +
+                        ") iv ON iv.application_id = a.id " +
+                        "WHERE a.job_id = ? " +
+                        "AND a.status IN (CAST(? AS application_status), CAST(? AS application_status), CAST(? AS application_status)) " +
                         "ORDER BY a.submitted_at DESC";
 
-            @SuppressWarnings("unchecked")
-            List<Object[]> rows = em.createNativeQuery(sql)
-                    .setParameter(1, jobId)
-                    .setParameter(2, "under_review")
-                    .setParameter(3, "shortlisted")
-                    .setParameter(4, "interview_invite")
-                    .getResultList();
-
-            LOG.info("Found " + rows.size() + " applications for job " + jobId);
-
-            // Convert to JSON-friendly format
-            var result = rows.stream().map(row -> {
-                Map<String, Object> data = new HashMap<>();
-                data.put("applicationId", row[0] != null ? ((Number)row[0]).longValue() : null);
-                data.put("applicantUserId", row[1] != null ? ((Number)row[1]).longValue() : null);
-                data.put("name", row[2]);
-                data.put("email", row[3]);
-                data.put("phone", row[4]);
-                data.put("status", row[5] != null ? row[5].toString() : "submitted");
-                data.put("submittedAt", row[6]);
-                data.put("matchScore", row[7]);
-                data.put("cvPath", row[8]);
-                data.put("applicationRef", row[9]);
-
-                // Check if interview already scheduled
-                Long appId = row[0] != null ? ((Number)row[0]).longValue() : null;
-                if (appId != null) {
-                    try {
-                        Long interviewCount = (Long) finalEm.createNativeQuery(
-                            "SELECT COUNT(*) FROM interviews WHERE application_id = ?1")
-                            .setParameter(1, appId)
-                            .getSingleResult();
-                        data.put("hasInterview", interviewCount > 0);
-                    } catch (Exception e) {
-                        data.put("hasInterview", false);
-                    }
-                } else {
-                    data.put("hasInterview", false);
-                }
-
-                return data;
-            }).toList();
-
-            return Response.ok(result).build();
+            // Rows go straight from the cursor to the response
+            return Response.ok(JsonRows.stream(ShortlistedApplicant.class, sql, ps -> {
+                ps.setString(1, "scheduled");
+                ps.setString(2, "rescheduled");
+                ps.setLong(3, jobId);
+                ps.setLong(4, jobId);
+                ps.setString(5, "under_review");
+                ps.setString(6, "shortlisted");
+                ps.setString(7, "interview_invite");
+            }, rs -> {
+                String status = rs.getString(6);
+                return new ShortlistedApplicant(
+                        rs.getLong(1),
+                        JsonRows.getLong(rs, 2),
+                        rs.getString(3),
+                        rs.getString(4),
+                        rs.getString(5),
+                        status != null ? status : "submitted",
+                        JsonRows.getInstant(rs, 7),
+                        rs.getBigDecimal(8),
+                        rs.getString(9),
+                        rs.getString(10),
+                        rs.getLong(11) > 0,
+                        JsonRows.getInstant(rs, 12),
+                        rs.getLong(13));
+            })).build();
 
         } catch (Exception e) {
             LOG.severe("Error fetching shortlisted applicants: " + e.getMessage());
             e.printStackTrace();
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(Map.of("error", e.getMessage())).build();
-        } finally {
-            if (em != null) em.close();
+                    .entity(Map.of("error", String.valueOf(e.getMessage()))).build();
         }
     }
 
     /**
-     * Schedule a new interview
+     * Schedule a new interview. The slot must not overlap another live interview of the interviewer
+     * ({@code interviewer_user_id}, default: the scheduling manager) or of the candidate; an overlap is
+     * answered with 409, the conflicting interviews and a few free slots nearby.
      */
     @POST
     public Response createInterview(Map<String, Object> requestData) {
@@ -141,11 +132,13 @@ public class InterviewResource {
             // Parse scheduled start
             OffsetDateTime scheduledStart = OffsetDateTime.parse(scheduledStartStr);
 
-            // Calculate scheduled end if duration provided
-            OffsetDateTime scheduledEnd = null;
-            if (durationMinutes != null && durationMinutes > 0) {
-                scheduledEnd = scheduledStart.plusMinutes(durationMinutes);
+            // Every interview gets an end, so the overlap constraints cover it
+            if (durationMinutes == null) durationMinutes = InterviewCalendar.DEFAULT_DURATION_MINUTES;
+            if (durationMinutes < 1 || durationMinutes > MAX_DURATION_MINUTES) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(Map.of("status", "error", "reason", "duration_minutes must be between 1 and " + MAX_DURATION_MINUTES)).build();
             }
+            OffsetDateTime scheduledEnd = scheduledStart.plusMinutes(durationMinutes);
 
             // Get current user (manager) from session
             Long managerId = null;
@@ -155,59 +148,105 @@ public class InterviewResource {
                     managerId = (Long) session.getAttribute("userId");
                 }
             }
+            Long interviewerId = getLong(requestData, "interviewer_user_id");
+            if (interviewerId == null) interviewerId = managerId;
+
+            // Friendly answer for the common case; the exclusion constraints catch concurrent bookings at insert
+            List<InterviewCalendar.Conflict> conflicts = InterviewCalendar.get().conflicts(
+                    em, interviewerId, applicationId, scheduledStart.toInstant(), scheduledEnd.toInstant());
+            if (!conflicts.isEmpty()) {
+                tx.rollback();
+                return slotConflict(conflicts, interviewerId, applicationId, scheduledStart, durationMinutes);
+            }
+
+            // Guarded move to interview_invite (see ApplicationStatus) against the version the caller last
+            // saw; it returns the applicant + job context for the notification and pushed event
+            Long expectedVersion = getLong(requestData, "version");
+            if (expectedVersion == null) {
+                tx.rollback();
+                return ApplicationResource.versionRequired();
+            }
+            String updateAppSql = "UPDATE applications a " +
+                    "SET status = CAST(?1 AS application_status), version = a.version + 1, updated_at = ?2 " +
+                    "WHERE a.id = ?3 AND " + ApplicationResource.statusGuard("a.status", ApplicationStatus.INTERVIEW_INVITE) +
+                    " AND a.version = ?4" +
+                    " RETURNING a.applicant_name, a.applicant_email, a.applicant_user_id, " +
+                    "(SELECT j.title FROM jobs j WHERE j.id = a.job_id), (SELECT j.managed_by_manager_id FROM jobs j WHERE j.id = a.job_id), a.version";
+
+            OffsetDateTime now = OffsetDateTime.now();
+
+            Query update = em.createNativeQuery(updateAppSql)
+                    .setParameter(1, "interview_invite")
+                    .setParameter(2, java.sql.Timestamp.from(now.toInstant()))
+                    .setParameter(3, applicationId)
+                    .setParameter(4, expectedVersion);
+            @SuppressWarnings("unchecked")
+            List<Object[]> updated = update.getResultList();
+            if (updated.isEmpty()) {
+                tx.rollback();
+                return ApplicationResource.statusConflict(em, applicationId, ApplicationStatus.INTERVIEW_INVITE, expectedVersion);
+            }
+            Object[] appData = updated.get(0);
+            InvalidationBus.get().publish(em, InvalidationBus.APPLICATION, applicationId);
+
+            String applicantName = appData[0] != null ? appData[0].toString() : "";
+            String applicantEmail = appData[1] != null ? appData[1].toString() : "";
+            Long applicantUserId = appData[2] != null ? ((Number) appData[2]).longValue() : null;
+            String jobTitle = appData[3] != null ? appData[3].toString() : "the position";
+            Long jobManagerId = appData[4] != null ? ((Number) appData[4]).longValue() : null;
 
             // Use native SQL to insert interview with proper enum casting
             String insertSql = "INSERT INTO interviews " +
                     "(application_id, job_id, scheduled_start, scheduled_end, location, notes, " +
-                    "status, created_by_user_id, created_at, updated_at) " +
-                    "VALUES (?1, ?2, ?3, ?4, ?5, ?6, CAST(?7 AS interview_status), ?8, ?9, ?10)";
-
-            OffsetDateTime now = OffsetDateTime.now();
+                    "status, created_by_user_id, interviewer_user_id, created_at, updated_at) " +
+                    "VALUES (?1, ?2, ?3, ?4, ?5, ?6, CAST(?7 AS interview_status), ?8, ?9, ?10, ?11) RETURNING id";
 
-            em.createNativeQuery(insertSql)
+            Object newInterviewId;
+            try {
+                newInterviewId = em.createNativeQuery(insertSql)
                     .setParameter(1, applicationId)
                     .setParameter(2, jobId)
                     .setParameter(3, java.sql.Timestamp.from(scheduledStart.toInstant()))
-                    .setParameter(4, scheduledEnd != null ? java.sql.Timestamp.from(scheduledEnd.toInstant()) : null)
+                    .setParameter(4, java.sql.Timestamp.from(scheduledEnd.toInstant()))
                     .setParameter(5, location)
                     .setParameter(6, notes)
                     .setParameter(7, "scheduled")  // String value, will be cast to enum
                     .setParameter(8, managerId)
-                    .setParameter(9, java.sql.Timestamp.from(now.toInstant()))
+                    .setParameter(9, interviewerId)
                     .setParameter(10, java.sql.Timestamp.from(now.toInstant()))
-                    .executeUpdate();
-
-            // Get the generated interview ID
-            Long interviewId = ((Number) em.createNativeQuery("SELECT lastval()").getSingleResult()).longValue();
-
-            // Update application status to 'interview_invite' using native SQL
-            String updateAppSql = "UPDATE applications " +
-                    "SET status = CAST(?1 AS application_status), updated_at = ?2 " +
-                    "WHERE id = ?3";
-
-            em.createNativeQuery(updateAppSql)
-                    .setParameter(1, "interview_invite")
-                    .setParameter(2, java.sql.Timestamp.from(now.toInstant()))
-                    .setParameter(3, applicationId)
-                    .executeUpdate();
-
-            // Get application details for notification
-            String getAppSql = "SELECT applicant_name, applicant_email FROM applications WHERE id = ?1";
-            Object[] appData = (Object[]) em.createNativeQuery(getAppSql)
-                    .setParameter(1, applicationId)
+                    .setParameter(11, java.sql.Timestamp.from(now.toInstant()))
                     .getSingleResult();
-
-            String applicantName = appData[0] != null ? appData[0].toString() : "";
-            String applicantEmail = appData[1] != null ? appData[1].toString() : "";
+            } catch (PersistenceException e) {
+                if (!InterviewCalendar.isOverlapViolation(e)) throw e;
+                // booked concurrently since the check above
+                tx.rollback();
+                return slotConflict(InterviewCalendar.get().conflicts(em, interviewerId, applicationId,
+                        scheduledStart.toInstant(), scheduledEnd.toInstant()), interviewerId, applicationId, scheduledStart, durationMinutes);
+            }
+            InvalidationBus.get().publish(em, InvalidationBus.INTERVIEWER, interviewerId);
+            Long interviewId = ((Number) newInterviewId).longValue();
 
             // Create notification for applicant
-            createInterviewNotification(em, applicationId, applicantName, applicantEmail, scheduledStart, location);
+            Long notificationId = createInterviewNotification(em, applicationId, applicantName, applicantEmail, jobTitle, scheduledStart, location);
 
             tx.commit();
+            CandidateSearchIndex.get().applicationChanged(applicationId);
+            if (interviewerId != null) InterviewCalendar.get().invalidate(List.of(interviewerId));
+
+            NotificationEventBus.get().publish(new NotificationEvent(
+                    NotificationEvent.INTERVIEW_SCHEDULED,
+                    NotificationEventBus.recipients(applicantUserId, jobManagerId, managerId),
+                    applicationId, jobId, jobTitle, "interview_invite",
+                    notificationId, notificationId != null ? "interview_invite" : null,
+                    notificationId != null ? "Interview Invitation - " + jobTitle : null));
+            if (notificationId != null) NotificationDispatcher.get().wakeUp();
 
             Map<String, Object> response = new HashMap<>();
             response.put("status", "success");
             response.put("interviewId", interviewId);
+            response.put("interviewerUserId", interviewerId);
+            response.put("scheduledEnd", scheduledEnd.toString());
+            response.put("applicationVersion", ((Number) appData[5]).longValue());
             response.put("message", "Interview scheduled successfully");
 
             return Response.ok(response).build();
@@ -225,6 +264,141 @@ public class InterviewResource {
         }
     }
 
+    /**
+     * Free interview slots for a set of interviewers over a date window: slot starts on a {@code stepMinutes}
+     * grid within working hours ({@code dayStart}-{@code dayEnd} in {@code zone}, weekdays unless
+     * {@code weekends=true}) where none of the interviewers, nor the candidate behind {@code applicationId}
+     * when given, has a live interview. {@code from}/{@code to} take an ISO date (in {@code zone}) or an
+     * offset date-time; the window defaults to the next 7 days and is capped at 31. Interviewers default to
+     * the caller.
+     */
+    @GET
+    @Path("/free-slots")
+    public Response freeSlots(@QueryParam("interviewerId") List<Long> interviewerIds,
+                              @QueryParam("applicationId") Long applicationId,
+                              @QueryParam("from") String fromParam,
+                              @QueryParam("to") String toParam,
+                              @QueryParam("durationMinutes") @DefaultValue("60") int durationMinutes,
+                              @QueryParam("stepMinutes") @DefaultValue("30") int stepMinutes,
+                              @QueryParam("dayStart") @DefaultValue("09:00") String dayStartParam,
+                              @QueryParam("dayEnd") @DefaultValue("17:00") String dayEndParam,
+                              @QueryParam("zone") @DefaultValue("UTC") String zoneParam,
+                              @QueryParam("weekends") @DefaultValue("false") boolean weekends,
+                              @QueryParam("limit") @DefaultValue("50") int limit) {
+        HttpSession session = servletRequest == null ? null : servletRequest.getSession(false);
+        Long userId = session == null ? null : (Long) session.getAttribute("userId");
+        String role = session == null ? null : (String) session.getAttribute("userRole");
+        if (userId == null) throw new NotAuthorizedException("Not authenticated");
+        if (!"hr".equals(role) && !"admin".equals(role) && !"hiring_manager".equals(role)) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+
+        Set<Long> interviewers = new LinkedHashSet<>(interviewerIds);
+        interviewers.remove(null);
+        if (interviewers.isEmpty()) interviewers.add(userId);
+        if (interviewers.size() > MAX_SLOT_INTERVIEWERS) return badRequest("At most " + MAX_SLOT_INTERVIEWERS + " interviewers");
+        if (durationMinutes < 1 || durationMinutes > MAX_DURATION_MINUTES) {
+            return badRequest("durationMinutes must be between 1 and " + MAX_DURATION_MINUTES);
+        }
+        if (stepMinutes < 5 || stepMinutes > MAX_DURATION_MINUTES) return badRequest("stepMinutes must be between 5 and " + MAX_DURATION_MINUTES);
+        if (limit < 1 || limit > MAX_SLOTS) return badRequest("limit must be between 1 and " + MAX_SLOTS);
+
+        ZoneId zone;
+        LocalTime dayStart, dayEnd;
+        Instant from, to;
+        try {
+            zone = ZoneId.of(zoneParam);
+        } catch (DateTimeException e) {
+            return badRequest("Unknown zone: " + zoneParam);
+        }
+        try {
+            dayStart = LocalTime.parse(dayStartParam);
+            dayEnd = LocalTime.parse(dayEndParam);
+        } catch (DateTimeParseException e) {
+            return badRequest("dayStart/dayEnd must be HH:mm");
+        }
+        if (!dayEnd.isAfter(dayStart)) return badRequest("dayEnd must be after dayStart");
+        try {
+            Instant now = Instant.now();
+            from = fromParam == null || fromParam.isBlank() ? now : windowBound(fromParam, zone);
+            if (from.isBefore(now)) from = now;   // no slots in the past
+            to = toParam == null || toParam.isBlank() ? from.plus(Duration.ofDays(7)) : windowBound(toParam, zone);
+        } catch (DateTimeParseException e) {
+            return badRequest("from/to must be an ISO date or offset date-time");
+        }
+        if (!to.isAfter(from)) return badRequest("to must be after from (and in the future)");
+        if (Duration.between(from, to).toDays() >= MAX_SLOT_WINDOW_DAYS) return badRequest("Window is limited to " + MAX_SLOT_WINDOW_DAYS + " days");
+
+        try {
+            List<InterviewCalendar.Slot> slots = InterviewCalendar.get().freeSlots(interviewers, applicationId,
+                    new InterviewCalendar.SlotQuery(from, to, Duration.ofMinutes(durationMinutes), Duration.ofMinutes(stepMinutes),
+                            dayStart, dayEnd, zone, weekends, limit));
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("interviewerIds", interviewers);
+            body.put("applicationId", applicationId);
+            body.put("from", from.atZone(zone).toOffsetDateTime().toString());
+            body.put("to", to.atZone(zone).toOffsetDateTime().toString());
+            body.put("zone", zone.getId());
+            body.put("durationMinutes", durationMinutes);
+            body.put("slots", slotViews(slots, zone));
+            body.put("truncated", slots.size() == limit);
+            return Response.ok(body).build();
+        } catch (Exception e) {
+            LOG.severe("Error computing free slots: " + e.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("status", "error", "reason", String.valueOf(e.getMessage()))).build();
+        }
+    }
+
+    /** 409 for a slot that overlaps live interviews, with the conflicts and the next free slots of the same length. */
+    private Response slotConflict(List<InterviewCalendar.Conflict> conflicts, Long interviewerId, Long applicationId,
+                                  OffsetDateTime start, int durationMinutes) {
+        boolean interviewerBusy = conflicts.stream().anyMatch(c -> "interviewer".equals(c.with()));
+        ZoneId zone = start.getOffset();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", "error");
+        body.put("reason", conflicts.isEmpty() ? "The slot was just booked by another interview"
+                : interviewerBusy ? "The interviewer already has an interview at that time"
+                : "The candidate already has an interview at that time");
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (InterviewCalendar.Conflict c : conflicts) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("interviewId", c.interviewId());
+            item.put("with", c.with());
+            item.put("start", c.start() == null ? null : c.start().atZone(zone).toOffsetDateTime().toString());
+            item.put("end", c.end() == null ? null : c.end().atZone(zone).toOffsetDateTime().toString());
+            items.add(item);
+        }
+        body.put("conflicts", items);
+        try {
+            Instant from = start.toInstant().isBefore(Instant.now()) ? Instant.now() : start.toInstant();
+            body.put("suggestions", slotViews(InterviewCalendar.get().freeSlots(
+                    interviewerId == null ? List.of() : List.of(interviewerId), applicationId,
+                    new InterviewCalendar.SlotQuery(from, from.plus(Duration.ofDays(7)), Duration.ofMinutes(durationMinutes),
+                            Duration.ofMinutes(30), LocalTime.of(9, 0), LocalTime.of(17, 0), zone, false, SUGGESTIONS)), zone));
+        } catch (Exception e) {
+            LOG.warning("Could not suggest free slots: " + e.getMessage());
+        }
+        return Response.status(Response.Status.CONFLICT).entity(body).build();
+    }
+
+    private static List<Map<String, Object>> slotViews(List<InterviewCalendar.Slot> slots, ZoneId zone) {
+        List<Map<String, Object>> out = new ArrayList<>(slots.size());
+        for (InterviewCalendar.Slot s : slots) {
+            out.add(Map.of("start", s.start().atZone(zone).toOffsetDateTime().toString(),
+                    "end", s.end().atZone(zone).toOffsetDateTime().toString()));
+        }
+        return out;
+    }
+
+    private static Instant windowBound(String value, ZoneId zone) {
+        return value.length() == 10 ? LocalDate.parse(value).atStartOfDay(zone).toInstant() : OffsetDateTime.parse(value).toInstant();
+    }
+
+    private static Response badRequest(String reason) {
+        return Response.status(Response.Status.BAD_REQUEST).entity(Map.of("status", "error", "reason", reason)).build();
+    }
+
     /**
      * Get interviews for an application (used by applicant to see their interviews)
      */
@@ -240,16 +414,13 @@ public class InterviewResource {
                     .setParameter("appId", applicationId)
                     .getResultList();
 
-            var result = interviews.stream().map(interview -> {
-                Map<String, Object> data = new HashMap<>();
-                data.put("id", interview.getId());
-                data.put("scheduledStart", interview.getScheduledStart());
-                data.put("scheduledEnd", interview.getScheduledEnd());
-                data.put("location", interview.getLocation());
-                data.put("status", interview.getStatus() != null ? interview.getStatus().name().toLowerCase() : "scheduled");
-                data.put("notes", interview.getNotes());
-                return data;
-            }).toList();
+            List<InterviewView> result = interviews.stream().map(interview -> new InterviewView(
+                    interview.getId(),
+                    interview.getScheduledStart(),
+                    interview.getScheduledEnd(),
+                    interview.getLocation(),
+                    interview.getStatus() != null ? interview.getStatus().name().toLowerCase() : "scheduled",
+                    interview.getNotes())).toList();
 
             return Response.ok(result).build();
 
@@ -262,25 +433,12 @@ public class InterviewResource {
         }
     }
 
-    private void createInterviewNotification(EntityManager em, Long applicationId, String applicantName,
-                                             String applicantEmail, OffsetDateTime scheduledStart, String location) {
-        if (applicantEmail == null || applicantEmail.isEmpty()) return;
+    /** Inserts the invitation notification; returns its id, or null if none was written. */
+    private Long createInterviewNotification(EntityManager em, Long applicationId, String applicantName,
+                                             String applicantEmail, String jobTitle, OffsetDateTime scheduledStart, String location) {
+        if (applicantEmail == null || applicantEmail.isEmpty()) return null;
 
         try {
-            // Get job title for better notification context
-            String jobTitle = "the position";
-            try {
-                String getJobSql = "SELECT j.title FROM jobs j " +
-                                  "JOIN applications a ON j.id = a.job_id " +
-                                  "WHERE a.id = ?1";
-                Object titleObj = em.createNativeQuery(getJobSql)
-                        .setParameter(1, applicationId)
-                        .getSingleResult();
-                if (titleObj != null) jobTitle = titleObj.toString();
-            } catch (Exception e) {
-                // Ignore if job not found
-            }
-
             // Format interview date/time nicely
             String formattedDateTime = scheduledStart.toString(); // Will be formatted on frontend
 
@@ -302,21 +460,23 @@ public class InterviewResource {
             );
 
             // Use native query to insert notification
-            em.createNativeQuery(
-                "INSERT INTO notifications (application_id, notification_type, to_email, subject, body, sent_at) " +
-                "VALUES (?1, CAST(?2 AS notification_type), ?3, ?4, ?5, ?6)")
+            Object idObj = em.createNativeQuery(
+                "INSERT INTO notifications (application_id, notification_type, to_email, subject, body, created_at, delivery_status, attempts) " +
+                "VALUES (?1, CAST(?2 AS notification_type), ?3, ?4, ?5, ?6, 'pending', 0) RETURNING id")
                 .setParameter(1, applicationId)
                 .setParameter(2, "interview_invite")
                 .setParameter(3, applicantEmail)
                 .setParameter(4, subject)
                 .setParameter(5, body)
                 .setParameter(6, java.sql.Timestamp.from(OffsetDateTime.now().toInstant()))
-                .executeUpdate();
+                .getSingleResult();
 
             LOG.info("Interview notification created for application " + applicationId);
+            return ((Number) idObj).longValue();
         } catch (Exception e) {
             LOG.warning("Failed to create notification: " + e.getMessage());
             // Don't fail the whole transaction for notification failure
+            return null;
         }
     }
 
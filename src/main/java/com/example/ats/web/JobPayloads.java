@@ -0,0 +1,236 @@
+package com.example.ats.web;
+
+import com.example.ats.dto.JobCreateRequest;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads job create payloads ({@link JobCreateRequest}) from JSON and from flat CSV rows, with the same
+ * limits for both: at most MAX_JDS job descriptions, string fields capped at MAX_SHORT_CHARS, or
+ * MAX_TEXT_CHARS for descriptions and the summary.
+ *
+ * A single JSON body is bounded by MAX_BODY_BYTES ({@link #limited}).
+ *
+ * CSV columns are the JSON field names, with sections flattened to jd1_title, jd1_description, jd1_weight,
+ * jd2_title, ... Empty cells count as absent.
+ */
+final class JobPayloads {
+    static final long MAX_BODY_BYTES = 2L * 1024 * 1024;
+    static final int MAX_JDS = 50;
+    static final int MAX_SHORT_CHARS = 255;
+    static final int MAX_TEXT_CHARS = 20_000;
+
+    /** Flat CSV columns in export order; sections follow as jd{n}_title, jd{n}_description, jd{n}_weight. */
+    static final List<String> CSV_JOB_COLUMNS = List.of(
+            "job_title", "department", "location", "employment_type", "salary_min", "salary_max",
+            "application_deadline", "description_summary", "status", "managed_by_manager_id");
+
+    /** The parser gives up on longer strings while buffering them, so an oversized field never becomes a big String. */
+    static final StreamReadConstraints CONSTRAINTS = StreamReadConstraints.builder()
+            .maxStringLength(MAX_TEXT_CHARS)
+            .maxNumberLength(64)
+            .maxNestingDepth(16)
+            .build();
+
+    private static final JsonFactory PARSERS = JsonFactory.builder().streamReadConstraints(CONSTRAINTS).build();
+
+    private JobPayloads(){}
+
+    /**
+     * Single pass over the request stream into the DTO: no intermediate copy of the body, and no string is
+     * materialized beyond the longest allowed field (the parser's own constraint). Unknown fields are skipped.
+     */
+    static JobCreateRequest parse(InputStream in) throws IOException, PayloadException {
+        try (JsonParser p = PARSERS.createParser(in)){
+            if (p.nextToken() != JsonToken.START_OBJECT) throw new PayloadException("Expected a JSON object");
+            JobCreateRequest out = new JobCreateRequest();
+            while (p.nextToken() == JsonToken.FIELD_NAME){
+                String field = p.currentName();
+                p.nextToken();
+                switch (field){
+                    case "job_title": out.setJob_title(string(p, field, MAX_SHORT_CHARS)); break;
+                    case "department": out.setDepartment(string(p, field, MAX_SHORT_CHARS)); break;
+                    case "location": out.setLocation(string(p, field, MAX_SHORT_CHARS)); break;
+                    case "employment_type": out.setEmployment_type(string(p, field, MAX_SHORT_CHARS)); break;
+                    case "salary_min": out.setSalary_min(decimal(p, field)); break;
+                    case "salary_max": out.setSalary_max(decimal(p, field)); break;
+                    case "application_deadline": out.setApplication_deadline(string(p, field, MAX_SHORT_CHARS)); break;
+                    case "description_summary": out.setDescription_summary(string(p, field, MAX_TEXT_CHARS)); break;
+                    case "status": out.setStatus(string(p, field, MAX_SHORT_CHARS)); break;
+                    case "managed_by_manager_id": out.setManaged_by_manager_id(id(p, field)); break;
+                    case "jds": out.setJds(jds(p)); break;
+                    default: p.skipChildren();
+                }
+            }
+            if (p.currentToken() != JsonToken.END_OBJECT || p.nextToken() != null){
+                throw new PayloadException("Invalid JSON payload");
+            }
+            if (out.getJob_title() == null) out.setJob_title("");
+            if (out.getJds() == null) out.setJds(new ArrayList<>());
+            return out;
+        }
+    }
+
+    private static List<JobCreateRequest.JD> jds(JsonParser p) throws IOException, PayloadException {
+        List<JobCreateRequest.JD> jds = new ArrayList<>();
+        if (p.currentToken() == JsonToken.VALUE_NULL) return jds;
+        if (p.currentToken() != JsonToken.START_ARRAY) throw new PayloadException("jds must be an array");
+        while (p.nextToken() != JsonToken.END_ARRAY){
+            if (p.currentToken() == JsonToken.VALUE_NULL) continue;
+            if (p.currentToken() != JsonToken.START_OBJECT) throw new PayloadException("jds entries must be objects");
+            if (jds.size() == MAX_JDS) throw new PayloadException("Too many job descriptions (max " + MAX_JDS + ")");
+            JobCreateRequest.JD jd = new JobCreateRequest.JD();
+            while (p.nextToken() == JsonToken.FIELD_NAME){
+                String field = p.currentName();
+                p.nextToken();
+                switch (field){
+                    case "title": jd.setTitle(string(p, "jds.title", MAX_SHORT_CHARS)); break;
+                    case "description": jd.setDescription(string(p, "jds.description", MAX_TEXT_CHARS)); break;
+                    case "weight": {
+                        BigDecimal w = decimal(p, "jds.weight");
+                        jd.setWeight(w == null ? null : w.doubleValue());
+                        break;
+                    }
+                    default: p.skipChildren();
+                }
+            }
+            jds.add(jd);
+        }
+        return jds;
+    }
+
+    private static String string(JsonParser p, String field, int maxChars) throws IOException, PayloadException {
+        JsonToken t = p.currentToken();
+        if (t == JsonToken.VALUE_NULL) return null;
+        if (t != JsonToken.VALUE_STRING) throw new PayloadException(field + " must be a string");
+        if (p.getTextLength() > maxChars) throw new PayloadException(field + " is too long (max " + maxChars + " characters)");
+        return p.getText();
+    }
+
+    /** Accepts JSON numbers and numeric strings; empty strings count as absent. */
+    private static BigDecimal decimal(JsonParser p, String field) throws IOException, PayloadException {
+        JsonToken t = p.currentToken();
+        if (t == JsonToken.VALUE_NULL) return null;
+        if (t == JsonToken.VALUE_NUMBER_INT || t == JsonToken.VALUE_NUMBER_FLOAT) return p.getDecimalValue();
+        if (t == JsonToken.VALUE_STRING){
+            String v = p.getText().trim();
+            if (v.isEmpty()) return null;
+            try {
+                return new BigDecimal(v);
+            } catch (NumberFormatException e){
+                // fall through
+            }
+        }
+        throw new PayloadException(field + " must be a number");
+    }
+
+    private static Long id(JsonParser p, String field) throws IOException, PayloadException {
+        BigDecimal v = decimal(p, field);
+        try {
+            return v == null ? null : v.longValueExact();
+        } catch (ArithmeticException e){
+            throw new PayloadException(field + " must be an integer");
+        }
+    }
+
+    /** One CSV row (header name to cell) as a create request, checked against the same limits as JSON. */
+    static JobCreateRequest fromCsv(Map<String, String> row) throws PayloadException {
+        JobCreateRequest out = new JobCreateRequest();
+        String title = cell(row, "job_title", MAX_SHORT_CHARS);
+        out.setJob_title(title == null ? "" : title);
+        out.setDepartment(cell(row, "department", MAX_SHORT_CHARS));
+        out.setLocation(cell(row, "location", MAX_SHORT_CHARS));
+        out.setEmployment_type(cell(row, "employment_type", MAX_SHORT_CHARS));
+        out.setSalary_min(decimal(cell(row, "salary_min", 64), "salary_min"));
+        out.setSalary_max(decimal(cell(row, "salary_max", 64), "salary_max"));
+        out.setApplication_deadline(cell(row, "application_deadline", MAX_SHORT_CHARS));
+        out.setDescription_summary(cell(row, "description_summary", MAX_TEXT_CHARS));
+        out.setStatus(cell(row, "status", MAX_SHORT_CHARS));
+        BigDecimal mgr = decimal(cell(row, "managed_by_manager_id", 64), "managed_by_manager_id");
+        try {
+            out.setManaged_by_manager_id(mgr == null ? null : mgr.longValueExact());
+        } catch (ArithmeticException e){
+            throw new PayloadException("managed_by_manager_id must be an integer");
+        }
+
+        List<JobCreateRequest.JD> jds = new ArrayList<>();
+        for (int n = 1; ; n++){
+            String prefix = "jd" + n + "_";
+            if (!row.containsKey(prefix + "title") && !row.containsKey(prefix + "description")) break;
+            String t = cell(row, prefix + "title", MAX_SHORT_CHARS);
+            String d = cell(row, prefix + "description", MAX_TEXT_CHARS);
+            BigDecimal w = decimal(cell(row, prefix + "weight", 64), prefix + "weight");
+            if (t == null && d == null && w == null) continue;   // unused trailing columns
+            if (jds.size() == MAX_JDS) throw new PayloadException("Too many job descriptions (max " + MAX_JDS + ")");
+            JobCreateRequest.JD jd = new JobCreateRequest.JD();
+            jd.setTitle(t);
+            jd.setDescription(d);
+            jd.setWeight(w == null ? null : w.doubleValue());
+            jds.add(jd);
+        }
+        out.setJds(jds);
+        return out;
+    }
+
+    private static String cell(Map<String, String> row, String column, int maxChars) throws PayloadException {
+        String v = row.get(column);
+        if (v == null || v.isEmpty()) return null;
+        if (v.length() > maxChars) throw new PayloadException(column + " is too long (max " + maxChars + " characters)");
+        return v;
+    }
+
+    private static BigDecimal decimal(String v, String field) throws PayloadException {
+        if (v == null || v.isBlank()) return null;
+        try {
+            return new BigDecimal(v.trim());
+        } catch (NumberFormatException e){
+            throw new PayloadException(field + " must be a number");
+        }
+    }
+
+    /** Wraps a request body so that reading past MAX_BODY_BYTES fails, whatever Content-Length said. */
+    static InputStream limited(InputStream in){
+        return new LimitedInputStream(in);
+    }
+
+    /** Body larger than MAX_BODY_BYTES. */
+    static final class PayloadTooLarge extends IOException {
+        private static final long serialVersionUID = 1L;
+        PayloadTooLarge(){ super("Request body exceeds " + MAX_BODY_BYTES + " bytes"); }
+    }
+
+    private static final class LimitedInputStream extends FilterInputStream {
+        private long remaining = MAX_BODY_BYTES;
+
+        LimitedInputStream(InputStream in){ super(in); }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0 && --remaining < 0) throw new PayloadTooLarge();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0 && (remaining -= n) < 0) throw new PayloadTooLarge();
+            return n;
+        }
+    }
+
+    /** Rejected payload; the message is safe to return to the client. */
+    static final class PayloadException extends Exception {
+        private static final long serialVersionUID = 1L;
+        PayloadException(String message){ super(message); }
+    }
+}
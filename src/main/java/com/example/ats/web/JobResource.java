@@ -1,13 +1,24 @@
 package com.example.ats.web;
 
 import com.example.ats.dto.JobCreateRequest;
+import com.example.ats.dto.JobDetail;
 import com.example.ats.entity.Job;
+import com.example.ats.entity.JobStatus;
+import com.example.ats.repository.PersistenceRuntime;
+import com.example.ats.service.JobDetailCache;
 import com.example.ats.service.JobService;
-import jakarta.persistence.Persistence;
+import com.example.ats.service.ScreeningEngine;
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
 
@@ -18,6 +29,10 @@ public class JobResource {
 
     private static final Logger LOG = Logger.getLogger(JobResource.class.getName());
 
+    @Context
+    private HttpServletRequest servletRequest;
+    private static final int MAX_PAGE_SIZE = 500;
+
     private JobService jobService;
     private String initError; // non-null if initialization failed
 
@@ -34,8 +49,7 @@ public class JobResource {
         String err = null;
 
         try {
-            var emf = Persistence.createEntityManagerFactory("ATS-PU");
-            svc = new JobService(emf);
+            svc = new JobService(PersistenceRuntime.emf());
             LOG.info("JobService initialized successfully (JPA).");
         } catch (Exception e) {
             err = e.getClass().getName() + ": " + e.getMessage();
@@ -47,9 +61,33 @@ public class JobResource {
          this.initError = err;
      }
 
+    /**
+     * Creates a job from the add-job UI's JSON. The body is read once with Jackson's streaming parser
+     * ({@link JobPayloads}: JD count and field length limits, 400 beyond them) and bounded by
+     * MAX_BODY_BYTES (413 beyond it).
+     */
     @POST
     @Path("/create")
-    public Response createJob(JobCreateRequest req){
+    public Response createJob(InputStream body, @Context HttpHeaders headers){
+        if (headers.getLength() > JobPayloads.MAX_BODY_BYTES) {
+            return payloadError(Response.Status.REQUEST_ENTITY_TOO_LARGE, "Request body exceeds " + JobPayloads.MAX_BODY_BYTES + " bytes");
+        }
+        JobCreateRequest req;
+        try {
+            req = JobPayloads.parse(JobPayloads.limited(body));
+        } catch (JobPayloads.PayloadTooLarge e) {
+            return payloadError(Response.Status.REQUEST_ENTITY_TOO_LARGE, e.getMessage());
+        } catch (JobPayloads.PayloadException e) {
+            LOG.warning("Rejected job payload: " + e.getMessage());
+            return payloadError(Response.Status.BAD_REQUEST, e.getMessage());
+        } catch (StreamConstraintsException e) {
+            LOG.warning("Rejected job payload: " + e.getOriginalMessage());
+            return payloadError(Response.Status.BAD_REQUEST, "A field exceeds the allowed length");
+        } catch (IOException e) {
+            LOG.warning("Failed to parse request body: " + e.getMessage());
+            return payloadError(Response.Status.BAD_REQUEST, "Invalid JSON payload");
+        }
+
         // Ensure the service is initialized lazily (may fallback to in-memory)
         initializeServiceIfNeeded();
 
@@ -77,9 +115,20 @@ public class JobResource {
         }
     }
 
+    private static Response payloadError(Response.Status status, String reason){
+        Map<String,Object> err = new HashMap<>();
+        err.put("status", "error");
+        err.put("reason", reason);
+        return Response.status(status).entity(err).build();
+    }
+
+    /**
+     * Job detail, served from {@link JobDetailCache}. The response carries a strong ETag; a matching
+     * If-None-Match gets a 304 without a body.
+     */
     @GET
     @Path("/{id}")
-    public Response getJobById(@PathParam("id") Long id){
+    public Response getJobById(@PathParam("id") Long id, @Context Request request){
         initializeServiceIfNeeded();
 
         if (this.jobService == null) {
@@ -91,47 +140,24 @@ public class JobResource {
         }
 
         try {
-            Job job = jobService.findById(id);
-            if (job == null) {
+            JobDetailCache.Entry cached = JobDetailCache.get().get(id, () -> {
+                Job job = jobService.findById(id);
+                return job == null ? null : AppConfig.mapper().writeValueAsBytes(toDetail(job));
+            });
+            if (cached == null) {
                 Map<String,Object> err = new HashMap<>();
                 err.put("status", "error");
                 err.put("reason", "Job not found");
                 return Response.status(Response.Status.NOT_FOUND).entity(err).build();
             }
 
-            // Check if job is published/closed - return 410 Gone for apply page
-            // For edit page, we'll return 403 if not draft
-            String status = job.getStatus() != null ? job.getStatus().name().toLowerCase() : "draft";
-
-            // Convert to DTO/Map for JSON response
-            Map<String, Object> jobData = new HashMap<>();
-            jobData.put("id", job.getId());
-            jobData.put("title", job.getTitle());
-            jobData.put("department", job.getDepartment());
-            jobData.put("location", job.getLocation());
-            jobData.put("employmentType", job.getEmploymentType() != null ? job.getEmploymentType().name() : null);
-            jobData.put("salaryMin", job.getSalaryMin());
-            jobData.put("salaryMax", job.getSalaryMax());
-            jobData.put("applicationDeadline", job.getApplicationDeadline());
-            jobData.put("status", status);
-            jobData.put("formLink", job.getFormLink());
-            jobData.put("descriptionSummary", job.getDescriptionSummary());
-            jobData.put("managedByManagerId", job.getManagedByManagerId());
-
-            // Include job descriptions
-            var jds = job.getJds();
-            if (jds != null && !jds.isEmpty()) {
-                var jdList = jds.stream().map(jd -> {
-                    Map<String, Object> jdMap = new HashMap<>();
-                    jdMap.put("title", jd.getTitle());
-                    jdMap.put("description", jd.getDescription());
-                    jdMap.put("weightage", jd.getWeight());
-                    return jdMap;
-                }).toList();
-                jobData.put("jobDescriptions", jdList);
-            }
-
-            return Response.ok(jobData).build();
+            // browsers keep the copy but revalidate every time, so edits show up immediately
+            CacheControl cc = new CacheControl();
+            cc.setNoCache(true);
+            EntityTag etag = new EntityTag(cached.getEtag());
+            Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+            if (notModified != null) return notModified.cacheControl(cc).build();
+            return Response.ok(cached.getJson(), MediaType.APPLICATION_JSON_TYPE).tag(etag).cacheControl(cc).build();
 
         } catch (Exception ex) {
             LOG.severe("Error fetching job: " + ex.getMessage());
@@ -143,8 +169,34 @@ public class JobResource {
         }
     }
 
+    private static JobDetail toDetail(Job job){
+        // Check if job is published/closed - return 410 Gone for apply page
+        // For edit page, we'll return 403 if not draft
+        String status = job.getStatus() != null ? job.getStatus().name().toLowerCase() : "draft";
+
+        // Include job descriptions
+        List<JobDetail.Section> sections = job.getJds() == null ? List.of() : job.getJds().stream()
+                .map(jd -> new JobDetail.Section(jd.getTitle(), jd.getDescription(), jd.getWeight()))
+                .toList();
+        return new JobDetail(
+                job.getId(),
+                job.getTitle(),
+                job.getDepartment(),
+                job.getLocation(),
+                job.getEmploymentType() != null ? job.getEmploymentType().name() : null,
+                job.getSalaryMin(),
+                job.getSalaryMax(),
+                job.getApplicationDeadline(),
+                status,
+                job.getFormLink(),
+                job.getDescriptionSummary(),
+                job.getManagedByManagerId(),
+                sections);
+    }
+
     @GET
-    public Response getAllJobs(){
+    public Response getAllJobs(@QueryParam("status") String status, @QueryParam("limit") Integer limit,
+                               @QueryParam("after") Long after){
         initializeServiceIfNeeded();
 
         if (this.jobService == null) {
@@ -155,23 +207,20 @@ public class JobResource {
         }
 
         try {
-            var jobs = jobService.findAll();
-            var jobList = jobs.stream().map(job -> {
-                Map<String, Object> jobData = new HashMap<>();
-                jobData.put("id", job.getId());
-                jobData.put("title", job.getTitle());
-                jobData.put("department", job.getDepartment());
-                jobData.put("location", job.getLocation());
-                jobData.put("employmentType", job.getEmploymentType() != null ? job.getEmploymentType().name() : null);
-                jobData.put("salaryMin", job.getSalaryMin());
-                jobData.put("salaryMax", job.getSalaryMax());
-                jobData.put("applicationDeadline", job.getApplicationDeadline());
-                jobData.put("status", job.getStatus() != null ? job.getStatus().name().toLowerCase() : "draft");
-                jobData.put("formLink", job.getFormLink());
-                return jobData;
-            }).toList();
-
-            return Response.ok(jobList).build();
+            JobStatus statusFilter = null;
+            if (status != null && !status.isEmpty() && !status.equalsIgnoreCase("all")) {
+                statusFilter = JobStatus.fromDb(status.toLowerCase());
+                if (statusFilter == null) {
+                    return Response.ok(java.util.List.of()).header("X-Total-Count", 0).build();
+                }
+            }
+
+            // Body stays a plain array for existing callers; paging info travels in headers
+            Integer pageSize = limit == null ? null : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            var page = jobService.listSummaries(statusFilter, after, pageSize, true);
+            Response.ResponseBuilder rb = Response.ok(page.getItems()).header("X-Total-Count", page.getTotal());
+            if (page.getNextCursor() != null) rb.header("X-Next-Cursor", page.getNextCursor());
+            return rb.build();
 
         } catch (Exception ex) {
             LOG.severe("Error fetching jobs: " + ex.getMessage());
@@ -282,7 +331,8 @@ public class JobResource {
 
     @GET
     @Path("/manager/{managerId}")
-    public Response getJobsByManager(@PathParam("managerId") Long managerId, @QueryParam("status") String status){
+    public Response getJobsByManager(@PathParam("managerId") Long managerId, @QueryParam("status") String status,
+                                     @QueryParam("limit") Integer limit, @QueryParam("after") Long after){
         initializeServiceIfNeeded();
 
         if (this.jobService == null) {
@@ -293,38 +343,26 @@ public class JobResource {
         }
 
         try {
-            var allJobs = jobService.findAll();
-
-            // Filter jobs by manager ID
-            var managerJobs = allJobs.stream()
-                    .filter(job -> managerId.equals(job.getManagedByManagerId()))
-                    .toList();
-
-            // If status filter is provided, apply it
+            // unknown status values match nothing, same as the old in-memory filter
+            JobStatus statusFilter = null;
             if (status != null && !status.isEmpty() && !status.equalsIgnoreCase("all")) {
-                managerJobs = managerJobs.stream()
-                        .filter(job -> job.getStatus() != null &&
-                                     job.getStatus().name().equalsIgnoreCase(status))
-                        .toList();
+                statusFilter = JobStatus.fromDb(status.toLowerCase());
+                if (statusFilter == null) return Response.ok(java.util.List.of()).build();
             }
 
-            var jobList = managerJobs.stream().map(job -> {
-                Map<String, Object> jobData = new HashMap<>();
-                jobData.put("id", job.getId());
-                jobData.put("title", job.getTitle());
-                jobData.put("department", job.getDepartment());
-                jobData.put("location", job.getLocation());
-                jobData.put("employmentType", job.getEmploymentType() != null ? job.getEmploymentType().name() : null);
-                jobData.put("salaryMin", job.getSalaryMin());
-                jobData.put("salaryMax", job.getSalaryMax());
-                jobData.put("applicationDeadline", job.getApplicationDeadline());
-                jobData.put("status", job.getStatus() != null ? job.getStatus().name().toLowerCase() : "draft");
-                jobData.put("formLink", job.getFormLink());
-                jobData.put("descriptionSummary", job.getDescriptionSummary());
-                return jobData;
-            }).toList();
-
-            return Response.ok(jobList).build();
+            // Without ?limit the full (projected) list is returned, as before
+            Integer pageSize = limit == null ? null : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            var jobList = jobService.findSummariesByManager(managerId, statusFilter, after,
+                    pageSize == null ? null : pageSize + 1);
+
+            Response.ResponseBuilder rb;
+            if (pageSize != null && jobList.size() > pageSize) {
+                jobList = jobList.subList(0, pageSize);
+                rb = Response.ok(jobList).header("X-Next-Cursor", jobList.get(pageSize - 1).getId());
+            } else {
+                rb = Response.ok(jobList);
+            }
+            return rb.build();
 
         } catch (Exception ex) {
             LOG.severe("Error fetching manager jobs: " + ex.getMessage());
@@ -334,4 +372,62 @@ public class JobResource {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(err).build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Progress of the latest match-screening task for a job.
+     * GET /api/jobs/{id}/screening
+     */
+    @GET
+    @Path("/{id}/screening")
+    public Response getScreeningProgress(@PathParam("id") Long id){
+        ScreeningEngine.Progress p = ScreeningEngine.get().progress(id);
+        if (p == null) {
+            Map<String,Object> idle = new HashMap<>();
+            idle.put("jobId", id);
+            idle.put("state", "idle");
+            return Response.ok(idle).build();
+        }
+        return Response.ok(p.toMap()).build();
+    }
+
+    /**
+     * Queues a full re-screen of a job (every section, fresh pool statistics). HR / admin, or the job's
+     * hiring manager.
+     * POST /api/jobs/{id}/screening  ->  202 with the task's progress
+     */
+    @POST
+    @Path("/{id}/screening")
+    public Response rescreenJob(@PathParam("id") Long id){
+        HttpSession session = servletRequest == null ? null : servletRequest.getSession(false);
+        Long userId = session == null ? null : (Long) session.getAttribute("userId");
+        String role = session == null ? null : (String) session.getAttribute("userRole");
+        if (userId == null) throw new NotAuthorizedException("Not authenticated");
+        if (!"hr".equals(role) && !"admin".equals(role) && !"hiring_manager".equals(role)) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+        try (EntityManager em = PersistenceRuntime.emf().createEntityManager()) {
+            List<?> owner = em.createNativeQuery("SELECT managed_by_manager_id FROM jobs WHERE id = ?1")
+                    .setParameter(1, id)
+                    .getResultList();
+            if (owner.isEmpty()) {
+                Map<String,Object> err = new HashMap<>();
+                err.put("status", "error");
+                err.put("reason", "Job not found");
+                return Response.status(Response.Status.NOT_FOUND).entity(err).build();
+            }
+            if ("hiring_manager".equals(role)
+                    && (owner.get(0) == null || ((Number) owner.get(0)).longValue() != userId)) {
+                return Response.status(Response.Status.FORBIDDEN).build();
+            }
+        }
+
+        ScreeningEngine.Progress p = ScreeningEngine.get().rescreen(id);
+        if (p == null) {
+            Map<String,Object> err = new HashMap<>();
+            err.put("status", "error");
+            err.put("reason", "Screening engine is not running");
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity(err).build();
+        }
+        return Response.status(Response.Status.ACCEPTED).entity(p.toMap()).build();
+    }
+}
@@ -0,0 +1,493 @@
+package com.example.ats.web;
+
+import com.example.ats.dto.JobCreateRequest;
+import com.example.ats.entity.EmploymentType;
+import com.example.ats.entity.Job;
+import com.example.ats.entity.JobStatus;
+import com.example.ats.repository.PersistenceRuntime;
+import com.example.ats.service.JobService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvFactory;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.*;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * Bulk job transfer for HR / admin, in the {@link JobCreateRequest} shape.
+ *
+ * POST /api/jobs/bulk/import - body is NDJSON (application/x-ndjson, one job per line) or CSV (text/csv,
+ *   header row, columns as in {@link JobPayloads}). Rows are validated as they are read and saved in
+ *   transactions of CHUNK_SIZE jobs with batched inserts; if a chunk fails, its rows are retried one by
+ *   one so only the bad rows fail. The response is an NDJSON report streamed while the import runs: one
+ *   line per row ({"row", "status": created|error, "jobId" | "reason"}, not necessarily in row order) and
+ *   a final {"summary": {...}} line. Ids in the input are ignored; every row becomes a new job.
+ * GET /api/jobs/bulk/export?format=ndjson|csv&status= - every job with its sections, streamed from one
+ *   cursor, in a shape the import accepts (plus the job id).
+ */
+@Path("/jobs/bulk")
+public class JobTransferResource {
+    private static final Logger LOG = Logger.getLogger(JobTransferResource.class.getName());
+
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+    private static final int CHUNK_SIZE = 200;
+    private static final int FETCH_SIZE = 500;
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder(
+            CsvFactory.builder().streamReadConstraints(JobPayloads.CONSTRAINTS).build()).build();
+
+    @Context
+    private HttpServletRequest servletRequest;
+
+    @POST
+    @Path("import")
+    @Consumes({NDJSON, CSV})
+    @Produces(NDJSON)
+    public Response importJobs(@HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body){
+        Response denied = requireHr();
+        if (denied != null) return denied;
+        boolean csv = contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith(CSV);
+        JobService jobService = new JobService(PersistenceRuntime.emf());
+
+        StreamingOutput report = out -> {
+            JsonGenerator g = AppConfig.mapper().getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            ImportRun run = new ImportRun(jobService, g);
+            String aborted = null;
+            try {
+                if (csv) readCsv(body, run);
+                else readNdjson(body, run);
+            } catch (AbortImport e){
+                aborted = e.getMessage();
+            }
+            run.flush();
+            run.summary(aborted);
+            g.close();
+        };
+        return Response.ok(report, NDJSON).build();
+    }
+
+    @GET
+    @Path("export")
+    public Response exportJobs(@QueryParam("format") @DefaultValue("ndjson") String format,
+                               @QueryParam("status") String status) throws SQLException {
+        Response denied = requireHr();
+        if (denied != null) return denied;
+        if (!"ndjson".equals(format) && !"csv".equals(format)){
+            return error(Response.Status.BAD_REQUEST, "format must be ndjson or csv");
+        }
+        JobStatus statusFilter = null;
+        if (status != null && !status.isBlank()){
+            statusFilter = JobStatus.fromDb(status.trim().toLowerCase(Locale.ROOT));
+            if (statusFilter == null) return error(Response.Status.BAD_REQUEST, "Unknown status: " + status);
+        }
+        String where = statusFilter == null ? "" : " WHERE j.status = CAST(? AS job_status)";
+        String sql = "SELECT j.id, j.title, j.department, j.location, CAST(j.employment_type AS text), j.salary_min, j.salary_max, " +
+                "j.application_deadline, j.description_summary, CAST(j.status AS text), j.managed_by_manager_id, " +
+                "d.section_title, d.description, d.weightage " +
+                "FROM jobs j LEFT JOIN job_descriptions d ON d.job_id = j.id" + where + " ORDER BY j.id, d.id";
+
+        // the query runs before the response is committed, so a failure is still a proper error status
+        Connection c = PersistenceRuntime.get().getDataSource().getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs;
+        int sectionColumns = 0;
+        try {
+            c.setAutoCommit(false);   // required for the driver to honour the fetch size
+            c.setReadOnly(true);
+            if ("csv".equals(format)){
+                try (PreparedStatement max = c.prepareStatement(
+                        "SELECT COALESCE(MAX(n), 0) FROM (SELECT COUNT(*) AS n FROM jobs j JOIN job_descriptions d ON d.job_id = j.id" +
+                        where + " GROUP BY j.id) x")){
+                    if (statusFilter != null) max.setString(1, statusFilter.getDbValue());
+                    try (ResultSet m = max.executeQuery()){
+                        m.next();
+                        sectionColumns = m.getInt(1);
+                    }
+                }
+            }
+            ps = c.prepareStatement(sql);
+            ps.setFetchSize(FETCH_SIZE);
+            if (statusFilter != null) ps.setString(1, statusFilter.getDbValue());
+            rs = ps.executeQuery();
+        } catch (SQLException | RuntimeException e){
+            close(ps, c);
+            throw e;
+        }
+
+        PreparedStatement stmt = ps;
+        int sections = sectionColumns;
+        StreamingOutput body = out -> {
+            try {
+                if ("csv".equals(format)) writeCsv(rs, sections, out);
+                else writeNdjson(rs, out);
+            } catch (SQLException e){
+                LOG.severe("Job export aborted: " + e.getMessage());
+                throw new IOException(e);
+            } finally {
+                close(stmt, c);
+            }
+        };
+        String type = "csv".equals(format) ? CSV + ";charset=UTF-8" : NDJSON;
+        return Response.ok(body, type)
+                .header("Content-Disposition", "attachment; filename=\"jobs." + format + "\"")
+                .build();
+    }
+
+    // ---------------------------------------------------------------------------------------------------------
+    // import
+
+    private static void readNdjson(InputStream body, ImportRun run) throws IOException {
+        InputStream in = new BufferedInputStream(body, 64 * 1024);
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(4096);
+        int row = 0;
+        byte[] line;
+        while ((line = readLine(in, buf)) != null){
+            row++;
+            if (line == TOO_LONG){
+                run.reject(row, "Line exceeds " + JobPayloads.MAX_BODY_BYTES + " bytes");
+                continue;
+            }
+            int len = line.length;
+            if (len > 0 && line[len - 1] == '\r') len--;
+            if (isBlank(line, len)) continue;
+            try {
+                run.accept(row, JobPayloads.parse(new ByteArrayInputStream(line, 0, len)));
+            } catch (JobPayloads.PayloadException e){
+                run.reject(row, e.getMessage());
+            } catch (StreamConstraintsException e){
+                run.reject(row, "A field exceeds the allowed length");
+            } catch (JsonProcessingException e){
+                run.reject(row, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private static void readCsv(InputStream body, ImportRun run) throws IOException {
+        CsvSchema schema = CsvSchema.emptySchema().withHeader();
+        int row = 0;
+        try (MappingIterator<Map<String, String>> rows = CSV_MAPPER.readerForMapOf(String.class).with(schema).readValues(body)){
+            while (true){
+                Map<String, String> values;
+                try {
+                    if (!rows.hasNextValue()) break;
+                    row++;
+                    values = rows.nextValue();
+                } catch (IOException | RuntimeException e){
+                    // the CSV parser can't resynchronize after a structural error
+                    String reason = e instanceof JsonProcessingException jpe ? jpe.getOriginalMessage() : e.getMessage();
+                    throw new AbortImport("Malformed CSV at row " + row + ": " + reason);
+                }
+                try {
+                    run.accept(row, JobPayloads.fromCsv(values));
+                } catch (JobPayloads.PayloadException e){
+                    run.reject(row, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static final byte[] TOO_LONG = new byte[0];
+
+    /** Next line without its '\n', or null at the end of input; an overlong line is consumed and returned as TOO_LONG. */
+    private static byte[] readLine(InputStream in, ByteArrayOutputStream buf) throws IOException {
+        buf.reset();
+        boolean tooLong = false;
+        boolean any = false;
+        int b;
+        while ((b = in.read()) != -1){
+            any = true;
+            if (b == '\n') break;
+            if (tooLong) continue;
+            if (buf.size() >= JobPayloads.MAX_BODY_BYTES){
+                tooLong = true;
+                buf.reset();
+                continue;
+            }
+            buf.write(b);
+        }
+        if (!any) return null;
+        return tooLong ? TOO_LONG : buf.toByteArray();
+    }
+
+    private static boolean isBlank(byte[] line, int len){
+        for (int i = 0; i < len; i++) if (!Character.isWhitespace(line[i])) return false;
+        return true;
+    }
+
+    /** Validates rows, saves them chunk by chunk and writes the report. Used by one request thread. */
+    private static final class ImportRun {
+        private final JobService jobService;
+        private final JsonGenerator report;
+        private final List<Integer> chunkRows = new ArrayList<>(CHUNK_SIZE);
+        private final List<Job> chunk = new ArrayList<>(CHUNK_SIZE);
+        private int rows, created, failed;
+
+        ImportRun(JobService jobService, JsonGenerator report){
+            this.jobService = jobService;
+            this.report = report;
+        }
+
+        void accept(int row, JobCreateRequest req) throws IOException {
+            rows++;
+            String problem = validate(req);
+            if (problem != null){
+                error(row, problem);
+                return;
+            }
+            chunkRows.add(row);
+            chunk.add(jobService.newJob(req));
+            if (chunk.size() == CHUNK_SIZE) flush();
+        }
+
+        void reject(int row, String reason) throws IOException {
+            rows++;
+            error(row, reason);
+        }
+
+        void flush() throws IOException {
+            if (chunk.isEmpty()) return;
+            try {
+                jobService.createAll(chunk);
+                for (int i = 0; i < chunk.size(); i++) created(chunkRows.get(i), chunk.get(i).getId());
+            } catch (RuntimeException e){
+                // find the offending rows; the others still go in, each on its own
+                for (int i = 0; i < chunk.size(); i++){
+                    Job job = chunk.get(i);
+                    try {
+                        jobService.createAll(List.of(job));
+                        created(chunkRows.get(i), job.getId());
+                    } catch (RuntimeException rowError){
+                        error(chunkRows.get(i), rootMessage(rowError));
+                    }
+                }
+            }
+            chunk.clear();
+            chunkRows.clear();
+            report.flush();
+        }
+
+        void summary(String aborted) throws IOException {
+            report.writeStartObject();
+            report.writeObjectFieldStart("summary");
+            report.writeNumberField("rows", rows);
+            report.writeNumberField("created", created);
+            report.writeNumberField("failed", failed);
+            if (aborted != null) report.writeStringField("aborted", aborted);
+            report.writeEndObject();
+            report.writeEndObject();
+            report.writeRaw('\n');
+            report.flush();
+        }
+
+        private void created(int row, Long jobId) throws IOException {
+            created++;
+            report.writeStartObject();
+            report.writeNumberField("row", row);
+            report.writeStringField("status", "created");
+            report.writeNumberField("jobId", jobId);
+            report.writeEndObject();
+            report.writeRaw('\n');
+        }
+
+        private void error(int row, String reason) throws IOException {
+            failed++;
+            report.writeStartObject();
+            report.writeNumberField("row", row);
+            report.writeStringField("status", "error");
+            report.writeStringField("reason", reason);
+            report.writeEndObject();
+            report.writeRaw('\n');
+        }
+    }
+
+    /** What the database would reject (or the UI wouldn't allow), as a message for the report; null if fine. */
+    private static String validate(JobCreateRequest req){
+        if (req.getJob_title() == null || req.getJob_title().isBlank()) return "job_title is required";
+        if (req.getEmployment_type() != null && EmploymentType.fromDb(req.getEmployment_type()) == null){
+            return "Unknown employment_type: " + req.getEmployment_type();
+        }
+        if (req.getStatus() != null && JobStatus.fromDb(req.getStatus()) == null) return "Unknown status: " + req.getStatus();
+        if (req.getApplication_deadline() != null){
+            try {
+                java.time.OffsetDateTime.parse(req.getApplication_deadline());
+            } catch (DateTimeParseException e){
+                return "application_deadline must be an ISO-8601 date-time with offset";
+            }
+        }
+        if (req.getSalary_min() != null && req.getSalary_max() != null && req.getSalary_min().compareTo(req.getSalary_max()) > 0){
+            return "salary_min cannot exceed salary_max";
+        }
+        if (req.getJds() != null){
+            for (int i = 0; i < req.getJds().size(); i++){
+                Double w = req.getJds().get(i).getWeight();
+                if (w != null && (w < 0 || w > 10)) return "JD #" + (i + 1) + ": weight must be 0-10";
+            }
+        }
+        return null;
+    }
+
+    private static String rootMessage(Throwable e){
+        Throwable t = e;
+        while (t.getCause() != null && t.getCause() != t) t = t.getCause();
+        return t.getMessage() == null ? t.getClass().getSimpleName() : t.getMessage();
+    }
+
+    /** Stops the import; rows saved so far stay saved. */
+    private static final class AbortImport extends IOException {
+        private static final long serialVersionUID = 1L;
+        AbortImport(String message){ super(message); }
+    }
+
+    // ---------------------------------------------------------------------------------------------------------
+    // export
+
+    private static void writeNdjson(ResultSet rs, OutputStream out) throws IOException, SQLException {
+        try (JsonGenerator g = AppConfig.mapper().getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)){
+            long current = -1;
+            while (rs.next()){
+                long id = rs.getLong(1);
+                if (id != current){
+                    if (current != -1) endJob(g);
+                    current = id;
+                    g.writeStartObject();
+                    g.writeNumberField("JobID", id);
+                    g.writeStringField("job_title", rs.getString(2));
+                    g.writeStringField("department", rs.getString(3));
+                    g.writeStringField("location", rs.getString(4));
+                    g.writeStringField("employment_type", rs.getString(5));
+                    writeDecimal(g, "salary_min", rs.getBigDecimal(6));
+                    writeDecimal(g, "salary_max", rs.getBigDecimal(7));
+                    g.writeStringField("application_deadline", isoDeadline(rs));
+                    g.writeStringField("description_summary", rs.getString(9));
+                    g.writeStringField("status", rs.getString(10));
+                    Long mgr = JsonRows.getLong(rs, 11);
+                    if (mgr == null) g.writeNullField("managed_by_manager_id");
+                    else g.writeNumberField("managed_by_manager_id", mgr);
+                    g.writeArrayFieldStart("jds");
+                }
+                if (rs.getString(12) == null && rs.getString(13) == null) continue;   // job without sections
+                g.writeStartObject();
+                g.writeStringField("title", rs.getString(12));
+                g.writeStringField("description", rs.getString(13));
+                double w = rs.getDouble(14);
+                if (rs.wasNull()) g.writeNullField("weight");
+                else g.writeNumberField("weight", w);
+                g.writeEndObject();
+            }
+            if (current != -1) endJob(g);
+        }
+    }
+
+    private static void endJob(JsonGenerator g) throws IOException {
+        g.writeEndArray();
+        g.writeEndObject();
+        g.writeRaw('\n');
+    }
+
+    private static void writeDecimal(JsonGenerator g, String field, BigDecimal v) throws IOException {
+        if (v == null) g.writeNullField(field);
+        else g.writeNumberField(field, v);
+    }
+
+    private static void writeCsv(ResultSet rs, int sections, OutputStream out) throws IOException, SQLException {
+        CsvSchema.Builder schema = CsvSchema.builder().addColumn("job_id");
+        for (String col : JobPayloads.CSV_JOB_COLUMNS) schema.addColumn(col);
+        for (int n = 1; n <= sections; n++){
+            schema.addColumn("jd" + n + "_title").addColumn("jd" + n + "_description").addColumn("jd" + n + "_weight");
+        }
+        int width = 1 + JobPayloads.CSV_JOB_COLUMNS.size() + 3 * sections;
+        try (SequenceWriter w = CSV_MAPPER.writer(schema.setUseHeader(true).build())
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValues(out)){
+            Object[] row = null;
+            long current = -1;
+            int section = 0;
+            while (rs.next()){
+                long id = rs.getLong(1);
+                if (id != current){
+                    if (row != null) writeRow(w, row);
+                    current = id;
+                    section = 0;
+                    row = new Object[width];
+                    row[0] = id;
+                    row[1] = rs.getString(2);
+                    row[2] = rs.getString(3);
+                    row[3] = rs.getString(4);
+                    row[4] = rs.getString(5);
+                    row[5] = rs.getBigDecimal(6);
+                    row[6] = rs.getBigDecimal(7);
+                    row[7] = isoDeadline(rs);
+                    row[8] = rs.getString(9);
+                    row[9] = rs.getString(10);
+                    row[10] = JsonRows.getLong(rs, 11);
+                }
+                if (rs.getString(12) == null && rs.getString(13) == null) continue;
+                int base = 1 + JobPayloads.CSV_JOB_COLUMNS.size() + 3 * section++;
+                row[base] = rs.getString(12);
+                row[base + 1] = rs.getString(13);
+                double weight = rs.getDouble(14);
+                row[base + 2] = rs.wasNull() ? null : weight;
+            }
+            if (row != null) writeRow(w, row);
+        }
+    }
+
+    /** Array rows drop null cells instead of leaving them empty, which would shift later columns. */
+    private static void writeRow(SequenceWriter w, Object[] row) throws IOException {
+        for (int i = 0; i < row.length; i++) if (row[i] == null) row[i] = "";
+        w.write(row);
+    }
+
+    private static String isoDeadline(ResultSet rs) throws SQLException {
+        java.sql.Timestamp ts = rs.getTimestamp(8);
+        return ts == null ? null : ts.toInstant().atOffset(ZoneOffset.UTC).toString();
+    }
+
+    // ---------------------------------------------------------------------------------------------------------
+
+    private Response requireHr(){
+        HttpSession session = servletRequest == null ? null : servletRequest.getSession(false);
+        Long userId = session == null ? null : (Long) session.getAttribute("userId");
+        String role = session == null ? null : (String) session.getAttribute("userRole");
+        if (userId == null) throw new NotAuthorizedException("Not authenticated");
+        if (!"hr".equals(role) && !"admin".equals(role)) return Response.status(Response.Status.FORBIDDEN).build();
+        return null;
+    }
+
+    private static Response error(Response.Status status, String reason){
+        Map<String, Object> err = new HashMap<>();
+        err.put("status", "error");
+        err.put("reason", reason);
+        return Response.status(status).entity(err).type(MediaType.APPLICATION_JSON).build();
+    }
+
+    private static void close(PreparedStatement ps, Connection c){
+        if (ps != null) try { ps.close(); } catch (SQLException ignore){}
+        try { c.rollback(); } catch (SQLException ignore){}
+        try { c.close(); } catch (SQLException ignore){}
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.ats.web;
+
+import com.example.ats.repository.PersistenceRuntime;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.logging.Logger;
+
+/**
+ * Streams a JDBC query to the response as a JSON array of typed rows, one row at a time from the result
+ * cursor, so memory stays flat however long the list is.
+ *
+ * {@link #stream} runs the query before returning, so a failing query surfaces to the caller as an
+ * exception (and a proper error status) rather than a truncated 200. The connection stays open until the
+ * body has been written.
+ */
+final class JsonRows {
+    private static final Logger LOG = Logger.getLogger(JsonRows.class.getName());
+    private static final int FETCH_SIZE = 200;
+
+    @FunctionalInterface
+    interface Binder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private JsonRows(){}
+
+    static <T> StreamingOutput stream(Class<T> type, String sql, Binder binder, RowMapper<T> mapper) throws SQLException {
+        Connection c = PersistenceRuntime.get().getDataSource().getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs;
+        try {
+            c.setAutoCommit(false);   // required for the driver to honour the fetch size
+            c.setReadOnly(true);
+            ps = c.prepareStatement(sql);
+            ps.setFetchSize(FETCH_SIZE);
+            binder.bind(ps);
+            rs = ps.executeQuery();
+        } catch (SQLException | RuntimeException e){
+            close(ps, c);
+            throw e;
+        }
+        ObjectWriter writer = AppConfig.mapper().writerFor(type).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        PreparedStatement stmt = ps;
+        return out -> {
+            try (SequenceWriter rows = writer.writeValuesAsArray(out)){
+                while (rs.next()) rows.write(mapper.map(rs));
+            } catch (SQLException e){
+                LOG.severe("Row stream aborted: " + e.getMessage());
+                throw new IOException(e);
+            } finally {
+                close(stmt, c);
+            }
+        };
+    }
+
+    /** Nullable BIGINT column. */
+    static Long getLong(ResultSet rs, int column) throws SQLException {
+        long v = rs.getLong(column);
+        return rs.wasNull() ? null : v;
+    }
+
+    /** Nullable timestamp column as an instant. */
+    static java.time.Instant getInstant(ResultSet rs, int column) throws SQLException {
+        java.sql.Timestamp ts = rs.getTimestamp(column);
+        return ts == null ? null : ts.toInstant();
+    }
+
+    private static void close(PreparedStatement ps, Connection c){
+        if (ps != null) try { ps.close(); } catch (SQLException ignore){}
+        try { c.rollback(); } catch (SQLException ignore){}
+        try { c.close(); } catch (SQLException ignore){}
+    }
+}
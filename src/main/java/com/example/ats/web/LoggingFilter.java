@@ -3,32 +3,43 @@ package com.example.ats.web;
 import jakarta.ws.rs.container.*;
 import jakarta.ws.rs.ext.Provider;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.logging.Logger;
 
 @Provider
 public class LoggingFilter implements ContainerRequestFilter {
     private static final Logger LOG = Logger.getLogger(LoggingFilter.class.getName());
 
+    /** Larger bodies, and bodies without a Content-Length, are passed through untouched and not logged. */
+    private static final int MAX_LOGGED_BODY = 16 * 1024;
+
     @Override
     public void filter(ContainerRequestContext requestContext) throws IOException {
+        String path = requestContext.getUriInfo().getPath();
         LOG.info("=== INCOMING REQUEST ===");
         LOG.info("Method: " + requestContext.getMethod());
-        LOG.info("Path: " + requestContext.getUriInfo().getPath());
+        LOG.info("Path: " + path);
         LOG.info("Content-Type: " + requestContext.getHeaderString("Content-Type"));
 
         if (requestContext.hasEntity() && "POST".equals(requestContext.getMethod())) {
-            // Read the entity stream
-            InputStream entityStream = requestContext.getEntityStream();
-            String body = new BufferedReader(new InputStreamReader(entityStream))
-                    .lines()
-                    .reduce("", (accumulator, actual) -> accumulator + actual);
-
-            LOG.info("Request Body: " + body);
-
-            // Reset the stream for Jersey to read
-            requestContext.setEntityStream(new ByteArrayInputStream(body.getBytes()));
+            int length = requestContext.getLength();
+            if (isStreamed(path)) {
+                // bulk transfers are consumed as a stream; buffering them here would defeat that
+                LOG.info("Request Body: <streamed, not logged>");
+            } else if (length < 0 || length > MAX_LOGGED_BODY) {
+                LOG.info("Request Body: <" + (length < 0 ? "unknown length" : length + " bytes") + ", not logged>");
+            } else {
+                // Read the entity stream; the exact bytes are replayed for Jersey
+                byte[] body = requestContext.getEntityStream().readAllBytes();
+                LOG.info("Request Body: " + new String(body, StandardCharsets.UTF_8));
+                requestContext.setEntityStream(new ByteArrayInputStream(body));
+            }
         }
         LOG.info("======================");
     }
-}
 
+    private static boolean isStreamed(String path) {
+        String p = path.startsWith("/") ? path.substring(1) : path;
+        return p.startsWith("jobs/bulk/");
+    }
+}
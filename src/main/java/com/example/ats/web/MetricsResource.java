@@ -0,0 +1,81 @@
+package com.example.ats.web;
+
+import com.example.ats.repository.PersistenceRuntime;
+import com.example.ats.service.CandidateSearchIndex;
+import com.example.ats.service.CvTextExtractor;
+import com.example.ats.service.InterviewCalendar;
+import com.example.ats.service.InvalidationBus;
+import com.example.ats.service.JobDetailCache;
+import com.example.ats.service.NotificationDispatcher;
+import com.example.ats.service.ScreeningEngine;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.*;
+import java.util.*;
+
+/**
+ * Operational metrics for the running node.
+ * GET /api/metrics/pool - shared JDBC connection pool occupancy and acquire latency
+ * GET /api/metrics/notifications - outbox dispatcher throughput and backlog
+ * GET /api/metrics/screening - match-scoring queue and throughput
+ * GET /api/metrics/extraction - CV text extraction queue, outcomes and limits
+ * GET /api/metrics/search - candidate search index size, pending updates and query latency
+ * GET /api/metrics/job-cache - job detail cache size, hit ratio, evictions and invalidations
+ * GET /api/metrics/invalidation - cross-node LISTEN/NOTIFY bus connection state and event counts
+ * GET /api/metrics/interview-calendar - overlap constraint state and free-slot calendar cache
+ */
+@Path("/metrics")
+@Produces(MediaType.APPLICATION_JSON)
+public class MetricsResource {
+
+    @GET
+    @Path("/pool")
+    public Response poolStats(){
+        if (!PersistenceRuntime.isStarted()){
+            // don't boot Hibernate just to report on it
+            return Response.ok(Map.of("available", false, "reason", "Persistence runtime not started")).build();
+        }
+        return Response.ok(PersistenceRuntime.get().poolStats()).build();
+    }
+
+    @GET
+    @Path("/notifications")
+    public Response notificationStats(){
+        return Response.ok(NotificationDispatcher.get().stats()).build();
+    }
+
+    @GET
+    @Path("/screening")
+    public Response screeningStats(){
+        return Response.ok(ScreeningEngine.get().stats()).build();
+    }
+
+    @GET
+    @Path("/extraction")
+    public Response extractionStats(){
+        return Response.ok(CvTextExtractor.get().stats()).build();
+    }
+
+    @GET
+    @Path("/search")
+    public Response searchStats(){
+        return Response.ok(CandidateSearchIndex.get().stats()).build();
+    }
+
+    @GET
+    @Path("/job-cache")
+    public Response jobCacheStats(){
+        return Response.ok(JobDetailCache.get().stats()).build();
+    }
+
+    @GET
+    @Path("/invalidation")
+    public Response invalidationStats(){
+        return Response.ok(InvalidationBus.get().stats()).build();
+    }
+
+    @GET
+    @Path("/interview-calendar")
+    public Response interviewCalendarStats(){
+        return Response.ok(InterviewCalendar.get().stats()).build();
+    }
+}
@@ -1,14 +1,13 @@
 package com.example.ats.web;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.Persistence;
+import com.example.ats.dto.NotificationView;
+import com.example.ats.service.NotificationDispatcher;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
-import java.util.HashMap;
-import java.util.List;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.Map;
 import java.util.logging.Logger;
 
@@ -18,18 +17,6 @@ import java.util.logging.Logger;
 public class NotificationResource {
 
     private static final Logger LOG = Logger.getLogger(NotificationResource.class.getName());
-    private static EntityManagerFactory emf;
-
-    private EntityManagerFactory getEmf() {
-        if (emf == null) {
-            synchronized (NotificationResource.class) {
-                if (emf == null) {
-                    emf = Persistence.createEntityManagerFactory("ATS-PU");
-                }
-            }
-        }
-        return emf;
-    }
 
     /**
      * Get all notifications for a specific application
@@ -38,46 +25,18 @@ public class NotificationResource {
     @GET
     @Path("/application/{applicationId}")
     public Response getNotificationsByApplication(@PathParam("applicationId") Long applicationId) {
-        EntityManager em = null;
         try {
-            em = getEmf().createEntityManager();
-
             // Query to get all notifications for this application
-            String sql = "SELECT id, application_id, notification_type, to_email, subject, body, sent_at, created_by_user_id " +
-                        "FROM notifications WHERE application_id = ? ORDER BY sent_at DESC";
-
-            List<Object[]> results = em.createNativeQuery(sql)
-                    .setParameter(1, applicationId)
-                    .getResultList();
-
-            // Convert to JSON-friendly format
-            var notifications = results.stream().map(row -> {
-                Map<String, Object> notification = new HashMap<>();
-                notification.put("id", row[0]);
-                notification.put("applicationId", row[1]);
-                notification.put("notificationType", row[2]);
-                notification.put("toEmail", row[3]);
-                notification.put("subject", row[4]);
-                notification.put("body", row[5]);
-                notification.put("sentAt", row[6]);
-                notification.put("createdByUserId", row[7]);
-                return notification;
-            }).toList();
-
-            return Response.ok(notifications).build();
+            String sql = "SELECT id, application_id, CAST(notification_type AS text), to_email, subject, body, COALESCE(sent_at, created_at), created_by_user_id, delivery_status " +
+                        "FROM notifications WHERE application_id = ? ORDER BY COALESCE(created_at, sent_at) DESC NULLS LAST, id DESC";
+            return Response.ok(JsonRows.stream(NotificationView.class, sql,
+                    ps -> ps.setLong(1, applicationId), NotificationResource::toView)).build();
 
         } catch (Exception e) {
             LOG.severe("Error fetching notifications: " + e.getMessage());
             e.printStackTrace();
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(Map.of("error", e.getMessage())).build();
-        } finally {
-            if (em != null) {
-                try {
-                    em.close();
-                } catch (Exception ignore) {
-                }
-            }
+                    .entity(Map.of("error", String.valueOf(e.getMessage()))).build();
         }
     }
 
@@ -88,50 +47,36 @@ public class NotificationResource {
     @GET
     @Path("/applicant/{applicantId}")
     public Response getNotificationsByApplicant(@PathParam("applicantId") Long applicantId) {
-        EntityManager em = null;
         try {
-            em = getEmf().createEntityManager();
-
             // Query to get all notifications for all applications of this applicant
-            String sql = "SELECT n.id, n.application_id, n.notification_type, n.to_email, n.subject, n.body, n.sent_at, n.created_by_user_id " +
+            String sql = "SELECT n.id, n.application_id, CAST(n.notification_type AS text), n.to_email, n.subject, n.body, COALESCE(n.sent_at, n.created_at), n.created_by_user_id, n.delivery_status " +
                         "FROM notifications n " +
                         "JOIN applications a ON n.application_id = a.id " +
                         "WHERE a.applicant_user_id = ? " +
-                        "ORDER BY n.sent_at DESC";
-
-            List<Object[]> results = em.createNativeQuery(sql)
-                    .setParameter(1, applicantId)
-                    .getResultList();
-
-            // Convert to JSON-friendly format
-            var notifications = results.stream().map(row -> {
-                Map<String, Object> notification = new HashMap<>();
-                notification.put("id", row[0]);
-                notification.put("applicationId", row[1]);
-                notification.put("notificationType", row[2]);
-                notification.put("toEmail", row[3]);
-                notification.put("subject", row[4]);
-                notification.put("body", row[5]);
-                notification.put("sentAt", row[6]);
-                notification.put("createdByUserId", row[7]);
-                return notification;
-            }).toList();
-
-            return Response.ok(notifications).build();
+                        "ORDER BY COALESCE(n.created_at, n.sent_at) DESC NULLS LAST, n.id DESC";
+            return Response.ok(JsonRows.stream(NotificationView.class, sql,
+                    ps -> ps.setLong(1, applicantId), NotificationResource::toView)).build();
 
         } catch (Exception e) {
             LOG.severe("Error fetching notifications for applicant: " + e.getMessage());
             e.printStackTrace();
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(Map.of("error", e.getMessage())).build();
-        } finally {
-            if (em != null) {
-                try {
-                    em.close();
-                } catch (Exception ignore) {
-                }
-            }
+                    .entity(Map.of("error", String.valueOf(e.getMessage()))).build();
         }
     }
-}
 
+    private static NotificationView toView(ResultSet rs) throws SQLException {
+        String deliveryStatus = rs.getString(9);
+        return new NotificationView(
+                rs.getLong(1),
+                JsonRows.getLong(rs, 2),
+                rs.getString(3),
+                rs.getString(4),
+                rs.getString(5),
+                rs.getString(6),
+                JsonRows.getInstant(rs, 7),
+                JsonRows.getLong(rs, 8),
+                // null = delivered before the outbox existed
+                deliveryStatus != null ? deliveryStatus : NotificationDispatcher.SENT);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.ats.web;
+
+import com.example.ats.repository.PersistenceRuntime;
+import com.example.ats.service.CandidateSearchIndex;
+import com.example.ats.service.CvTextExtractor;
+import com.example.ats.service.InterviewCalendar;
+import com.example.ats.service.InvalidationBus;
+import com.example.ats.service.NotificationDispatcher;
+import com.example.ats.service.ScreeningEngine;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+
+/**
+ * Starts the background workers that depend on persistence (notification outbox dispatcher, screening, CV text
+ * extraction, candidate search index, interview overlap constraints and calendar, cross-node invalidation listener) and
+ * stops the SSE hub and closes the shared EntityManagerFactory (and its connection pool) when the webapp is undeployed.
+ */
+@WebListener
+public class PersistenceLifecycleListener implements ServletContextListener {
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        // the dispatcher boots persistence lazily on its own thread, so startup never waits on the DB
+        NotificationDispatcher.get().start();
+        ScreeningEngine.get().start();
+        CvTextExtractor.get().start();
+        CandidateSearchIndex.get().start();
+        InterviewCalendar.get().start();
+        InvalidationBus.get().start();
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        EventStreamResource.shutdown();
+        InvalidationBus.get().stop();
+        CandidateSearchIndex.get().stop();
+        InterviewCalendar.get().stop();
+        NotificationDispatcher.get().stop();
+        CvTextExtractor.get().stop();
+        ScreeningEngine.get().stop();
+        PersistenceRuntime.shutdown();
+    }
+}
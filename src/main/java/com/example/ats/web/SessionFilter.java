@@ -8,7 +8,7 @@ import java.io.IOException;
 /**
  * Session filter to manage user authentication state
  */
-@WebFilter(urlPatterns = {"/api/*"})
+@WebFilter(urlPatterns = {"/api/*"}, asyncSupported = true)
 public class SessionFilter implements Filter {
 
     @Override
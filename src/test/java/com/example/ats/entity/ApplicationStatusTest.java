@@ -0,0 +1,51 @@
+package com.example.ats.entity;
+
+import static com.example.ats.entity.ApplicationStatus.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class ApplicationStatusTest {
+
+    @Test
+    void allowsExactlyTheDocumentedTransitions(){
+        assertNext(SUBMITTED, UNDER_REVIEW, SHORTLISTED, REJECTED);
+        assertNext(UNDER_REVIEW, SHORTLISTED, INTERVIEW_INVITE, REJECTED);
+        assertNext(SHORTLISTED, INTERVIEW_INVITE, REJECTED);
+        assertNext(INTERVIEW_INVITE, INTERVIEW_INVITE, OFFERED, REJECTED);
+        assertNext(OFFERED, HIRED, REJECTED);
+        assertNext(HIRED);
+        assertNext(REJECTED);
+    }
+
+    @Test
+    void underReviewCandidatesCanBeInvitedToInterview(){
+        // the scheduling page lists under_review applicants
+        assertTrue(UNDER_REVIEW.canTransitionTo(INTERVIEW_INVITE));
+    }
+
+    @Test
+    void sourcesOfMirrorsTheTable(){
+        assertEquals(Set.of("under_review", "shortlisted", "interview_invite"),
+                Set.copyOf(Arrays.asList(sourcesOf(INTERVIEW_INVITE))));
+        assertEquals(Set.of("submitted"), Set.copyOf(Arrays.asList(sourcesOf(UNDER_REVIEW))));
+        assertEquals(0, sourcesOf(SUBMITTED).length);
+    }
+
+    @Test
+    void fromDbValueRejectsUnknownValues(){
+        assertEquals(INTERVIEW_INVITE, fromDbValue("INTERVIEW_INVITE"));
+        assertNull(fromDbValue(null));
+        assertThrows(IllegalArgumentException.class, () -> fromDbValue("archived"));
+    }
+
+    private static void assertNext(ApplicationStatus from, ApplicationStatus... allowed){
+        Set<ApplicationStatus> expected = allowed.length == 0 ? EnumSet.noneOf(ApplicationStatus.class) : EnumSet.of(allowed[0], allowed);
+        for (ApplicationStatus to : values()){
+            assertEquals(expected.contains(to), from.canTransitionTo(to), from + " -> " + to);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.ats.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.ats.entity.JobStatus;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** The manager job list is filtered, ordered and paged in SQL. */
+class JobRepositoryManagerQueryTest {
+
+    @Test
+    void managerFilterIsBoundFirstAndSelectsTheSummaryColumn(){
+        JobRepository.NativeSql q = JobRepository.summaryQuery(7L, JobStatus.PUBLISHED, 42L, 20, true);
+        assertTrue(q.sql().contains("j.managed_by_manager_id = ?1"), q.sql());
+        assertTrue(q.sql().contains("j.status = CAST(?2 AS job_status)"), q.sql());
+        assertTrue(q.sql().contains("j.id < ?3"), q.sql());
+        assertTrue(q.sql().endsWith("ORDER BY j.id DESC LIMIT ?4"), q.sql());
+        assertTrue(q.sql().contains("j.description_summary"), q.sql());
+        assertFalse(q.sql().contains("job_descriptions"), q.sql());
+        assertEquals(List.of(7L, JobStatus.PUBLISHED.getDbValue(), 42L, 20), q.params());
+        JobRepositoryQueryTest.assertContiguous(q, 15);
+    }
+
+    @Test
+    void limitOrCursorAloneFollowsTheManagerLabel(){
+        JobRepository.NativeSql limitOnly = JobRepository.summaryQuery(7L, null, null, 20, true);
+        assertTrue(limitOnly.sql().endsWith("LIMIT ?2"), limitOnly.sql());
+        assertEquals(List.of(7L, 20), limitOnly.params());
+
+        JobRepository.NativeSql cursorOnly = JobRepository.summaryQuery(7L, null, 42L, null, true);
+        assertTrue(cursorOnly.sql().contains("j.id < ?2"), cursorOnly.sql());
+        assertFalse(cursorOnly.sql().contains("LIMIT"), cursorOnly.sql());
+        assertEquals(List.of(7L, 42L), cursorOnly.params());
+    }
+
+    @Test
+    void statusWithoutManagerStartsAtOne(){
+        JobRepository.NativeSql q = JobRepository.summaryQuery(null, JobStatus.PUBLISHED, null, null, false);
+        assertTrue(q.sql().contains("CAST(?1 AS job_status)"), q.sql());
+        assertFalse(q.sql().contains("managed_by_manager_id"), q.sql());
+        assertFalse(q.sql().contains("description_summary"), q.sql());
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.ats.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.ats.entity.JobStatus;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+/** Job list and count queries must use ordinal labels ?1..?n without gaps, bound in label order. */
+class JobRepositoryQueryTest {
+    private static final Pattern LABEL = Pattern.compile("\\?(\\d+)");
+
+    @Test
+    void summaryQueryLabelsAreContiguousForEveryFilterCombination(){
+        for (int mask = 0; mask < 16; mask++){
+            Long manager = (mask & 1) != 0 ? 7L : null;
+            JobStatus status = (mask & 2) != 0 ? JobStatus.PUBLISHED : null;
+            Long after = (mask & 4) != 0 ? 42L : null;
+            Integer limit = (mask & 8) != 0 ? 20 : null;
+            for (boolean withSummary : new boolean[]{true, false}){
+                JobRepository.NativeSql q = JobRepository.summaryQuery(manager, status, after, limit, withSummary);
+                assertContiguous(q, mask);
+                assertEquals(expected(manager, status, after, limit), q.params(), "mask " + mask);
+            }
+        }
+    }
+
+    @Test
+    void countQueryLabelsAreContiguousForEveryFilterCombination(){
+        for (int mask = 0; mask < 4; mask++){
+            Long manager = (mask & 1) != 0 ? 7L : null;
+            JobStatus status = (mask & 2) != 0 ? JobStatus.PUBLISHED : null;
+            JobRepository.NativeSql q = JobRepository.countQuery(manager, status);
+            assertContiguous(q, mask);
+            assertEquals(expected(manager, status, null, null), q.params(), "mask " + mask);
+        }
+    }
+
+    static void assertContiguous(JobRepository.NativeSql q, int mask){
+        Matcher m = LABEL.matcher(q.sql());
+        int expected = 1;
+        while (m.find()) assertEquals(expected++, Integer.parseInt(m.group(1)), "mask " + mask + ": " + q.sql());
+        assertEquals(q.params().size(), expected - 1, "mask " + mask + ": " + q.sql());
+    }
+
+    static List<Object> expected(Long manager, JobStatus status, Long after, Integer limit){
+        List<Object> out = new ArrayList<>();
+        if (manager != null) out.add(manager);
+        if (status != null) out.add(status.getDbValue());
+        if (after != null) out.add(after);
+        if (limit != null) out.add(limit);
+        return out;
+    }
+}
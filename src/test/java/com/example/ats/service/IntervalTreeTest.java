@@ -0,0 +1,57 @@
+package com.example.ats.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class IntervalTreeTest {
+
+    @Test
+    void halfOpenIntervalsThatOnlyTouchDoNotOverlap(){
+        IntervalTree t = IntervalTree.of(new long[]{1, 2}, new long[]{10, 30}, new long[]{20, 40});
+        assertFalse(t.overlaps(0, 10));
+        assertFalse(t.overlaps(20, 30));
+        assertFalse(t.overlaps(40, 50));
+        assertTrue(t.overlaps(19, 21));
+        assertTrue(t.overlaps(0, 100));
+        assertFalse(t.overlaps(15, 15), "empty query range");
+    }
+
+    @Test
+    void emptyIntervalsAreDropped(){
+        IntervalTree t = IntervalTree.of(new long[]{1, 2, 3}, new long[]{10, 20, 30}, new long[]{10, 15, 40});
+        assertEquals(1, t.size());
+        assertSame(IntervalTree.EMPTY, IntervalTree.of(new long[]{1}, new long[]{5}, new long[]{5}));
+        assertFalse(IntervalTree.EMPTY.overlaps(Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    void visitsExactlyTheOverlappingIntervalsInStartOrder(){
+        Random rnd = new Random(42);
+        for (int round = 0; round < 200; round++){
+            int n = rnd.nextInt(60);
+            long[] ids = new long[n], starts = new long[n], ends = new long[n];
+            for (int i = 0; i < n; i++){
+                ids[i] = i;
+                starts[i] = rnd.nextInt(1000);
+                ends[i] = starts[i] + rnd.nextInt(120) - 10;   // some empty or inverted
+            }
+            IntervalTree tree = IntervalTree.of(ids, starts, ends);
+            for (int q = 0; q < 20; q++){
+                long from = rnd.nextInt(1100) - 50, to = from + 1 + rnd.nextInt(200);
+                List<Long> expected = new ArrayList<>();
+                for (int i = 0; i < n; i++) if (ends[i] > starts[i] && starts[i] < to && ends[i] > from) expected.add(ids[i]);
+                List<Long> seen = new ArrayList<>();
+                List<Long> seenStarts = new ArrayList<>();
+                tree.forEachOverlapping(from, to, (id, s, e) -> { seen.add(id); seenStarts.add(s); });
+                assertEquals(expected.size(), seen.size(), "round " + round + " [" + from + ", " + to + ")");
+                assertTrue(seen.containsAll(expected), "round " + round);
+                for (int i = 1; i < seenStarts.size(); i++) assertTrue(seenStarts.get(i - 1) <= seenStarts.get(i));
+                assertEquals(!expected.isEmpty(), tree.overlaps(from, to));
+            }
+        }
+    }
+}
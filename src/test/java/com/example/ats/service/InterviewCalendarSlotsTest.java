@@ -0,0 +1,82 @@
+package com.example.ats.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Free-slot search over merged busy intervals, without the database. */
+class InterviewCalendarSlotsTest {
+    private static final ZoneId UTC = ZoneId.of("UTC");
+
+    private static InterviewCalendar.SlotQuery query(String from, String to, boolean weekends, int limit){
+        return new InterviewCalendar.SlotQuery(Instant.parse(from), Instant.parse(to), Duration.ofMinutes(60),
+                Duration.ofMinutes(30), LocalTime.of(9, 0), LocalTime.of(12, 0), UTC, weekends, limit);
+    }
+
+    private static long[] busy(String start, String end){
+        return new long[]{ Instant.parse(start).toEpochMilli(), Instant.parse(end).toEpochMilli() };
+    }
+
+    private static List<String> starts(List<InterviewCalendar.Slot> slots){
+        List<String> out = new ArrayList<>();
+        for (InterviewCalendar.Slot s : slots) out.add(s.start().toString());
+        return out;
+    }
+
+    @Test
+    void freeDayIsCutIntoStepsWithinWorkingHours(){
+        // Monday
+        List<InterviewCalendar.Slot> slots = InterviewCalendar.scan(List.of(),
+                query("2026-10-19T00:00:00Z", "2026-10-20T00:00:00Z", false, 10));
+        assertEquals(List.of("2026-10-19T09:00:00Z", "2026-10-19T09:30:00Z", "2026-10-19T10:00:00Z",
+                "2026-10-19T10:30:00Z", "2026-10-19T11:00:00Z"), starts(slots));
+        assertEquals(Instant.parse("2026-10-19T12:00:00Z"), slots.get(slots.size() - 1).end());
+    }
+
+    @Test
+    void busyBlocksAreSkippedToTheNextGridPoint(){
+        List<long[]> busy = List.of(busy("2026-10-19T09:45:00Z", "2026-10-19T10:10:00Z"));
+        List<InterviewCalendar.Slot> slots = InterviewCalendar.scan(busy,
+                query("2026-10-19T00:00:00Z", "2026-10-20T00:00:00Z", false, 10));
+        assertEquals(List.of("2026-10-19T10:30:00Z", "2026-10-19T11:00:00Z"), starts(slots));
+    }
+
+    @Test
+    void slotsMayTouchBusyIntervals(){
+        List<long[]> busy = List.of(busy("2026-10-19T10:00:00Z", "2026-10-19T11:00:00Z"));
+        List<InterviewCalendar.Slot> slots = InterviewCalendar.scan(busy,
+                query("2026-10-19T00:00:00Z", "2026-10-20T00:00:00Z", false, 10));
+        assertEquals(List.of("2026-10-19T09:00:00Z", "2026-10-19T11:00:00Z"), starts(slots));
+    }
+
+    @Test
+    void weekendsAreSkippedUnlessRequestedAndLimitIsHonoured(){
+        // Saturday to Monday
+        InterviewCalendar.SlotQuery weekdays = query("2026-10-17T00:00:00Z", "2026-10-20T00:00:00Z", false, 2);
+        assertEquals(List.of("2026-10-19T09:00:00Z", "2026-10-19T09:30:00Z"), starts(InterviewCalendar.scan(List.of(), weekdays)));
+        InterviewCalendar.SlotQuery all = query("2026-10-17T00:00:00Z", "2026-10-20T00:00:00Z", true, 1);
+        assertEquals(List.of("2026-10-17T09:00:00Z"), starts(InterviewCalendar.scan(List.of(), all)));
+    }
+
+    @Test
+    void windowStartIsAlignedToTheGridAndWindowEndCutsTheDay(){
+        List<InterviewCalendar.Slot> slots = InterviewCalendar.scan(List.of(),
+                query("2026-10-19T09:10:00Z", "2026-10-19T11:15:00Z", false, 10));
+        assertEquals(List.of("2026-10-19T09:30:00Z", "2026-10-19T10:00:00Z"), starts(slots));
+    }
+
+    @Test
+    void mergeCoalescesOverlappingAndTouchingIntervals(){
+        List<long[]> merged = InterviewCalendar.merge(new ArrayList<>(List.of(
+                new long[]{50, 60}, new long[]{10, 20}, new long[]{15, 30}, new long[]{30, 40})));
+        assertEquals(2, merged.size());
+        assertArrayEquals(new long[]{10, 40}, merged.get(0));
+        assertArrayEquals(new long[]{50, 60}, merged.get(1));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.ats.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Content-addressed CV storage: keys from the SHA-256, one copy per content, staged then renamed into place. */
+class LocalCvStorageTest {
+    private static final byte[] CV = "Jane Doe\nJava, SQL, Kubernetes\n".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path root;
+
+    private static String sha256(byte[] b){
+        return HexFormat.of().formatHex(HashingSpool.sha256().digest(b));
+    }
+
+    @Test
+    void keyIsTheContentHashWithTheSubmittedExtension() throws IOException {
+        LocalCvStorage store = new LocalCvStorage(root, LocalCvStorage.FsyncPolicy.NONE);
+        CvStorage.StoredCv cv = store.put(new ByteArrayInputStream(CV), "Jane Doe CV.PDF", 1024);
+        String sha = sha256(CV);
+        assertEquals(sha + ".pdf", cv.getKey());
+        assertEquals(sha, cv.getSha256());
+        assertEquals(CV.length, cv.getSize());
+        assertFalse(cv.isDeduplicated());
+        assertTrue(Files.exists(root.resolve(sha.substring(0, 2)).resolve(sha.substring(2, 4)).resolve(cv.getKey())));
+    }
+
+    @Test
+    void identicalUploadsAreStoredOnce() throws IOException {
+        LocalCvStorage store = new LocalCvStorage(root, LocalCvStorage.FsyncPolicy.DATA);
+        CvStorage.StoredCv first = store.put(new ByteArrayInputStream(CV), "a.pdf", 1024);
+        CvStorage.StoredCv second = store.put(new ByteArrayInputStream(CV), "b.pdf", 1024);
+        assertEquals(first.getKey(), second.getKey());
+        assertTrue(second.isDeduplicated());
+        try (Stream<Path> staged = Files.list(root.resolve(".staging"))){
+            assertEquals(0, staged.count(), "staging files are cleaned up");
+        }
+    }
+
+    @Test
+    void oversizedUploadsFailAndLeaveNothingBehind() throws IOException {
+        LocalCvStorage store = new LocalCvStorage(root, LocalCvStorage.FsyncPolicy.NONE);
+        assertThrows(IOException.class, () -> store.put(new ByteArrayInputStream(CV), "a.pdf", CV.length - 1));
+        try (Stream<Path> all = Files.walk(root)){
+            assertEquals(0, all.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void rangesStatAndDelete() throws IOException {
+        LocalCvStorage store = new LocalCvStorage(root, LocalCvStorage.FsyncPolicy.NONE);
+        String key = store.put(new ByteArrayInputStream(CV), "cv.txt", 1024).getKey();
+
+        try (InputStream in = store.open(key, 9, 4)){
+            assertEquals("Java", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        try (InputStream in = store.open(key, 0, -1)){
+            assertArrayEquals(CV, in.readAllBytes());
+        }
+        CvStorage.CvObject stat = store.stat(key).orElseThrow();
+        assertEquals(CV.length, stat.getSize());
+        assertEquals("\"" + sha256(CV) + "\"", stat.getEtag());
+        assertEquals("text/plain; charset=UTF-8", stat.getContentType());
+
+        store.delete(key);
+        assertTrue(store.stat(key).isEmpty());
+    }
+
+    @Test
+    void onlyStorageKeysAreResolved(){
+        assertTrue(CvStorage.isKey(sha256(CV) + ".pdf"));
+        assertFalse(CvStorage.isKey("uploads/cvs/ab/cd/" + sha256(CV)));
+        assertFalse(CvStorage.isKey("../" + sha256(CV)));
+        assertEquals("", HashingSpool.extension("cv.tar.gz/../../x"));
+        assertEquals("", HashingSpool.extension("noextension"));
+        assertEquals(".docx", HashingSpool.extension("CV.DOCX"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.ats.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Incremental re-screening: pending requests for one job coalesce into a single task, tasks run by priority
+ * then age, and sections are matched by a content hash.
+ */
+class ScreeningEngineQueueTest {
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ThreadPoolExecutor coordinator;
+    private ScreeningEngine engine;
+
+    @BeforeEach
+    void blockCoordinator(){
+        coordinator = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>());
+        // the first task goes straight to the only thread, so everything enqueued afterwards waits in the queue
+        coordinator.execute(() -> {
+            try { release.await(); } catch (InterruptedException e){ Thread.currentThread().interrupt(); }
+        });
+        engine = new ScreeningEngine(coordinator);
+    }
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        coordinator.shutdownNow();
+        release.countDown();
+        coordinator.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void requestsForAQueuedJobWidenTheWaitingTask(){
+        ScreeningEngine.Progress first = engine.applicationsSubmitted(1L);
+        ScreeningEngine.Progress second = engine.jobDescriptionsChanged(1L);
+        ScreeningEngine.Progress third = engine.applicationTextChanged(1L, List.of(10L, 11L));
+
+        assertSame(first, second);
+        assertSame(first, third);
+        assertSame(first, engine.progress(1L));
+        assertEquals("queued", first.getState());
+
+        List<ScreeningEngine.Task> tasks = drain();
+        assertEquals(1, tasks.size());
+        ScreeningEngine.Task t = tasks.get(0);
+        assertTrue(t.jdChanged);
+        assertFalse(t.full);
+        assertEquals(Set.of(10L, 11L), t.textChanged);
+    }
+
+    @Test
+    void rescreenMakesTheWaitingTaskFull(){
+        engine.applicationsSubmitted(1L);
+        engine.rescreen(1L);
+        ScreeningEngine.Task t = drain().get(0);
+        assertTrue(t.jdChanged);
+        assertTrue(t.full);
+    }
+
+    @Test
+    void tasksRunByPriorityThenAge(){
+        engine.rescreen(1L);                  // jd change
+        engine.applicationsSubmitted(2L);     // submission
+        engine.jobDescriptionsChanged(3L);    // jd change, newer than job 1
+        engine.applicationsSubmitted(4L);     // submission, newer than job 2
+
+        List<Long> order = new ArrayList<>();
+        for (ScreeningEngine.Task t : drain()) order.add(t.jobId);
+        assertEquals(List.of(2L, 4L, 1L, 3L), order);
+    }
+
+    @Test
+    void nullJobsAndEmptyTextChangesAreIgnored(){
+        assertNull(engine.jobDescriptionsChanged(null));
+        assertNull(engine.applicationTextChanged(1L, List.of()));
+        assertTrue(drain().isEmpty());
+    }
+
+    @Test
+    void sectionHashIgnoresSurroundingWhitespaceOnly(){
+        String h = ScreeningEngine.sectionHash("Skills", "Java and SQL");
+        assertEquals(h, ScreeningEngine.sectionHash("  Skills ", "Java and SQL\n"));
+        assertNotEquals(h, ScreeningEngine.sectionHash("Skills", "Java and SQL."));
+        assertNotEquals(h, ScreeningEngine.sectionHash("Requirements", "Java and SQL"));
+        assertNotEquals(ScreeningEngine.sectionHash("ab", "c"), ScreeningEngine.sectionHash("a", "bc"));
+    }
+
+    private List<ScreeningEngine.Task> drain(){
+        List<Runnable> waiting = new ArrayList<>();
+        coordinator.getQueue().drainTo(waiting);
+        List<ScreeningEngine.Task> out = new ArrayList<>();
+        for (Runnable r : waiting) out.add((ScreeningEngine.Task) r);
+        return out;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.ats.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/** Section-weighted BM25 scoring, without the database. */
+class ScreeningEngineScoringTest {
+
+    private static ScreeningEngine.Section section(String title, double weight, String text){
+        return new ScreeningEngine.Section(ScreeningEngine.sectionHash(title, text), title, weight,
+                TermVectors.termFrequencies(title + " " + text));
+    }
+
+    private static ScreeningEngine.JobModel model(List<ScreeningEngine.Section> sections, String... texts){
+        ScreeningEngine.DocCache cache = new ScreeningEngine.DocCache();
+        for (int i = 0; i < texts.length; i++){
+            cache.put(new ScreeningEngine.Doc(i + 1, TermVectors.termFrequencies(texts[i]), cache));
+        }
+        ScreeningEngine.JobModel model = new ScreeningEngine.JobModel("fp", sections, cache);
+        model.stats = ScreeningEngine.CorpusStats.of(List.copyOf(cache.docs.values()), cache);
+        return model;
+    }
+
+    @Test
+    void bm25IsNormalisedAndRewardsMatchingTerms(){
+        ScreeningEngine.Section skills = section("Skills", 1.0, "java kotlin postgres");
+        ScreeningEngine.JobModel model = model(List.of(skills),
+                "java kotlin postgres developer",
+                "java developer",
+                "pastry chef and baker",
+                "java java java kotlin kotlin postgres postgres developer");
+        double full = ScreeningEngine.bm25(skills, model.cache.docs.get(1L), model);
+        double partial = ScreeningEngine.bm25(skills, model.cache.docs.get(2L), model);
+        double none = ScreeningEngine.bm25(skills, model.cache.docs.get(3L), model);
+        double repeated = ScreeningEngine.bm25(skills, model.cache.docs.get(4L), model);
+
+        assertEquals(0.0, none);
+        assertTrue(partial > 0 && partial < full, partial + " vs " + full);
+        assertTrue(repeated > full, repeated + " vs " + full);
+        assertTrue(repeated < 1.0, "saturates below the bound: " + repeated);
+    }
+
+    @Test
+    void combineWeighsSectionsAndFlagsHeavyMisses(){
+        ScreeningEngine.Section skills = section("Skills", 0.75, "java");
+        ScreeningEngine.Section perks = section("Perks", 0.25, "remote");
+        ScreeningEngine.JobModel model = model(List.of(skills, perks), "java");
+
+        ScreeningEngine.Result r = ScreeningEngine.combine(9, 100, Map.of(skills.hash, 0.8), model);
+        assertEquals(9, r.applicationId);
+        assertEquals(new BigDecimal("60.00"), r.score);
+        assertEquals("[\"no_match:Perks\"]", r.redFlags);
+
+        ScreeningEngine.Result clean = ScreeningEngine.combine(9, 100, Map.of(skills.hash, 1.0, perks.hash, 0.5), model);
+        assertEquals(new BigDecimal("87.50"), clean.score);
+        assertNull(clean.redFlags);
+    }
+
+    @Test
+    void shortCvTextIsFlagged(){
+        ScreeningEngine.Section skills = section("Skills", 1.0, "java");
+        ScreeningEngine.JobModel model = model(List.of(skills), "java");
+        ScreeningEngine.Result r = ScreeningEngine.combine(1, 5, Map.of(skills.hash, 1.0), model);
+        assertEquals(new BigDecimal("100.00"), r.score);
+        assertEquals("[\"missing_cv_text\"]", r.redFlags);
+    }
+
+    @Test
+    void lightSectionsAreNotFlagged(){
+        ScreeningEngine.Section skills = section("Skills", 0.9, "java");
+        ScreeningEngine.Section extras = section("Extras", 0.1, "golf");
+        ScreeningEngine.JobModel model = model(List.of(skills, extras), "java");
+        assertNull(ScreeningEngine.combine(1, 100, Map.of(skills.hash, 1.0), model).redFlags);
+    }
+}
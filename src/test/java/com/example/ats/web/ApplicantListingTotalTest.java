@@ -0,0 +1,29 @@
+package com.example.ats.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ApplicantListingTotalTest {
+    private static final Map<String, Long> COUNTS = new LinkedHashMap<>();
+    static {
+        COUNTS.put("submitted", 5L);
+        COUNTS.put("shortlisted", 3L);
+        COUNTS.put("rejected", 2L);
+    }
+
+    @Test
+    void unfilteredTotalCountsEveryStatus(){
+        assertEquals(10, ApplicationResource.filteredTotal(COUNTS, List.of()));
+    }
+
+    @Test
+    void filteredTotalCountsOnlyTheWantedStatuses(){
+        assertEquals(3, ApplicationResource.filteredTotal(COUNTS, List.of("shortlisted")));
+        assertEquals(7, ApplicationResource.filteredTotal(COUNTS, List.of("submitted", "rejected")));
+        assertEquals(0, ApplicationResource.filteredTotal(COUNTS, List.of("hired")));
+    }
+}
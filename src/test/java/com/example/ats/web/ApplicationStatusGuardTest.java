@@ -0,0 +1,42 @@
+package com.example.ats.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.ats.entity.ApplicationStatus;
+import jakarta.ws.rs.core.Response;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ApplicationStatusGuardTest {
+
+    @Test
+    void staleVersionIsAConflictWithTheCurrentState(){
+        Response r = ApplicationResource.conflict("under_review", 7, ApplicationStatus.SHORTLISTED, 5L);
+        assertEquals(409, r.getStatus());
+        Map<?, ?> body = (Map<?, ?>) r.getEntity();
+        assertEquals("under_review", body.get("applicationStatus"));
+        assertEquals(7L, body.get("version"));
+        assertTrue(body.get("reason").toString().contains("changed by someone else"), body.get("reason").toString());
+    }
+
+    @Test
+    void disallowedMoveIsAConflictNamingBothStates(){
+        Response r = ApplicationResource.conflict("hired", 3, ApplicationStatus.REJECTED, 3L);
+        assertEquals(409, r.getStatus());
+        assertEquals("Cannot move an application from hired to rejected", ((Map<?, ?>) r.getEntity()).get("reason"));
+    }
+
+    @Test
+    void missingVersionIsPreconditionRequired(){
+        assertEquals(428, ApplicationResource.versionRequired().getStatus());
+    }
+
+    @Test
+    void guardListsEverySourceAndTreatsNullAsSubmitted(){
+        assertEquals("a.status IN ('under_review', 'shortlisted', 'interview_invite')",
+                ApplicationResource.statusGuard("a.status", ApplicationStatus.INTERVIEW_INVITE));
+        String toReview = ApplicationResource.statusGuard("a.status", ApplicationStatus.UNDER_REVIEW);
+        assertEquals("(a.status IN ('submitted') OR a.status IS NULL)", toReview);
+        assertEquals("FALSE", ApplicationResource.statusGuard("a.status", ApplicationStatus.SUBMITTED));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.ats.web;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.ats.dto.JobCreateRequest;
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/** Limits on job create payloads, for JSON bodies and CSV rows alike. */
+class JobPayloadsTest {
+
+    private static JobCreateRequest parse(String json) throws Exception {
+        return JobPayloads.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String jds(int n){
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < n; i++) sb.append(i == 0 ? "" : ",").append("{\"title\":\"T").append(i).append("\",\"weight\":1}");
+        return sb.append(']').toString();
+    }
+
+    @Test
+    void parsesKnownFieldsAndSkipsUnknownOnes() throws Exception {
+        JobCreateRequest r = parse("{\"job_title\":\"Engineer\",\"salary_min\":\"1000.50\",\"managed_by_manager_id\":7,"
+                + "\"extra\":{\"nested\":[1,2]},\"jds\":[{\"title\":\"Skills\",\"description\":\"Java\",\"weight\":0.5},null]}");
+        assertEquals("Engineer", r.getJob_title());
+        assertEquals(new BigDecimal("1000.50"), r.getSalary_min());
+        assertEquals(7L, r.getManaged_by_manager_id());
+        assertEquals(1, r.getJds().size());
+        assertEquals(0.5, r.getJds().get(0).getWeight());
+    }
+
+    @Test
+    void acceptsExactlyMaxJds() throws Exception {
+        assertEquals(JobPayloads.MAX_JDS, parse("{\"jds\":" + jds(JobPayloads.MAX_JDS) + "}").getJds().size());
+        JobPayloads.PayloadException e = assertThrows(JobPayloads.PayloadException.class,
+                () -> parse("{\"jds\":" + jds(JobPayloads.MAX_JDS + 1) + "}"));
+        assertTrue(e.getMessage().startsWith("Too many job descriptions"), e.getMessage());
+    }
+
+    @Test
+    void shortFieldsAreCappedAtMaxShortChars() throws Exception {
+        String ok = "x".repeat(JobPayloads.MAX_SHORT_CHARS);
+        assertEquals(ok, parse("{\"department\":\"" + ok + "\"}").getDepartment());
+        JobPayloads.PayloadException e = assertThrows(JobPayloads.PayloadException.class,
+                () -> parse("{\"department\":\"" + ok + "x\"}"));
+        assertEquals("department is too long (max " + JobPayloads.MAX_SHORT_CHARS + " characters)", e.getMessage());
+    }
+
+    @Test
+    void textFieldsAreCappedAtMaxTextChars() throws Exception {
+        String ok = "x".repeat(JobPayloads.MAX_TEXT_CHARS);
+        assertEquals(ok, parse("{\"description_summary\":\"" + ok + "\"}").getDescription_summary());
+        JobPayloads.PayloadException e = assertThrows(JobPayloads.PayloadException.class,
+                () -> parse("{\"description_summary\":\"" + ok + "x\"}"));
+        assertEquals("description_summary is too long (max " + JobPayloads.MAX_TEXT_CHARS + " characters)", e.getMessage());
+        // well past the limit the parser gives up while buffering, before the whole string is read
+        String huge = "x".repeat(JobPayloads.MAX_TEXT_CHARS * 5);
+        assertThrows(StreamConstraintsException.class, () -> parse("{\"description_summary\":\"" + huge + "\"}"));
+    }
+
+    @Test
+    void rejectsMalformedShapes(){
+        assertThrows(JobPayloads.PayloadException.class, () -> parse("[]"));
+        assertThrows(JobPayloads.PayloadException.class, () -> parse("{\"jds\":{}}"));
+        assertThrows(JobPayloads.PayloadException.class, () -> parse("{\"salary_max\":\"lots\"}"));
+        assertThrows(JobPayloads.PayloadException.class, () -> parse("{\"managed_by_manager_id\":1.5}"));
+        assertThrows(JobPayloads.PayloadException.class, () -> parse("{\"job_title\":\"a\"} {}"));
+    }
+
+    @Test
+    void limitedStreamFailsPastMaxBodyBytes() throws IOException {
+        int max = (int) JobPayloads.MAX_BODY_BYTES;
+        try (InputStream in = JobPayloads.limited(new ByteArrayInputStream(new byte[max]))){
+            assertEquals(max, in.readAllBytes().length);
+        }
+        try (InputStream in = JobPayloads.limited(new ByteArrayInputStream(new byte[max + 1]))){
+            assertThrows(JobPayloads.PayloadTooLarge.class, in::readAllBytes);
+        }
+    }
+
+    @Test
+    void csvRowsFollowTheSameLimits() throws Exception {
+        Map<String, String> row = new HashMap<>();
+        row.put("job_title", "Engineer");
+        row.put("salary_min", "");
+        row.put("jd1_title", "Skills");
+        row.put("jd1_weight", "2");
+        row.put("jd2_title", "");
+        row.put("jd2_description", "");
+        JobCreateRequest r = JobPayloads.fromCsv(row);
+        assertNull(r.getSalary_min());
+        assertEquals(1, r.getJds().size());
+        assertEquals(2.0, r.getJds().get(0).getWeight());
+
+        row.put("location", "x".repeat(JobPayloads.MAX_SHORT_CHARS + 1));
+        assertThrows(JobPayloads.PayloadException.class, () -> JobPayloads.fromCsv(row));
+
+        Map<String, String> many = new HashMap<>();
+        for (int n = 1; n <= JobPayloads.MAX_JDS + 1; n++) many.put("jd" + n + "_title", "T" + n);
+        assertThrows(JobPayloads.PayloadException.class, () -> JobPayloads.fromCsv(many));
+    }
+}